@@ -6,9 +6,9 @@
  */
 package com.powsybl.action.dsl;
 
-import com.powsybl.action.dsl.ast.ExpressionNode;
+import com.powsybl.action.dsl.ast.*;
 
-import java.util.Objects;
+import java.util.*;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -17,6 +17,12 @@ public class ExpressionCondition implements Condition {
 
     private final ExpressionNode node;
 
+    private volatile CompiledExpression compiledNode;
+
+    private volatile Map<String, CompiledExpression> compiledVariables;
+
+    private volatile Set<String> actionTakenIds;
+
     public ExpressionCondition(ExpressionNode node) {
         this.node = Objects.requireNonNull(node);
     }
@@ -29,4 +35,44 @@ public class ExpressionCondition implements Condition {
     public ExpressionNode getNode() {
         return node;
     }
+
+    /**
+     * Get the compiled expression, compiled at first call and then reused for all the evaluations of the condition.
+     */
+    public CompiledExpression getCompiledNode() {
+        CompiledExpression compiled = compiledNode;
+        if (compiled == null) {
+            compiled = ExpressionCompiler.compile(node);
+            compiledNode = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Get the compiled network variables of the expression, sorted by their printed form.
+     */
+    public Map<String, CompiledExpression> getCompiledVariables() {
+        Map<String, CompiledExpression> compiled = compiledVariables;
+        if (compiled == null) {
+            Map<String, CompiledExpression> variables = new TreeMap<>();
+            for (NetworkNode variable : ExpressionVariableLister.list(node)) {
+                variables.computeIfAbsent(ExpressionPrinter.toString(variable), k -> ExpressionCompiler.compile(variable));
+            }
+            compiled = Collections.unmodifiableMap(variables);
+            compiledVariables = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Get the sorted ids of the actions the expression checks with {@code actionTaken}.
+     */
+    public Set<String> getActionTakenIds() {
+        Set<String> ids = actionTakenIds;
+        if (ids == null) {
+            ids = Collections.unmodifiableSet(new TreeSet<>(ExpressionActionTakenLister.list(node)));
+            actionTakenIds = ids;
+        }
+        return ids;
+    }
 }
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+/**
+ * An expression compiled by {@link ExpressionCompiler}, which can be evaluated many times on different networks.
+ * <p>
+ * Numeric and boolean sub-expressions are evaluated with primitive types, values are only boxed by
+ * {@link #evaluate(EvaluationContext)}, which returns the same values as {@link ExpressionEvaluator}.
+ *
+ * @author agent <agent at local>
+ */
+public abstract class CompiledExpression {
+
+    public abstract Object evaluate(EvaluationContext context);
+
+    /**
+     * Check if the expression evaluates to true, as a rule condition.
+     */
+    public boolean isTrue(EvaluationContext context) {
+        return Boolean.TRUE.equals(evaluate(context));
+    }
+
+    /**
+     * Raised when an operand does not have the expected type. The operator evaluates its other operands before
+     * reporting the error, so that errors are the same as with {@link ExpressionEvaluator}.
+     */
+    static final class InvalidOperandException extends RuntimeException {
+
+        private final transient Object value;
+
+        InvalidOperandException(Object value) {
+            super(null, null, false, false);
+            this.value = value;
+        }
+
+        Object getValue() {
+            return value;
+        }
+    }
+
+    double evaluateDouble(EvaluationContext context) {
+        Object value = evaluate(context);
+        if (!(value instanceof Number)) {
+            throw new InvalidOperandException(value);
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    boolean evaluateBoolean(EvaluationContext context) {
+        Object value = evaluate(context);
+        if (!(value instanceof Boolean)) {
+            throw new InvalidOperandException(value);
+        }
+        return (Boolean) value;
+    }
+}
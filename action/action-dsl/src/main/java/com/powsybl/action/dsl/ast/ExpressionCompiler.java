@@ -0,0 +1,722 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import com.powsybl.action.dsl.GroovyUtil;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.iidm.network.Identifiable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Compile an expression tree into a {@link CompiledExpression}.
+ * <p>
+ * Network properties and methods are resolved once per class to a method handle, instead of a Groovy dynamic call
+ * at each evaluation. Properties and methods which are not a public Java method (added by Groovy for instance) are
+ * still called through Groovy. Network components are looked up at each evaluation, as they can be removed from and
+ * added again to the network. Loading rank and most loaded nodes are evaluated by {@link ExpressionEvaluator}.
+ * <p>
+ * Operands are evaluated and checked in the same order and with the same error messages than
+ * {@link ExpressionEvaluator}.
+ *
+ * @author agent <agent at local>
+ */
+public class ExpressionCompiler implements ExpressionVisitor<CompiledExpression, Void> {
+
+    private static final String LEFT_COMPARISON_OPERAND = "Left operand of comparison";
+    private static final String RIGHT_COMPARISON_OPERAND = "Right operand of comparison";
+    private static final String LEFT_ARITHMETIC_OPERAND = "Left operand of arithmetic operation";
+    private static final String RIGHT_ARITHMETIC_OPERAND = "Right operand of arithmetic operation";
+    private static final String NOT_OPERAND = "Operand of not operator";
+    private static final String NUMBER = "number";
+    private static final String BOOLEAN = "boolean";
+
+    public static CompiledExpression compile(ExpressionNode node) {
+        return node.accept(new ExpressionCompiler(), null);
+    }
+
+    private static PowsyblException invalidOperand(String operand, String type) {
+        return new PowsyblException(operand + " should return a " + type);
+    }
+
+    private abstract static class AbstractBooleanExpression extends CompiledExpression {
+
+        @Override
+        abstract boolean evaluateBoolean(EvaluationContext context);
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            return evaluateBoolean(context);
+        }
+
+        @Override
+        public boolean isTrue(EvaluationContext context) {
+            return evaluateBoolean(context);
+        }
+    }
+
+    private abstract static class AbstractDoubleExpression extends CompiledExpression {
+
+        @Override
+        abstract double evaluateDouble(EvaluationContext context);
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            return evaluateDouble(context);
+        }
+    }
+
+    private static final class LiteralExpression extends CompiledExpression {
+
+        private final Object value;
+
+        private LiteralExpression(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            return value;
+        }
+    }
+
+    private static final class NumberLiteralExpression extends CompiledExpression {
+
+        private final Number value;
+
+        private final double doubleValue;
+
+        private NumberLiteralExpression(Number value) {
+            this.value = Objects.requireNonNull(value);
+            doubleValue = value.doubleValue();
+        }
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            return value;
+        }
+
+        @Override
+        double evaluateDouble(EvaluationContext context) {
+            return doubleValue;
+        }
+    }
+
+    private static final class BooleanLiteralExpression extends AbstractBooleanExpression {
+
+        private final boolean value;
+
+        private BooleanLiteralExpression(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            return value;
+        }
+    }
+
+    private static final class NetworkComponentExpression extends CompiledExpression {
+
+        private final String componentId;
+
+        private NetworkComponentExpression(String componentId) {
+            this.componentId = Objects.requireNonNull(componentId);
+        }
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            Identifiable identifiable = context.getNetwork().getIdentifiable(componentId);
+            if (identifiable == null) {
+                throw new PowsyblException("Network component '" + componentId + "' not found");
+            }
+            return identifiable;
+        }
+    }
+
+    /**
+     * A property getter or a method call with constant arguments resolved for a given class, handles are
+     * null if the member is not a public Java method.
+     */
+    private static final class Accessor {
+
+        private final Class<?> type;
+
+        private final MethodHandle objectHandle;
+
+        private final MethodHandle doubleHandle;
+
+        private final MethodHandle booleanHandle;
+
+        private Accessor(Class<?> type, Method method, Object[] args) {
+            this.type = type;
+            if (method != null) {
+                MethodHandle handle;
+                try {
+                    handle = MethodHandles.publicLookup().unreflect(method);
+                } catch (IllegalAccessException e) {
+                    throw new PowsyblException(e);
+                }
+                if (args.length > 0) {
+                    handle = MethodHandles.insertArguments(handle, 1, args);
+                }
+                Class<?> returnType = method.getReturnType();
+                objectHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+                doubleHandle = returnType.isPrimitive() && returnType != boolean.class && returnType != char.class && returnType != void.class
+                        ? handle.asType(MethodType.methodType(double.class, Object.class)) : null;
+                booleanHandle = returnType == boolean.class ? handle.asType(MethodType.methodType(boolean.class, Object.class)) : null;
+            } else {
+                objectHandle = null;
+                doubleHandle = null;
+                booleanHandle = null;
+            }
+        }
+    }
+
+    private static RuntimeException propagate(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new PowsyblException(t);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static boolean isCompatible(Class<?>[] parameterTypes, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            Class<?> wrappedType = MethodType.methodType(parameterType).wrap().returnType();
+            if (args[i] == null ? parameterType.isPrimitive() : !wrappedType.isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find a public method in public super types of a class, as the class of a network object is usually a non
+     * public implementation.
+     */
+    private static Method findMethod(Class<?> type, String name, Object[] args) {
+        Deque<Class<?>> types = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        types.add(type);
+        while (!types.isEmpty()) {
+            Class<?> t = types.poll();
+            if (!visited.add(t)) {
+                continue;
+            }
+            if (Modifier.isPublic(t.getModifiers())) {
+                for (Method method : t.getMethods()) {
+                    if (method.getName().equals(name)
+                            && !Modifier.isStatic(method.getModifiers())
+                            && method.getParameterCount() == args.length
+                            && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                            && isCompatible(method.getParameterTypes(), args)) {
+                        return method;
+                    }
+                }
+            }
+            if (t.getSuperclass() != null) {
+                types.add(t.getSuperclass());
+            }
+            types.addAll(Arrays.asList(t.getInterfaces()));
+        }
+        return null;
+    }
+
+    private abstract static class AbstractMemberExpression extends CompiledExpression {
+
+        private final CompiledExpression parent;
+
+        private volatile Accessor accessor;
+
+        AbstractMemberExpression(CompiledExpression parent) {
+            this.parent = Objects.requireNonNull(parent);
+        }
+
+        abstract String getNullParentMessage();
+
+        abstract Method findMethod(Class<?> type);
+
+        abstract Object callWithGroovy(Object parentValue);
+
+        private Object evaluateParent(EvaluationContext context) {
+            Object parentValue = parent.evaluate(context);
+            if (parentValue == null) {
+                throw new PowsyblException(getNullParentMessage());
+            }
+            return parentValue;
+        }
+
+        private Accessor getAccessor(Object parentValue) {
+            Accessor a = accessor;
+            if (a == null || a.type != parentValue.getClass()) {
+                a = new Accessor(parentValue.getClass(), findMethod(parentValue.getClass()), getArgs());
+                accessor = a;
+            }
+            return a;
+        }
+
+        Object[] getArgs() {
+            return new Object[0];
+        }
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            Object parentValue = evaluateParent(context);
+            Accessor a = getAccessor(parentValue);
+            if (a.objectHandle == null) {
+                return callWithGroovy(parentValue);
+            }
+            try {
+                return (Object) a.objectHandle.invokeExact(parentValue);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        @Override
+        double evaluateDouble(EvaluationContext context) {
+            Object parentValue = evaluateParent(context);
+            Accessor a = getAccessor(parentValue);
+            if (a.doubleHandle == null) {
+                Object value = a.objectHandle != null ? invoke(a, parentValue) : callWithGroovy(parentValue);
+                if (!(value instanceof Number)) {
+                    throw new InvalidOperandException(value);
+                }
+                return ((Number) value).doubleValue();
+            }
+            try {
+                return (double) a.doubleHandle.invokeExact(parentValue);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            Object parentValue = evaluateParent(context);
+            Accessor a = getAccessor(parentValue);
+            if (a.booleanHandle == null) {
+                Object value = a.objectHandle != null ? invoke(a, parentValue) : callWithGroovy(parentValue);
+                if (!(value instanceof Boolean)) {
+                    throw new InvalidOperandException(value);
+                }
+                return (Boolean) value;
+            }
+            try {
+                return (boolean) a.booleanHandle.invokeExact(parentValue);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        private static Object invoke(Accessor a, Object parentValue) {
+            try {
+                return (Object) a.objectHandle.invokeExact(parentValue);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    private static final class NetworkPropertyExpression extends AbstractMemberExpression {
+
+        private final String propertyName;
+
+        private NetworkPropertyExpression(CompiledExpression parent, String propertyName) {
+            super(parent);
+            this.propertyName = Objects.requireNonNull(propertyName);
+        }
+
+        @Override
+        String getNullParentMessage() {
+            return "Cannot call a property '" + propertyName + "' on a null object";
+        }
+
+        @Override
+        Method findMethod(Class<?> type) {
+            Method getter = ExpressionCompiler.findMethod(type, "get" + capitalize(propertyName), getArgs());
+            if (getter == null) {
+                getter = ExpressionCompiler.findMethod(type, "is" + capitalize(propertyName), getArgs());
+                if (getter != null && getter.getReturnType() != boolean.class) {
+                    getter = null;
+                }
+            }
+            return getter;
+        }
+
+        @Override
+        Object callWithGroovy(Object parentValue) {
+            return GroovyUtil.callProperty(parentValue, propertyName);
+        }
+    }
+
+    private static final class NetworkMethodExpression extends AbstractMemberExpression {
+
+        private final String methodName;
+
+        private final Object[] args;
+
+        private NetworkMethodExpression(CompiledExpression parent, String methodName, Object[] args) {
+            super(parent);
+            this.methodName = Objects.requireNonNull(methodName);
+            this.args = Objects.requireNonNull(args).clone();
+        }
+
+        @Override
+        String getNullParentMessage() {
+            return "Cannot call a method '" + methodName + "' on a null object";
+        }
+
+        @Override
+        Object[] getArgs() {
+            return args;
+        }
+
+        @Override
+        Method findMethod(Class<?> type) {
+            return ExpressionCompiler.findMethod(type, methodName, args);
+        }
+
+        @Override
+        Object callWithGroovy(Object parentValue) {
+            return GroovyUtil.callMethod(parentValue, methodName, args);
+        }
+    }
+
+    private static final class ComparisonExpression extends AbstractBooleanExpression {
+
+        private final CompiledExpression left;
+
+        private final CompiledExpression right;
+
+        private final ComparisonOperator operator;
+
+        private ComparisonExpression(CompiledExpression left, CompiledExpression right, ComparisonOperator operator) {
+            this.left = Objects.requireNonNull(left);
+            this.right = Objects.requireNonNull(right);
+            this.operator = Objects.requireNonNull(operator);
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            // like the interpreter, both operands are evaluated before their types are checked
+            double value1 = 0;
+            double value2 = 0;
+            boolean valid1 = true;
+            boolean valid2 = true;
+            try {
+                value1 = left.evaluateDouble(context);
+            } catch (InvalidOperandException e) {
+                valid1 = false;
+            }
+            try {
+                value2 = right.evaluateDouble(context);
+            } catch (InvalidOperandException e) {
+                valid2 = false;
+            }
+            if (!valid1) {
+                throw invalidOperand(LEFT_COMPARISON_OPERAND, NUMBER);
+            }
+            if (!valid2) {
+                throw invalidOperand(RIGHT_COMPARISON_OPERAND, NUMBER);
+            }
+            switch (operator) {
+                case EQUALS:
+                    return value1 == value2;
+                case NOT_EQUALS:
+                    return value1 != value2;
+                case GREATER_THAN:
+                    return value1 > value2;
+                case LESS_THAN:
+                    return value1 < value2;
+                case GREATER_THAN_OR_EQUALS_TO:
+                    return value1 >= value2;
+                case LESS_THAN_OR_EQUALS_TO:
+                    return value1 <= value2;
+                default:
+                    throw new AssertionError();
+            }
+        }
+    }
+
+    private static final class LogicalExpression extends AbstractBooleanExpression {
+
+        private final CompiledExpression left;
+
+        private final CompiledExpression right;
+
+        private final LogicalBinaryOperator operator;
+
+        private LogicalExpression(CompiledExpression left, CompiledExpression right, LogicalBinaryOperator operator) {
+            this.left = Objects.requireNonNull(left);
+            this.right = Objects.requireNonNull(right);
+            this.operator = Objects.requireNonNull(operator);
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            // like the interpreter, both operands are evaluated before their types are checked
+            boolean value1 = false;
+            boolean value2 = false;
+            boolean valid1 = true;
+            boolean valid2 = true;
+            try {
+                value1 = left.evaluateBoolean(context);
+            } catch (InvalidOperandException e) {
+                valid1 = false;
+            }
+            try {
+                value2 = right.evaluateBoolean(context);
+            } catch (InvalidOperandException e) {
+                valid2 = false;
+            }
+            if (!valid1) {
+                throw invalidOperand(LEFT_COMPARISON_OPERAND, BOOLEAN);
+            }
+            if (!valid2) {
+                throw invalidOperand(RIGHT_COMPARISON_OPERAND, BOOLEAN);
+            }
+            switch (operator) {
+                case AND:
+                    return value1 && value2;
+                case OR:
+                    return value1 || value2;
+                default:
+                    throw new AssertionError();
+            }
+        }
+    }
+
+    private static final class NotExpression extends AbstractBooleanExpression {
+
+        private final CompiledExpression child;
+
+        private NotExpression(CompiledExpression child) {
+            this.child = Objects.requireNonNull(child);
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            try {
+                return !child.evaluateBoolean(context);
+            } catch (InvalidOperandException e) {
+                throw invalidOperand(NOT_OPERAND, BOOLEAN);
+            }
+        }
+    }
+
+    private static final class ArithmeticExpression extends AbstractDoubleExpression {
+
+        private final CompiledExpression left;
+
+        private final CompiledExpression right;
+
+        private final ArithmeticBinaryOperator operator;
+
+        private ArithmeticExpression(CompiledExpression left, CompiledExpression right, ArithmeticBinaryOperator operator) {
+            this.left = Objects.requireNonNull(left);
+            this.right = Objects.requireNonNull(right);
+            this.operator = Objects.requireNonNull(operator);
+        }
+
+        private static PowsyblException invalidOperand(String operand, InvalidOperandException e) {
+            // the interpreter also prints the class of the invalid value
+            return ExpressionCompiler.invalidOperand(operand, NUMBER + " (" + e.getValue().getClass() + ")");
+        }
+
+        @Override
+        double evaluateDouble(EvaluationContext context) {
+            // like the interpreter, both operands are evaluated before their types are checked
+            double value1 = 0;
+            double value2 = 0;
+            InvalidOperandException invalid1 = null;
+            InvalidOperandException invalid2 = null;
+            try {
+                value1 = left.evaluateDouble(context);
+            } catch (InvalidOperandException e) {
+                invalid1 = e;
+            }
+            try {
+                value2 = right.evaluateDouble(context);
+            } catch (InvalidOperandException e) {
+                invalid2 = e;
+            }
+            if (invalid1 != null) {
+                throw invalidOperand(LEFT_ARITHMETIC_OPERAND, invalid1);
+            }
+            if (invalid2 != null) {
+                throw invalidOperand(RIGHT_ARITHMETIC_OPERAND, invalid2);
+            }
+            switch (operator) {
+                case PLUS:
+                    return value1 + value2;
+                case MINUS:
+                    return value1 - value2;
+                case MULTIPLY:
+                    return value1 * value2;
+                case DIVIDE:
+                    return value1 / value2;
+                default:
+                    throw new AssertionError();
+            }
+        }
+    }
+
+    private static final class ActionTakenExpression extends AbstractBooleanExpression {
+
+        private final String actionId;
+
+        private ActionTakenExpression(String actionId) {
+            this.actionId = actionId;
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            return context.isActionTaken(actionId);
+        }
+    }
+
+    private static final class ContingencyOccurredExpression extends AbstractBooleanExpression {
+
+        private final String contingencyId;
+
+        private ContingencyOccurredExpression(String contingencyId) {
+            this.contingencyId = contingencyId;
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            return context.getContingency() != null &&
+                    (contingencyId == null || context.getContingency().getId().equals(contingencyId));
+        }
+    }
+
+    private static final class IsOverloadedExpression extends AbstractBooleanExpression {
+
+        private final List<String> branchIds;
+
+        private final float limitReduction;
+
+        private IsOverloadedExpression(List<String> branchIds, float limitReduction) {
+            this.branchIds = new ArrayList<>(branchIds);
+            this.limitReduction = limitReduction;
+        }
+
+        @Override
+        boolean evaluateBoolean(EvaluationContext context) {
+            // iterate over all the branch ids to be sure that all the branches exist in the network
+            boolean overloaded = false;
+            for (String branchId : branchIds) {
+                Branch branch = context.getNetwork().getBranch(branchId);
+                if (branch == null) {
+                    throw new PowsyblException("Branch '" + branchId + "' not found");
+                }
+                overloaded |= branch.isOverloaded(limitReduction);
+            }
+            return overloaded;
+        }
+    }
+
+    private static final class InterpretedExpression extends CompiledExpression {
+
+        private final ExpressionNode node;
+
+        private InterpretedExpression(ExpressionNode node) {
+            this.node = Objects.requireNonNull(node);
+        }
+
+        @Override
+        public Object evaluate(EvaluationContext context) {
+            return ExpressionEvaluator.evaluate(node, context);
+        }
+    }
+
+    @Override
+    public CompiledExpression visitLiteral(AbstractLiteralNode node, Void arg) {
+        Object value = node.getValue();
+        if (value instanceof Boolean) {
+            return new BooleanLiteralExpression((Boolean) value);
+        } else if (value instanceof Number) {
+            return new NumberLiteralExpression((Number) value);
+        }
+        return new LiteralExpression(value);
+    }
+
+    @Override
+    public CompiledExpression visitNetworkComponent(NetworkComponentNode node, Void arg) {
+        return new NetworkComponentExpression(node.getComponentId());
+    }
+
+    @Override
+    public CompiledExpression visitNetworkProperty(NetworkPropertyNode node, Void arg) {
+        return new NetworkPropertyExpression(node.getParent().accept(this, arg), node.getPropertyName());
+    }
+
+    @Override
+    public CompiledExpression visitNetworkMethod(NetworkMethodNode node, Void arg) {
+        return new NetworkMethodExpression(node.getParent().accept(this, arg), node.getMethodName(), node.getArgs());
+    }
+
+    @Override
+    public CompiledExpression visitComparisonOperator(ComparisonOperatorNode node, Void arg) {
+        return new ComparisonExpression(node.getLeft().accept(this, arg), node.getRight().accept(this, arg), node.getOperator());
+    }
+
+    @Override
+    public CompiledExpression visitLogicalOperator(LogicalBinaryOperatorNode node, Void arg) {
+        return new LogicalExpression(node.getLeft().accept(this, arg), node.getRight().accept(this, arg), node.getOperator());
+    }
+
+    @Override
+    public CompiledExpression visitArithmeticOperator(ArithmeticBinaryOperatorNode node, Void arg) {
+        return new ArithmeticExpression(node.getLeft().accept(this, arg), node.getRight().accept(this, arg), node.getOperator());
+    }
+
+    @Override
+    public CompiledExpression visitNotOperator(LogicalNotOperator node, Void arg) {
+        return new NotExpression(node.getChild().accept(this, arg));
+    }
+
+    @Override
+    public CompiledExpression visitActionTaken(ActionTakenNode node, Void arg) {
+        return new ActionTakenExpression(node.getActionId());
+    }
+
+    @Override
+    public CompiledExpression visitContingencyOccurred(ContingencyOccurredNode node, Void arg) {
+        return new ContingencyOccurredExpression(node.getContingencyId());
+    }
+
+    @Override
+    public CompiledExpression visitLoadingRank(LoadingRankNode node, Void arg) {
+        return new InterpretedExpression(node);
+    }
+
+    @Override
+    public CompiledExpression visitMostLoaded(MostLoadedNode node, Void arg) {
+        return new InterpretedExpression(node);
+    }
+
+    @Override
+    public CompiledExpression visitIsOverloaded(IsOverloadedNode node, Void arg) {
+        return new IsOverloadedExpression(node.getBranchIds(), node.getLimitReduction());
+    }
+}
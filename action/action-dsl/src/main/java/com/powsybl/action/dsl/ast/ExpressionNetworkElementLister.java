@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * List the ids of the network elements an expression reads: the components its network variables start from, and
+ * the branches compared by {@code loadingRank}, {@code mostLoaded} and {@code isOverloaded}.
+ *
+ * @author agent <agent at local>
+ */
+public class ExpressionNetworkElementLister extends DefaultExpressionVisitor<Void, Set<String>> {
+
+    private boolean complete = true;
+
+    /**
+     * Get the sorted ids of the network elements read by the expression, or null if some of them are only known
+     * at evaluation, as the branches of a {@code loadingRank} given by another expression than a string literal.
+     */
+    public static Set<String> list(ExpressionNode root) {
+        Set<String> elementIds = new TreeSet<>();
+        ExpressionNetworkElementLister lister = new ExpressionNetworkElementLister();
+        root.accept(lister, elementIds);
+        return lister.complete ? elementIds : null;
+    }
+
+    @Override
+    public Void visitNetworkComponent(NetworkComponentNode node, Set<String> elementIds) {
+        elementIds.add(node.getComponentId());
+        return null;
+    }
+
+    @Override
+    public Void visitLoadingRank(LoadingRankNode node, Set<String> elementIds) {
+        visitBranchId(node.getBranchIdToRankNode(), elementIds);
+        for (ExpressionNode branchId : node.getBranchIds()) {
+            visitBranchId(branchId, elementIds);
+        }
+        return null;
+    }
+
+    private void visitBranchId(ExpressionNode branchId, Set<String> elementIds) {
+        if (branchId instanceof StringLiteralNode) {
+            elementIds.add(((StringLiteralNode) branchId).getValue());
+        } else {
+            complete = false;
+            branchId.accept(this, elementIds);
+        }
+    }
+
+    @Override
+    public Void visitMostLoaded(MostLoadedNode node, Set<String> elementIds) {
+        elementIds.addAll(node.getBranchIds());
+        return null;
+    }
+
+    @Override
+    public Void visitIsOverloaded(IsOverloadedNode node, Set<String> elementIds) {
+        elementIds.addAll(node.getBranchIds());
+        return null;
+    }
+}
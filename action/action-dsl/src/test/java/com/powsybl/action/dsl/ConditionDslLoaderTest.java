@@ -47,10 +47,8 @@ public class ConditionDslLoaderTest {
         assertEquals(expected, ExpressionPrinter.toString(node));
     }
 
-    private void evalAndAssert(Object expected, String script) throws IOException {
-        ExpressionNode node = (ExpressionNode) new ConditionDslLoader(script).load(network);
-        assertNotNull(node);
-        assertEquals(expected, ExpressionEvaluator.evaluate(node, new EvaluationContext() {
+    private EvaluationContext createContext() {
+        return new EvaluationContext() {
             @Override
             public Network getNetwork() {
                 return network;
@@ -65,7 +63,55 @@ public class ConditionDslLoaderTest {
             public boolean isActionTaken(String actionId) {
                 return actionId.equals("action");
             }
-        }));
+        };
+    }
+
+    private void evalAndAssert(Object expected, String script) throws IOException {
+        ExpressionNode node = (ExpressionNode) new ConditionDslLoader(script).load(network);
+        assertNotNull(node);
+        EvaluationContext context = createContext();
+        assertEquals(expected, ExpressionEvaluator.evaluate(node, context));
+
+        // compiled expression has to give the same result, twice to check resolved components and accessors
+        CompiledExpression compiled = ExpressionCompiler.compile(node);
+        assertEquals(expected, compiled.evaluate(context));
+        assertEquals(expected, compiled.evaluate(context));
+        assertEquals(Boolean.TRUE.equals(expected), compiled.isTrue(context));
+    }
+
+    private ExpressionNode load(String script) {
+        ExpressionNode node = (ExpressionNode) new ConditionDslLoader(script).load(network);
+        assertNotNull(node);
+        return node;
+    }
+
+    private void evalAndAssertFailure(String expectedMessage, String script) {
+        evalAndAssertFailure(expectedMessage, load(script));
+    }
+
+    private void evalAndAssertFailure(String expectedMessage, ExpressionNode node) {
+        EvaluationContext context = createContext();
+        try {
+            ExpressionEvaluator.evaluate(node, context);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals(expectedMessage, e.getMessage());
+        }
+
+        // compiled expression has to fail with the same error
+        CompiledExpression compiled = ExpressionCompiler.compile(node);
+        try {
+            compiled.evaluate(context);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals(expectedMessage, e.getMessage());
+        }
+        try {
+            compiled.isTrue(context);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals(expectedMessage, e.getMessage());
+        }
     }
 
     @Test
@@ -413,6 +459,54 @@ public class ConditionDslLoaderTest {
         }
     }
 
+    @Test
+    public void testEvaluationFailure() {
+        evalAndAssertFailure("Left operand of arithmetic operation should return a number (class java.lang.Boolean)",
+                             "load('LOAD').terminal.connected + 1");
+        evalAndAssertFailure("Right operand of arithmetic operation should return a number (class java.lang.Boolean)",
+                             "1 * load('LOAD').terminal.connected");
+        evalAndAssertFailure("Left operand of comparison should return a number",
+                             "load('LOAD').terminal.connected > load('LOAD').terminal.connected");
+        evalAndAssertFailure("Right operand of comparison should return a number",
+                             "load('LOAD').p0 < load('LOAD').terminal.connected");
+        evalAndAssertFailure("Left operand of comparison should return a boolean", "load('LOAD').p0 && true");
+        evalAndAssertFailure("Right operand of comparison should return a boolean", "false || load('LOAD').p0");
+        evalAndAssertFailure("Operand of not operator should return a boolean", "!load('LOAD').p0");
+
+        // right operand is evaluated before the type of the left one is checked
+        ExpressionNode comparison = load("load('LOAD').terminal.connected > generator('GEN').targetP");
+        ExpressionNode arithmetic = load("load('LOAD').terminal.connected - generator('GEN').targetP");
+        ExpressionNode logical = load("load('LOAD').p0 || generator('GEN').terminal.connected");
+        network.getGenerator("GEN").remove();
+        evalAndAssertFailure("Network component 'GEN' not found", comparison);
+        evalAndAssertFailure("Network component 'GEN' not found", arithmetic);
+        evalAndAssertFailure("Network component 'GEN' not found", logical);
+    }
+
+    @Test
+    public void testCompiledExpressionComponentReplaced() {
+        CompiledExpression compiled = ExpressionCompiler.compile(load("load('LOAD').p0"));
+        EvaluationContext context = createContext();
+        assertEquals(600.0, compiled.evaluate(context));
+
+        // a component removed and added again has to be looked up again
+        network.getLoad("LOAD").remove();
+        try {
+            compiled.evaluate(context);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Network component 'LOAD' not found", e.getMessage());
+        }
+        network.getVoltageLevel("VLLOAD").newLoad()
+                .setId("LOAD")
+                .setBus("NLOAD")
+                .setConnectableBus("NLOAD")
+                .setP0(300.0)
+                .setQ0(100.0)
+                .add();
+        assertEquals(300.0, compiled.evaluate(context));
+    }
+
     @Test
     public void testExpressionVariableLister() {
         String script = "line('NHV1_NHV2_1').terminal1.p > 0 || line('NHV1_NHV2_1').getTerminal2().getP() > 0 && actionTaken('action1')";
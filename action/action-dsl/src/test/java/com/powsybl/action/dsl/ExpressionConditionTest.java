@@ -6,11 +6,15 @@
  */
 package com.powsybl.action.dsl;
 
-import com.powsybl.action.dsl.ast.BooleanLiteralNode;
+import com.powsybl.action.dsl.ast.*;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
@@ -23,6 +27,27 @@ public class ExpressionConditionTest {
 
         assertEquals(ConditionType.EXPRESSION, condition.getType());
         assertSame(BooleanLiteralNode.TRUE, condition.getNode());
+        assertSame(condition.getCompiledNode(), condition.getCompiledNode());
+        assertTrue(condition.getCompiledNode().isTrue(null));
+        assertTrue(condition.getCompiledVariables().isEmpty());
+        assertTrue(condition.getActionTakenIds().isEmpty());
+    }
+
+    @Test
+    public void testActionTakenIds() {
+        ExpressionNode node = ExpressionHelper.newLogicalBinaryOperator(
+                ExpressionHelper.newLogicalBinaryOperator(ExpressionHelper.newActionTaken("b"),
+                                                          ExpressionHelper.newIsOverloadedNode(Collections.singletonList("L1"), 1f),
+                                                          LogicalBinaryOperator.AND),
+                ExpressionHelper.newLogicalBinaryOperator(ExpressionHelper.newActionTaken("a"),
+                                                          ExpressionHelper.newActionTaken("b"),
+                                                          LogicalBinaryOperator.OR),
+                LogicalBinaryOperator.OR);
+        ExpressionCondition condition = new ExpressionCondition(node);
+
+        assertTrue(condition.getCompiledVariables().isEmpty());
+        assertSame(condition.getActionTakenIds(), condition.getActionTakenIds());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(condition.getActionTakenIds().toArray()));
     }
 
     @Test(expected = NullPointerException.class)
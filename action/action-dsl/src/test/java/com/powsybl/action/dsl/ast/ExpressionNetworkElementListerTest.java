@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent <agent at local>
+ */
+public class ExpressionNetworkElementListerTest {
+
+    private static NetworkPropertyNode newLineP1(String lineId) {
+        NetworkComponentNode line = ExpressionHelper.newNetworkComponent(lineId, NetworkComponentNode.ComponentType.LINE);
+        return ExpressionHelper.newNetworkProperty(ExpressionHelper.newNetworkProperty(line, "terminal1"), "p");
+    }
+
+    @Test
+    public void test() {
+        ExpressionNode node = ExpressionHelper.newLogicalBinaryOperator(
+                ExpressionHelper.newComparisonOperator(newLineP1("L2"), ExpressionHelper.newDoubleLiteral(100), ComparisonOperator.GREATER_THAN),
+                ExpressionHelper.newLogicalBinaryOperator(
+                        ExpressionHelper.newLogicalBinaryOperator(ExpressionHelper.newIsOverloadedNode(Collections.singletonList("L1"), 1f),
+                                                                  ExpressionHelper.newActionTaken("a"),
+                                                                  LogicalBinaryOperator.AND),
+                        ExpressionHelper.newComparisonOperator(ExpressionHelper.newLoadingRank(ExpressionHelper.newStringLiteral("L3"),
+                                                                                               Arrays.asList(ExpressionHelper.newStringLiteral("L3"), ExpressionHelper.newStringLiteral("L4"))),
+                                                               ExpressionHelper.newIntegerLiteral(1),
+                                                               ComparisonOperator.EQUALS),
+                        LogicalBinaryOperator.OR),
+                LogicalBinaryOperator.AND);
+
+        assertEquals(Arrays.asList("L1", "L2", "L3", "L4"), Arrays.asList(ExpressionNetworkElementLister.list(node).toArray()));
+        assertEquals(Arrays.asList("L5", "L6"), Arrays.asList(ExpressionNetworkElementLister.list(ExpressionHelper.newMostLoaded(Arrays.asList("L6", "L5"))).toArray()));
+        assertEquals(Collections.emptySet(), ExpressionNetworkElementLister.list(ExpressionHelper.newActionTaken("a")));
+    }
+
+    @Test
+    public void testBranchIdNotLiteral() {
+        ExpressionNode node = ExpressionHelper.newLoadingRank(ExpressionHelper.newStringLiteral("L1"),
+                                                              Arrays.asList(ExpressionHelper.newStringLiteral("L1"),
+                                                                            ExpressionHelper.newNetworkProperty(ExpressionHelper.newNetworkComponent("G", NetworkComponentNode.ComponentType.GENERATOR), "id")));
+        assertNull(ExpressionNetworkElementLister.list(node));
+    }
+}
@@ -82,12 +82,12 @@ public class DefaultLoadFlowActionSimulatorObserver implements LoadFlowActionSim
     }
 
     @Override
-    public void violationsAfterTest(String actionId, List<LimitViolation> violations) {
+    public void violationsAfterTest(RunningContext runningContext, String actionId, List<LimitViolation> violations) {
         // empty default implementation
     }
 
     @Override
-    public void divergedAfterTest(String actionId) {
+    public void divergedAfterTest(RunningContext runningContext, String actionId) {
         // empty default implementation
     }
 
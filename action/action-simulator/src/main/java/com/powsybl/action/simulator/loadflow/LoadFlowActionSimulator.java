@@ -12,14 +12,18 @@ import com.powsybl.action.simulator.ActionSimulator;
 import com.powsybl.commons.PowsyblException;
 import com.powsybl.commons.exceptions.UncheckedIllegalAccessException;
 import com.powsybl.commons.exceptions.UncheckedInstantiationException;
+import com.powsybl.commons.exceptions.UncheckedInterruptedException;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkFork;
+import com.powsybl.iidm.network.StateManager;
 import com.powsybl.iidm.xml.NetworkXml;
 import com.powsybl.loadflow.LoadFlow;
 import com.powsybl.loadflow.LoadFlowFactory;
 import com.powsybl.loadflow.LoadFlowParameters;
 import com.powsybl.loadflow.LoadFlowResult;
+import com.powsybl.security.LimitCheckPlan;
 import com.powsybl.security.LimitViolation;
 import com.powsybl.security.LimitViolationFilter;
 import com.powsybl.security.LimitViolationType;
@@ -28,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -49,7 +54,52 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
     private final boolean applyIfSolvedViolations;
 
-    private final List<LoadFlowActionSimulatorObserver> observers;
+    private final LoadFlowActionSimulatorEventSink eventSink;
+
+    private LimitCheckPlan limitCheckPlan;
+
+    private RuleDependencyIndex ruleDependencyIndex;
+
+    /**
+     * A working copy of a network, depending on the copy strategy either a fork of the working state or a deep copy.
+     */
+    private static final class NetworkCopy implements AutoCloseable {
+
+        private final Network network;
+
+        private final NetworkFork fork;
+
+        private NetworkCopy(Network network, LoadFlowActionSimulatorConfig.CopyStrategy copyStrategy) {
+            switch (copyStrategy) {
+                case STATE:
+                    fork = network.fork();
+                    this.network = fork.getNetwork();
+                    break;
+                case DEEP:
+                    fork = null;
+                    if (network.getStateManager().isStateMultiThreadAccessAllowed()) {
+                        // NetworkXml.copy writes the network in another thread, which would not have a working state
+                        this.network = NetworkXml.gunzip(NetworkXml.gzip(network));
+                    } else {
+                        this.network = NetworkXml.copy(network);
+                    }
+                    break;
+                default:
+                    throw new AssertionError("Unknown copy strategy: " + copyStrategy);
+            }
+        }
+
+        private Network getNetwork() {
+            return network;
+        }
+
+        @Override
+        public void close() {
+            if (fork != null) {
+                fork.close();
+            }
+        }
+    }
 
     public LoadFlowActionSimulator(Network network, ComputationManager computationManager) {
         this(network, computationManager, LoadFlowActionSimulatorConfig.load(), false, Collections.emptyList());
@@ -65,7 +115,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         this.network = Objects.requireNonNull(network);
         this.computationManager = Objects.requireNonNull(computationManager);
         this.config = Objects.requireNonNull(config);
-        this.observers = Objects.requireNonNull(observers);
+        this.eventSink = new LoadFlowActionSimulatorEventSink(observers);
         this.applyIfSolvedViolations = applyIfSolvedViolations;
     }
 
@@ -99,35 +149,93 @@ public class LoadFlowActionSimulator implements ActionSimulator {
     public void start(ActionDb actionDb, List<String> contingencyIds) {
         Objects.requireNonNull(actionDb);
 
+        // forks share the equipments and limits of the network, so limits of all the states are checked with the same plan
+        limitCheckPlan = new LimitCheckPlan(network);
+
+        ruleDependencyIndex = new RuleDependencyIndex(actionDb.getRules());
+
         LOGGER.info("Starting pre-contingency analysis");
         RunningContext runningContext = new RunningContext(network);
-        observers.forEach(o -> o.beforePreContingencyAnalysis(runningContext));
+        eventSink.beforePreContingencyAnalysis(runningContext);
 
         boolean preContingencyAnalysisOk = next(actionDb, runningContext);
 
-        observers.forEach(LoadFlowActionSimulatorObserver::afterPreContingencyAnalysis);
+        eventSink.afterPreContingencyAnalysis();
+
+        if (preContingencyAnalysisOk || config.isIgnorePreContingencyViolations()) {
+            if (config.getThreadCount() > 1 && contingencyIds.size() > 1) {
+                startPostContingencyAnalysesInParallel(actionDb, contingencyIds);
+            } else {
+                for (String contingencyId : contingencyIds) {
+                    startPostContingencyAnalysis(actionDb, contingencyId);
+                }
+            }
+        }
+
+        eventSink.afterPostContingencyAnalysis();
+    }
+
+    private void startPostContingencyAnalysis(ActionDb actionDb, String contingencyId) {
+        Contingency contingency = actionDb.getContingency(contingencyId);
 
         // duplicate the network for each contingency
-        byte[] networkXmlGz = NetworkXml.gzip(network);
+        try (NetworkCopy networkCopy = new NetworkCopy(network, config.getCopyStrategy())) {
+            Network network2 = networkCopy.getNetwork();
+            RunningContext runningContext2 = new RunningContext(network2, contingency);
 
-        if (preContingencyAnalysisOk || config.isIgnorePreContingencyViolations()) {
-            for (String contingencyId : contingencyIds) {
-                Contingency contingency = actionDb.getContingency(contingencyId);
-                Network network2 = NetworkXml.gunzip(networkXmlGz);
-                RunningContext runningContext2 = new RunningContext(network2, contingency);
+            eventSink.beforePostContingencyAnalysis(runningContext2);
 
-                observers.forEach(o -> o.beforePostContingencyAnalysis(runningContext2));
+            LOGGER.info("Starting post-contingency analysis '{}'", contingency.getId());
+            contingency.toTask().modify(network2, computationManager);
 
-                LOGGER.info("Starting post-contingency analysis '{}'", contingency.getId());
-                contingency.toTask().modify(network2, computationManager);
+            eventSink.postContingencyAnalysisNetworkLoaded(runningContext2);
 
-                observers.forEach(o -> o.postContingencyAnalysisNetworkLoaded(runningContext2));
+            next(actionDb, runningContext2);
+        }
+    }
 
-                next(actionDb, runningContext2);
+    private void startPostContingencyAnalysesInParallel(ActionDb actionDb, List<String> contingencyIds) {
+        int threadCount = Math.min(config.getThreadCount(), contingencyIds.size());
+        LOGGER.info("Starting post-contingency analyses on {} threads", threadCount);
+
+        StateManager stateManager = network.getStateManager();
+        String sourceStateId = stateManager.getWorkingStateId();
+        boolean stateMultiThreadAccessAllowed = stateManager.isStateMultiThreadAccessAllowed();
+        // workers create and remove their states while the others are working, the state manager then neither moves
+        // nor reduces state arrays
+        stateManager.allowStateMultiThreadAccess(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>(contingencyIds.size());
+            for (String contingencyId : contingencyIds) {
+                futures.add(executor.submit(() -> {
+                    // the working state is thread local, each worker forks the source state
+                    stateManager.setWorkingState(sourceStateId);
+                    startPostContingencyAnalysis(actionDb, contingencyId);
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedInterruptedException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new PowsyblException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+            stateManager.allowStateMultiThreadAccess(stateMultiThreadAccessAllowed);
         }
-
-        observers.forEach(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
     }
 
     protected LoadFlowFactory newLoadFlowFactory() {
@@ -140,7 +248,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         }
     }
 
-    private static final class RuleContext {
+    static final class RuleContext {
 
         private final RuleEvaluationStatus status;
         private final Map<String, Object> variables;
@@ -165,11 +273,11 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         }
     }
 
-    private RuleContext evaluateRule(Rule rule, RunningContext context) {
+    private RuleContext evaluateRule(Rule rule, RunningContext context, Map<String, Object> variableValues) {
         if (rule.getCondition().getType() != ConditionType.EXPRESSION) {
             throw new AssertionError("TODO");
         }
-        ExpressionNode conditionExpr = ((ExpressionCondition) rule.getCondition()).getNode();
+        ExpressionCondition condition = (ExpressionCondition) rule.getCondition();
         EvaluationContext evalContext = new EvaluationContext() {
             @Override
             public Network getNetwork() {
@@ -186,17 +294,17 @@ public class LoadFlowActionSimulator implements ActionSimulator {
                 return context.getTimeLine().actionTaken(actionId);
             }
         };
-        boolean ok = ExpressionEvaluator.evaluate(conditionExpr, evalContext).equals(Boolean.TRUE);
+
+        boolean ok = condition.getCompiledNode().isTrue(evalContext);
 
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Evaluating {} to {}", ExpressionPrinter.toString(conditionExpr), Boolean.toString(ok));
+            LOGGER.debug("Evaluating {} to {}", ExpressionPrinter.toString(condition.getNode()), Boolean.toString(ok));
         }
 
-        Map<String, Object> variables = ExpressionVariableLister.list(conditionExpr).stream()
-                .collect(Collectors.toMap(ExpressionPrinter::toString,
-                    n -> ExpressionEvaluator.evaluate(n, evalContext),
-                    (v1, v2) -> v1,
-                    TreeMap::new));
+        // variable values are shared by all the rules of a round, so that each of them is evaluated only once
+        Map<String, Object> variables = new TreeMap<>();
+        condition.getCompiledVariables().forEach((name, variable) ->
+                variables.put(name, variableValues.computeIfAbsent(name, k -> variable.evaluate(evalContext))));
 
         LOGGER.debug("Variables values: {}", variables);
 
@@ -208,7 +316,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
             status = RuleEvaluationStatus.FALSE;
         }
 
-        Map<String, Boolean> actions = ExpressionActionTakenLister.list(conditionExpr).stream()
+        Map<String, Boolean> actions = condition.getActionTakenIds().stream()
                 .collect(Collectors.toMap(s -> s,
                     s -> context.getTimeLine().actionTaken(s),
                     (s1, s2) -> s1,
@@ -223,22 +331,33 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
             // apply action
             LOGGER.info("Apply action '{}'", action.getId());
-            observers.forEach(o -> o.beforeAction(context, actionId));
+            eventSink.beforeAction(context, actionId);
 
             action.run(context.getNetwork(), computationManager);
 
-            observers.forEach(o -> o.afterAction(context, actionId));
+            eventSink.afterAction(context, actionId);
             actionsTaken.add(actionId);
         }
     }
 
+    private List<LimitViolation> checkLimits(Network checkedNetwork) {
+        List<LimitViolation> violations;
+        if (limitCheckPlan != null && limitCheckPlan.getNetwork() == checkedNetwork) {
+            violations = limitCheckPlan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1);
+        } else {
+            // deep copy
+            violations = Security.checkLimits(checkedNetwork, 1);
+        }
+        return LIMIT_VIOLATION_FILTER.apply(violations, checkedNetwork);
+    }
+
     private boolean checkViolations(ActionDb actionDb, RunningContext context) {
-        List<LimitViolation> violations = LIMIT_VIOLATION_FILTER.apply(Security.checkLimits(context.getNetwork(), 1), context.getNetwork());
-        observers.forEach(o -> o.loadFlowConverged(context, violations));
+        List<LimitViolation> violations = checkLimits(context.getNetwork());
+        eventSink.loadFlowConverged(context, violations);
         // no more violations => work complete
         if (violations.isEmpty()) {
             LOGGER.info("No more violation");
-            observers.forEach(o -> o.noMoreViolations(context));
+            eventSink.noMoreViolations(context);
             return true;
         }
 
@@ -248,7 +367,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
         if (context.getRound() + 1 == config.getMaxIterations()) {
             LOGGER.info("Max number of iterations reached");
-            observers.forEach(o -> o.maxIterationsReached(context));
+            eventSink.maxIterationsReached(context);
             return false;
         }
 
@@ -257,42 +376,60 @@ public class LoadFlowActionSimulator implements ActionSimulator {
             return true;
         }
 
+        // only the rules whose network elements have moved or whose checked actions have been taken since their
+        // last evaluation are evaluated again, the others keep their status
+        RuleInputTracker ruleInputTracker = context.getRuleInputTracker();
+        Set<String> changedRuleIds = ruleInputTracker.update(ruleDependencyIndex, context.getNetwork(),
+                                                             context.getTimeLine().getActions(), config.getRuleInputTolerance());
+
         Set<String> actionsTaken = new HashSet<>();
+        Map<String, Object> variableValues = new HashMap<>();
         for (Rule rule : actionDb.getRules()) {
             if (rule.getType().equals(RuleType.TEST)) {
                 continue;
             }
             RuleContext ruleContext;
+            RuleContext previousRuleContext = ruleInputTracker.getRuleContext(rule.getId());
             if (context.getRuleMatchCount(rule.getId()) >= rule.getLife()) {
                 ruleContext = new RuleContext(RuleEvaluationStatus.DEAD, Collections.emptyMap(), Collections.emptyMap());
+            } else if (actionsTaken.isEmpty() && previousRuleContext != null && ruleDependencyIndex.isIndexed(rule.getId())
+                    && !changedRuleIds.contains(rule.getId())) {
+                // the network has not been modified by an action of this round yet, so the previous status still holds
+                ruleContext = previousRuleContext;
+                if (ruleContext.getStatus() == RuleEvaluationStatus.TRUE) {
+                    context.incrementRuleMatchCount(rule.getId());
+                }
             } else {
-                ruleContext = evaluateRule(rule, context);
+                ruleContext = evaluateRule(rule, context, variableValues);
+                ruleInputTracker.setRuleContext(rule.getId(), ruleContext);
             }
 
-            observers.forEach(o -> o.ruleChecked(context, rule, ruleContext.getStatus(), ruleContext.getVariables(), ruleContext.getActions()));
+            eventSink.ruleChecked(context, rule, ruleContext.getStatus(), ruleContext.getVariables(), ruleContext.getActions());
 
             if (ruleContext.getStatus() == RuleEvaluationStatus.TRUE) {
                 applyActions(actionDb, context, rule, actionsTaken);
+                // actions modify the network, variables have to be evaluated again for the next rules
+                variableValues.clear();
             }
         }
 
         // record the action in the time line
         context.getTimeLine().getActions().addAll(actionsTaken);
 
-        observers.forEach(o -> o.roundEnd(context));
+        eventSink.roundEnd(context);
 
         if (!actionsTaken.isEmpty()) {
             context.setRound(context.getRound() + 1);
             return next(actionDb, context);
         } else {
             LOGGER.info("Still some violations and no rule match");
-            observers.forEach(o -> o.violationsAnymoreAndNoRulesMatch(context));
+            eventSink.violationsAnymoreAndNoRulesMatch(context);
             return false;
         }
     }
 
     private boolean next(ActionDb actionDb, RunningContext context) {
-        observers.forEach(o -> o.roundBegin(context));
+        eventSink.roundBegin(context);
 
         LoadFlowFactory loadFlowFactory = newLoadFlowFactory();
         LoadFlow loadFlow = loadFlowFactory.create(context.getNetwork(), computationManager, 0);
@@ -308,7 +445,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
             return checkViolations(actionDb, context);
         } else {
             LOGGER.warn("Loadflow diverged: {}", result.getMetrics());
-            observers.forEach(o -> o.loadFlowDiverged(context));
+            eventSink.loadFlowDiverged(context);
             return false;
         }
     }
@@ -334,10 +471,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
         List<Rule> activedRules = actionDb.getRules().stream()
                 .filter(rule -> rule.getType().equals(RuleType.TEST))
-                .filter(rule -> {
-                    ExpressionNode conditionExpr = ((ExpressionCondition) rule.getCondition()).getNode();
-                    return ExpressionEvaluator.evaluate(conditionExpr, evalContext).equals(Boolean.TRUE);
-                })
+                .filter(rule -> ((ExpressionCondition) rule.getCondition()).getCompiledNode().isTrue(evalContext))
                 .collect(Collectors.toList());
         List<String> testActionIds = activedRules.stream()
                                 .flatMap(r -> r.getActions().stream())
@@ -349,39 +483,45 @@ public class LoadFlowActionSimulator implements ActionSimulator {
             return;
         }
 
-        byte[] contextNetwork = NetworkXml.gzip(context.getNetwork());
-
         for (String actionId : testActionIds) {
             Action action = actionDb.getAction(actionId);
-            Network networkForTest = NetworkXml.gunzip(contextNetwork);
-            LoadFlowResult testResult = runTest(context, networkForTest, action);
+            LoadFlowResult testResult;
+            List<LimitViolation> testViolations = Collections.emptyList();
+            // the working state of the context network is restored when the copy is closed, so that the action
+            // can then be applied to the context network
+            try (NetworkCopy networkCopy = new NetworkCopy(context.getNetwork(), config.getCopyStrategy())) {
+                Network networkForTest = networkCopy.getNetwork();
+                testResult = runTest(context, networkForTest, action);
+                if (testResult.isOk()) {
+                    testViolations = checkLimits(networkForTest);
+                }
+            }
+            List<LimitViolation> violationsInTest = testViolations;
             context.addTested(actionId);
             if (testResult.isOk()) {
-                List<LimitViolation> violationsInTest =
-                        LIMIT_VIOLATION_FILTER.apply(Security.checkLimits(networkForTest, 1), networkForTest);
                 if (violationsInTest.isEmpty()) {
                     context.addWorkedTest(action.getId());
                     if (applyIfSolvedViolations) {
                         LOGGER.info("Loadflow with test '{}' works already and exits simulation", action.getId());
-                        observers.forEach(o -> o.noMoreViolationsAfterTest(context, action.getId()));
-                        observers.forEach(o -> o.beforeApplyTest(context, action.getId()));
+                        eventSink.noMoreViolationsAfterTest(context, action.getId());
+                        eventSink.beforeApplyTest(context, action.getId());
                         action.run(context.getNetwork(), computationManager);
                         context.getTimeLine().getActions().add(actionId);
-                        observers.forEach(o -> o.loadFlowConverged(context, violationsInTest));
-                        observers.forEach(o -> o.noMoreViolations(context));
-                        observers.forEach(o -> o.afterApplyTest(context, action.getId()));
+                        eventSink.loadFlowConverged(context, violationsInTest);
+                        eventSink.noMoreViolations(context);
+                        eventSink.afterApplyTest(context, action.getId());
                         return;
                     } else {
                         LOGGER.info("Loadflow with test '{}' works already and continues simulation", action.getId());
-                        observers.forEach(o -> o.noMoreViolationsAfterTest(context, action.getId()));
+                        eventSink.noMoreViolationsAfterTest(context, action.getId());
                     }
                 } else {
                     LOGGER.info("Loadflow with test '{}' exits with violations", action.getId());
-                    observers.forEach(o -> o.violationsAfterTest(action.getId(), violationsInTest));
+                    eventSink.violationsAfterTest(context, action.getId(), violationsInTest);
                 }
             } else {
                 LOGGER.info("Loadflow with test '{}' diverged", action.getId());
-                observers.forEach(o -> o.divergedAfterTest(action.getId()));
+                eventSink.divergedAfterTest(context, action.getId());
             }
         }
     }
@@ -393,9 +533,9 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         LoadFlowFactory loadFlowFactory = newLoadFlowFactory();
         LoadFlow testLoadFlow = loadFlowFactory.create(networkForTry, computationManager, 0);
         try {
-            observers.forEach(o -> o.beforeTest(context, actionId));
+            eventSink.beforeTest(context, actionId);
             LoadFlowResult testResult = testLoadFlow.run(networkForTry.getStateManager().getWorkingStateId(), LoadFlowParameters.load()).join();
-            observers.forEach(o -> o.afterTest(context, actionId));
+            eventSink.afterTest(context, actionId);
             return testResult;
         } catch (Exception e) {
             throw new PowsyblException(e);
@@ -17,6 +17,27 @@ import java.util.Objects;
  */
 public class LoadFlowActionSimulatorConfig {
 
+    /**
+     * How the network is copied for each contingency and each tested action.
+     */
+    public enum CopyStrategy {
+        /**
+         * Fork a temporary state of the network, only the state dependent attributes are isolated.
+         */
+        STATE,
+
+        /**
+         * Deep copy of the network, to be used if actions modify attributes which do not depend on the state.
+         */
+        DEEP
+    }
+
+    private static final CopyStrategy DEFAULT_COPY_STRATEGY = CopyStrategy.STATE;
+
+    private static final int DEFAULT_THREAD_COUNT = 1;
+
+    private static final double DEFAULT_RULE_INPUT_TOLERANCE = 0;
+
     public static LoadFlowActionSimulatorConfig load() {
         return load(PlatformConfig.defaultConfig());
     }
@@ -29,7 +50,11 @@ public class LoadFlowActionSimulatorConfig {
         int maxIterations = config.getIntProperty("max-iterations");
         boolean ignorePreContingencyViolations = config.getBooleanProperty("ignore-pre-contingency-violations", false);
         boolean debug = config.getBooleanProperty("debug", false);
-        return new LoadFlowActionSimulatorConfig(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations, debug);
+        CopyStrategy copyStrategy = config.getEnumProperty("network-copy-strategy", CopyStrategy.class, DEFAULT_COPY_STRATEGY);
+        int threadCount = config.getIntProperty("thread-count", DEFAULT_THREAD_COUNT);
+        double ruleInputTolerance = config.getDoubleProperty("rule-input-tolerance", DEFAULT_RULE_INPUT_TOLERANCE);
+        return new LoadFlowActionSimulatorConfig(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations, debug, copyStrategy, threadCount,
+                                                 ruleInputTolerance);
     }
 
     private Class<? extends LoadFlowFactory> loadFlowFactoryClass;
@@ -40,12 +65,45 @@ public class LoadFlowActionSimulatorConfig {
 
     private boolean debug;
 
+    private CopyStrategy copyStrategy;
+
+    private int threadCount;
+
+    private double ruleInputTolerance;
+
     public LoadFlowActionSimulatorConfig(Class<? extends LoadFlowFactory> loadFlowFactoryClass, int maxIterations, boolean ignorePreContingencyViolations,
                                          boolean debug) {
+        this(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations, debug, DEFAULT_COPY_STRATEGY, DEFAULT_THREAD_COUNT);
+    }
+
+    public LoadFlowActionSimulatorConfig(Class<? extends LoadFlowFactory> loadFlowFactoryClass, int maxIterations, boolean ignorePreContingencyViolations,
+                                         boolean debug, CopyStrategy copyStrategy, int threadCount) {
+        this(loadFlowFactoryClass, maxIterations, ignorePreContingencyViolations, debug, copyStrategy, threadCount, DEFAULT_RULE_INPUT_TOLERANCE);
+    }
+
+    public LoadFlowActionSimulatorConfig(Class<? extends LoadFlowFactory> loadFlowFactoryClass, int maxIterations, boolean ignorePreContingencyViolations,
+                                         boolean debug, CopyStrategy copyStrategy, int threadCount, double ruleInputTolerance) {
         this.loadFlowFactoryClass = Objects.requireNonNull(loadFlowFactoryClass);
         this.maxIterations = maxIterations;
         this.ignorePreContingencyViolations = ignorePreContingencyViolations;
         this.debug = debug;
+        this.copyStrategy = Objects.requireNonNull(copyStrategy);
+        this.threadCount = checkThreadCount(threadCount);
+        this.ruleInputTolerance = checkRuleInputTolerance(ruleInputTolerance);
+    }
+
+    private static int checkThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + threadCount);
+        }
+        return threadCount;
+    }
+
+    private static double checkRuleInputTolerance(double ruleInputTolerance) {
+        if (Double.isNaN(ruleInputTolerance) || ruleInputTolerance < 0) {
+            throw new IllegalArgumentException("Invalid rule input tolerance: " + ruleInputTolerance);
+        }
+        return ruleInputTolerance;
     }
 
     public Class<? extends LoadFlowFactory> getLoadFlowFactoryClass() {
@@ -79,4 +137,36 @@ public class LoadFlowActionSimulatorConfig {
     public void setDebug(boolean debug) {
         this.debug = debug;
     }
+
+    public CopyStrategy getCopyStrategy() {
+        return copyStrategy;
+    }
+
+    public void setCopyStrategy(CopyStrategy copyStrategy) {
+        this.copyStrategy = Objects.requireNonNull(copyStrategy);
+    }
+
+    /**
+     * Number of contingencies simulated in parallel, contingencies are simulated sequentially if 1.
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = checkThreadCount(threadCount);
+    }
+
+    /**
+     * Maximum variation of the values of the network elements read by a rule (flows, voltages and set points) below
+     * which the rule is not evaluated again from one round to the next one, its previous status being reused. With
+     * the default value of 0, a rule is only skipped if none of its elements has changed.
+     */
+    public double getRuleInputTolerance() {
+        return ruleInputTolerance;
+    }
+
+    public void setRuleInputTolerance(double ruleInputTolerance) {
+        this.ruleInputTolerance = checkRuleInputTolerance(ruleInputTolerance);
+    }
 }
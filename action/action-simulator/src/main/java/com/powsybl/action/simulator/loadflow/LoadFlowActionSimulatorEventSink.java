@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.action.dsl.Rule;
+import com.powsybl.security.LimitViolation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Forwards the simulator events to a list of observers, so that observers which are not thread safe can be used
+ * when contingencies are simulated in parallel.
+ * <p>
+ * Events are delivered one at a time, in the thread of the worker which emits them and while its network state is
+ * still the working one, so that observers can read the network. A fair lock delivers the events in the order they
+ * are emitted: the events of a given contingency keep their order but the events of different contingencies can be
+ * interleaved (see {@link LoadFlowActionSimulatorObserver}).
+ *
+ * @author agent <agent at local>
+ */
+class LoadFlowActionSimulatorEventSink implements LoadFlowActionSimulatorObserver {
+
+    private final List<LoadFlowActionSimulatorObserver> observers;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    LoadFlowActionSimulatorEventSink(List<LoadFlowActionSimulatorObserver> observers) {
+        this.observers = Objects.requireNonNull(observers);
+    }
+
+    private void deliver(Consumer<LoadFlowActionSimulatorObserver> event) {
+        lock.lock();
+        try {
+            observers.forEach(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void beforePreContingencyAnalysis(RunningContext runningContext) {
+        deliver(o -> o.beforePreContingencyAnalysis(runningContext));
+    }
+
+    @Override
+    public void afterPreContingencyAnalysis() {
+        deliver(LoadFlowActionSimulatorObserver::afterPreContingencyAnalysis);
+    }
+
+    @Override
+    public void beforePostContingencyAnalysis(RunningContext runningContext) {
+        deliver(o -> o.beforePostContingencyAnalysis(runningContext));
+    }
+
+    @Override
+    public void postContingencyAnalysisNetworkLoaded(RunningContext runningContext) {
+        deliver(o -> o.postContingencyAnalysisNetworkLoaded(runningContext));
+    }
+
+    @Override
+    public void roundBegin(RunningContext runningContext) {
+        deliver(o -> o.roundBegin(runningContext));
+    }
+
+    @Override
+    public void roundEnd(RunningContext runningContext) {
+        deliver(o -> o.roundEnd(runningContext));
+    }
+
+    @Override
+    public void loadFlowDiverged(RunningContext runningContext) {
+        deliver(o -> o.loadFlowDiverged(runningContext));
+    }
+
+    @Override
+    public void loadFlowConverged(RunningContext runningContext, List<LimitViolation> violations) {
+        deliver(o -> o.loadFlowConverged(runningContext, violations));
+    }
+
+    @Override
+    public void ruleChecked(RunningContext runningContext, Rule rule, RuleEvaluationStatus status, Map<String, Object> variables, Map<String, Boolean> actions) {
+        deliver(o -> o.ruleChecked(runningContext, rule, status, variables, actions));
+    }
+
+    @Override
+    public void beforeAction(RunningContext runningContext, String actionId) {
+        deliver(o -> o.beforeAction(runningContext, actionId));
+    }
+
+    @Override
+    public void beforeTest(RunningContext runningContext, String actionId) {
+        deliver(o -> o.beforeTest(runningContext, actionId));
+    }
+
+    @Override
+    public void afterAction(RunningContext runningContext, String actionId) {
+        deliver(o -> o.afterAction(runningContext, actionId));
+    }
+
+    @Override
+    public void afterTest(RunningContext runningContext, String actionId) {
+        deliver(o -> o.afterTest(runningContext, actionId));
+    }
+
+    @Override
+    public void violationsAfterTest(RunningContext runningContext, String actionId, List<LimitViolation> violations) {
+        deliver(o -> o.violationsAfterTest(runningContext, actionId, violations));
+    }
+
+    @Override
+    public void divergedAfterTest(RunningContext runningContext, String actionId) {
+        deliver(o -> o.divergedAfterTest(runningContext, actionId));
+    }
+
+    @Override
+    public void noMoreViolations(RunningContext runningContext) {
+        deliver(o -> o.noMoreViolations(runningContext));
+    }
+
+    @Override
+    public void noMoreViolationsAfterTest(RunningContext runningContext, String actionId) {
+        deliver(o -> o.noMoreViolationsAfterTest(runningContext, actionId));
+    }
+
+    @Override
+    public void beforeApplyTest(RunningContext runningContext, String actionId) {
+        deliver(o -> o.beforeApplyTest(runningContext, actionId));
+    }
+
+    @Override
+    public void afterApplyTest(RunningContext runningContext, String actionId) {
+        deliver(o -> o.afterApplyTest(runningContext, actionId));
+    }
+
+    @Override
+    public void violationsAnymoreAndNoRulesMatch(RunningContext runningContext) {
+        deliver(o -> o.violationsAnymoreAndNoRulesMatch(runningContext));
+    }
+
+    @Override
+    public void afterPostContingencyAnalysis() {
+        deliver(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+    }
+
+    @Override
+    public void maxIterationsReached(RunningContext runningContext) {
+        deliver(o -> o.maxIterationsReached(runningContext));
+    }
+}
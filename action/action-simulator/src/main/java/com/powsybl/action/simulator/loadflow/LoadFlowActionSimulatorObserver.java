@@ -12,6 +12,12 @@ import java.util.List;
 import java.util.Map;
 
 /**
+ * Observer of the load flow based action simulation.
+ * <p>
+ * When contingencies are simulated in parallel, the events of a given contingency keep their order but the events of
+ * different contingencies are interleaved: observers have to rely on the {@link RunningContext} passed to each
+ * post-contingency event to know the contingency it belongs to. Events are delivered one at a time.
+ *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public interface LoadFlowActionSimulatorObserver {
@@ -42,9 +48,9 @@ public interface LoadFlowActionSimulatorObserver {
 
     void afterTest(RunningContext runningContext, String actionId);
 
-    void violationsAfterTest(String actionId, List<LimitViolation> violations);
+    void violationsAfterTest(RunningContext runningContext, String actionId, List<LimitViolation> violations);
 
-    void divergedAfterTest(String actionId);
+    void divergedAfterTest(RunningContext runningContext, String actionId);
 
     void noMoreViolations(RunningContext runningContext);
 
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.iidm.network.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * State dependent values of a network element, as read by rule conditions: load flow results of its terminals and of
+ * their buses, set points, tap positions and switch status. Continuous values are compared with a tolerance, discrete
+ * ones exactly.
+ *
+ * @author agent <agent at local>
+ */
+final class NetworkElementValues {
+
+    private final double[] values;
+
+    private final int[] states;
+
+    private NetworkElementValues(double[] values, int[] states) {
+        this.values = values;
+        this.states = states;
+    }
+
+    static NetworkElementValues of(Network network, String elementId) {
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(elementId);
+
+        List<Double> values = new ArrayList<>();
+        List<Integer> states = new ArrayList<>();
+        Identifiable identifiable = network.getIdentifiable(elementId);
+        if (identifiable instanceof Connectable) {
+            for (Terminal terminal : ((Connectable<?>) identifiable).getTerminals()) {
+                addTerminalValues(terminal, values, states);
+            }
+        }
+        if (identifiable instanceof Generator) {
+            Generator generator = (Generator) identifiable;
+            values.add(generator.getTargetP());
+            values.add(generator.getTargetQ());
+            values.add(generator.getTargetV());
+            states.add(generator.isVoltageRegulatorOn() ? 1 : 0);
+        } else if (identifiable instanceof Load) {
+            Load load = (Load) identifiable;
+            values.add(load.getP0());
+            values.add(load.getQ0());
+        } else if (identifiable instanceof TwoWindingsTransformer) {
+            TwoWindingsTransformer transformer = (TwoWindingsTransformer) identifiable;
+            addTapChangerStates(transformer.getRatioTapChanger(), states);
+            addTapChangerStates(transformer.getPhaseTapChanger(), states);
+        } else if (identifiable instanceof Switch) {
+            states.add(((Switch) identifiable).isOpen() ? 1 : 0);
+        }
+        return new NetworkElementValues(values.stream().mapToDouble(Double::doubleValue).toArray(),
+                                        states.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static void addTerminalValues(Terminal terminal, List<Double> values, List<Integer> states) {
+        values.add(terminal.getP());
+        values.add(terminal.getQ());
+        values.add(terminal.getI());
+        Bus bus = terminal.getBusView().getBus();
+        values.add(bus != null ? bus.getV() : Double.NaN);
+        values.add(bus != null ? bus.getAngle() : Double.NaN);
+        states.add(terminal.isConnected() ? 1 : 0);
+    }
+
+    private static void addTapChangerStates(TapChanger<?, ?> tapChanger, List<Integer> states) {
+        if (tapChanger != null) {
+            states.add(tapChanger.getTapPosition());
+            states.add(tapChanger.isRegulating() ? 1 : 0);
+        } else {
+            states.add(-1);
+            states.add(-1);
+        }
+    }
+
+    /**
+     * Check if a continuous value has moved by more than the tolerance, or if a discrete value is different.
+     */
+    boolean isChanged(NetworkElementValues other, double tolerance) {
+        Objects.requireNonNull(other);
+        if (!Arrays.equals(states, other.states) || values.length != other.values.length) {
+            return true;
+        }
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            double otherValue = other.values[i];
+            if (Double.compare(value, otherValue) != 0
+                    && (Double.isNaN(value) || Double.isNaN(otherValue) || Math.abs(value - otherValue) > tolerance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
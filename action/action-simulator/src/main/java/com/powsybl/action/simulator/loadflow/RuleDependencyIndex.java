@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.action.dsl.ConditionType;
+import com.powsybl.action.dsl.ExpressionCondition;
+import com.powsybl.action.dsl.Rule;
+import com.powsybl.action.dsl.RuleType;
+import com.powsybl.action.dsl.ast.ExpressionNetworkElementLister;
+
+import java.util.*;
+
+/**
+ * Index of the rules by the network elements they read and the actions they check with {@code actionTaken}. Rules
+ * whose elements are only known at evaluation are not indexed, and have to be evaluated at each round.
+ *
+ * @author agent <agent at local>
+ */
+final class RuleDependencyIndex {
+
+    private final Map<String, Set<String>> ruleIdsByElementId = new TreeMap<>();
+
+    private final Map<String, Set<String>> ruleIdsByActionId = new HashMap<>();
+
+    private final Set<String> indexedRuleIds = new HashSet<>();
+
+    RuleDependencyIndex(Collection<Rule> rules) {
+        for (Rule rule : rules) {
+            if (rule.getType() == RuleType.TEST || rule.getCondition().getType() != ConditionType.EXPRESSION) {
+                continue;
+            }
+            ExpressionCondition condition = (ExpressionCondition) rule.getCondition();
+            Set<String> elementIds = ExpressionNetworkElementLister.list(condition.getNode());
+            if (elementIds == null) {
+                continue;
+            }
+            for (String elementId : elementIds) {
+                ruleIdsByElementId.computeIfAbsent(elementId, k -> new HashSet<>()).add(rule.getId());
+            }
+            for (String actionId : condition.getActionTakenIds()) {
+                ruleIdsByActionId.computeIfAbsent(actionId, k -> new HashSet<>()).add(rule.getId());
+            }
+            indexedRuleIds.add(rule.getId());
+        }
+    }
+
+    Set<String> getElementIds() {
+        return Collections.unmodifiableSet(ruleIdsByElementId.keySet());
+    }
+
+    Set<String> getRuleIdsByElementId(String elementId) {
+        return ruleIdsByElementId.getOrDefault(elementId, Collections.emptySet());
+    }
+
+    Set<String> getRuleIdsByActionId(String actionId) {
+        return ruleIdsByActionId.getOrDefault(actionId, Collections.emptySet());
+    }
+
+    boolean isIndexed(String ruleId) {
+        return indexedRuleIds.contains(ruleId);
+    }
+}
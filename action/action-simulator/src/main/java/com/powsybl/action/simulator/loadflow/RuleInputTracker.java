@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.iidm.network.Network;
+
+import java.util.*;
+
+/**
+ * Tracks, for a running context, the values of the indexed network elements and the taken actions rules have been
+ * evaluated with, and the last evaluation of each rule.
+ *
+ * Element values are compared with the ones recorded when they last changed, and not with the ones of the previous
+ * round, so that small variations cannot add up unnoticed.
+ *
+ * @author agent <agent at local>
+ */
+final class RuleInputTracker {
+
+    private final Map<String, NetworkElementValues> elementValues = new HashMap<>();
+
+    private final Set<String> actionIds = new HashSet<>();
+
+    private final Map<String, LoadFlowActionSimulator.RuleContext> ruleContexts = new HashMap<>();
+
+    /**
+     * Compare the indexed elements and the taken actions with the recorded ones, and get the ids of the rules
+     * reading the elements which have moved by more than the tolerance or checking the actions newly taken.
+     */
+    Set<String> update(RuleDependencyIndex index, Network network, Collection<String> takenActionIds, double tolerance) {
+        Objects.requireNonNull(index);
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(takenActionIds);
+
+        Set<String> changedRuleIds = new HashSet<>();
+        for (String elementId : index.getElementIds()) {
+            NetworkElementValues values = NetworkElementValues.of(network, elementId);
+            NetworkElementValues previousValues = elementValues.get(elementId);
+            if (previousValues == null || previousValues.isChanged(values, tolerance)) {
+                elementValues.put(elementId, values);
+                changedRuleIds.addAll(index.getRuleIdsByElementId(elementId));
+            }
+        }
+        for (String actionId : takenActionIds) {
+            if (actionIds.add(actionId)) {
+                changedRuleIds.addAll(index.getRuleIdsByActionId(actionId));
+            }
+        }
+        return changedRuleIds;
+    }
+
+    LoadFlowActionSimulator.RuleContext getRuleContext(String ruleId) {
+        return ruleContexts.get(ruleId);
+    }
+
+    void setRuleContext(String ruleId, LoadFlowActionSimulator.RuleContext ruleContext) {
+        ruleContexts.put(ruleId, Objects.requireNonNull(ruleContext));
+    }
+}
@@ -31,6 +31,8 @@ public class RunningContext {
 
     private final List<String> workedTests = new ArrayList<>();
 
+    private final RuleInputTracker ruleInputTracker = new RuleInputTracker();
+
     public RunningContext(Network network, Contingency contingency) {
         this.network = network;
         this.contingency = contingency;
@@ -92,4 +94,8 @@ public class RunningContext {
     public void addTested(String actionId) {
         testedActionsIds.add(actionId);
     }
+
+    RuleInputTracker getRuleInputTracker() {
+        return ruleInputTracker;
+    }
 }
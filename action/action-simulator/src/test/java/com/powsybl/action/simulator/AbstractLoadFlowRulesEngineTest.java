@@ -45,6 +45,10 @@ public abstract class AbstractLoadFlowRulesEngineTest {
 
     protected abstract String getDslFile();
 
+    protected LoadFlowActionSimulatorConfig createConfig() {
+        return new LoadFlowActionSimulatorConfig(LoadFlowFactory.class, 3, false, false);
+    }
+
     @Before
     public void setUp() {
         network = createNetwork();
@@ -62,7 +66,7 @@ public abstract class AbstractLoadFlowRulesEngineTest {
         LoadFlowActionSimulatorObserver observer = createObserver();
         GroovyCodeSource src = new GroovyCodeSource(new InputStreamReader(getClass().getResourceAsStream(getDslFile())), "test", GroovyShell.DEFAULT_CODE_BASE);
         actionDb = new ActionDslLoader(src).load(network);
-        engine = new LoadFlowActionSimulator(network, computationManager, new LoadFlowActionSimulatorConfig(LoadFlowFactory.class, 3, false, false),
+        engine = new LoadFlowActionSimulator(network, computationManager, createConfig(),
                 applyIfWorks(), observer) {
             @Override
             protected LoadFlowFactory newLoadFlowFactory() {
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator;
+
+import com.google.common.collect.ImmutableMap;
+import com.powsybl.action.simulator.loadflow.DefaultLoadFlowActionSimulatorObserver;
+import com.powsybl.action.simulator.loadflow.LoadFlowActionSimulatorConfig;
+import com.powsybl.action.simulator.loadflow.LoadFlowActionSimulatorObserver;
+import com.powsybl.action.simulator.loadflow.RunningContext;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.StateManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.loadflow.LoadFlowFactory;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class ParallelContingenciesTest extends AbstractLoadFlowRulesEngineTest {
+
+    // not synchronized, the simulator has to serialize the observer callbacks
+    private final Map<String, List<Boolean>> connections = new HashMap<>();
+
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    protected Network createNetwork() {
+        return EurostagTutorialExample1Factory.create();
+    }
+
+    @Override
+    protected LoadFlowActionSimulatorConfig createConfig() {
+        return new LoadFlowActionSimulatorConfig(LoadFlowFactory.class, 3, false, false, LoadFlowActionSimulatorConfig.CopyStrategy.STATE, 3);
+    }
+
+    private static List<Boolean> getConnections(Network network) {
+        return Arrays.asList(network.getLine("NHV1_NHV2_1").getTerminal1().isConnected(),
+                             network.getLine("NHV1_NHV2_2").getTerminal1().isConnected(),
+                             network.getGenerator("GEN").getTerminal().isConnected());
+    }
+
+    @Override
+    protected LoadFlowActionSimulatorObserver createObserver() {
+        return new DefaultLoadFlowActionSimulatorObserver() {
+
+            @Override
+            public void afterPreContingencyAnalysis() {
+                events.add("afterPreContingencyAnalysis");
+            }
+
+            @Override
+            public void postContingencyAnalysisNetworkLoaded(RunningContext runningContext) {
+                events.add("postContingencyAnalysisNetworkLoaded");
+                connections.put(runningContext.getContingency().getId(), getConnections(runningContext.getNetwork()));
+            }
+
+            @Override
+            public void afterPostContingencyAnalysis() {
+                events.add("afterPostContingencyAnalysis");
+            }
+        };
+    }
+
+    @Override
+    protected String getDslFile() {
+        return "/parallel-contingencies.groovy";
+    }
+
+    @Test
+    public void test() {
+        engine.start(actionDb, "contingency1", "contingency2", "contingency3");
+
+        // each contingency is simulated on its own state
+        assertEquals(ImmutableMap.of("contingency1", Arrays.asList(false, true, true),
+                                     "contingency2", Arrays.asList(true, false, true),
+                                     "contingency3", Arrays.asList(true, true, false)),
+                     connections);
+        assertEquals(Arrays.asList("afterPreContingencyAnalysis",
+                                   "postContingencyAnalysisNetworkLoaded",
+                                   "postContingencyAnalysisNetworkLoaded",
+                                   "postContingencyAnalysisNetworkLoaded",
+                                   "afterPostContingencyAnalysis"),
+                     events);
+
+        // source state is not modified and temporary states are removed
+        assertFalse(network.getStateManager().isStateMultiThreadAccessAllowed());
+        assertEquals(StateManagerConstants.INITIAL_STATE_ID, network.getStateManager().getWorkingStateId());
+        assertEquals(Collections.singleton(StateManagerConstants.INITIAL_STATE_ID), new HashSet<>(network.getStateManager().getStateIds()));
+        assertEquals(Arrays.asList(true, true, true), getConnections(network));
+    }
+
+    @Test
+    public void stressTest() {
+        List<String> contingencyIds = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            contingencyIds.add("stress" + i);
+        }
+        engine.start(actionDb, contingencyIds);
+
+        // concurrent writes of connection flags of different states must not overwrite each other
+        assertEquals(contingencyIds.size(), connections.size());
+        for (int i = 0; i < contingencyIds.size(); i++) {
+            List<Boolean> expected = Arrays.asList(i % 3 != 0, i % 3 != 1, i % 3 != 2);
+            assertEquals(contingencyIds.get(i), expected, connections.get(contingencyIds.get(i)));
+        }
+        assertEquals(Collections.singleton(StateManagerConstants.INITIAL_STATE_ID), new HashSet<>(network.getStateManager().getStateIds()));
+        assertEquals(Arrays.asList(true, true, true), getConnections(network));
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator;
+
+import com.powsybl.action.dsl.Rule;
+import com.powsybl.action.simulator.loadflow.DefaultLoadFlowActionSimulatorObserver;
+import com.powsybl.action.simulator.loadflow.LoadFlowActionSimulatorObserver;
+import com.powsybl.action.simulator.loadflow.RuleEvaluationStatus;
+import com.powsybl.action.simulator.loadflow.RunningContext;
+import com.powsybl.iidm.network.Network;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Variable values are shared by the rules of a round and evaluated again once a rule has modified the network.
+ *
+ * @author agent <agent at local>
+ */
+public class SharedVariablesTest extends AbstractLoadFlowRulesEngineTest {
+
+    private final List<String> checkedRules = new ArrayList<>();
+
+    @Override
+    protected Network createNetwork() {
+        Network network = EurostagTutorialExample1WithTemporaryLimitFactory.create();
+        network.getVoltageLevel("VLHV1").getBusBreakerView().getBus("NHV1").setV(380).setAngle(0);
+        network.getLine("NHV1_NHV2_2").getTerminal1().setP(300).setQ(100);
+        return network;
+    }
+
+    @Override
+    protected LoadFlowActionSimulatorObserver createObserver() {
+        return new DefaultLoadFlowActionSimulatorObserver() {
+            @Override
+            public void ruleChecked(RunningContext runningContext, Rule rule, RuleEvaluationStatus status, Map<String, Object> variables, Map<String, Boolean> actions) {
+                if (status != RuleEvaluationStatus.DEAD) {
+                    checkedRules.add(rule.getId() + " " + status + " " + variables);
+                }
+            }
+        };
+    }
+
+    @Override
+    protected String getDslFile() {
+        return "/shared-variables.groovy";
+    }
+
+    @Test
+    public void test() {
+        engine.start(actionDb);
+
+        // rule2 sees the load modified by action1, and rule3 the same value than rule2
+        assertEquals(Arrays.asList("rule1 TRUE {load('LOAD').p0=600.0}",
+                                   "rule2 TRUE {load('LOAD').p0=601.0}",
+                                   "rule3 FALSE {load('LOAD').p0=601.0}"),
+                     checkedRules);
+        assertEquals(601.0, network.getLoad("LOAD").getP0(), 0.0);
+        assertEquals(201.0, network.getLoad("LOAD").getQ0(), 0.0);
+    }
+}
@@ -43,6 +43,9 @@ public class LoadFlowActionSimulatorConfigTest {
             moduleConfig.setClassProperty("load-flow-factory", LoadFlowFactoryMock.class);
             moduleConfig.setStringProperty("max-iterations", "15");
             moduleConfig.setStringProperty("ignore-pre-contingency-violations", "true");
+            moduleConfig.setStringProperty("network-copy-strategy", "DEEP");
+            moduleConfig.setStringProperty("thread-count", "4");
+            moduleConfig.setStringProperty("rule-input-tolerance", "0.1");
 
             LoadFlowActionSimulatorConfig config = LoadFlowActionSimulatorConfig.load(platformConfig);
 
@@ -60,6 +63,28 @@ public class LoadFlowActionSimulatorConfigTest {
             assertFalse(config.isDebug());
             config.setDebug(true);
             assertTrue(config.isDebug());
+
+            assertEquals(LoadFlowActionSimulatorConfig.CopyStrategy.DEEP, config.getCopyStrategy());
+            config.setCopyStrategy(LoadFlowActionSimulatorConfig.CopyStrategy.STATE);
+            assertEquals(LoadFlowActionSimulatorConfig.CopyStrategy.STATE, config.getCopyStrategy());
+
+            assertEquals(4, config.getThreadCount());
+            config.setThreadCount(1);
+            assertEquals(1, config.getThreadCount());
+            try {
+                config.setThreadCount(0);
+                fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+
+            assertEquals(0.1, config.getRuleInputTolerance(), 0);
+            config.setRuleInputTolerance(0);
+            assertEquals(0, config.getRuleInputTolerance(), 0);
+            try {
+                config.setRuleInputTolerance(-1);
+                fail();
+            } catch (IllegalArgumentException ignored) {
+            }
         }
     }
 }
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.google.common.collect.ImmutableSet;
+import com.powsybl.action.dsl.ActionDb;
+import com.powsybl.action.dsl.ActionDslLoader;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Terminal;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class RuleInputTrackerTest {
+
+    @Test
+    public void test() {
+        Network network = EurostagTutorialExample1Factory.create();
+        GroovyCodeSource src = new GroovyCodeSource(new InputStreamReader(getClass().getResourceAsStream("/rule-dependencies.groovy")), "test", GroovyShell.DEFAULT_CODE_BASE);
+        ActionDb actionDb = new ActionDslLoader(src).load(network);
+
+        RuleDependencyIndex index = new RuleDependencyIndex(actionDb.getRules());
+        assertEquals(Arrays.asList("LOAD", "NHV1_NHV2_1"), Arrays.asList(index.getElementIds().toArray()));
+        assertEquals(Collections.singleton("line-rule"), index.getRuleIdsByElementId("NHV1_NHV2_1"));
+        assertEquals(ImmutableSet.of("load-rule", "action-rule"), index.getRuleIdsByActionId("action"));
+        assertTrue(index.isIndexed("action-rule"));
+        assertFalse(index.isIndexed("not-indexed-rule"));
+
+        RuleInputTracker tracker = new RuleInputTracker();
+        Set<String> noAction = Collections.emptySet();
+
+        // first round, all the elements are new
+        Terminal terminal = network.getLine("NHV1_NHV2_1").getTerminal1();
+        terminal.setP(100);
+        assertEquals(ImmutableSet.of("line-rule", "load-rule"), tracker.update(index, network, noAction, 1));
+        assertTrue(tracker.update(index, network, noAction, 1).isEmpty());
+
+        // variations are compared to the values recorded when the element last changed, so they cannot add up
+        terminal.setP(100.6);
+        assertTrue(tracker.update(index, network, noAction, 1).isEmpty());
+        terminal.setP(101.2);
+        assertEquals(Collections.singleton("line-rule"), tracker.update(index, network, noAction, 1));
+        assertTrue(tracker.update(index, network, noAction, 1).isEmpty());
+
+        // set point modified by an action
+        network.getLoad("LOAD").setP0(601);
+        assertEquals(Collections.singleton("load-rule"), tracker.update(index, network, noAction, 1));
+
+        // discrete values are compared exactly
+        terminal.disconnect();
+        assertEquals(Collections.singleton("line-rule"), tracker.update(index, network, noAction, 10));
+
+        // newly taken action
+        Set<String> actionTaken = Collections.singleton("action");
+        assertEquals(ImmutableSet.of("load-rule", "action-rule"), tracker.update(index, network, actionTaken, 1));
+        assertTrue(tracker.update(index, network, actionTaken, 1).isEmpty());
+    }
+}
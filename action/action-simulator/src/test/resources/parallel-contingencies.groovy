@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+contingency('contingency1') {
+    equipments 'NHV1_NHV2_1'
+}
+
+contingency('contingency2') {
+    equipments 'NHV1_NHV2_2'
+}
+
+contingency('contingency3') {
+    equipments 'GEN'
+}
+
+// many contingencies simulated concurrently on states sharing the same arrays
+(0..<300).each { i ->
+    contingency('stress' + i) {
+        equipments(['NHV1_NHV2_1', 'NHV1_NHV2_2', 'GEN'][i % 3])
+    }
+}
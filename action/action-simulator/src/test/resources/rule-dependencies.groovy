@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+rule('line-rule') {
+    when line('NHV1_NHV2_1').terminal1.p > 100
+    apply 'action'
+}
+
+rule('load-rule') {
+    when load('LOAD').p0 > 0 && actionTaken('action')
+    apply 'action'
+}
+
+rule('action-rule') {
+    when actionTaken('action')
+    apply 'action'
+}
+
+rule('not-indexed-rule') {
+    when loadingRank(line('NHV1_NHV2_1').id, ['NHV1_NHV2_1', 'NHV1_NHV2_2']) == 1
+    apply 'action'
+}
+
+action('action') {
+    tasks {
+        script {
+            load('LOAD').p0 += 1
+        }
+    }
+}
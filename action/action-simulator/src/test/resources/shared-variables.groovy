@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+rule('rule1') {
+    when load('LOAD').p0 < 601
+    life 1
+    apply 'action1'
+}
+
+rule('rule2') {
+    when load('LOAD').p0 > 600
+    life 1
+    apply 'action2'
+}
+
+rule('rule3') {
+    when load('LOAD').p0 > 1000
+    life 1
+    apply 'action2'
+}
+
+action('action1') {
+    tasks {
+        script {
+            load('LOAD').p0 += 1
+        }
+    }
+}
+
+action('action2') {
+    tasks {
+        script {
+            load('LOAD').q0 += 1
+        }
+    }
+}
@@ -221,6 +221,36 @@ public class LocalAppStorage implements AppStorage {
         }
     }
 
+    @Override
+    public Map<String, List<NodeInfo>> getDescendantNodes(String nodeId, int depth) {
+        Path path = nodeIdToPath(nodeId);
+        AppStorage.checkDepth(depth);
+        if (scanFolder(path, false) == null) {
+            throw new AssertionError();
+        }
+        // walk the tree on paths, only folders are explored as files have no child
+        Map<String, List<NodeInfo>> descendantNodes = new LinkedHashMap<>();
+        List<Path> levelPaths = Collections.singletonList(path);
+        for (int level = 0; level < depth && !levelPaths.isEmpty(); level++) {
+            List<Path> nextLevelPaths = new ArrayList<>();
+            for (Path levelPath : levelPaths) {
+                LocalFolder folder = scanFolder(levelPath, false);
+                List<NodeInfo> childNodes = new ArrayList<>();
+                if (folder != null) {
+                    for (Path childPath : folder.getChildPaths()) {
+                        if (isLocalNode(childPath)) {
+                            childNodes.add(getNodeInfo(childPath));
+                            nextLevelPaths.add(childPath);
+                        }
+                    }
+                }
+                descendantNodes.put(pathToNodeId(levelPath), childNodes);
+            }
+            levelPaths = nextLevelPaths;
+        }
+        return descendantNodes;
+    }
+
     @Override
     public Optional<NodeInfo> getChildNode(String nodeId, String name) {
         Path path = nodeIdToPath(nodeId);
@@ -27,8 +27,10 @@ import org.mockito.Mockito;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -93,4 +95,14 @@ public class LocalAppStorageTest {
         DataSource ds = new AppStorageDataSource(storage, case1.get().getId(), case1.get().getName());
         assertNotNull(ds);
     }
+
+    @Test
+    public void descendantNodesTest() {
+        NodeInfo rootNodeInfo = storage.createRootNodeIfNotExists("mem", Folder.PSEUDO_CLASS);
+        Map<String, List<NodeInfo>> descendantNodes = storage.getDescendantNodes(rootNodeInfo.getId(), 2);
+        assertEquals(ImmutableList.of(rootNodeInfo.getId(), "%2Fcases%2Fn.tst", "%2Fcases%2Fn2.tst"), new ArrayList<>(descendantNodes.keySet()));
+        assertEquals(storage.getChildNodes(rootNodeInfo.getId()), descendantNodes.get(rootNodeInfo.getId()));
+        assertTrue(descendantNodes.get("%2Fcases%2Fn.tst").isEmpty());
+        assertEquals(Collections.singleton(rootNodeInfo.getId()), storage.getDescendantNodes(rootNodeInfo.getId(), 1).keySet());
+    }
 }
@@ -6,15 +6,14 @@
  */
 package com.powsybl.afs.mapdb.storage;
 
-import com.powsybl.timeseries.CompressedDoubleArrayChunk;
-import com.powsybl.timeseries.DoubleArrayChunk;
-import com.powsybl.timeseries.UncompressedDoubleArrayChunk;
+import com.powsybl.timeseries.*;
 import org.mapdb.DataInput2;
 import org.mapdb.DataOutput2;
 import org.mapdb.Serializer;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.DoubleBuffer;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -49,11 +48,45 @@ public final class DoubleArrayChunkSerializer implements Serializer<DoubleArrayC
             for (double value : compressedChunk.getStepValues()) {
                 out.writeDouble(value);
             }
+        } else if (chunk instanceof MemoryMappedDoubleArrayChunk) {
+            // values are copied to the storage, so the chunk is read back as an uncompressed one
+            MemoryMappedDoubleArrayChunk memoryMappedChunk = (MemoryMappedDoubleArrayChunk) chunk;
+            out.writeUTF("uncompressed");
+            out.writeInt(memoryMappedChunk.getOffset());
+            out.writeInt(memoryMappedChunk.getLength());
+            DoubleBuffer values = memoryMappedChunk.getValues();
+            for (int i = 0; i < memoryMappedChunk.getLength(); i++) {
+                out.writeDouble(values.get(i));
+            }
+        } else if (chunk instanceof XorDoubleArrayChunk) {
+            XorDoubleArrayChunk xorChunk = (XorDoubleArrayChunk) chunk;
+            out.writeUTF("xor");
+            out.writeInt(xorChunk.getOffset());
+            out.writeInt(xorChunk.getLength());
+            writeBytes(out, xorChunk.getEncodedValues());
+        } else if (chunk instanceof DeltaOfDeltaDoubleArrayChunk) {
+            DeltaOfDeltaDoubleArrayChunk deltaOfDeltaChunk = (DeltaOfDeltaDoubleArrayChunk) chunk;
+            out.writeUTF("deltaOfDelta");
+            out.writeInt(deltaOfDeltaChunk.getOffset());
+            out.writeInt(deltaOfDeltaChunk.getLength());
+            out.writeInt(deltaOfDeltaChunk.getScale());
+            writeBytes(out, deltaOfDeltaChunk.getEncodedValues());
         } else {
             throw new AssertionError();
         }
     }
 
+    private static void writeBytes(DataOutput2 out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput2 input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
     @Override
     public DoubleArrayChunk deserialize(DataInput2 input, int available) throws IOException {
         String type = input.readUTF();
@@ -79,6 +112,15 @@ public final class DoubleArrayChunkSerializer implements Serializer<DoubleArrayC
                 stepValues[i] = input.readDouble();
             }
             return new CompressedDoubleArrayChunk(offset, uncompressedLength, stepValues, stepLengths);
+        } else if ("xor".equals(type)) {
+            int offset = input.readInt();
+            int uncompressedLength = input.readInt();
+            return new XorDoubleArrayChunk(offset, uncompressedLength, readBytes(input));
+        } else if ("deltaOfDelta".equals(type)) {
+            int offset = input.readInt();
+            int uncompressedLength = input.readInt();
+            int scale = input.readInt();
+            return new DeltaOfDeltaDoubleArrayChunk(offset, uncompressedLength, scale, readBytes(input));
         } else {
             throw new AssertionError();
         }
@@ -77,6 +77,12 @@ public class MapDbAppStorage implements AppStorage {
 
     private final ConcurrentMap<TimeSeriesKey, Integer> timeSeriesLastChunkMap;
 
+    /**
+     * Offset, length and number of the chunks of each time series, sorted by offset, so that range reads find the
+     * overlapping chunks with a binary search and only load those ones.
+     */
+    private final ConcurrentMap<TimeSeriesKey, int[]> timeSeriesChunkOffsetsMap;
+
     private final ConcurrentMap<TimeSeriesChunkKey, DoubleArrayChunk> doubleTimeSeriesChunksMap;
 
     private final ConcurrentMap<TimeSeriesChunkKey, StringArrayChunk> stringTimeSeriesChunksMap;
@@ -130,6 +136,10 @@ public class MapDbAppStorage implements AppStorage {
                 .hashMap("timeSeriesLastChunkMap", TimeSeriesKeySerializer.INSTANCE, Serializer.INTEGER)
                 .createOrOpen();
 
+        timeSeriesChunkOffsetsMap = this.db
+                .hashMap("timeSeriesChunkOffsetsMap", TimeSeriesKeySerializer.INSTANCE, Serializer.INT_ARRAY)
+                .createOrOpen();
+
         doubleTimeSeriesChunksMap = this.db
                 .hashMap("doubleTimeSeriesChunksMap", TimeSeriesChunkKeySerializer.INSTANCE, DoubleArrayChunkSerializer.INSTANCE)
                 .createOrOpen();
@@ -311,6 +321,29 @@ public class MapDbAppStorage implements AppStorage {
         return childNodes.stream().map(this::getNodeInfo).collect(Collectors.toList());
     }
 
+    @Override
+    public Map<String, List<NodeInfo>> getDescendantNodes(String nodeId, int depth) {
+        UUID nodeUuid = checkNodeId(nodeId);
+        AppStorage.checkDepth(depth);
+        checkNodeExists(nodeUuid);
+        // walk the tree level by level on UUIDs to avoid parsing again each child node ID
+        Map<String, List<NodeInfo>> descendantNodes = new LinkedHashMap<>();
+        List<UUID> levelNodeUuids = Collections.singletonList(nodeUuid);
+        for (int level = 0; level < depth && !levelNodeUuids.isEmpty(); level++) {
+            List<UUID> nextLevelNodeUuids = new ArrayList<>();
+            for (UUID levelNodeUuid : levelNodeUuids) {
+                List<UUID> childNodeUuids = childNodesMap.get(levelNodeUuid);
+                if (childNodeUuids == null) {
+                    throw createNodeNotFoundException(levelNodeUuid);
+                }
+                descendantNodes.put(levelNodeUuid.toString(), childNodeUuids.stream().map(this::getNodeInfo).collect(Collectors.toList()));
+                nextLevelNodeUuids.addAll(childNodeUuids);
+            }
+            levelNodeUuids = nextLevelNodeUuids;
+        }
+        return descendantNodes;
+    }
+
     @Override
     public Optional<NodeInfo> getChildNode(String parentString, String name) {
         UUID parentNodeUuid = checkNodeId(parentString);
@@ -564,41 +597,93 @@ public class MapDbAppStorage implements AppStorage {
                 .collect(Collectors.toSet());
     }
 
+    private static <P extends AbstractPoint, C extends ArrayChunk<P, C>> C getChunk(TimeSeriesChunkKey chunkKey, TimeSeriesMetadata metadata,
+                                                                                    ConcurrentMap<TimeSeriesChunkKey, C> map) {
+        C chunk = map.get(chunkKey);
+        if (chunk == null) {
+            throw new AssertionError("chunk is null");
+        }
+        if (chunk.getDataType() != metadata.getDataType()) {
+            throw new IllegalStateException("Bad chunk data type");
+        }
+        return chunk;
+    }
+
     private <P extends AbstractPoint, C extends ArrayChunk<P, C>> List<C> getChunks(UUID nodeId, int version, String timeSeriesName,
                                                                                     TimeSeriesMetadata metadata,
-                                                                                    ConcurrentMap<TimeSeriesChunkKey, C> map) {
+                                                                                    ConcurrentMap<TimeSeriesChunkKey, C> map,
+                                                                                    int firstPoint, int lastPoint) {
         TimeSeriesKey key = new TimeSeriesKey(nodeId, version, timeSeriesName);
         Integer lastChunkNum = timeSeriesLastChunkMap.get(key);
         if (lastChunkNum == null) {
             return Collections.emptyList();
         }
-        List<C> chunks = new ArrayList<>(lastChunkNum + 1);
-        for (int chunkNum = 0; chunkNum <= lastChunkNum; chunkNum++) {
-            C chunk = map.get(new TimeSeriesChunkKey(key, chunkNum));
-            if (chunk == null) {
-                throw new AssertionError("chunk is null");
+        List<C> chunks = new ArrayList<>();
+        int[] offsets = timeSeriesChunkOffsetsMap.get(key);
+        if (offsets != null) {
+            // chunks do not overlap, so the ones sorted by offset are also sorted by last point
+            for (int i = findFirstChunk(offsets, firstPoint); i < offsets.length / 3 && offsets[3 * i] <= lastPoint; i++) {
+                chunks.add(getChunk(new TimeSeriesChunkKey(key, offsets[3 * i + 2]), metadata, map));
             }
-            if (chunk.getDataType() != metadata.getDataType()) {
-                throw new IllegalStateException("Bad chunk data type");
+        } else {
+            // no index, for instance a file system created before chunk offsets were indexed
+            for (int chunkNum = 0; chunkNum <= lastChunkNum; chunkNum++) {
+                C chunk = getChunk(new TimeSeriesChunkKey(key, chunkNum), metadata, map);
+                if (AppStorage.isOverlapping(chunk.getOffset(), chunk.getLength(), firstPoint, lastPoint)) {
+                    chunks.add(chunk);
+                }
             }
-            chunks.add(chunk);
         }
         return chunks;
     }
 
+    /**
+     * Binary search of the first chunk ending at or after {@code firstPoint}.
+     */
+    private static int findFirstChunk(int[] offsets, int firstPoint) {
+        int low = 0;
+        int high = offsets.length / 3;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[3 * mid] + offsets[3 * mid + 1] - 1 < firstPoint) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] addChunkOffset(int[] offsets, int offset, int length, int chunkNum) {
+        int chunkCount = offsets.length / 3;
+        int i = chunkCount;
+        while (i > 0 && offsets[3 * (i - 1)] > offset) {
+            i--;
+        }
+        int[] newOffsets = new int[offsets.length + 3];
+        System.arraycopy(offsets, 0, newOffsets, 0, 3 * i);
+        newOffsets[3 * i] = offset;
+        newOffsets[3 * i + 1] = length;
+        newOffsets[3 * i + 2] = chunkNum;
+        System.arraycopy(offsets, 3 * i, newOffsets, 3 * (i + 1), offsets.length - 3 * i);
+        return newOffsets;
+    }
+
     private <P extends AbstractPoint, C extends ArrayChunk<P, C>>
-        Map<String, List<C>> getTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version, ConcurrentMap<TimeSeriesChunkKey, C> map) {
+        Map<String, List<C>> getTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version, ConcurrentMap<TimeSeriesChunkKey, C> map,
+                                               int firstPoint, int lastPoint) {
         UUID nodeUuid = checkNodeId(nodeId);
         Objects.requireNonNull(timeSeriesNames);
         TimeSeriesIndex.checkVersion(version);
         Objects.requireNonNull(map);
+        AppStorage.checkPointRange(firstPoint, lastPoint);
         Map<String, List<C>> timeSeriesData = new HashMap<>();
         for (String timeSeriesName : timeSeriesNames) {
             TimeSeriesMetadata metadata = timeSeriesMetadataMap.get(new NamedLink(nodeUuid, timeSeriesName));
             if (metadata != null &&
                     ((metadata.getDataType() == TimeSeriesDataType.DOUBLE && map == doubleTimeSeriesChunksMap)
                         || (metadata.getDataType() == TimeSeriesDataType.STRING && map == stringTimeSeriesChunksMap))) {
-                List<C> chunks = getChunks(nodeUuid, version, timeSeriesName, metadata, map);
+                List<C> chunks = getChunks(nodeUuid, version, timeSeriesName, metadata, map, firstPoint, lastPoint);
                 timeSeriesData.put(timeSeriesName, chunks);
             }
         }
@@ -615,23 +700,36 @@ public class MapDbAppStorage implements AppStorage {
         Objects.requireNonNull(timeSeriesName);
         Objects.requireNonNull(chunks);
         Objects.requireNonNull(map);
+        if (chunks.isEmpty()) {
+            return;
+        }
+        TimeSeriesKey key = new TimeSeriesKey(nodeUuid, version, timeSeriesName);
+        Integer lastNum = timeSeriesLastChunkMap.get(key);
+        int num = lastNum == null ? 0 : lastNum + 1;
+        // chunks added before offsets were indexed are not in the index, keep reading them all in that case
+        int[] offsets = lastNum == null ? new int[0] : timeSeriesChunkOffsetsMap.get(key);
         for (C chunk : chunks) {
-            TimeSeriesKey key = new TimeSeriesKey(nodeUuid, version, timeSeriesName);
-            Integer lastNum = timeSeriesLastChunkMap.get(key);
-            int num;
-            if (lastNum == null) {
-                num = 0;
-            } else {
-                num = lastNum + 1;
-            }
-            timeSeriesLastChunkMap.put(key, num);
             map.put(new TimeSeriesChunkKey(key, num), chunk);
+            if (offsets != null) {
+                offsets = addChunkOffset(offsets, chunk.getOffset(), chunk.getLength(), num);
+            }
+            num++;
+        }
+        if (offsets != null) {
+            timeSeriesChunkOffsetsMap.put(key, offsets);
         }
+        timeSeriesLastChunkMap.put(key, num - 1);
     }
 
     @Override
     public Map<String, List<DoubleArrayChunk>> getDoubleTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version) {
-        return getTimeSeriesData(nodeId, timeSeriesNames, version, doubleTimeSeriesChunksMap);
+        return getTimeSeriesData(nodeId, timeSeriesNames, version, doubleTimeSeriesChunksMap, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Map<String, List<DoubleArrayChunk>> getDoubleTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                       int firstPoint, int lastPoint) {
+        return getTimeSeriesData(nodeId, timeSeriesNames, version, doubleTimeSeriesChunksMap, firstPoint, lastPoint);
     }
 
     @Override
@@ -641,7 +739,13 @@ public class MapDbAppStorage implements AppStorage {
 
     @Override
     public Map<String, List<StringArrayChunk>> getStringTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version) {
-        return getTimeSeriesData(nodeId, timeSeriesNames, version, stringTimeSeriesChunksMap);
+        return getTimeSeriesData(nodeId, timeSeriesNames, version, stringTimeSeriesChunksMap, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Map<String, List<StringArrayChunk>> getStringTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                       int firstPoint, int lastPoint) {
+        return getTimeSeriesData(nodeId, timeSeriesNames, version, stringTimeSeriesChunksMap, firstPoint, lastPoint);
     }
 
     @Override
@@ -6,9 +6,7 @@
  */
 package com.powsybl.afs.mapdb.storage;
 
-import com.powsybl.timeseries.CompressedStringArrayChunk;
-import com.powsybl.timeseries.StringArrayChunk;
-import com.powsybl.timeseries.UncompressedStringArrayChunk;
+import com.powsybl.timeseries.*;
 import org.mapdb.DataInput2;
 import org.mapdb.DataOutput2;
 import org.mapdb.Serializer;
@@ -49,6 +47,18 @@ public final class StringArrayChunkSerializer implements Serializer<StringArrayC
             for (String value : compressedChunk.getStepValues()) {
                 out.writeUTF(value);
             }
+        } else if (chunk instanceof DictionaryStringArrayChunk) {
+            DictionaryStringArrayChunk dictionaryChunk = (DictionaryStringArrayChunk) chunk;
+            out.writeUTF("dictionary");
+            out.writeInt(dictionaryChunk.getOffset());
+            out.writeInt(dictionaryChunk.getDictionary().length);
+            for (String value : dictionaryChunk.getDictionary()) {
+                out.writeUTF(value);
+            }
+            out.writeInt(dictionaryChunk.getIndexes().length);
+            for (int index : dictionaryChunk.getIndexes()) {
+                out.writeInt(index);
+            }
         } else {
             throw new AssertionError();
         }
@@ -79,6 +89,19 @@ public final class StringArrayChunkSerializer implements Serializer<StringArrayC
                 stepValues[i] = input.readUTF();
             }
             return new CompressedStringArrayChunk(offset, uncompressedLength, stepValues, stepLengths);
+        } else if ("dictionary".equals(type)) {
+            int offset = input.readInt();
+            int dictionaryLength = input.readInt();
+            String[] dictionary = new String[dictionaryLength];
+            for (int i = 0; i < dictionaryLength; i++) {
+                dictionary[i] = input.readUTF();
+            }
+            int indexesLength = input.readInt();
+            int[] indexes = new int[indexesLength];
+            for (int i = 0; i < indexesLength; i++) {
+                indexes[i] = input.readInt();
+            }
+            return new DictionaryStringArrayChunk(offset, dictionary, indexes);
         } else {
             throw new AssertionError();
         }
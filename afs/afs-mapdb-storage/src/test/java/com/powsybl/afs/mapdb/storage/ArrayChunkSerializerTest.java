@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.mapdb.storage;
+
+import com.powsybl.timeseries.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+
+import java.nio.DoubleBuffer;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class ArrayChunkSerializerTest {
+
+    private DB db;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.memoryDB().make();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void doubleArrayChunkTest() {
+        Map<Integer, DoubleArrayChunk> map = db.hashMap("doubleChunks", Serializer.INTEGER, DoubleArrayChunkSerializer.INSTANCE)
+                .createOrOpen();
+        double[] values = {1d, 1.5d, 2d, 2.5d, 3d};
+        DoubleArrayChunk xorChunk = XorDoubleArrayChunk.encode(2, values);
+        DoubleArrayChunk deltaOfDeltaChunk = DeltaOfDeltaDoubleArrayChunk.encode(3, values);
+        assertNotNull(deltaOfDeltaChunk);
+        map.put(0, new UncompressedDoubleArrayChunk(1, values));
+        map.put(1, new CompressedDoubleArrayChunk(1, 3, new double[] {1d, 2d}, new int[] {2, 1}));
+        map.put(2, xorChunk);
+        map.put(3, deltaOfDeltaChunk);
+        map.put(4, new MemoryMappedDoubleArrayChunk(4, DoubleBuffer.wrap(values)));
+
+        assertEquals(new UncompressedDoubleArrayChunk(1, values), map.get(0));
+        assertEquals(new CompressedDoubleArrayChunk(1, 3, new double[] {1d, 2d}, new int[] {2, 1}), map.get(1));
+        assertEquals(xorChunk, map.get(2));
+        assertArrayEquals(values, ((XorDoubleArrayChunk) map.get(2)).toArray(), 0d);
+        assertEquals(deltaOfDeltaChunk, map.get(3));
+        assertArrayEquals(values, ((DeltaOfDeltaDoubleArrayChunk) map.get(3)).toArray(), 0d);
+        // a memory mapped chunk is read back as an uncompressed one
+        assertEquals(new UncompressedDoubleArrayChunk(4, values), map.get(4));
+    }
+
+    @Test
+    public void stringArrayChunkTest() {
+        Map<Integer, StringArrayChunk> map = db.hashMap("stringChunks", Serializer.INTEGER, StringArrayChunkSerializer.INSTANCE)
+                .createOrOpen();
+        String[] values = {"a", "b", "a", "c", "a"};
+        DictionaryStringArrayChunk dictionaryChunk = DictionaryStringArrayChunk.encode(2, values);
+        map.put(0, new UncompressedStringArrayChunk(1, values));
+        map.put(1, new CompressedStringArrayChunk(1, 3, new String[] {"a", "b"}, new int[] {2, 1}));
+        map.put(2, dictionaryChunk);
+
+        assertEquals(new UncompressedStringArrayChunk(1, values), map.get(0));
+        assertEquals(new CompressedStringArrayChunk(1, 3, new String[] {"a", "b"}, new int[] {2, 1}), map.get(1));
+        assertEquals(dictionaryChunk, map.get(2));
+        assertArrayEquals(new String[] {"a", "b", "c"}, ((DictionaryStringArrayChunk) map.get(2)).getDictionary());
+    }
+}
@@ -10,10 +10,8 @@ import com.powsybl.timeseries.*;
 
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -50,6 +48,16 @@ public interface AppStorage extends AutoCloseable {
      */
     NodeInfo getNodeInfo(String nodeId);
 
+    /**
+     * Gets {@code NodeInfo} objects of nodes with IDs {@code nodeIds}, in the same order.
+     * <p>
+     * Default implementation gets infos one by one, remote storages should override it to get all of them at once.
+     */
+    default List<NodeInfo> getNodeInfos(List<String> nodeIds) {
+        Objects.requireNonNull(nodeIds);
+        return nodeIds.stream().map(this::getNodeInfo).collect(Collectors.toList());
+    }
+
     void setDescription(String nodeId, String description);
 
     void updateModificationTime(String nodeId);
@@ -69,6 +77,36 @@ public interface AppStorage extends AutoCloseable {
      */
     Optional<NodeInfo> getParentNode(String nodeId);
 
+    /**
+     * Gets child nodes of node with ID {@code nodeId} and of its descendants down to {@code depth} levels below it,
+     * indexed by parent node ID. Nodes of the last level are not explored so they are not keys of the returned map.
+     * <p>
+     * Default implementation gets child nodes one node at a time, remote storages should override it to get the
+     * whole sub tree at once.
+     */
+    default Map<String, List<NodeInfo>> getDescendantNodes(String nodeId, int depth) {
+        Objects.requireNonNull(nodeId);
+        checkDepth(depth);
+        Map<String, List<NodeInfo>> descendantNodes = new LinkedHashMap<>();
+        List<String> levelNodeIds = Collections.singletonList(nodeId);
+        for (int level = 0; level < depth && !levelNodeIds.isEmpty(); level++) {
+            List<String> nextLevelNodeIds = new ArrayList<>();
+            for (String levelNodeId : levelNodeIds) {
+                List<NodeInfo> childNodes = getChildNodes(levelNodeId);
+                descendantNodes.put(levelNodeId, childNodes);
+                childNodes.forEach(childNode -> nextLevelNodeIds.add(childNode.getId()));
+            }
+            levelNodeIds = nextLevelNodeIds;
+        }
+        return descendantNodes;
+    }
+
+    static void checkDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Bad depth " + depth);
+        }
+    }
+
     /**
      * Sets new parent node for the node with ID {@code nodeId}.
      */
@@ -148,6 +186,20 @@ public interface AppStorage extends AutoCloseable {
      */
     Map<String, List<DoubleArrayChunk>> getDoubleTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version);
 
+    /**
+     * Gets data (double) for the time series with names {@code timeSeriesNames} associated with node with ID {@code nodeId},
+     * restricted to chunks overlapping points range [{@code firstPoint}, {@code lastPoint}]. Chunks are returned as is,
+     * so they may also contain points outside of the range.
+     * <p>
+     * Default implementation reads all the chunks and filters them, storages should override it to only load
+     * overlapping chunks.
+     */
+    default Map<String, List<DoubleArrayChunk>> getDoubleTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                        int firstPoint, int lastPoint) {
+        checkPointRange(firstPoint, lastPoint);
+        return filterOverlappingChunks(getDoubleTimeSeriesData(nodeId, timeSeriesNames, version), firstPoint, lastPoint);
+    }
+
     /**
      * Adds data (double) to the time series with names {@code timeSeriesNames} associated with node with ID {@code nodeId}.
      */
@@ -158,6 +210,39 @@ public interface AppStorage extends AutoCloseable {
      */
     Map<String, List<StringArrayChunk>> getStringTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version);
 
+    /**
+     * Gets data (string) for the time series with names {@code timeSeriesNames} associated with node with ID {@code nodeId},
+     * restricted to chunks overlapping points range [{@code firstPoint}, {@code lastPoint}].
+     *
+     * @see #getDoubleTimeSeriesData(String, Set, int, int, int)
+     */
+    default Map<String, List<StringArrayChunk>> getStringTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                        int firstPoint, int lastPoint) {
+        checkPointRange(firstPoint, lastPoint);
+        return filterOverlappingChunks(getStringTimeSeriesData(nodeId, timeSeriesNames, version), firstPoint, lastPoint);
+    }
+
+    static void checkPointRange(int firstPoint, int lastPoint) {
+        if (firstPoint < 0 || lastPoint < firstPoint) {
+            throw new IllegalArgumentException("Bad point range [" + firstPoint + ", " + lastPoint + "]");
+        }
+    }
+
+    static boolean isOverlapping(int chunkOffset, int chunkLength, int firstPoint, int lastPoint) {
+        return chunkOffset <= lastPoint && chunkOffset + chunkLength - 1 >= firstPoint;
+    }
+
+    static <C extends ArrayChunk<?, ?>> Map<String, List<C>> filterOverlappingChunks(Map<String, List<C>> timeSeriesData, int firstPoint, int lastPoint) {
+        Objects.requireNonNull(timeSeriesData);
+        Map<String, List<C>> filteredTimeSeriesData = new HashMap<>(timeSeriesData.size());
+        for (Map.Entry<String, List<C>> e : timeSeriesData.entrySet()) {
+            filteredTimeSeriesData.put(e.getKey(), e.getValue().stream()
+                    .filter(chunk -> isOverlapping(chunk.getOffset(), chunk.getLength(), firstPoint, lastPoint))
+                    .collect(Collectors.toList()));
+        }
+        return filteredTimeSeriesData;
+    }
+
     /**
      * Adds data (string) to the time series with names {@code timeSeriesNames} associated with node with ID {@code nodeId}.
      */
@@ -184,6 +269,21 @@ public interface AppStorage extends AutoCloseable {
      */
     Set<NodeDependency> getDependencies(String nodeId);
 
+    /**
+     * Gets all dependencies ({@code NodeDependency} objects) of nodes with IDs {@code nodeIds}, indexed by node ID.
+     * <p>
+     * Default implementation gets dependencies one node at a time, remote storages should override it to get all of
+     * them at once.
+     */
+    default Map<String, Set<NodeDependency>> getNodeDependencies(List<String> nodeIds) {
+        Objects.requireNonNull(nodeIds);
+        Map<String, Set<NodeDependency>> nodeDependencies = new LinkedHashMap<>(nodeIds.size());
+        for (String nodeId : nodeIds) {
+            nodeDependencies.put(nodeId, getDependencies(nodeId));
+        }
+        return nodeDependencies;
+    }
+
     /**
      * Gets {@code NodeInfo} objects of nodes which depend on the node with ID {@code nodeId}.
      */
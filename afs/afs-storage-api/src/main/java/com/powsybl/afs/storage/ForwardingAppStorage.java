@@ -57,6 +57,11 @@ public class ForwardingAppStorage implements AppStorage {
         return storage.getNodeInfo(nodeId);
     }
 
+    @Override
+    public List<NodeInfo> getNodeInfos(List<String> nodeIds) {
+        return storage.getNodeInfos(nodeIds);
+    }
+
     @Override
     public void setDescription(String nodeId, String description) {
         storage.setDescription(nodeId, description);
@@ -82,6 +87,11 @@ public class ForwardingAppStorage implements AppStorage {
         return storage.getParentNode(nodeId);
     }
 
+    @Override
+    public Map<String, List<NodeInfo>> getDescendantNodes(String nodeId, int depth) {
+        return storage.getDescendantNodes(nodeId, depth);
+    }
+
     @Override
     public void setParentNode(String nodeId, String newParentNodeId) {
         storage.setParentNode(nodeId, newParentNodeId);
@@ -157,6 +167,12 @@ public class ForwardingAppStorage implements AppStorage {
         return storage.getDoubleTimeSeriesData(nodeId, timeSeriesNames, version);
     }
 
+    @Override
+    public Map<String, List<DoubleArrayChunk>> getDoubleTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                       int firstPoint, int lastPoint) {
+        return storage.getDoubleTimeSeriesData(nodeId, timeSeriesNames, version, firstPoint, lastPoint);
+    }
+
     @Override
     public void addDoubleTimeSeriesData(String nodeId, int version, String timeSeriesName, List<DoubleArrayChunk> chunks) {
         storage.addDoubleTimeSeriesData(nodeId, version, timeSeriesName, chunks);
@@ -167,6 +183,12 @@ public class ForwardingAppStorage implements AppStorage {
         return storage.getStringTimeSeriesData(nodeId, timeSeriesNames, version);
     }
 
+    @Override
+    public Map<String, List<StringArrayChunk>> getStringTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                       int firstPoint, int lastPoint) {
+        return storage.getStringTimeSeriesData(nodeId, timeSeriesNames, version, firstPoint, lastPoint);
+    }
+
     @Override
     public void addStringTimeSeriesData(String nodeId, int version, String timeSeriesName, List<StringArrayChunk> chunks) {
         storage.addStringTimeSeriesData(nodeId, version, timeSeriesName, chunks);
@@ -192,6 +214,11 @@ public class ForwardingAppStorage implements AppStorage {
         return storage.getDependencies(nodeId);
     }
 
+    @Override
+    public Map<String, Set<NodeDependency>> getNodeDependencies(List<String> nodeIds) {
+        return storage.getNodeDependencies(nodeIds);
+    }
+
     @Override
     public Set<NodeInfo> getBackwardDependencies(String nodeId) {
         return storage.getBackwardDependencies(nodeId);
@@ -6,21 +6,41 @@
  */
 package com.powsybl.afs.storage.buffer;
 
+import com.powsybl.commons.exceptions.UncheckedInterruptedException;
 import com.powsybl.timeseries.DoubleArrayChunk;
 import com.powsybl.timeseries.StringArrayChunk;
 import com.powsybl.timeseries.TimeSeriesMetadata;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * Buffer storage changes and flush them by batch once {@code maximumChange} changes or {@code maximumSize} bytes
+ * have been buffered.
+ * <p>
+ * By default batches are flushed synchronously on the caller thread. When created with an executor, batches are
+ * flushed asynchronously: producers keep on appending changes to a fresh change set while previous ones are
+ * flushed in order in the background. At most {@code maximumInFlightBatches} batches can be waiting for or under
+ * flush, producers are blocked beyond that limit. {@link #flush()} is a barrier: it returns once all changes
+ * buffered so far have been flushed, and rethrows the failure of an asynchronous flush if any.
+ * <p>
+ * As in synchronous mode, changes are not lost when a flush fails: the failed batch, and the following ones which
+ * are not flushed to keep the changes in order, are put back in the buffer once the failure has been reported, and
+ * are flushed again with the next batch.
+ *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public class StorageChangeBuffer {
 
-    private final StorageChangeSet changeSet = new StorageChangeSet();
+    private StorageChangeSet changeSet = new StorageChangeSet();
 
     private final Lock lock = new ReentrantLock();
 
@@ -30,7 +50,21 @@ public class StorageChangeBuffer {
 
     private final long maximumSize;
 
+    private final Executor executor;
+
+    private final Semaphore inFlightBatches;
+
+    private CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture(null);
+
+    // failed or skipped asynchronous batches, in order, not guarded by the lock as flush tasks add to it
+    private final Queue<StorageChangeSet> unflushedChangeSets = new ConcurrentLinkedQueue<>();
+
     public StorageChangeBuffer(StorageChangeFlusher flusher, int maximumChange, long maximumSize) {
+        this(flusher, maximumChange, maximumSize, null, 1);
+    }
+
+    public StorageChangeBuffer(StorageChangeFlusher flusher, int maximumChange, long maximumSize, Executor executor,
+                               int maximumInFlightBatches) {
         this.flusher = Objects.requireNonNull(flusher);
         if (maximumChange <= 0) {
             throw new IllegalArgumentException("Bad buffer maximum change " + maximumChange);
@@ -38,15 +72,93 @@ public class StorageChangeBuffer {
         if (maximumSize <= 0) {
             throw new IllegalArgumentException("Bad buffer maximum size " + maximumSize);
         }
+        if (maximumInFlightBatches <= 0) {
+            throw new IllegalArgumentException("Bad buffer maximum in flight batches " + maximumInFlightBatches);
+        }
         this.maximumChange = maximumChange;
         this.maximumSize = maximumSize;
+        this.executor = executor;
+        inFlightBatches = new Semaphore(maximumInFlightBatches);
+    }
+
+    public boolean isAsync() {
+        return executor != null;
+    }
+
+    private static void rethrow(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Put back in front of the buffer the changes of the failed and skipped batches, once the last batch has
+     * completed exceptionally (so all previous ones are completed too). To be called with the lock held.
+     */
+    private void recoverFailedFlush() {
+        lastFlush = CompletableFuture.completedFuture(null);
+        StorageChangeSet retryChangeSet = new StorageChangeSet();
+        StorageChangeSet unflushedChangeSet;
+        while ((unflushedChangeSet = unflushedChangeSets.poll()) != null) {
+            retryChangeSet.getChanges().addAll(unflushedChangeSet.getChanges());
+        }
+        retryChangeSet.getChanges().addAll(changeSet.getChanges());
+        changeSet = retryChangeSet;
+    }
+
+    /**
+     * Rethrow, only once, the failure of a previous asynchronous flush.
+     */
+    private void checkFlushFailure() {
+        if (lastFlush.isCompletedExceptionally()) {
+            CompletableFuture<Void> failedFlush = lastFlush;
+            recoverFailedFlush();
+            try {
+                failedFlush.join();
+            } catch (CompletionException e) {
+                rethrow(e);
+            }
+        }
+    }
+
+    private void flushAsync() {
+        // acquire before swapping so that the changes stay buffered if interrupted
+        try {
+            inFlightBatches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedInterruptedException(e);
+        }
+        // swap change sets so that producers can continue while this one is flushed
+        StorageChangeSet changeSetToFlush = changeSet;
+        changeSet = new StorageChangeSet();
+        // chaining keeps batches in order, a failed batch fails following ones which are then kept for retry
+        lastFlush = lastFlush.thenRunAsync(() -> flusher.flush(changeSetToFlush), executor)
+                .whenComplete((r, t) -> {
+                    if (t != null) {
+                        unflushedChangeSets.add(changeSetToFlush);
+                    }
+                    inFlightBatches.release();
+                });
     }
 
     private void addChange(StorageChange change) {
+        if (isAsync()) {
+            checkFlushFailure();
+        }
         changeSet.getChanges().add(change);
         if (changeSet.getChanges().size() >= maximumChange ||
                 changeSet.getEstimatedSize() >= maximumSize) {
-            flush();
+            if (isAsync()) {
+                flushAsync();
+            } else {
+                flush();
+            }
         }
     }
 
@@ -79,6 +191,9 @@ public class StorageChangeBuffer {
         }
     }
 
+    /**
+     * Returns {@code true} if no change is buffered. Batches being flushed asynchronously are not taken into account.
+     */
     public boolean isEmpty() {
         lock.lock();
         try {
@@ -89,13 +204,41 @@ public class StorageChangeBuffer {
     }
 
     public void flush() {
-        lock.lock();
-        try {
-            flusher.flush(changeSet);
-
-            changeSet.getChanges().clear();
-        } finally {
-            lock.unlock();
+        if (isAsync()) {
+            CompletableFuture<Void> flushToWait;
+            lock.lock();
+            try {
+                if (!changeSet.getChanges().isEmpty()) {
+                    flushAsync();
+                }
+                flushToWait = lastFlush;
+            } finally {
+                lock.unlock();
+            }
+            // wait outside of the lock so that producers are not blocked
+            try {
+                flushToWait.join();
+            } catch (CompletionException e) {
+                lock.lock();
+                try {
+                    // otherwise batches chained meanwhile will fail too and the next check will recover them
+                    if (lastFlush == flushToWait) {
+                        recoverFailedFlush();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                rethrow(e);
+            }
+        } else {
+            lock.lock();
+            try {
+                flusher.flush(changeSet);
+
+                changeSet.getChanges().clear();
+            } finally {
+                lock.unlock();
+            }
         }
     }
 }
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
@@ -234,6 +235,19 @@ public abstract class AbstractAppStorageTest {
         assertEquals(ImmutableSet.of(testData2Info), storage.getDependencies(testDataInfo.getId(), "mylink"));
         assertTrue(storage.getDependencies(testDataInfo.getId(), "mylink2").isEmpty());
 
+        // check batched metadata reads
+        List<String> dataNodeIds = ImmutableList.of(testDataInfo.getId(), testData2Info.getId());
+        assertEquals(ImmutableList.of(testDataInfo, testData2Info), storage.getNodeInfos(dataNodeIds));
+        Map<String, Set<NodeDependency>> nodeDependencies = storage.getNodeDependencies(dataNodeIds);
+        assertEquals(ImmutableSet.of(new NodeDependency("mylink", testData2Info)), nodeDependencies.get(testDataInfo.getId()));
+        assertTrue(nodeDependencies.get(testData2Info.getId()).isEmpty());
+        Map<String, List<NodeInfo>> descendantNodes = storage.getDescendantNodes(rootFolderInfo.getId(), 2);
+        assertEquals(ImmutableSet.of(rootFolderInfo.getId(), testFolderInfo.getId()), descendantNodes.keySet());
+        assertEquals(ImmutableList.of(testFolderInfo.getId()),
+                     descendantNodes.get(rootFolderInfo.getId()).stream().map(NodeInfo::getId).collect(Collectors.toList()));
+        assertEquals(ImmutableList.of(testDataInfo, testData2Info, testData3Info), descendantNodes.get(testFolderInfo.getId()));
+        assertTrue(storage.getDescendantNodes(testFolderInfo.getId(), 2).get(testData3Info.getId()).isEmpty());
+
         // 7) add then add a second dependency
         storage.addDependency(testDataInfo.getId(), "mylink2", testData2Info.getId());
         storage.flush();
@@ -387,6 +401,14 @@ public abstract class AbstractAppStorageTest {
                      doubleTimeSeriesData.get("ts1"));
         assertTrue(storage.getDoubleTimeSeriesData(testData3Info.getId(), Sets.newHashSet("ts1"), 0).isEmpty());
 
+        // check double time series data query by points range
+        assertEquals(Collections.singletonList(new UncompressedDoubleArrayChunk(5, new double[] {3d})),
+                     storage.getDoubleTimeSeriesData(testData2Info.getId(), Sets.newHashSet("ts1"), 0, 4, 10).get("ts1"));
+        assertEquals(Arrays.asList(new UncompressedDoubleArrayChunk(2, new double[] {1d, 2d}),
+                                   new UncompressedDoubleArrayChunk(5, new double[] {3d})),
+                     storage.getDoubleTimeSeriesData(testData2Info.getId(), Sets.newHashSet("ts1"), 0, 3, 5).get("ts1"));
+        assertTrue(storage.getDoubleTimeSeriesData(testData2Info.getId(), Sets.newHashSet("ts1"), 0, 0, 1).get("ts1").isEmpty());
+
         // 15) create a second string time series
         TimeSeriesMetadata metadata2 = new TimeSeriesMetadata("ts2",
                                                               TimeSeriesDataType.STRING,
@@ -418,6 +440,8 @@ public abstract class AbstractAppStorageTest {
         assertEquals(Arrays.asList(new UncompressedStringArrayChunk(2, new String[] {"a", "b"}),
                                    new UncompressedStringArrayChunk(5, new String[] {"c"})),
                      stringTimeSeriesData.get("ts2"));
+        assertEquals(Collections.singletonList(new UncompressedStringArrayChunk(2, new String[] {"a", "b"})),
+                     storage.getStringTimeSeriesData(testData2Info.getId(), Sets.newHashSet("ts2"), 0, 0, 3).get("ts2"));
 
         // 17) clear time series
         storage.clearTimeSeries(testData2Info.getId());
@@ -6,13 +6,20 @@
  */
 package com.powsybl.afs.storage.buffer;
 
+import com.google.common.collect.ImmutableList;
 import com.powsybl.timeseries.InfiniteTimeSeriesIndex;
 import com.powsybl.timeseries.TimeSeriesDataType;
 import com.powsybl.timeseries.TimeSeriesMetadata;
 import com.powsybl.timeseries.UncompressedDoubleArrayChunk;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -57,4 +64,108 @@ public class StorageChangeBufferTest {
         assertTrue(buffer.isEmpty());
         assertTrue(flushed[0]);
     }
+
+    @Test
+    public void testAsync() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch flushAllowed = new CountDownLatch(1);
+            List<String> flushedNodeIds = Collections.synchronizedList(new ArrayList<>());
+            StorageChangeBuffer buffer = new StorageChangeBuffer(changeSet -> {
+                try {
+                    flushAllowed.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                changeSet.getChanges().forEach(change -> flushedNodeIds.add(change.getNodeId()));
+            }, 1, Integer.MAX_VALUE, executor, 2);
+            assertTrue(buffer.isAsync());
+
+            // producer is not blocked by the flush in progress
+            buffer.createTimeSeries("a", new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            buffer.createTimeSeries("b", new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            assertTrue(buffer.isEmpty());
+            assertTrue(flushedNodeIds.isEmpty());
+
+            // flush is a barrier and batches are flushed in order
+            flushAllowed.countDown();
+            buffer.flush();
+            assertEquals(ImmutableList.of("a", "b"), flushedNodeIds);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncFailure() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            boolean[] failing = new boolean[] {true};
+            List<String> flushedNodeIds = Collections.synchronizedList(new ArrayList<>());
+            StorageChangeBuffer buffer = new StorageChangeBuffer(changeSet -> {
+                if (failing[0]) {
+                    throw new IllegalStateException("flush failed");
+                }
+                changeSet.getChanges().forEach(change -> flushedNodeIds.add(change.getNodeId()));
+            }, 1, Integer.MAX_VALUE, executor, 1);
+            buffer.createTimeSeries("a", new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            try {
+                buffer.flush();
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("flush failed", e.getMessage());
+            }
+            // failed changes are kept buffered
+            assertFalse(buffer.isEmpty());
+
+            // failure is only reported once, and the failed changes are flushed again
+            failing[0] = false;
+            buffer.flush();
+            assertTrue(buffer.isEmpty());
+            assertEquals(ImmutableList.of("a"), flushedNodeIds);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncFailureFollowingBatches() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch flushAllowed = new CountDownLatch(1);
+            boolean[] failing = new boolean[] {true};
+            List<String> flushedNodeIds = Collections.synchronizedList(new ArrayList<>());
+            StorageChangeBuffer buffer = new StorageChangeBuffer(changeSet -> {
+                try {
+                    flushAllowed.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failing[0]) {
+                    throw new IllegalStateException("flush failed");
+                }
+                changeSet.getChanges().forEach(change -> flushedNodeIds.add(change.getNodeId()));
+            }, 1, Integer.MAX_VALUE, executor, 3);
+
+            // batches chained after the failed one are skipped, not lost
+            buffer.createTimeSeries("a", new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            buffer.createTimeSeries("b", new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            buffer.createTimeSeries("c", new TimeSeriesMetadata("ts3", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            flushAllowed.countDown();
+            try {
+                buffer.flush();
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("flush failed", e.getMessage());
+            }
+            assertTrue(flushedNodeIds.isEmpty());
+
+            failing[0] = false;
+            buffer.createTimeSeries("d", new TimeSeriesMetadata("ts4", TimeSeriesDataType.DOUBLE, InfiniteTimeSeriesIndex.INSTANCE));
+            buffer.flush();
+            assertEquals(ImmutableList.of("a", "b", "c", "d"), flushedNodeIds);
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -19,6 +19,13 @@ import java.util.Optional;
  */
 public class RemoteServiceConfig {
 
+    /**
+     * Node metadata cache is disabled by default.
+     */
+    public static final long DEFAULT_NODE_CACHE_SIZE = 0;
+
+    public static final long DEFAULT_NODE_CACHE_TIME_TO_LIVE = 60; // seconds
+
     private String hostName;
 
     private String appName;
@@ -27,6 +34,10 @@ public class RemoteServiceConfig {
 
     private boolean secure;
 
+    private long nodeCacheSize = DEFAULT_NODE_CACHE_SIZE;
+
+    private long nodeCacheTimeToLive = DEFAULT_NODE_CACHE_TIME_TO_LIVE;
+
     public RemoteServiceConfig(String hostName, String appName, int port, boolean secure) {
         this.hostName = Objects.requireNonNull(hostName);
         this.appName = Objects.requireNonNull(appName);
@@ -45,7 +56,11 @@ public class RemoteServiceConfig {
             String appName = moduleConfig.getStringProperty("app-name");
             boolean secure = moduleConfig.getBooleanProperty("secure", true);
             int port = moduleConfig.getIntProperty("port", secure ? 443 : 80);
-            return new RemoteServiceConfig(hostName, appName, port, secure);
+            long nodeCacheSize = moduleConfig.getLongProperty("node-cache-size", DEFAULT_NODE_CACHE_SIZE);
+            long nodeCacheTimeToLive = moduleConfig.getLongProperty("node-cache-time-to-live", DEFAULT_NODE_CACHE_TIME_TO_LIVE);
+            return new RemoteServiceConfig(hostName, appName, port, secure)
+                    .setNodeCacheSize(nodeCacheSize)
+                    .setNodeCacheTimeToLive(nodeCacheTimeToLive);
         });
     }
 
@@ -56,6 +71,20 @@ public class RemoteServiceConfig {
         return port;
     }
 
+    private static long checkNodeCacheSize(long nodeCacheSize) {
+        if (nodeCacheSize < 0) {
+            throw new IllegalArgumentException("Invalid node cache size: " + nodeCacheSize);
+        }
+        return nodeCacheSize;
+    }
+
+    private static long checkNodeCacheTimeToLive(long nodeCacheTimeToLive) {
+        if (nodeCacheTimeToLive <= 0) {
+            throw new IllegalArgumentException("Invalid node cache time to live: " + nodeCacheTimeToLive);
+        }
+        return nodeCacheTimeToLive;
+    }
+
     public String getHostName() {
         return hostName;
     }
@@ -92,6 +121,30 @@ public class RemoteServiceConfig {
         return this;
     }
 
+    /**
+     * Maximum number of entries of the client side node metadata cache, 0 means the cache is disabled.
+     */
+    public long getNodeCacheSize() {
+        return nodeCacheSize;
+    }
+
+    public RemoteServiceConfig setNodeCacheSize(long nodeCacheSize) {
+        this.nodeCacheSize = checkNodeCacheSize(nodeCacheSize);
+        return this;
+    }
+
+    /**
+     * Time to live in seconds of client side node metadata cache entries.
+     */
+    public long getNodeCacheTimeToLive() {
+        return nodeCacheTimeToLive;
+    }
+
+    public RemoteServiceConfig setNodeCacheTimeToLive(long nodeCacheTimeToLive) {
+        this.nodeCacheTimeToLive = checkNodeCacheTimeToLive(nodeCacheTimeToLive);
+        return this;
+    }
+
     public URI getRestUri() {
         try {
             return new URI(secure ? "https" : "http", null, hostName, port, "/" + appName, null, null);
@@ -110,6 +163,7 @@ public class RemoteServiceConfig {
 
     @Override
     public String toString() {
-        return getClass().getSimpleName() + "(hostName=" + hostName + ", appName=" + appName + ", port=" + port + ", secure=" + secure + ")";
+        return getClass().getSimpleName() + "(hostName=" + hostName + ", appName=" + appName + ", port=" + port + ", secure=" + secure
+                + ", nodeCacheSize=" + nodeCacheSize + ", nodeCacheTimeToLive=" + nodeCacheTimeToLive + ")";
     }
 }
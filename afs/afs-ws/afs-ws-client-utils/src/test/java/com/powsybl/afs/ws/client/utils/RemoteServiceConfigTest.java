@@ -24,5 +24,16 @@ public class RemoteServiceConfigTest {
         RemoteServiceConfig config2 = new RemoteServiceConfig("host", "test", 80, false);
         assertEquals("http://host:80/test", config2.getRestUri().toString());
         assertEquals("ws://host:80/test", config2.getWsUri().toString());
+
+        assertEquals(RemoteServiceConfig.DEFAULT_NODE_CACHE_SIZE, config.getNodeCacheSize());
+        assertEquals(RemoteServiceConfig.DEFAULT_NODE_CACHE_TIME_TO_LIVE, config.getNodeCacheTimeToLive());
+        config.setNodeCacheSize(1000).setNodeCacheTimeToLive(30);
+        assertEquals(1000, config.getNodeCacheSize());
+        assertEquals(30, config.getNodeCacheTimeToLive());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidNodeCacheSizeTest() {
+        new RemoteServiceConfig("host", "test", 443, true).setNodeCacheSize(-1);
     }
 }
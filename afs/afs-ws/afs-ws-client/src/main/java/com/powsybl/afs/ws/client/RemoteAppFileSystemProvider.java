@@ -51,10 +51,13 @@ public class RemoteAppFileSystemProvider implements AppFileSystemProvider {
         Optional<RemoteServiceConfig> config = configSupplier.get();
         if (config.isPresent()) {
             URI uri = config.get().getRestUri();
+            long nodeCacheSize = config.get().getNodeCacheSize();
+            long nodeCacheTimeToLive = config.get().getNodeCacheTimeToLive();
             try {
                 return RemoteAppStorage.getFileSystemNames(uri, context.getToken()).stream()
                         .map(fileSystemName -> {
-                            RemoteAppStorage storage = new RemoteAppStorage(fileSystemName, uri, context.getToken());
+                            RemoteAppStorage storage = new RemoteAppStorage(fileSystemName, uri, context.getToken(),
+                                                                            nodeCacheSize, nodeCacheTimeToLive);
                             RemoteListenableAppStorage listenableStorage = new RemoteListenableAppStorage(storage, uri);
                             RemoteTaskMonitor taskMonitor = new RemoteTaskMonitor(fileSystemName, uri, context.getToken());
                             return new AppFileSystem(fileSystemName, true, listenableStorage, taskMonitor);
@@ -20,6 +20,7 @@ import com.powsybl.afs.ws.server.utils.JwtTokenNeeded;
 import com.powsybl.timeseries.*;
 import com.powsybl.afs.ws.server.utils.AppDataBean;
 import com.powsybl.afs.ws.utils.AfsRestApi;
+import com.powsybl.afs.ws.utils.binary.BinaryFormat;
 import com.powsybl.afs.ws.utils.gzip.Compress;
 import com.powsybl.timeseries.DoubleArrayChunk;
 import com.powsybl.timeseries.StringArrayChunk;
@@ -34,6 +35,7 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -88,6 +90,20 @@ public class AppStorageServer {
         return Response.ok().entity(childNodes).build();
     }
 
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/descendants")
+    @Compress
+    @ApiOperation (value = "Get descendant nodes", response = Map.class)
+    @ApiResponses (value = {@ApiResponse(code = 200, message = "The child nodes of each node of the sub tree"), @ApiResponse(code = 500, message = "Error")})
+    public Response getDescendantNodes(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
+                                       @ApiParam(value = "Node ID") @PathParam("nodeId") String nodeId,
+                                       @ApiParam(value = "Depth") @QueryParam("depth") int depth) {
+        AppStorage storage = appDataBean.getStorage(fileSystemName);
+        Map<String, List<NodeInfo>> descendantNodes = storage.getDescendantNodes(nodeId, depth);
+        return Response.ok().header(HttpHeaders.CONTENT_ENCODING, "gzip").entity(descendantNodes).build();
+    }
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
@@ -328,6 +344,20 @@ public class AppStorageServer {
         return Response.ok().entity(dependencies).build();
     }
 
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("fileSystems/{fileSystemName}/nodeDependencies")
+    @Compress
+    @ApiOperation (value = "Get dependencies of several nodes", response = Map.class)
+    @ApiResponses (value = {@ApiResponse(code = 200, message = "The dependencies of each node"), @ApiResponse(code = 500, message = "Error")})
+    public Response getNodeDependencies(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
+                                        @ApiParam(value = "Node IDs") List<String> nodeIds) {
+        AppStorage storage = appDataBean.getStorage(fileSystemName);
+        Map<String, Set<NodeDependency>> nodeDependencies = storage.getNodeDependencies(nodeIds);
+        return Response.ok().header(HttpHeaders.CONTENT_ENCODING, "gzip").entity(nodeDependencies).build();
+    }
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/backwardDependencies")
@@ -363,24 +393,7 @@ public class AppStorageServer {
         AppStorage storage = appDataBean.getStorage(fileSystemName);
 
         for (StorageChange change : changeSet.getChanges()) {
-            switch (change.getType()) {
-                case TIME_SERIES_CREATION:
-                    TimeSeriesCreation creation = (TimeSeriesCreation) change;
-                    storage.createTimeSeries(creation.getNodeId(), creation.getMetadata());
-                    break;
-                case DOUBLE_TIME_SERIES_CHUNKS_ADDITION:
-                    DoubleTimeSeriesChunksAddition doubleAddition = (DoubleTimeSeriesChunksAddition) change;
-                    storage.addDoubleTimeSeriesData(doubleAddition.getNodeId(), doubleAddition.getVersion(),
-                                                    doubleAddition.getTimeSeriesName(), doubleAddition.getChunks());
-                    break;
-                case STRING_TIME_SERIES_CHUNKS_ADDITION:
-                    StringTimeSeriesChunksAddition stringAddition = (StringTimeSeriesChunksAddition) change;
-                    storage.addStringTimeSeriesData(stringAddition.getNodeId(), stringAddition.getVersion(),
-                                                    stringAddition.getTimeSeriesName(), stringAddition.getChunks());
-                    break;
-                default:
-                    throw new AssertionError("Unknown change type " + change.getType());
-            }
+            applyChange(storage, change);
         }
 
         // propagate flush to underlying storage
@@ -389,6 +402,72 @@ public class AppStorageServer {
         return Response.ok().build();
     }
 
+    @POST
+    @Consumes(BinaryFormat.APPLICATION_BINARY)
+    @Path("fileSystems/{fileSystemName}/flush")
+    @ApiOperation (value = "")
+    @ApiResponses (value = {@ApiResponse(code = 200, message = ""), @ApiResponse(code = 500, message = "Error")})
+    public Response flushBinary(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
+                                @ApiParam(value = "Storage Change Set") InputStream is) {
+        AppStorage storage = appDataBean.getStorage(fileSystemName);
+
+        // the whole change set is decoded before being applied, so that a truncated or malformed stream does not
+        // leave part of the changes applied when the client sends the change set again
+        StorageChangeSet changeSet;
+        try {
+            changeSet = BinaryFormat.readChangeSet(is);
+        } catch (IOException | RuntimeException e) {
+            throw new WebApplicationException(Response.status(Status.BAD_REQUEST)
+                    .entity("Bad change set: " + e.getMessage())
+                    .build());
+        }
+
+        for (StorageChange change : changeSet.getChanges()) {
+            applyChange(storage, change);
+        }
+
+        // propagate flush to underlying storage
+        storage.flush();
+
+        return Response.ok().build();
+    }
+
+    /**
+     * A point range has to be fully specified, a missing or inconsistent bound is a bad request.
+     */
+    private static boolean hasPointRange(Integer firstPoint, Integer lastPoint) {
+        if (firstPoint == null && lastPoint == null) {
+            return false;
+        }
+        if (firstPoint == null || lastPoint == null || firstPoint < 0 || lastPoint < firstPoint) {
+            throw new WebApplicationException(Response.status(Status.BAD_REQUEST)
+                    .entity("Bad point range [" + firstPoint + ", " + lastPoint + "]")
+                    .build());
+        }
+        return true;
+    }
+
+    private static void applyChange(AppStorage storage, StorageChange change) {
+        switch (change.getType()) {
+            case TIME_SERIES_CREATION:
+                TimeSeriesCreation creation = (TimeSeriesCreation) change;
+                storage.createTimeSeries(creation.getNodeId(), creation.getMetadata());
+                break;
+            case DOUBLE_TIME_SERIES_CHUNKS_ADDITION:
+                DoubleTimeSeriesChunksAddition doubleAddition = (DoubleTimeSeriesChunksAddition) change;
+                storage.addDoubleTimeSeriesData(doubleAddition.getNodeId(), doubleAddition.getVersion(),
+                                                doubleAddition.getTimeSeriesName(), doubleAddition.getChunks());
+                break;
+            case STRING_TIME_SERIES_CHUNKS_ADDITION:
+                StringTimeSeriesChunksAddition stringAddition = (StringTimeSeriesChunksAddition) change;
+                storage.addStringTimeSeriesData(stringAddition.getNodeId(), stringAddition.getVersion(),
+                                                stringAddition.getTimeSeriesName(), stringAddition.getChunks());
+                break;
+            default:
+                throw new AssertionError("Unknown change type " + change.getType());
+        }
+    }
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries")
@@ -491,15 +570,55 @@ public class AppStorageServer {
     public Response getDoubleTimeSeriesData(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
                                             @ApiParam(value = "Node ID") @PathParam("nodeId") String nodeId,
                                             @ApiParam(value = "Version") @PathParam("version") int version,
+                                            @ApiParam(value = "First point of the range") @QueryParam("firstPoint") Integer firstPoint,
+                                            @ApiParam(value = "Last point of the range") @QueryParam("lastPoint") Integer lastPoint,
                                             @ApiParam(value = "Set time series names") Set<String> timeSeriesNames) {
         AppStorage storage = appDataBean.getStorage(fileSystemName);
-        Map<String, List<DoubleArrayChunk>> timeSeriesData = storage.getDoubleTimeSeriesData(nodeId, timeSeriesNames, version);
+        Map<String, List<DoubleArrayChunk>> timeSeriesData = hasPointRange(firstPoint, lastPoint)
+                ? storage.getDoubleTimeSeriesData(nodeId, timeSeriesNames, version, firstPoint, lastPoint)
+                : storage.getDoubleTimeSeriesData(nodeId, timeSeriesNames, version);
         return Response.ok()
                 .header(HttpHeaders.CONTENT_ENCODING, "gzip")
                 .entity(timeSeriesData)
                 .build();
     }
 
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(BinaryFormat.APPLICATION_BINARY + ";qs=0.5") // JSON unless binary is explicitly preferred
+    @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries/double/{version}")
+    @ApiOperation (value = "", response = List.class)
+    @ApiResponses (value = {@ApiResponse(code = 200, message = ""), @ApiResponse(code = 404, message = ""), @ApiResponse(code = 500, message = "Error")})
+    public Response getDoubleTimeSeriesDataBinary(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
+                                                  @ApiParam(value = "Node ID") @PathParam("nodeId") String nodeId,
+                                                  @ApiParam(value = "Version") @PathParam("version") int version,
+                                                  @ApiParam(value = "First point of the range") @QueryParam("firstPoint") Integer firstPoint,
+                                                  @ApiParam(value = "Last point of the range") @QueryParam("lastPoint") Integer lastPoint,
+                                                  @ApiParam(value = "Set time series names") Set<String> timeSeriesNames) {
+        AppStorage storage = appDataBean.getStorage(fileSystemName);
+        // arguments are checked before streaming, an error once the response status is committed can only truncate
+        // the response
+        boolean pointRange = hasPointRange(firstPoint, lastPoint);
+        TimeSeriesIndex.checkVersion(version);
+        storage.getNodeInfo(nodeId);
+        // time series are loaded and sent one by one
+        StreamingOutput output = os -> {
+            BinaryFormat.FrameWriter writer = new BinaryFormat.FrameWriter(os);
+            for (String timeSeriesName : timeSeriesNames) {
+                Set<String> names = Collections.singleton(timeSeriesName);
+                Map<String, List<DoubleArrayChunk>> timeSeriesData = pointRange
+                        ? storage.getDoubleTimeSeriesData(nodeId, names, version, firstPoint, lastPoint)
+                        : storage.getDoubleTimeSeriesData(nodeId, names, version);
+                List<DoubleArrayChunk> chunks = timeSeriesData.get(timeSeriesName);
+                if (chunks != null) {
+                    BinaryFormat.writeDoubleTimeSeriesData(writer, timeSeriesName, chunks);
+                }
+            }
+            writer.writeEnd();
+        };
+        return Response.ok().entity(output).build();
+    }
+
     @POST
     @Consumes(MediaType.APPLICATION_OCTET_STREAM)
     @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries/string/{version}/{timeSeriesName}")
@@ -525,15 +644,55 @@ public class AppStorageServer {
     public Response getStringTimeSeriesData(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
                                             @ApiParam(value = "Node ID") @PathParam("nodeId") String nodeId,
                                             @ApiParam(value = "Version") @PathParam("version") int version,
+                                            @ApiParam(value = "First point of the range") @QueryParam("firstPoint") Integer firstPoint,
+                                            @ApiParam(value = "Last point of the range") @QueryParam("lastPoint") Integer lastPoint,
                                             @ApiParam(value = "Set time series names") Set<String> timeSeriesNames) {
         AppStorage storage = appDataBean.getStorage(fileSystemName);
-        Map<String, List<StringArrayChunk>> timeSeriesData = storage.getStringTimeSeriesData(nodeId, timeSeriesNames, version);
+        Map<String, List<StringArrayChunk>> timeSeriesData = hasPointRange(firstPoint, lastPoint)
+                ? storage.getStringTimeSeriesData(nodeId, timeSeriesNames, version, firstPoint, lastPoint)
+                : storage.getStringTimeSeriesData(nodeId, timeSeriesNames, version);
         return Response.ok()
                 .header(HttpHeaders.CONTENT_ENCODING, "gzip")
                 .entity(timeSeriesData)
                 .build();
     }
 
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(BinaryFormat.APPLICATION_BINARY + ";qs=0.5") // JSON unless binary is explicitly preferred
+    @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries/string/{version}")
+    @ApiOperation (value = "", response = List.class)
+    @ApiResponses (value = {@ApiResponse(code = 200, message = ""), @ApiResponse(code = 404, message = ""), @ApiResponse(code = 500, message = "Error")})
+    public Response getStringTimeSeriesDataBinary(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
+                                                  @ApiParam(value = "Node ID") @PathParam("nodeId") String nodeId,
+                                                  @ApiParam(value = "Version") @PathParam("version") int version,
+                                                  @ApiParam(value = "First point of the range") @QueryParam("firstPoint") Integer firstPoint,
+                                                  @ApiParam(value = "Last point of the range") @QueryParam("lastPoint") Integer lastPoint,
+                                                  @ApiParam(value = "Set time series names") Set<String> timeSeriesNames) {
+        AppStorage storage = appDataBean.getStorage(fileSystemName);
+        // arguments are checked before streaming, an error once the response status is committed can only truncate
+        // the response
+        boolean pointRange = hasPointRange(firstPoint, lastPoint);
+        TimeSeriesIndex.checkVersion(version);
+        storage.getNodeInfo(nodeId);
+        // time series are loaded and sent one by one
+        StreamingOutput output = os -> {
+            BinaryFormat.FrameWriter writer = new BinaryFormat.FrameWriter(os);
+            for (String timeSeriesName : timeSeriesNames) {
+                Set<String> names = Collections.singleton(timeSeriesName);
+                Map<String, List<StringArrayChunk>> timeSeriesData = pointRange
+                        ? storage.getStringTimeSeriesData(nodeId, names, version, firstPoint, lastPoint)
+                        : storage.getStringTimeSeriesData(nodeId, names, version);
+                List<StringArrayChunk> chunks = timeSeriesData.get(timeSeriesName);
+                if (chunks != null) {
+                    BinaryFormat.writeStringTimeSeriesData(writer, timeSeriesName, chunks);
+                }
+            }
+            writer.writeEnd();
+        };
+        return Response.ok().entity(output).build();
+    }
+
     @DELETE
     @Path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries")
     @ApiOperation (value = "")
@@ -557,6 +716,20 @@ public class AppStorageServer {
         return Response.ok().entity(nodeInfo).build();
     }
 
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("fileSystems/{fileSystemName}/nodeInfos")
+    @Compress
+    @ApiOperation (value = "Get infos of several nodes", response = List.class)
+    @ApiResponses (value = {@ApiResponse(code = 200, message = "The node infos, in the same order as node IDs"), @ApiResponse(code = 500, message = "Error")})
+    public Response getNodeInfos(@ApiParam(value = "File system name") @PathParam("fileSystemName") String fileSystemName,
+                                 @ApiParam(value = "Node IDs") List<String> nodeIds) {
+        AppStorage storage = appDataBean.getStorage(fileSystemName);
+        List<NodeInfo> nodeInfos = storage.getNodeInfos(nodeIds);
+        return Response.ok().header(HttpHeaders.CONTENT_ENCODING, "gzip").entity(nodeInfos).build();
+    }
+
     @PUT
     @Produces(MediaType.APPLICATION_JSON)
     @Path("fileSystems/{fileSystemName}/tasks")
@@ -27,9 +27,19 @@ public class NodeEventClient {
 
     private final WeakListenerList<AppStorageListener> listeners;
 
+    private final RemoteNodeCache nodeCache;
+
     public NodeEventClient(String fileSystemName, WeakListenerList<AppStorageListener> listeners) {
+        this(fileSystemName, listeners, null);
+    }
+
+    /**
+     * @param nodeCache node metadata cache to invalidate before listeners are notified, null if there is no cache
+     */
+    NodeEventClient(String fileSystemName, WeakListenerList<AppStorageListener> listeners, RemoteNodeCache nodeCache) {
         this.fileSystemName = Objects.requireNonNull(fileSystemName);
         this.listeners = Objects.requireNonNull(listeners);
+        this.nodeCache = nodeCache;
     }
 
     @OnOpen
@@ -41,6 +51,10 @@ public class NodeEventClient {
     public void onMessage(Session session, NodeEventList nodeEventList) {
         LOGGER.trace("Node event websocket session '{}' of file system '{}' received an event list: {}",
                 session.getId(), fileSystemName, nodeEventList);
+        // so that listeners read up to date metadata
+        if (nodeCache != null) {
+            nodeCache.invalidate(nodeEventList);
+        }
         listeners.log();
         listeners.notify(l -> l.onEvents(nodeEventList));
     }
@@ -55,5 +69,9 @@ public class NodeEventClient {
     @OnClose
     public void onClose(Session session) {
         LOGGER.trace("Node event websocket session '{}' closed for file system '{}'", session.getId(), fileSystemName);
+        // events are not received anymore, cached metadata cannot be trusted
+        if (nodeCache != null) {
+            nodeCache.invalidateAll();
+        }
     }
 }
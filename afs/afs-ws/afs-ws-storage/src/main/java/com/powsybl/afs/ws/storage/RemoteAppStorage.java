@@ -7,15 +7,20 @@
 package com.powsybl.afs.ws.storage;
 
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.powsybl.afs.storage.AppStorage;
 import com.powsybl.afs.storage.NodeDependency;
 import com.powsybl.afs.storage.NodeGenericMetadata;
 import com.powsybl.afs.storage.NodeInfo;
 import com.powsybl.afs.storage.buffer.StorageChangeBuffer;
+import com.powsybl.afs.storage.buffer.StorageChangeSet;
+import com.powsybl.afs.storage.events.*;
 import com.powsybl.afs.ws.client.utils.ClientUtils;
 import com.powsybl.afs.ws.utils.AfsRestApi;
 import com.powsybl.afs.ws.utils.JsonProvider;
+import com.powsybl.afs.ws.utils.binary.BinaryFormat;
+import com.powsybl.afs.ws.utils.binary.BinaryProvider;
 import com.powsybl.afs.ws.utils.gzip.ReaderInterceptorGzip;
 import com.powsybl.afs.ws.utils.gzip.WriterInterceptorGzipCli;
 import com.powsybl.commons.exceptions.UncheckedInterruptedException;
@@ -31,13 +36,17 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.*;
 import java.io.*;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.powsybl.afs.ws.client.utils.ClientUtils.*;
 
@@ -51,9 +60,14 @@ public class RemoteAppStorage implements AppStorage {
 
     private static final int BUFFER_MAXIMUM_CHANGE = 1000;
     private static final long BUFFER_MAXIMUM_SIZE = Math.round(Math.pow(2, 20)); // 1Mo
+    private static final int BUFFER_MAXIMUM_IN_FLIGHT_BATCHES = 2;
     private static final String FILE_SYSTEM_NAME = "fileSystemName";
     private static final String NODE_ID = "nodeId";
     private static final String VERSION = "version";
+    private static final String FIRST_POINT = "firstPoint";
+    private static final String LAST_POINT = "lastPoint";
+    // binary format is preferred for time series data, JSON is kept for servers not supporting it
+    private static final String JSON_FALLBACK = MediaType.APPLICATION_JSON + ";q=0.1";
     private static final String NODE_DATA_PATH = "fileSystems/{fileSystemName}/nodes/{nodeId}/data/{name}";
 
     private final Client client;
@@ -62,8 +76,15 @@ public class RemoteAppStorage implements AppStorage {
 
     private final String fileSystemName;
 
+    private final ExecutorService flushExecutor;
+
     private final StorageChangeBuffer changeBuffer;
 
+    private final RemoteNodeCache nodeCache;
+
+    // binary flush is preferred, JSON is used once a server has answered it does not support it
+    private volatile boolean binaryFlush = true;
+
     private String token;
 
     private boolean closed = false;
@@ -73,8 +94,21 @@ public class RemoteAppStorage implements AppStorage {
     }
 
     public RemoteAppStorage(String fileSystemName, URI baseUri, String token) {
+        this(fileSystemName, baseUri, token, 0, 0);
+    }
+
+    /**
+     * Creates a remote storage with a node metadata cache of at most {@code nodeCacheSize} entries per kind of
+     * metadata, expiring after {@code nodeCacheTimeToLive} seconds. Cache is disabled if {@code nodeCacheSize} is 0.
+     * <p>
+     * The cache is invalidated by this storage changes and by node events received by a
+     * {@link RemoteListenableAppStorage} wrapping this storage, changes from other clients are only visible after the
+     * time to live if events are not listened.
+     */
+    public RemoteAppStorage(String fileSystemName, URI baseUri, String token, long nodeCacheSize, long nodeCacheTimeToLive) {
         this.fileSystemName = Objects.requireNonNull(fileSystemName);
         this.token = token;
+        nodeCache = nodeCacheSize > 0 ? new RemoteNodeCache(nodeCacheSize, nodeCacheTimeToLive, TimeUnit.SECONDS) : null;
 
         client = createClient();
 
@@ -82,27 +116,74 @@ public class RemoteAppStorage implements AppStorage {
                           .register(WriterInterceptorGzipCli.class)
                           .register(ReaderInterceptorGzip.class);
 
+        // buffered changes are sent in background by a single thread to keep them ordered
+        flushExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("afs-flush-" + fileSystemName + "-%d")
+                .setDaemon(true)
+                .build());
+
         changeBuffer = new StorageChangeBuffer(changeSet -> {
             LOGGER.debug("flush(fileSystemName={}, size={})", fileSystemName, changeSet.getChanges().size());
 
-            Response response = webTarget.path("fileSystems/{fileSystemName}/flush")
-                    .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
-                    .request()
-                    .header(HttpHeaders.AUTHORIZATION, token)
-                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
-                    .acceptEncoding("gzip")
-                    .post(Entity.json(changeSet));
+            if (binaryFlush) {
+                Response response = postChangeSet(changeSet, BinaryFormat.APPLICATION_BINARY_TYPE);
+                try {
+                    if (response.getStatus() != Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode()) {
+                        checkOk(response);
+                        return;
+                    }
+                } finally {
+                    response.close();
+                }
+                // server does not support binary flush, negotiated once for all
+                LOGGER.info("Binary flush not supported by file system '{}' server, falling back to JSON", fileSystemName);
+                binaryFlush = false;
+            }
+            Response response = postChangeSet(changeSet, MediaType.APPLICATION_JSON_TYPE);
             try {
                 checkOk(response);
             } finally {
                 response.close();
             }
-        }, BUFFER_MAXIMUM_CHANGE, BUFFER_MAXIMUM_SIZE);
+        }, BUFFER_MAXIMUM_CHANGE, BUFFER_MAXIMUM_SIZE, flushExecutor, BUFFER_MAXIMUM_IN_FLIGHT_BATCHES);
+    }
+
+    private Response postChangeSet(StorageChangeSet changeSet, MediaType mediaType) {
+        Invocation.Builder builder = webTarget.path("fileSystems/{fileSystemName}/flush")
+                .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
+                .request()
+                .header(HttpHeaders.AUTHORIZATION, token);
+        if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
+            // JSON change set is compressed, binary one is already compact
+            builder = builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .acceptEncoding("gzip");
+        }
+        return builder.post(Entity.entity(changeSet, mediaType));
     }
 
     static Client createClient() {
         return ClientUtils.createClient()
-                .register(new JsonProvider());
+                .register(new JsonProvider())
+                .register(new BinaryProvider());
+    }
+
+    /**
+     * Node metadata cache, null if disabled.
+     */
+    RemoteNodeCache getNodeCache() {
+        return nodeCache;
+    }
+
+    private void invalidateCache(NodeEvent event) {
+        if (nodeCache != null) {
+            nodeCache.invalidate(event);
+        }
+    }
+
+    private void invalidateCachedNodeInfo(String nodeId) {
+        if (nodeCache != null) {
+            nodeCache.invalidateNodeInfo(nodeId);
+        }
     }
 
     static WebTarget getWebTarget(Client client, URI baseUri) {
@@ -203,6 +284,7 @@ public class RemoteAppStorage implements AppStorage {
                 .put(Entity.text(description));
         try {
             checkOk(response);
+            invalidateCache(new NodeDescriptionUpdated(nodeId, description));
         } finally {
             response.close();
         }
@@ -228,6 +310,7 @@ public class RemoteAppStorage implements AppStorage {
                 .put(Entity.text(name));
         try {
             checkOk(response);
+            invalidateCache(new NodeNameUpdated(nodeId, name));
         } finally {
             response.close();
         }
@@ -252,6 +335,7 @@ public class RemoteAppStorage implements AppStorage {
                 .put(Entity.text(""));
         try {
             checkOk(response);
+            invalidateCachedNodeInfo(nodeId);
         } finally {
             response.close();
         }
@@ -285,7 +369,9 @@ public class RemoteAppStorage implements AppStorage {
                 .acceptEncoding("gzip")
                 .post(Entity.json(genericMetadata));
         try {
-            return readEntityIfOk(response, NodeInfo.class);
+            NodeInfo nodeInfo = readEntityIfOk(response, NodeInfo.class);
+            invalidateCache(new NodeCreated(nodeInfo.getId(), parentNodeId));
+            return nodeInfo;
         } finally {
             response.close();
         }
@@ -294,7 +380,13 @@ public class RemoteAppStorage implements AppStorage {
     @Override
     public List<NodeInfo> getChildNodes(String nodeId) {
         Objects.requireNonNull(nodeId);
+        if (nodeCache != null) {
+            return nodeCache.getChildNodes(nodeId, () -> loadChildNodes(nodeId), this::loadNodeInfo);
+        }
+        return loadChildNodes(nodeId);
+    }
 
+    private List<NodeInfo> loadChildNodes(String nodeId) {
         LOGGER.debug("getChildNodes(fileSystemName={}, nodeId={})", fileSystemName, nodeId);
 
         Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/children")
@@ -335,7 +427,13 @@ public class RemoteAppStorage implements AppStorage {
     @Override
     public Optional<NodeInfo> getParentNode(String nodeId) {
         Objects.requireNonNull(nodeId);
+        if (nodeCache != null) {
+            return nodeCache.getParentNode(nodeId, () -> loadParentNode(nodeId), this::loadNodeInfo);
+        }
+        return loadParentNode(nodeId);
+    }
 
+    private Optional<NodeInfo> loadParentNode(String nodeId) {
         LOGGER.debug("getParentNode(fileSystemName={}, nodeId={})", fileSystemName, nodeId);
 
         Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/parent")
@@ -351,6 +449,34 @@ public class RemoteAppStorage implements AppStorage {
         }
     }
 
+    @Override
+    public Map<String, List<NodeInfo>> getDescendantNodes(String nodeId, int depth) {
+        Objects.requireNonNull(nodeId);
+        AppStorage.checkDepth(depth);
+        if (nodeCache != null) {
+            return nodeCache.getDescendantNodes(nodeId, depth, this::loadDescendantNodes, this::loadNodeInfos);
+        }
+        return loadDescendantNodes(nodeId, depth);
+    }
+
+    private Map<String, List<NodeInfo>> loadDescendantNodes(String nodeId, int depth) {
+        LOGGER.debug("getDescendantNodes(fileSystemName={}, nodeId={}, depth={})", fileSystemName, nodeId, depth);
+
+        Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/descendants")
+                .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
+                .resolveTemplate(NODE_ID, nodeId)
+                .queryParam("depth", depth)
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .get();
+        try {
+            return readEntityIfOk(response, new GenericType<Map<String, List<NodeInfo>>>() {
+            });
+        } finally {
+            response.close();
+        }
+    }
+
     @Override
     public void setParentNode(String nodeId, String newParentNodeId) {
         Objects.requireNonNull(nodeId);
@@ -371,6 +497,7 @@ public class RemoteAppStorage implements AppStorage {
                 .put(Entity.text(newParentNodeId));
         try {
             checkOk(response);
+            invalidateCache(new ParentChanged(nodeId));
         } finally {
             response.close();
         }
@@ -392,7 +519,9 @@ public class RemoteAppStorage implements AppStorage {
                 .header(HttpHeaders.AUTHORIZATION, token)
                 .delete();
         try {
-            return readEntityIfOk(response, String.class);
+            String parentNodeId = readEntityIfOk(response, String.class);
+            invalidateCache(new NodeRemoved(nodeId, parentNodeId));
+            return parentNodeId;
         } finally {
             response.close();
         }
@@ -479,7 +608,14 @@ public class RemoteAppStorage implements AppStorage {
                 .acceptEncoding("gzip")
                 .async();
 
-        return new OutputStreamPutRequest(asyncInvoker);
+        return new OutputStreamPutRequest(asyncInvoker) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+
+                invalidateCache(new NodeDataUpdated(nodeId, name));
+            }
+        };
     }
 
     @Override
@@ -538,7 +674,9 @@ public class RemoteAppStorage implements AppStorage {
                 .header(HttpHeaders.AUTHORIZATION, token)
                 .delete();
         try {
-            return readEntityIfOk(response, Boolean.class);
+            boolean removed = readEntityIfOk(response, Boolean.class);
+            invalidateCache(new NodeDataRemoved(nodeId, name));
+            return removed;
         } finally {
             response.close();
         }
@@ -567,6 +705,8 @@ public class RemoteAppStorage implements AppStorage {
                 .put(Entity.text(""));
         try {
             checkOk(response);
+            invalidateCache(new DependencyAdded(nodeId, name));
+            invalidateCache(new BackwardDependencyAdded(toNodeId, name));
         } finally {
             response.close();
         }
@@ -597,7 +737,13 @@ public class RemoteAppStorage implements AppStorage {
     @Override
     public Set<NodeDependency> getDependencies(String nodeId) {
         Objects.requireNonNull(nodeId);
+        if (nodeCache != null) {
+            return nodeCache.getDependencies(nodeId, () -> loadDependencies(nodeId), this::loadNodeInfo);
+        }
+        return loadDependencies(nodeId);
+    }
 
+    private Set<NodeDependency> loadDependencies(String nodeId) {
         LOGGER.debug("getDependencies(fileSystemName={}, nodeId={})", fileSystemName, nodeId);
 
         Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/dependencies")
@@ -614,10 +760,43 @@ public class RemoteAppStorage implements AppStorage {
         }
     }
 
+    @Override
+    public Map<String, Set<NodeDependency>> getNodeDependencies(List<String> nodeIds) {
+        Objects.requireNonNull(nodeIds);
+        if (nodeCache != null) {
+            return nodeCache.getNodeDependencies(nodeIds, this::loadNodeDependencies, this::loadNodeInfos);
+        }
+        return loadNodeDependencies(nodeIds);
+    }
+
+    private Map<String, Set<NodeDependency>> loadNodeDependencies(List<String> nodeIds) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("getNodeDependencies(fileSystemName={}, nodeIds={})", fileSystemName, nodeIds);
+        }
+
+        Response response = webTarget.path("fileSystems/{fileSystemName}/nodeDependencies")
+                .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .post(Entity.json(nodeIds));
+        try {
+            return readEntityIfOk(response, new GenericType<Map<String, Set<NodeDependency>>>() {
+            });
+        } finally {
+            response.close();
+        }
+    }
+
     @Override
     public Set<NodeInfo> getBackwardDependencies(String nodeId) {
         Objects.requireNonNull(nodeId);
+        if (nodeCache != null) {
+            return nodeCache.getBackwardDependencies(nodeId, () -> loadBackwardDependencies(nodeId), this::loadNodeInfo);
+        }
+        return loadBackwardDependencies(nodeId);
+    }
 
+    private Set<NodeInfo> loadBackwardDependencies(String nodeId) {
         LOGGER.debug("getBackwardDependencies(fileSystemName={}, nodeId={})", fileSystemName, nodeId);
 
         Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/backwardDependencies")
@@ -655,6 +834,8 @@ public class RemoteAppStorage implements AppStorage {
                 .delete();
         try {
             checkOk(response);
+            invalidateCache(new DependencyRemoved(nodeId, name));
+            invalidateCache(new BackwardDependencyRemoved(toNodeId, name));
         } finally {
             response.close();
         }
@@ -806,7 +987,7 @@ public class RemoteAppStorage implements AppStorage {
                 .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
                 .resolveTemplate(NODE_ID, nodeId)
                 .resolveTemplate(VERSION, version)
-                .request()
+                .request(BinaryFormat.APPLICATION_BINARY, JSON_FALLBACK)
                 .header(HttpHeaders.AUTHORIZATION, token)
                 .post(Entity.json(timeSeriesNames));
         try {
@@ -817,6 +998,37 @@ public class RemoteAppStorage implements AppStorage {
         }
     }
 
+    @Override
+    public Map<String, List<DoubleArrayChunk>> getDoubleTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                       int firstPoint, int lastPoint) {
+        Objects.requireNonNull(nodeId);
+        Objects.requireNonNull(timeSeriesNames);
+        TimeSeriesIndex.checkVersion(version);
+        AppStorage.checkPointRange(firstPoint, lastPoint);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("getDoubleTimeSeriesData(fileSystemName={}, nodeId={}, timeSeriesNames={}, version={}, firstPoint={}, lastPoint={})",
+                    fileSystemName, nodeId, timeSeriesNames, version, firstPoint, lastPoint);
+        }
+
+        Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries/double/{version}")
+                .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
+                .resolveTemplate(NODE_ID, nodeId)
+                .resolveTemplate(VERSION, version)
+                .queryParam(FIRST_POINT, firstPoint)
+                .queryParam(LAST_POINT, lastPoint)
+                .request(BinaryFormat.APPLICATION_BINARY, JSON_FALLBACK)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .post(Entity.json(timeSeriesNames));
+        try {
+            // a server not supporting point ranges ignores them and sends all the chunks
+            return AppStorage.filterOverlappingChunks(readEntityIfOk(response, new GenericType<Map<String, List<DoubleArrayChunk>>>() {
+            }), firstPoint, lastPoint);
+        } finally {
+            response.close();
+        }
+    }
+
     @Override
     public void addStringTimeSeriesData(String nodeId, int version, String timeSeriesName, List<StringArrayChunk> chunks) {
         Objects.requireNonNull(nodeId);
@@ -847,7 +1059,7 @@ public class RemoteAppStorage implements AppStorage {
                 .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
                 .resolveTemplate(NODE_ID, nodeId)
                 .resolveTemplate(VERSION, version)
-                .request()
+                .request(BinaryFormat.APPLICATION_BINARY, JSON_FALLBACK)
                 .header(HttpHeaders.AUTHORIZATION, token)
                 .post(Entity.json(timeSeriesNames));
         try {
@@ -858,6 +1070,37 @@ public class RemoteAppStorage implements AppStorage {
         }
     }
 
+    @Override
+    public Map<String, List<StringArrayChunk>> getStringTimeSeriesData(String nodeId, Set<String> timeSeriesNames, int version,
+                                                                       int firstPoint, int lastPoint) {
+        Objects.requireNonNull(nodeId);
+        Objects.requireNonNull(timeSeriesNames);
+        TimeSeriesIndex.checkVersion(version);
+        AppStorage.checkPointRange(firstPoint, lastPoint);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("getStringTimeSeriesData(fileSystemName={}, nodeId={}, timeSeriesNames={}, version={}, firstPoint={}, lastPoint={})",
+                    fileSystemName, nodeId, timeSeriesNames, version, firstPoint, lastPoint);
+        }
+
+        Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}/timeSeries/string/{version}")
+                .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
+                .resolveTemplate(NODE_ID, nodeId)
+                .resolveTemplate(VERSION, version)
+                .queryParam(FIRST_POINT, firstPoint)
+                .queryParam(LAST_POINT, lastPoint)
+                .request(BinaryFormat.APPLICATION_BINARY, JSON_FALLBACK)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .post(Entity.json(timeSeriesNames));
+        try {
+            // a server not supporting point ranges ignores them and sends all the chunks
+            return AppStorage.filterOverlappingChunks(readEntityIfOk(response, new GenericType<Map<String, List<StringArrayChunk>>>() {
+            }), firstPoint, lastPoint);
+        } finally {
+            response.close();
+        }
+    }
+
     @Override
     public void clearTimeSeries(String nodeId) {
         Objects.requireNonNull(nodeId);
@@ -875,6 +1118,7 @@ public class RemoteAppStorage implements AppStorage {
                 .delete();
         try {
             checkOk(response);
+            invalidateCache(new TimeSeriesCleared(nodeId));
         } finally {
             response.close();
         }
@@ -883,7 +1127,13 @@ public class RemoteAppStorage implements AppStorage {
     @Override
     public NodeInfo getNodeInfo(String nodeId) {
         Objects.requireNonNull(nodeId);
+        if (nodeCache != null) {
+            return nodeCache.getNodeInfo(nodeId, this::loadNodeInfo);
+        }
+        return loadNodeInfo(nodeId);
+    }
 
+    private NodeInfo loadNodeInfo(String nodeId) {
         LOGGER.debug("getNodeInfo(fileSystemName={}, nodeId={})", fileSystemName, nodeId);
 
         Response response = webTarget.path("fileSystems/{fileSystemName}/nodes/{nodeId}")
@@ -899,6 +1149,33 @@ public class RemoteAppStorage implements AppStorage {
         }
     }
 
+    @Override
+    public List<NodeInfo> getNodeInfos(List<String> nodeIds) {
+        Objects.requireNonNull(nodeIds);
+        if (nodeCache != null) {
+            return nodeCache.getNodeInfos(nodeIds, this::loadNodeInfos);
+        }
+        return loadNodeInfos(nodeIds);
+    }
+
+    private List<NodeInfo> loadNodeInfos(List<String> nodeIds) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("getNodeInfos(fileSystemName={}, nodeIds={})", fileSystemName, nodeIds);
+        }
+
+        Response response = webTarget.path("fileSystems/{fileSystemName}/nodeInfos")
+                .resolveTemplate(FILE_SYSTEM_NAME, fileSystemName)
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .post(Entity.json(nodeIds));
+        try {
+            return readEntityIfOk(response, new GenericType<List<NodeInfo>>() {
+            });
+        } finally {
+            response.close();
+        }
+    }
+
     @Override
     public void flush() {
         changeBuffer.flush();
@@ -911,8 +1188,12 @@ public class RemoteAppStorage implements AppStorage {
 
     @Override
     public void close() {
-        flush();
-        closed = true;
-        client.close();
+        try {
+            flush();
+        } finally {
+            closed = true;
+            flushExecutor.shutdown();
+            client.close();
+        }
     }
 }
@@ -43,7 +43,7 @@ public class RemoteListenableAppStorage extends ForwardingAppStorage implements
 
         WebSocketContainer container = ContainerProvider.getWebSocketContainer();
         try {
-            container.connectToServer(new NodeEventClient(storage.getFileSystemName(), listeners), endPointUri);
+            container.connectToServer(new NodeEventClient(storage.getFileSystemName(), listeners, storage.getNodeCache()), endPointUri);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         } catch (DeploymentException e) {
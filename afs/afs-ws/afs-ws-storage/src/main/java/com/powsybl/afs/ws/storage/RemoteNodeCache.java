@@ -0,0 +1,379 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.ws.storage;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.powsybl.afs.storage.NodeDependency;
+import com.powsybl.afs.storage.NodeInfo;
+import com.powsybl.afs.storage.events.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Client side cache of node metadata (infos, children, parent and dependencies) of a remote file system.
+ * <p>
+ * Relations are cached as node IDs and resolved through the node info cache, so that a node info update only
+ * invalidates one entry. Entries are precisely invalidated by node events, time to live is a fallback for changes
+ * not notified by an event (modification time update for instance) or missed because of a websocket disconnection.
+ * <p>
+ * Cached node infos are copied before being returned because {@link NodeInfo} is mutable.
+ *
+ * @author agent <agent at local>
+ */
+class RemoteNodeCache {
+
+    private static final class DependencyLink {
+
+        private final String name;
+
+        private final String nodeId;
+
+        private DependencyLink(String name, String nodeId) {
+            this.name = Objects.requireNonNull(name);
+            this.nodeId = Objects.requireNonNull(nodeId);
+        }
+    }
+
+    private final Cache<String, NodeInfo> nodeInfos;
+
+    private final Cache<String, List<String>> childNodeIds;
+
+    private final Cache<String, Optional<String>> parentNodeIds;
+
+    private final Cache<String, List<DependencyLink>> dependencies;
+
+    private final Cache<String, List<String>> backwardDependencyIds;
+
+    /**
+     * Incremented by each invalidation so that a value loaded concurrently to an invalidation is not cached,
+     * as it might have been read before the change.
+     */
+    private long generation = 0;
+
+    RemoteNodeCache(long maximumSize, long timeToLive, TimeUnit timeUnit) {
+        Objects.requireNonNull(timeUnit);
+        nodeInfos = createCache(maximumSize, timeToLive, timeUnit);
+        childNodeIds = createCache(maximumSize, timeToLive, timeUnit);
+        parentNodeIds = createCache(maximumSize, timeToLive, timeUnit);
+        dependencies = createCache(maximumSize, timeToLive, timeUnit);
+        backwardDependencyIds = createCache(maximumSize, timeToLive, timeUnit);
+    }
+
+    private static <V> Cache<String, V> createCache(long maximumSize, long timeToLive, TimeUnit timeUnit) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive, timeUnit)
+                .build();
+    }
+
+    private static NodeInfo copy(NodeInfo nodeInfo) {
+        return new NodeInfo(nodeInfo.getId(), nodeInfo.getName(), nodeInfo.getPseudoClass(), nodeInfo.getDescription(),
+                            nodeInfo.getCreationTime(), nodeInfo.getModificationTime(), nodeInfo.getVersion(),
+                            nodeInfo.getGenericMetadata());
+    }
+
+    private synchronized long getGeneration() {
+        return generation;
+    }
+
+    private synchronized void putIfNotInvalidated(long loadGeneration, Runnable put) {
+        if (generation == loadGeneration) {
+            put.run();
+        }
+    }
+
+    private synchronized void invalidate(Runnable invalidation) {
+        generation++;
+        invalidation.run();
+    }
+
+    private void putNodeInfos(Collection<NodeInfo> infos) {
+        for (NodeInfo info : infos) {
+            nodeInfos.put(info.getId(), copy(info));
+        }
+    }
+
+    NodeInfo getNodeInfo(String nodeId, Function<String, NodeInfo> loader) {
+        NodeInfo nodeInfo = nodeInfos.getIfPresent(nodeId);
+        if (nodeInfo == null) {
+            long loadGeneration = getGeneration();
+            NodeInfo loadedNodeInfo = loader.apply(nodeId);
+            putIfNotInvalidated(loadGeneration, () -> putNodeInfos(Collections.singleton(loadedNodeInfo)));
+            return loadedNodeInfo;
+        }
+        return copy(nodeInfo);
+    }
+
+    /**
+     * Gets node infos in the same order as {@code nodeIds}, only the non cached ones are loaded, all at once.
+     */
+    List<NodeInfo> getNodeInfos(List<String> nodeIds, Function<List<String>, List<NodeInfo>> loader) {
+        Map<String, NodeInfo> infos = new HashMap<>(nodeIds.size());
+        Set<String> missingIds = new LinkedHashSet<>();
+        for (String nodeId : nodeIds) {
+            NodeInfo nodeInfo = nodeInfos.getIfPresent(nodeId);
+            if (nodeInfo != null) {
+                infos.put(nodeId, copy(nodeInfo));
+            } else {
+                missingIds.add(nodeId);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            long loadGeneration = getGeneration();
+            List<NodeInfo> loadedNodeInfos = loader.apply(new ArrayList<>(missingIds));
+            putIfNotInvalidated(loadGeneration, () -> putNodeInfos(loadedNodeInfos));
+            loadedNodeInfos.forEach(info -> infos.put(info.getId(), info));
+        }
+        return nodeIds.stream().map(infos::get).collect(Collectors.toList());
+    }
+
+    List<NodeInfo> getChildNodes(String nodeId, Supplier<List<NodeInfo>> loader, Function<String, NodeInfo> nodeInfoLoader) {
+        List<String> ids = childNodeIds.getIfPresent(nodeId);
+        if (ids == null) {
+            long loadGeneration = getGeneration();
+            List<NodeInfo> childNodes = loader.get();
+            putIfNotInvalidated(loadGeneration, () -> {
+                putNodeInfos(childNodes);
+                childNodeIds.put(nodeId, childNodes.stream().map(NodeInfo::getId).collect(Collectors.toList()));
+            });
+            return childNodes;
+        }
+        return ids.stream().map(id -> getNodeInfo(id, nodeInfoLoader)).collect(Collectors.toList());
+    }
+
+    private void putChildNodes(Map<String, List<NodeInfo>> descendantNodes) {
+        descendantNodes.forEach((parentNodeId, childNodes) -> {
+            putNodeInfos(childNodes);
+            childNodeIds.put(parentNodeId, childNodes.stream().map(NodeInfo::getId).collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * Gets descendant nodes level by level from cached child node lists, the sub tree of a node whose children are not
+     * cached is loaded at once.
+     */
+    Map<String, List<NodeInfo>> getDescendantNodes(String nodeId, int depth, BiFunction<String, Integer, Map<String, List<NodeInfo>>> loader,
+                                                   Function<List<String>, List<NodeInfo>> nodeInfosLoader) {
+        Map<String, List<NodeInfo>> descendantNodes = new LinkedHashMap<>();
+        List<String> levelNodeIds = Collections.singletonList(nodeId);
+        for (int level = 0; level < depth && !levelNodeIds.isEmpty(); level++) {
+            Map<String, List<String>> cachedChildNodeIds = new LinkedHashMap<>();
+            for (String levelNodeId : levelNodeIds) {
+                List<String> ids = childNodeIds.getIfPresent(levelNodeId);
+                if (ids != null) {
+                    cachedChildNodeIds.put(levelNodeId, ids);
+                } else {
+                    long loadGeneration = getGeneration();
+                    Map<String, List<NodeInfo>> subTree = loader.apply(levelNodeId, depth - level);
+                    putIfNotInvalidated(loadGeneration, () -> putChildNodes(subTree));
+                    descendantNodes.putAll(subTree);
+                }
+            }
+
+            // node infos of all the cached children of the level are got at once
+            List<String> nextLevelNodeIds = cachedChildNodeIds.values().stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+            Iterator<NodeInfo> childNodes = getNodeInfos(nextLevelNodeIds, nodeInfosLoader).iterator();
+            cachedChildNodeIds.forEach((parentNodeId, ids) -> {
+                List<NodeInfo> infos = new ArrayList<>(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    infos.add(childNodes.next());
+                }
+                descendantNodes.put(parentNodeId, infos);
+            });
+            levelNodeIds = nextLevelNodeIds;
+        }
+        return descendantNodes;
+    }
+
+    Optional<NodeInfo> getParentNode(String nodeId, Supplier<Optional<NodeInfo>> loader, Function<String, NodeInfo> nodeInfoLoader) {
+        Optional<String> id = parentNodeIds.getIfPresent(nodeId);
+        if (id == null) {
+            long loadGeneration = getGeneration();
+            Optional<NodeInfo> parentNode = loader.get();
+            putIfNotInvalidated(loadGeneration, () -> {
+                parentNode.ifPresent(info -> putNodeInfos(Collections.singleton(info)));
+                parentNodeIds.put(nodeId, parentNode.map(NodeInfo::getId));
+            });
+            return parentNode;
+        }
+        return id.map(parentNodeId -> getNodeInfo(parentNodeId, nodeInfoLoader));
+    }
+
+    Set<NodeDependency> getDependencies(String nodeId, Supplier<Set<NodeDependency>> loader, Function<String, NodeInfo> nodeInfoLoader) {
+        List<DependencyLink> links = dependencies.getIfPresent(nodeId);
+        if (links == null) {
+            long loadGeneration = getGeneration();
+            Set<NodeDependency> nodeDependencies = loader.get();
+            putIfNotInvalidated(loadGeneration, () -> putDependencies(nodeId, nodeDependencies));
+            return nodeDependencies;
+        }
+        return links.stream()
+                .map(link -> new NodeDependency(link.name, getNodeInfo(link.nodeId, nodeInfoLoader)))
+                .collect(Collectors.toSet());
+    }
+
+    private void putDependencies(String nodeId, Set<NodeDependency> nodeDependencies) {
+        putNodeInfos(nodeDependencies.stream().map(NodeDependency::getNodeInfo).collect(Collectors.toList()));
+        dependencies.put(nodeId, nodeDependencies.stream()
+                .map(dependency -> new DependencyLink(dependency.getName(), dependency.getNodeInfo().getId()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets dependencies of several nodes, only the non cached ones are loaded, all at once. Node infos of cached
+     * dependencies are also got at once.
+     */
+    Map<String, Set<NodeDependency>> getNodeDependencies(List<String> nodeIds, Function<List<String>, Map<String, Set<NodeDependency>>> loader,
+                                                         Function<List<String>, List<NodeInfo>> nodeInfosLoader) {
+        Map<String, List<DependencyLink>> cachedLinks = new HashMap<>();
+        Set<String> missingIds = new LinkedHashSet<>();
+        for (String nodeId : nodeIds) {
+            List<DependencyLink> links = dependencies.getIfPresent(nodeId);
+            if (links != null) {
+                cachedLinks.put(nodeId, links);
+            } else {
+                missingIds.add(nodeId);
+            }
+        }
+
+        Map<String, Set<NodeDependency>> loadedDependencies = Collections.emptyMap();
+        if (!missingIds.isEmpty()) {
+            long loadGeneration = getGeneration();
+            Map<String, Set<NodeDependency>> loaded = loader.apply(new ArrayList<>(missingIds));
+            putIfNotInvalidated(loadGeneration, () -> loaded.forEach(this::putDependencies));
+            loadedDependencies = loaded;
+        }
+
+        List<String> linkedNodeIds = cachedLinks.values().stream()
+                .flatMap(List::stream)
+                .map(link -> link.nodeId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, NodeInfo> linkedNodeInfos = new HashMap<>(linkedNodeIds.size());
+        getNodeInfos(linkedNodeIds, nodeInfosLoader).forEach(info -> linkedNodeInfos.put(info.getId(), info));
+
+        Map<String, Set<NodeDependency>> nodeDependencies = new LinkedHashMap<>(nodeIds.size());
+        for (String nodeId : nodeIds) {
+            List<DependencyLink> links = cachedLinks.get(nodeId);
+            if (links != null) {
+                nodeDependencies.put(nodeId, links.stream()
+                        .map(link -> new NodeDependency(link.name, linkedNodeInfos.get(link.nodeId)))
+                        .collect(Collectors.toSet()));
+            } else {
+                nodeDependencies.put(nodeId, loadedDependencies.get(nodeId));
+            }
+        }
+        return nodeDependencies;
+    }
+
+    Set<NodeInfo> getBackwardDependencies(String nodeId, Supplier<Set<NodeInfo>> loader, Function<String, NodeInfo> nodeInfoLoader) {
+        List<String> ids = backwardDependencyIds.getIfPresent(nodeId);
+        if (ids == null) {
+            long loadGeneration = getGeneration();
+            Set<NodeInfo> backwardDependencies = loader.get();
+            putIfNotInvalidated(loadGeneration, () -> {
+                putNodeInfos(backwardDependencies);
+                backwardDependencyIds.put(nodeId, backwardDependencies.stream().map(NodeInfo::getId).collect(Collectors.toList()));
+            });
+            return backwardDependencies;
+        }
+        return ids.stream().map(id -> getNodeInfo(id, nodeInfoLoader)).collect(Collectors.toSet());
+    }
+
+    /**
+     * Invalidates the node info of a node, for changes which are not notified by an event.
+     */
+    void invalidateNodeInfo(String nodeId) {
+        Objects.requireNonNull(nodeId);
+        invalidate(() -> nodeInfos.invalidate(nodeId));
+    }
+
+    void invalidate(NodeEventList eventList) {
+        Objects.requireNonNull(eventList);
+        invalidate(() -> eventList.getEvents().forEach(this::invalidateEntries));
+    }
+
+    void invalidate(NodeEvent event) {
+        Objects.requireNonNull(event);
+        invalidate(() -> invalidateEntries(event));
+    }
+
+    void invalidateAll() {
+        invalidate(() -> {
+            nodeInfos.invalidateAll();
+            childNodeIds.invalidateAll();
+            parentNodeIds.invalidateAll();
+            dependencies.invalidateAll();
+            backwardDependencyIds.invalidateAll();
+        });
+    }
+
+    private void invalidateEntries(NodeEvent event) {
+        String nodeId = event.getId();
+        switch (event.getType()) {
+            case NODE_CREATED:
+                invalidateChildNodes(((NodeCreated) event).getParentId());
+                break;
+
+            case NODE_REMOVED:
+                nodeInfos.invalidate(nodeId);
+                childNodeIds.invalidate(nodeId);
+                parentNodeIds.invalidate(nodeId);
+                invalidateChildNodes(((NodeRemoved) event).getParentId());
+                // removed node (and its descendants) may be referenced by any dependency
+                dependencies.invalidateAll();
+                backwardDependencyIds.invalidateAll();
+                break;
+
+            case PARENT_CHANGED:
+                // new parent is unknown, so all children lists are invalidated
+                nodeInfos.invalidate(nodeId);
+                parentNodeIds.invalidate(nodeId);
+                childNodeIds.invalidateAll();
+                break;
+
+            case NODE_DESCRIPTION_UPDATED:
+            case NODE_NAME_UPDATED:
+            case NODE_DATA_UPDATED:
+            case NODE_DATA_REMOVED:
+            case TIME_SERIES_CREATED:
+            case TIME_SERIES_DATA_UPDATED:
+            case TIME_SERIES_CLEARED:
+                nodeInfos.invalidate(nodeId);
+                break;
+
+            case DEPENDENCY_ADDED:
+            case DEPENDENCY_REMOVED:
+                dependencies.invalidate(nodeId);
+                break;
+
+            case BACKWARD_DEPENDENCY_ADDED:
+            case BACKWARD_DEPENDENCY_REMOVED:
+                backwardDependencyIds.invalidate(nodeId);
+                break;
+
+            default:
+                throw new AssertionError("Unknown node event type: " + event.getType());
+        }
+    }
+
+    private void invalidateChildNodes(String parentNodeId) {
+        // parent is null for root nodes
+        if (parentNodeId != null) {
+            nodeInfos.invalidate(parentNodeId);
+            childNodeIds.invalidate(parentNodeId);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.ws.storage;
+
+import com.powsybl.afs.storage.NodeDependency;
+import com.powsybl.afs.storage.NodeGenericMetadata;
+import com.powsybl.afs.storage.NodeInfo;
+import com.powsybl.afs.storage.events.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class RemoteNodeCacheTest {
+
+    private final Map<String, NodeInfo> nodes = new HashMap<>();
+
+    private final Map<String, Integer> loadCounts = new HashMap<>();
+
+    private RemoteNodeCache cache;
+
+    private Function<String, NodeInfo> nodeInfoLoader;
+
+    private void count(String key) {
+        loadCounts.merge(key, 1, Integer::sum);
+    }
+
+    private int getLoadCount(String key) {
+        return loadCounts.getOrDefault(key, 0);
+    }
+
+    private static NodeInfo createNodeInfo(String id, String name) {
+        return new NodeInfo(id, name, "folder", "", 0, 0, 0, new NodeGenericMetadata());
+    }
+
+    @Before
+    public void setUp() {
+        cache = new RemoteNodeCache(100, 1, TimeUnit.HOURS);
+        nodes.put("root", createNodeInfo("root", "root"));
+        nodes.put("a", createNodeInfo("a", "a"));
+        nodes.put("b", createNodeInfo("b", "b"));
+        nodeInfoLoader = id -> {
+            count("info-" + id);
+            return nodes.get(id);
+        };
+    }
+
+    private NodeInfo getNodeInfo(String id) {
+        return cache.getNodeInfo(id, nodeInfoLoader);
+    }
+
+    private List<NodeInfo> getRootChildNodes() {
+        return cache.getChildNodes("root", () -> {
+            count("children-root");
+            return Arrays.asList(nodes.get("a"), nodes.get("b"));
+        }, nodeInfoLoader);
+    }
+
+    @Test
+    public void nodeInfoTest() {
+        assertEquals("a", getNodeInfo("a").getName());
+        assertEquals("a", getNodeInfo("a").getName());
+        assertEquals(1, getLoadCount("info-a"));
+
+        // returned node info is a copy
+        getNodeInfo("a").setDescription("changed");
+        assertEquals("", getNodeInfo("a").getDescription());
+
+        nodes.put("a", createNodeInfo("a", "a2"));
+        cache.invalidate(new NodeEventList(new NodeNameUpdated("a", "a2")));
+        assertEquals("a2", getNodeInfo("a").getName());
+        assertEquals(2, getLoadCount("info-a"));
+
+        cache.invalidateNodeInfo("a");
+        getNodeInfo("a");
+        assertEquals(3, getLoadCount("info-a"));
+    }
+
+    @Test
+    public void childNodesTest() {
+        assertEquals(2, getRootChildNodes().size());
+        assertEquals(2, getRootChildNodes().size());
+        assertEquals(1, getLoadCount("children-root"));
+
+        // child node infos are resolved from the node info cache
+        assertEquals("a", getNodeInfo("a").getName());
+        assertEquals(0, getLoadCount("info-a"));
+
+        // a child node update does not invalidate the children list
+        nodes.put("a", createNodeInfo("a", "a2"));
+        cache.invalidate(new NodeNameUpdated("a", "a2"));
+        assertEquals("a2", getRootChildNodes().get(0).getName());
+        assertEquals(1, getLoadCount("children-root"));
+        assertEquals(1, getLoadCount("info-a"));
+
+        cache.invalidate(new NodeCreated("c", "root"));
+        getRootChildNodes();
+        assertEquals(2, getLoadCount("children-root"));
+
+        cache.invalidate(new NodeRemoved("b", "root"));
+        getRootChildNodes();
+        assertEquals(3, getLoadCount("children-root"));
+
+        cache.invalidate(new ParentChanged("a"));
+        getRootChildNodes();
+        assertEquals(4, getLoadCount("children-root"));
+
+        cache.invalidateAll();
+        getRootChildNodes();
+        assertEquals(5, getLoadCount("children-root"));
+    }
+
+    @Test
+    public void parentNodeTest() {
+        assertEquals(Optional.empty(), cache.getParentNode("root", () -> {
+            count("parent-root");
+            return Optional.empty();
+        }, nodeInfoLoader));
+        assertEquals(Optional.empty(), cache.getParentNode("root", () -> {
+            count("parent-root");
+            return Optional.empty();
+        }, nodeInfoLoader));
+        assertEquals(1, getLoadCount("parent-root"));
+    }
+
+    @Test
+    public void dependenciesTest() {
+        Set<NodeDependency> dependencies = Collections.singleton(new NodeDependency("dep", nodes.get("b")));
+        assertEquals(dependencies, cache.getDependencies("a", () -> {
+            count("dependencies-a");
+            return dependencies;
+        }, nodeInfoLoader));
+        assertEquals(dependencies, cache.getDependencies("a", () -> {
+            count("dependencies-a");
+            return dependencies;
+        }, nodeInfoLoader));
+        assertEquals(1, getLoadCount("dependencies-a"));
+
+        assertEquals(Collections.singleton(nodes.get("a")), cache.getBackwardDependencies("b", () -> {
+            count("backward-b");
+            return Collections.singleton(nodes.get("a"));
+        }, nodeInfoLoader));
+        cache.getBackwardDependencies("b", () -> {
+            count("backward-b");
+            return Collections.singleton(nodes.get("a"));
+        }, nodeInfoLoader);
+        assertEquals(1, getLoadCount("backward-b"));
+
+        cache.invalidate(new NodeEventList(new DependencyRemoved("a", "dep"), new BackwardDependencyRemoved("b", "dep")));
+        assertEquals(Collections.emptySet(), cache.getDependencies("a", () -> {
+            count("dependencies-a");
+            return Collections.emptySet();
+        }, nodeInfoLoader));
+        assertEquals(2, getLoadCount("dependencies-a"));
+        cache.getBackwardDependencies("b", () -> {
+            count("backward-b");
+            return Collections.emptySet();
+        }, nodeInfoLoader);
+        assertEquals(2, getLoadCount("backward-b"));
+    }
+
+    private List<NodeInfo> loadNodeInfos(List<String> ids) {
+        ids.forEach(id -> count("info-" + id));
+        count("infos");
+        return ids.stream().map(nodes::get).collect(Collectors.toList());
+    }
+
+    @Test
+    public void batchTest() {
+        getNodeInfo("a");
+
+        // only the non cached node info is loaded
+        assertEquals(Arrays.asList("root", "a", "b"), cache.getNodeInfos(Arrays.asList("root", "a", "b"), this::loadNodeInfos)
+                .stream().map(NodeInfo::getName).collect(Collectors.toList()));
+        assertEquals(1, getLoadCount("info-a"));
+        assertEquals(1, getLoadCount("info-b"));
+        cache.getNodeInfos(Arrays.asList("a", "b"), this::loadNodeInfos);
+        assertEquals(1, getLoadCount("infos"));
+
+        // descendants are loaded once and then served from the children lists cache
+        Map<String, List<NodeInfo>> descendantNodes = new HashMap<>();
+        descendantNodes.put("root", Arrays.asList(nodes.get("a"), nodes.get("b")));
+        descendantNodes.put("a", Collections.emptyList());
+        descendantNodes.put("b", Collections.emptyList());
+        BiFunction<String, Integer, Map<String, List<NodeInfo>>> descendantNodesLoader = (id, depth) -> {
+            count("descendants-" + id);
+            return descendantNodes;
+        };
+        assertEquals(descendantNodes, cache.getDescendantNodes("root", 2, descendantNodesLoader, this::loadNodeInfos));
+        assertEquals(descendantNodes, cache.getDescendantNodes("root", 2, descendantNodesLoader, this::loadNodeInfos));
+        assertEquals(1, getLoadCount("descendants-root"));
+        assertEquals(2, getRootChildNodes().size());
+        assertEquals(0, getLoadCount("children-root"));
+
+        // only dependencies of the non cached node are loaded
+        Set<NodeDependency> dependencies = Collections.singleton(new NodeDependency("dep", nodes.get("b")));
+        cache.getDependencies("a", () -> dependencies, nodeInfoLoader);
+        Map<String, Set<NodeDependency>> nodeDependencies = cache.getNodeDependencies(Arrays.asList("a", "b"), ids -> {
+            ids.forEach(id -> count("dependencies-" + id));
+            return Collections.singletonMap("b", Collections.emptySet());
+        }, this::loadNodeInfos);
+        assertEquals(dependencies, nodeDependencies.get("a"));
+        assertEquals(Collections.emptySet(), nodeDependencies.get("b"));
+        assertEquals(0, getLoadCount("dependencies-a"));
+        assertEquals(1, getLoadCount("dependencies-b"));
+    }
+
+    @Test
+    public void concurrentInvalidationTest() {
+        // a value loaded while an invalidation occurs is not cached
+        cache.getNodeInfo("a", id -> {
+            count("info-a");
+            cache.invalidate(new NodeDescriptionUpdated("a", "changed"));
+            return nodes.get(id);
+        });
+        getNodeInfo("a");
+        assertEquals(2, getLoadCount("info-a"));
+    }
+}
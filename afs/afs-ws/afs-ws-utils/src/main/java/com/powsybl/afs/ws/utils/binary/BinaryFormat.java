@@ -0,0 +1,516 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.ws.utils.binary;
+
+import com.powsybl.afs.storage.buffer.*;
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.timeseries.*;
+
+import javax.ws.rs.core.MediaType;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary wire format for chunk heavy AFS web service endpoints, as an alternative to JSON.
+ * <p>
+ * A message is a sequence of frames, each one prefixed by its length in bytes, and terminated by a -1 length. Each
+ * frame holds one time series (name and chunks) or one storage change, so both sides can write and read messages
+ * frame by frame without buffering the whole message. Primitive arrays of chunks are written raw (big endian) and
+ * strings as UTF-8 bytes prefixed by their length (-1 for null).
+ * <p>
+ * Lengths read from a message are checked before allocating anything: a frame cannot be longer than
+ * {@link #DEFAULT_MAXIMUM_FRAME_LENGTH} bytes (unless another maximum is given to the {@link FrameReader}), and array
+ * lengths inside a frame cannot exceed the remaining bytes of the frame.
+ *
+ * @author agent <agent at local>
+ */
+public final class BinaryFormat {
+
+    public static final String APPLICATION_BINARY = "application/vnd.powsybl.afs+binary";
+
+    public static final MediaType APPLICATION_BINARY_TYPE = MediaType.valueOf(APPLICATION_BINARY);
+
+    public static final int DEFAULT_MAXIMUM_FRAME_LENGTH = 64 * 1024 * 1024;
+
+    private static final int END_OF_FRAMES = -1;
+
+    // minimum size of a chunk: type and offset
+    private static final int MINIMUM_CHUNK_BYTES = 1 + Integer.BYTES;
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private static final byte UNCOMPRESSED_DOUBLE_CHUNK = 0;
+    private static final byte COMPRESSED_DOUBLE_CHUNK = 1;
+    private static final byte XOR_DOUBLE_CHUNK = 2;
+    private static final byte DELTA_OF_DELTA_DOUBLE_CHUNK = 3;
+    private static final byte UNCOMPRESSED_STRING_CHUNK = 4;
+    private static final byte COMPRESSED_STRING_CHUNK = 5;
+    private static final byte DICTIONARY_STRING_CHUNK = 6;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Writes frames to an output stream, a frame is first written in memory to compute its length.
+     */
+    public static final class FrameWriter {
+
+        private final DataOutputStream os;
+
+        private final ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream frame = new DataOutputStream(frameBytes);
+
+        public FrameWriter(OutputStream os) {
+            this.os = new DataOutputStream(Objects.requireNonNull(os));
+        }
+
+        public void writeFrame(IoConsumer<DataOutputStream> content) throws IOException {
+            frameBytes.reset();
+            content.accept(frame);
+            frame.flush();
+            os.writeInt(frameBytes.size());
+            frameBytes.writeTo(os);
+        }
+
+        public void writeEnd() throws IOException {
+            os.writeInt(END_OF_FRAMES);
+            os.flush();
+        }
+    }
+
+    /**
+     * Reads frames from an input stream.
+     */
+    public static final class FrameReader {
+
+        private final DataInputStream is;
+
+        private final int maximumFrameLength;
+
+        public FrameReader(InputStream is) {
+            this(is, DEFAULT_MAXIMUM_FRAME_LENGTH);
+        }
+
+        public FrameReader(InputStream is, int maximumFrameLength) {
+            this.is = new DataInputStream(Objects.requireNonNull(is));
+            if (maximumFrameLength <= 0) {
+                throw new IllegalArgumentException("Bad maximum frame length " + maximumFrameLength);
+            }
+            this.maximumFrameLength = maximumFrameLength;
+        }
+
+        /**
+         * Returns next frame or null if there is no more frame.
+         */
+        public DataInputStream nextFrame() throws IOException {
+            int length = is.readInt();
+            if (length == END_OF_FRAMES) {
+                return null;
+            }
+            if (length < 0 || length > maximumFrameLength) {
+                throw new IOException("Bad frame length " + length);
+            }
+            byte[] bytes = new byte[length];
+            is.readFully(bytes);
+            return new DataInputStream(new ByteArrayInputStream(bytes));
+        }
+    }
+
+    @FunctionalInterface
+    public interface IoConsumer<T> {
+
+        void accept(T t) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IoFunction<T, R> {
+
+        R apply(T t) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IoBiConsumer<T, U> {
+
+        void accept(T t, U u) throws IOException;
+    }
+
+    /**
+     * Check a length read from a frame, {@code is} being a frame returned by {@link FrameReader#nextFrame()} its
+     * available bytes are the remaining bytes of the frame.
+     */
+    private static int checkLength(DataInputStream is, int length, int minimumElementBytes) throws IOException {
+        if (length < 0 || (long) length * minimumElementBytes > is.available()) {
+            throw new IOException("Bad length " + length);
+        }
+        return length;
+    }
+
+    private static void writeString(DataOutputStream os, String value) throws IOException {
+        if (value == null) {
+            os.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            os.writeInt(bytes.length);
+            os.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream is) throws IOException {
+        int length = is.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[checkLength(is, length, 1)];
+        is.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream os, String[] values) throws IOException {
+        os.writeInt(values.length);
+        for (String value : values) {
+            writeString(os, value);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream is) throws IOException {
+        String[] values = new String[checkLength(is, is.readInt(), Integer.BYTES)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(is);
+        }
+        return values;
+    }
+
+    private static void writeBytes(DataOutputStream os, byte[] values) throws IOException {
+        os.writeInt(values.length);
+        os.write(values);
+    }
+
+    private static byte[] readBytes(DataInputStream is) throws IOException {
+        byte[] values = new byte[checkLength(is, is.readInt(), 1)];
+        is.readFully(values);
+        return values;
+    }
+
+    private static void writeDoubles(DataOutputStream os, double[] values) throws IOException {
+        os.writeInt(values.length);
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        DoubleBuffer doubleBlock = block.asDoubleBuffer();
+        for (int i = 0; i < values.length; i += doubleBlock.capacity()) {
+            int length = Math.min(doubleBlock.capacity(), values.length - i);
+            doubleBlock.clear();
+            doubleBlock.put(values, i, length);
+            os.write(block.array(), 0, length * Double.BYTES);
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream is) throws IOException {
+        double[] values = new double[checkLength(is, is.readInt(), Double.BYTES)];
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        DoubleBuffer doubleBlock = block.asDoubleBuffer();
+        for (int i = 0; i < values.length; i += doubleBlock.capacity()) {
+            int length = Math.min(doubleBlock.capacity(), values.length - i);
+            is.readFully(block.array(), 0, length * Double.BYTES);
+            doubleBlock.clear();
+            doubleBlock.get(values, i, length);
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream os, int[] values) throws IOException {
+        os.writeInt(values.length);
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        IntBuffer intBlock = block.asIntBuffer();
+        for (int i = 0; i < values.length; i += intBlock.capacity()) {
+            int length = Math.min(intBlock.capacity(), values.length - i);
+            intBlock.clear();
+            intBlock.put(values, i, length);
+            os.write(block.array(), 0, length * Integer.BYTES);
+        }
+    }
+
+    private static int[] readInts(DataInputStream is) throws IOException {
+        int[] values = new int[checkLength(is, is.readInt(), Integer.BYTES)];
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        IntBuffer intBlock = block.asIntBuffer();
+        for (int i = 0; i < values.length; i += intBlock.capacity()) {
+            int length = Math.min(intBlock.capacity(), values.length - i);
+            is.readFully(block.array(), 0, length * Integer.BYTES);
+            intBlock.clear();
+            intBlock.get(values, i, length);
+        }
+        return values;
+    }
+
+    public static void writeDoubleChunk(DataOutputStream os, DoubleArrayChunk chunk) throws IOException {
+        Objects.requireNonNull(os);
+        Objects.requireNonNull(chunk);
+        if (chunk instanceof CompressedDoubleArrayChunk) {
+            CompressedDoubleArrayChunk compressedChunk = (CompressedDoubleArrayChunk) chunk;
+            os.writeByte(COMPRESSED_DOUBLE_CHUNK);
+            os.writeInt(compressedChunk.getOffset());
+            os.writeInt(compressedChunk.getUncompressedLength());
+            writeDoubles(os, compressedChunk.getStepValues());
+            writeInts(os, compressedChunk.getStepLengths());
+        } else if (chunk instanceof XorDoubleArrayChunk) {
+            os.writeByte(XOR_DOUBLE_CHUNK);
+            os.writeInt(chunk.getOffset());
+            os.writeInt(chunk.getLength());
+            writeBytes(os, ((XorDoubleArrayChunk) chunk).getEncodedValues());
+        } else if (chunk instanceof DeltaOfDeltaDoubleArrayChunk) {
+            DeltaOfDeltaDoubleArrayChunk deltaOfDeltaChunk = (DeltaOfDeltaDoubleArrayChunk) chunk;
+            os.writeByte(DELTA_OF_DELTA_DOUBLE_CHUNK);
+            os.writeInt(chunk.getOffset());
+            os.writeInt(chunk.getLength());
+            os.writeInt(deltaOfDeltaChunk.getScale());
+            writeBytes(os, deltaOfDeltaChunk.getEncodedValues());
+        } else {
+            double[] values;
+            if (chunk instanceof UncompressedDoubleArrayChunk) {
+                values = ((UncompressedDoubleArrayChunk) chunk).getValues();
+            } else {
+                // any other chunk implementation is sent uncompressed
+                values = new double[chunk.getLength()];
+                chunk.fillBuffer(DoubleBuffer.wrap(values), -chunk.getOffset());
+            }
+            os.writeByte(UNCOMPRESSED_DOUBLE_CHUNK);
+            os.writeInt(chunk.getOffset());
+            writeDoubles(os, values);
+        }
+    }
+
+    private static DoubleArrayChunk readDoubleChunk(DataInputStream is) throws IOException {
+        Objects.requireNonNull(is);
+        byte type = is.readByte();
+        int offset = is.readInt();
+        switch (type) {
+            case UNCOMPRESSED_DOUBLE_CHUNK:
+                return new UncompressedDoubleArrayChunk(offset, readDoubles(is));
+            case COMPRESSED_DOUBLE_CHUNK: {
+                int uncompressedLength = is.readInt();
+                double[] stepValues = readDoubles(is);
+                int[] stepLengths = readInts(is);
+                return new CompressedDoubleArrayChunk(offset, uncompressedLength, stepValues, stepLengths);
+            }
+            case XOR_DOUBLE_CHUNK: {
+                int uncompressedLength = is.readInt();
+                return new XorDoubleArrayChunk(offset, uncompressedLength, readBytes(is));
+            }
+            case DELTA_OF_DELTA_DOUBLE_CHUNK: {
+                int uncompressedLength = is.readInt();
+                int scale = is.readInt();
+                return new DeltaOfDeltaDoubleArrayChunk(offset, uncompressedLength, scale, readBytes(is));
+            }
+            default:
+                throw new IOException("Unknown double chunk type " + type);
+        }
+    }
+
+    public static void writeStringChunk(DataOutputStream os, StringArrayChunk chunk) throws IOException {
+        Objects.requireNonNull(os);
+        Objects.requireNonNull(chunk);
+        if (chunk instanceof CompressedStringArrayChunk) {
+            CompressedStringArrayChunk compressedChunk = (CompressedStringArrayChunk) chunk;
+            os.writeByte(COMPRESSED_STRING_CHUNK);
+            os.writeInt(compressedChunk.getOffset());
+            os.writeInt(compressedChunk.getUncompressedLength());
+            writeStrings(os, compressedChunk.getStepValues());
+            writeInts(os, compressedChunk.getStepLengths());
+        } else if (chunk instanceof DictionaryStringArrayChunk) {
+            DictionaryStringArrayChunk dictionaryChunk = (DictionaryStringArrayChunk) chunk;
+            os.writeByte(DICTIONARY_STRING_CHUNK);
+            os.writeInt(dictionaryChunk.getOffset());
+            writeStrings(os, dictionaryChunk.getDictionary());
+            writeInts(os, dictionaryChunk.getIndexes());
+        } else {
+            String[] values;
+            if (chunk instanceof UncompressedStringArrayChunk) {
+                values = ((UncompressedStringArrayChunk) chunk).getValues();
+            } else {
+                // any other chunk implementation is sent uncompressed
+                CompactStringBuffer buffer = new CompactStringBuffer(ByteBuffer::allocate, chunk.getLength());
+                chunk.fillBuffer(buffer, -chunk.getOffset());
+                values = buffer.toArray();
+            }
+            os.writeByte(UNCOMPRESSED_STRING_CHUNK);
+            os.writeInt(chunk.getOffset());
+            writeStrings(os, values);
+        }
+    }
+
+    private static StringArrayChunk readStringChunk(DataInputStream is) throws IOException {
+        Objects.requireNonNull(is);
+        byte type = is.readByte();
+        int offset = is.readInt();
+        switch (type) {
+            case UNCOMPRESSED_STRING_CHUNK:
+                return new UncompressedStringArrayChunk(offset, readStrings(is));
+            case COMPRESSED_STRING_CHUNK: {
+                int uncompressedLength = is.readInt();
+                String[] stepValues = readStrings(is);
+                int[] stepLengths = readInts(is);
+                return new CompressedStringArrayChunk(offset, uncompressedLength, stepValues, stepLengths);
+            }
+            case DICTIONARY_STRING_CHUNK: {
+                String[] dictionary = readStrings(is);
+                int[] indexes = readInts(is);
+                return new DictionaryStringArrayChunk(offset, dictionary, indexes);
+            }
+            default:
+                throw new IOException("Unknown string chunk type " + type);
+        }
+    }
+
+    private static <C> void writeChunks(DataOutputStream os, List<C> chunks, IoBiConsumer<DataOutputStream, C> chunkWriter) throws IOException {
+        os.writeInt(chunks.size());
+        for (C chunk : chunks) {
+            chunkWriter.accept(os, chunk);
+        }
+    }
+
+    private static <C> List<C> readChunks(DataInputStream is, IoFunction<DataInputStream, C> chunkReader) throws IOException {
+        int chunkCount = checkLength(is, is.readInt(), MINIMUM_CHUNK_BYTES);
+        List<C> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(chunkReader.apply(is));
+        }
+        return chunks;
+    }
+
+    /**
+     * Writes a time series data frame: the name of the time series and its chunks.
+     */
+    public static void writeDoubleTimeSeriesData(FrameWriter writer, String timeSeriesName, List<DoubleArrayChunk> chunks) throws IOException {
+        writer.writeFrame(frame -> {
+            writeString(frame, timeSeriesName);
+            writeChunks(frame, chunks, BinaryFormat::writeDoubleChunk);
+        });
+    }
+
+    public static void writeStringTimeSeriesData(FrameWriter writer, String timeSeriesName, List<StringArrayChunk> chunks) throws IOException {
+        writer.writeFrame(frame -> {
+            writeString(frame, timeSeriesName);
+            writeChunks(frame, chunks, BinaryFormat::writeStringChunk);
+        });
+    }
+
+    private static <C> Map<String, List<C>> readTimeSeriesData(InputStream is, IoFunction<DataInputStream, C> chunkReader) throws IOException {
+        FrameReader reader = new FrameReader(is);
+        Map<String, List<C>> timeSeriesData = new HashMap<>();
+        DataInputStream frame;
+        while ((frame = reader.nextFrame()) != null) {
+            String timeSeriesName = readString(frame);
+            timeSeriesData.put(timeSeriesName, readChunks(frame, chunkReader));
+        }
+        return timeSeriesData;
+    }
+
+    public static void writeDoubleTimeSeriesData(OutputStream os, Map<String, List<DoubleArrayChunk>> timeSeriesData) throws IOException {
+        FrameWriter writer = new FrameWriter(os);
+        for (Map.Entry<String, List<DoubleArrayChunk>> e : timeSeriesData.entrySet()) {
+            writeDoubleTimeSeriesData(writer, e.getKey(), e.getValue());
+        }
+        writer.writeEnd();
+    }
+
+    public static Map<String, List<DoubleArrayChunk>> readDoubleTimeSeriesData(InputStream is) throws IOException {
+        return readTimeSeriesData(is, BinaryFormat::readDoubleChunk);
+    }
+
+    public static void writeStringTimeSeriesData(OutputStream os, Map<String, List<StringArrayChunk>> timeSeriesData) throws IOException {
+        FrameWriter writer = new FrameWriter(os);
+        for (Map.Entry<String, List<StringArrayChunk>> e : timeSeriesData.entrySet()) {
+            writeStringTimeSeriesData(writer, e.getKey(), e.getValue());
+        }
+        writer.writeEnd();
+    }
+
+    public static Map<String, List<StringArrayChunk>> readStringTimeSeriesData(InputStream is) throws IOException {
+        return readTimeSeriesData(is, BinaryFormat::readStringChunk);
+    }
+
+    private static void writeChange(DataOutputStream os, StorageChange change) throws IOException {
+        os.writeByte(change.getType().ordinal());
+        writeString(os, change.getNodeId());
+        switch (change.getType()) {
+            case TIME_SERIES_CREATION:
+                // metadata is small, no need for a specific encoding
+                writeString(os, JsonUtil.toJson(((TimeSeriesCreation) change).getMetadata()::writeJson));
+                break;
+            case DOUBLE_TIME_SERIES_CHUNKS_ADDITION:
+                DoubleTimeSeriesChunksAddition doubleAddition = (DoubleTimeSeriesChunksAddition) change;
+                os.writeInt(doubleAddition.getVersion());
+                writeString(os, doubleAddition.getTimeSeriesName());
+                writeChunks(os, doubleAddition.getChunks(), BinaryFormat::writeDoubleChunk);
+                break;
+            case STRING_TIME_SERIES_CHUNKS_ADDITION:
+                StringTimeSeriesChunksAddition stringAddition = (StringTimeSeriesChunksAddition) change;
+                os.writeInt(stringAddition.getVersion());
+                writeString(os, stringAddition.getTimeSeriesName());
+                writeChunks(os, stringAddition.getChunks(), BinaryFormat::writeStringChunk);
+                break;
+            default:
+                throw new AssertionError("Unknown change type " + change.getType());
+        }
+    }
+
+    private static StorageChange readChange(DataInputStream is) throws IOException {
+        int typeOrdinal = is.readByte();
+        if (typeOrdinal < 0 || typeOrdinal >= StorageChangeType.values().length) {
+            throw new IOException("Unknown change type " + typeOrdinal);
+        }
+        StorageChangeType type = StorageChangeType.values()[typeOrdinal];
+        String nodeId = readString(is);
+        switch (type) {
+            case TIME_SERIES_CREATION:
+                return new TimeSeriesCreation(nodeId, JsonUtil.parseJson(readString(is), TimeSeriesMetadata::parseJson));
+            case DOUBLE_TIME_SERIES_CHUNKS_ADDITION: {
+                int version = is.readInt();
+                String timeSeriesName = readString(is);
+                return new DoubleTimeSeriesChunksAddition(nodeId, version, timeSeriesName, readChunks(is, BinaryFormat::readDoubleChunk));
+            }
+            case STRING_TIME_SERIES_CHUNKS_ADDITION: {
+                int version = is.readInt();
+                String timeSeriesName = readString(is);
+                return new StringTimeSeriesChunksAddition(nodeId, version, timeSeriesName, readChunks(is, BinaryFormat::readStringChunk));
+            }
+            default:
+                throw new AssertionError("Unknown change type " + type);
+        }
+    }
+
+    public static void writeChangeSet(OutputStream os, StorageChangeSet changeSet) throws IOException {
+        Objects.requireNonNull(changeSet);
+        FrameWriter writer = new FrameWriter(os);
+        for (StorageChange change : changeSet.getChanges()) {
+            writer.writeFrame(frame -> writeChange(frame, change));
+        }
+        writer.writeEnd();
+    }
+
+    /**
+     * Reads changes one by one and passes them to a consumer as soon as they are received.
+     */
+    public static void readChanges(InputStream is, IoConsumer<StorageChange> consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        FrameReader reader = new FrameReader(is);
+        DataInputStream frame;
+        while ((frame = reader.nextFrame()) != null) {
+            consumer.accept(readChange(frame));
+        }
+    }
+
+    public static StorageChangeSet readChangeSet(InputStream is) throws IOException {
+        StorageChangeSet changeSet = new StorageChangeSet();
+        readChanges(is, changeSet.getChanges()::add);
+        return changeSet;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.ws.utils.binary;
+
+import com.powsybl.afs.storage.buffer.StorageChangeSet;
+import com.powsybl.timeseries.DoubleArrayChunk;
+import com.powsybl.timeseries.StringArrayChunk;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes time series data and storage change sets using {@link BinaryFormat}.
+ *
+ * @author agent <agent at local>
+ */
+@Provider
+@Consumes(BinaryFormat.APPLICATION_BINARY)
+@Produces(BinaryFormat.APPLICATION_BINARY)
+public class BinaryProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    /**
+     * Returns the chunk class {@code C} if {@code type} is {@code Map<String, List<C>>}, null otherwise.
+     */
+    private static Type getChunkType(Type type) {
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Map.class) {
+            Type[] mapArguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (mapArguments[0] == String.class && mapArguments[1] instanceof ParameterizedType
+                    && ((ParameterizedType) mapArguments[1]).getRawType() == List.class) {
+                return ((ParameterizedType) mapArguments[1]).getActualTypeArguments()[0];
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSupported(Class<?> type, Type genericType) {
+        if (type == StorageChangeSet.class) {
+            return true;
+        }
+        Type chunkType = getChunkType(genericType);
+        return chunkType == DoubleArrayChunk.class || chunkType == StringArrayChunk.class;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isSupported(type, genericType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        if (type == StorageChangeSet.class) {
+            return BinaryFormat.readChangeSet(entityStream);
+        } else if (getChunkType(genericType) == DoubleArrayChunk.class) {
+            return BinaryFormat.readDoubleTimeSeriesData(entityStream);
+        } else {
+            return BinaryFormat.readStringTimeSeriesData(entityStream);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isSupported(type, genericType);
+    }
+
+    @Override
+    public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        if (o instanceof StorageChangeSet) {
+            BinaryFormat.writeChangeSet(entityStream, (StorageChangeSet) o);
+        } else if (getChunkType(genericType) == DoubleArrayChunk.class) {
+            BinaryFormat.writeDoubleTimeSeriesData(entityStream, (Map<String, List<DoubleArrayChunk>>) o);
+        } else {
+            BinaryFormat.writeStringTimeSeriesData(entityStream, (Map<String, List<StringArrayChunk>>) o);
+        }
+    }
+}
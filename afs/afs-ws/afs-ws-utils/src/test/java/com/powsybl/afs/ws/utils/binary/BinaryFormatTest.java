@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.afs.ws.utils.binary;
+
+import com.google.common.collect.ImmutableMap;
+import com.powsybl.afs.storage.buffer.DoubleTimeSeriesChunksAddition;
+import com.powsybl.afs.storage.buffer.StorageChangeSet;
+import com.powsybl.afs.storage.buffer.StringTimeSeriesChunksAddition;
+import com.powsybl.afs.storage.buffer.TimeSeriesCreation;
+import com.powsybl.timeseries.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class BinaryFormatTest {
+
+    @Test
+    public void doubleTimeSeriesDataTest() throws IOException {
+        double[] values = new double[2000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 0.1;
+        }
+        Map<String, List<DoubleArrayChunk>> timeSeriesData = ImmutableMap.of(
+                "ts1", Arrays.asList(new UncompressedDoubleArrayChunk(0, values),
+                                     new CompressedDoubleArrayChunk(2000, 5, new double[] {1d, 2d}, new int[] {2, 3})),
+                "ts2", Arrays.asList(XorDoubleArrayChunk.encode(0, new double[] {1.1, 1.2, 1.2}),
+                                     DeltaOfDeltaDoubleArrayChunk.encode(3, new double[] {1.5, 2.5, 3.5})));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryFormat.writeDoubleTimeSeriesData(os, timeSeriesData);
+        assertEquals(timeSeriesData, BinaryFormat.readDoubleTimeSeriesData(new ByteArrayInputStream(os.toByteArray())));
+    }
+
+    @Test
+    public void stringTimeSeriesDataTest() throws IOException {
+        Map<String, List<StringArrayChunk>> timeSeriesData = ImmutableMap.of(
+                "ts1", Arrays.asList(new UncompressedStringArrayChunk(0, new String[] {"a", null, "é"}),
+                                     new CompressedStringArrayChunk(3, 4, new String[] {"b", "c"}, new int[] {1, 3}),
+                                     DictionaryStringArrayChunk.encode(7, new String[] {"x", "y", "x"})));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryFormat.writeStringTimeSeriesData(os, timeSeriesData);
+        assertEquals(timeSeriesData, BinaryFormat.readStringTimeSeriesData(new ByteArrayInputStream(os.toByteArray())));
+    }
+
+    @Test
+    public void changeSetTest() throws IOException {
+        StorageChangeSet changeSet = new StorageChangeSet(Arrays.asList(
+                new TimeSeriesCreation("a", new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, Collections.singletonMap("k", "v"),
+                                                                   new RegularTimeSeriesIndex(0, 3600000, 3600000))),
+                new DoubleTimeSeriesChunksAddition("a", 1, "ts1", Collections.singletonList(new UncompressedDoubleArrayChunk(0, new double[] {1d, 2d}))),
+                new StringTimeSeriesChunksAddition("b", 2, "ts2", Collections.singletonList(new UncompressedStringArrayChunk(1, new String[] {"a"})))));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryFormat.writeChangeSet(os, changeSet);
+        assertEquals(changeSet, BinaryFormat.readChangeSet(new ByteArrayInputStream(os.toByteArray())));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedMessageTest() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryFormat.writeDoubleTimeSeriesData(os, Collections.singletonMap("ts1", Collections.singletonList(new UncompressedDoubleArrayChunk(0, new double[] {1d}))));
+        byte[] bytes = os.toByteArray();
+        BinaryFormat.readDoubleTimeSeriesData(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 4)));
+    }
+
+    @Test
+    public void boundedLengthsTest() throws IOException {
+        // frame longer than the maximum
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new DataOutputStream(os).writeInt(BinaryFormat.DEFAULT_MAXIMUM_FRAME_LENGTH + 1);
+        try {
+            new BinaryFormat.FrameReader(new ByteArrayInputStream(os.toByteArray())).nextFrame();
+            fail();
+        } catch (IOException ignored) {
+        }
+
+        // array longer than its frame
+        os = new ByteArrayOutputStream();
+        BinaryFormat.FrameWriter writer = new BinaryFormat.FrameWriter(os);
+        writer.writeFrame(frame -> {
+            frame.writeInt(1); // time series name length
+            frame.writeByte('a');
+            frame.writeInt(1); // chunk count
+            frame.writeByte(0); // uncompressed double chunk
+            frame.writeInt(0); // offset
+            frame.writeInt(Integer.MAX_VALUE); // value count
+        });
+        writer.writeEnd();
+        try {
+            BinaryFormat.readDoubleTimeSeriesData(new ByteArrayInputStream(os.toByteArray()));
+            fail();
+        } catch (IOException e) {
+            assertEquals("Bad length " + Integer.MAX_VALUE, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.commons.xml;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encoding shared by {@link BinaryXmlStreamWriter} and {@link BinaryXmlStreamReader}.
+ * <p>
+ * The binary format is a sequence of records, each one starting with a tag byte:
+ * <ul>
+ *     <li>start element: name, namespace declarations and typed attribute values</li>
+ *     <li>end element</li>
+ *     <li>characters</li>
+ *     <li>end document</li>
+ * </ul>
+ * Strings are dictionary encoded: the first occurrence is written with its UTF-8 bytes, next ones only with
+ * their index in the dictionary. Integers are written as zigzag varints and doubles as 8 bytes, but only when
+ * formatting them back gives exactly the original attribute value.
+ *
+ * @author agent <agent at local>
+ */
+final class BinaryXml {
+
+    static final byte[] MAGIC = {'B', 'X', 'M', 'L'};
+
+    static final int VERSION = 1;
+
+    static final int START_ELEMENT_RECORD = 1;
+
+    static final int END_ELEMENT_RECORD = 2;
+
+    static final int CHARACTERS_RECORD = 3;
+
+    static final int END_DOCUMENT_RECORD = 4;
+
+    static final int STRING_VALUE = 0;
+
+    static final int INT_VALUE = 1;
+
+    static final int DOUBLE_VALUE = 2;
+
+    // string codes: 0 is null, 1 is a new string followed by its bytes, n >= 2 is the string at index n - 2
+    static final int NULL_STRING = 0;
+
+    static final int NEW_STRING = 1;
+
+    private BinaryXml() {
+    }
+
+    static void writeVarInt(OutputStream os, int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            os.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        os.write(v);
+    }
+
+    static int readVarInt(InputStream is) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte(is);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static void writeZigZagVarInt(OutputStream os, int value) throws IOException {
+        writeVarInt(os, (value << 1) ^ (value >> 31));
+    }
+
+    static int readZigZagVarInt(InputStream is) throws IOException {
+        int v = readVarInt(is);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static void writeDouble(OutputStream os, double value) throws IOException {
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            os.write((int) (bits >>> (8 * i)));
+        }
+    }
+
+    static double readDouble(InputStream is) throws IOException {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= ((long) readByte(is)) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    static void writeUtf8(OutputStream os, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(os, bytes.length);
+        os.write(bytes);
+    }
+
+    static String readUtf8(InputStream is) throws IOException {
+        byte[] bytes = new byte[readVarInt(is)];
+        int offset = 0;
+        while (offset < bytes.length) {
+            int n = is.read(bytes, offset, bytes.length - offset);
+            if (n == -1) {
+                throw new EOFException();
+            }
+            offset += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int readByte(InputStream is) throws IOException {
+        int b = is.read();
+        if (b == -1) {
+            throw new EOFException();
+        }
+        return b;
+    }
+}
@@ -0,0 +1,504 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.commons.xml;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+import static com.powsybl.commons.xml.BinaryXml.*;
+
+/**
+ * A {@link XMLStreamReader} reading documents written by {@link BinaryXmlStreamWriter}.
+ *
+ * @author agent <agent at local>
+ */
+public class BinaryXmlStreamReader implements XMLStreamReader {
+
+    private static final Location UNKNOWN_LOCATION = new Location() {
+        @Override
+        public int getLineNumber() {
+            return -1;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return -1;
+        }
+
+        @Override
+        public int getCharacterOffset() {
+            return -1;
+        }
+
+        @Override
+        public String getPublicId() {
+            return null;
+        }
+
+        @Override
+        public String getSystemId() {
+            return null;
+        }
+    };
+
+    private static final class Element {
+
+        private final String prefix;
+
+        private final String namespaceUri;
+
+        private final String localName;
+
+        private final String[] namespaces; // prefix, uri pairs
+
+        private final String[] attributes; // prefix, uri, local name, value quadruplets
+
+        private Element(String prefix, String namespaceUri, String localName, String[] namespaces, String[] attributes) {
+            this.prefix = prefix;
+            this.namespaceUri = namespaceUri;
+            this.localName = localName;
+            this.namespaces = namespaces;
+            this.attributes = attributes;
+        }
+    }
+
+    private static final String[] EMPTY = new String[0];
+
+    private final InputStream is;
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final Deque<Element> elements = new ArrayDeque<>();
+
+    private int eventType = XMLStreamConstants.START_DOCUMENT;
+
+    // element of current start or end element event
+    private Element element;
+
+    private String text;
+
+    public BinaryXmlStreamReader(InputStream is) throws XMLStreamException {
+        this.is = Objects.requireNonNull(is);
+        try {
+            for (byte b : MAGIC) {
+                if (readByte(is) != b) {
+                    throw new XMLStreamException("Not a binary XML stream");
+                }
+            }
+            int version = readVarInt(is);
+            if (version != VERSION) {
+                throw new XMLStreamException("Unsupported binary XML version " + version);
+            }
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    private String readString() throws IOException {
+        int code = readVarInt(is);
+        if (code == NULL_STRING) {
+            return null;
+        } else if (code == NEW_STRING) {
+            String s = readUtf8(is);
+            dictionary.add(s);
+            return s;
+        } else {
+            return dictionary.get(code - 2);
+        }
+    }
+
+    private String readValue() throws IOException {
+        int type = readVarInt(is);
+        switch (type) {
+            case STRING_VALUE:
+                return readString();
+            case INT_VALUE:
+                return Integer.toString(readZigZagVarInt(is));
+            case DOUBLE_VALUE:
+                return Double.toString(BinaryXml.readDouble(is));
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private Element readElement() throws IOException {
+        String prefix = readString();
+        String namespaceUri = readString();
+        String localName = readString();
+        int namespaceCount = readVarInt(is);
+        String[] namespaces = namespaceCount > 0 ? new String[2 * namespaceCount] : EMPTY;
+        for (int i = 0; i < namespaces.length; i++) {
+            namespaces[i] = readString();
+        }
+        int attributeCount = readVarInt(is);
+        String[] attributes = attributeCount > 0 ? new String[4 * attributeCount] : EMPTY;
+        for (int i = 0; i < attributes.length; i += 4) {
+            attributes[i] = readString();
+            attributes[i + 1] = readString();
+            attributes[i + 2] = readString();
+            attributes[i + 3] = readValue();
+        }
+        return new Element(prefix, namespaceUri, localName, namespaces, attributes);
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        if (eventType == XMLStreamConstants.END_DOCUMENT) {
+            throw new NoSuchElementException("End of document reached");
+        }
+        if (eventType == XMLStreamConstants.END_ELEMENT) {
+            elements.pop();
+        }
+        text = null;
+        element = null;
+        try {
+            int tag = readVarInt(is);
+            switch (tag) {
+                case START_ELEMENT_RECORD:
+                    element = readElement();
+                    elements.push(element);
+                    eventType = XMLStreamConstants.START_ELEMENT;
+                    break;
+                case END_ELEMENT_RECORD:
+                    element = elements.peek();
+                    if (element == null) {
+                        throw new XMLStreamException("Unbalanced end element");
+                    }
+                    eventType = XMLStreamConstants.END_ELEMENT;
+                    break;
+                case CHARACTERS_RECORD:
+                    text = readUtf8(is);
+                    eventType = XMLStreamConstants.CHARACTERS;
+                    break;
+                case END_DOCUMENT_RECORD:
+                    eventType = XMLStreamConstants.END_DOCUMENT;
+                    break;
+                default:
+                    throw new XMLStreamException("Unknown record " + tag);
+            }
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+        return eventType;
+    }
+
+    @Override
+    public void require(int type, String namespaceURI, String localName) throws XMLStreamException {
+        if (type != eventType
+                || (namespaceURI != null && !namespaceURI.equals(getNamespaceURI()))
+                || (localName != null && !localName.equals(getLocalName()))) {
+            throw new XMLStreamException("Expected event " + type + " " + localName + " but was " + eventType);
+        }
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (eventType != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("Current event is not a start element");
+        }
+        StringBuilder builder = new StringBuilder();
+        int event = next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS) {
+                builder.append(text);
+            } else {
+                throw new XMLStreamException("Element text only expected");
+            }
+            event = next();
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while (event == XMLStreamConstants.CHARACTERS && isWhiteSpace()) {
+            event = next();
+        }
+        if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end element");
+        }
+        return event;
+    }
+
+    @Override
+    public boolean hasNext() throws XMLStreamException {
+        return eventType != XMLStreamConstants.END_DOCUMENT;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        // underlying input stream is not closed, as with other stream readers
+    }
+
+    @Override
+    public String getNamespaceURI(String prefix) {
+        Objects.requireNonNull(prefix);
+        for (Element e : elements) {
+            for (int i = 0; i < e.namespaces.length; i += 2) {
+                if (prefix.equals(e.namespaces[i])) {
+                    return e.namespaces[i + 1];
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isStartElement() {
+        return eventType == XMLStreamConstants.START_ELEMENT;
+    }
+
+    @Override
+    public boolean isEndElement() {
+        return eventType == XMLStreamConstants.END_ELEMENT;
+    }
+
+    @Override
+    public boolean isCharacters() {
+        return eventType == XMLStreamConstants.CHARACTERS;
+    }
+
+    @Override
+    public boolean isWhiteSpace() {
+        return isCharacters() && text.trim().isEmpty();
+    }
+
+    private Element getStartElement() {
+        if (eventType != XMLStreamConstants.START_ELEMENT) {
+            throw new IllegalStateException("Current event is not a start element");
+        }
+        return element;
+    }
+
+    @Override
+    public String getAttributeValue(String namespaceURI, String localName) {
+        String[] attributes = getStartElement().attributes;
+        for (int i = 0; i < attributes.length; i += 4) {
+            if (localName.equals(attributes[i + 2]) && (namespaceURI == null || namespaceURI.equals(attributes[i + 1]))) {
+                return attributes[i + 3];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return getStartElement().attributes.length / 4;
+    }
+
+    @Override
+    public QName getAttributeName(int index) {
+        return new QName(getAttributeNamespace(index), getAttributeLocalName(index), getAttributePrefix(index));
+    }
+
+    @Override
+    public String getAttributeNamespace(int index) {
+        String namespaceUri = getStartElement().attributes[4 * index + 1];
+        return namespaceUri != null ? namespaceUri : XMLConstants.NULL_NS_URI;
+    }
+
+    @Override
+    public String getAttributeLocalName(int index) {
+        return getStartElement().attributes[4 * index + 2];
+    }
+
+    @Override
+    public String getAttributePrefix(int index) {
+        String prefix = getStartElement().attributes[4 * index];
+        return prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX;
+    }
+
+    @Override
+    public String getAttributeType(int index) {
+        return "CDATA";
+    }
+
+    @Override
+    public String getAttributeValue(int index) {
+        return getStartElement().attributes[4 * index + 3];
+    }
+
+    @Override
+    public boolean isAttributeSpecified(int index) {
+        return true;
+    }
+
+    @Override
+    public int getNamespaceCount() {
+        if (eventType != XMLStreamConstants.START_ELEMENT && eventType != XMLStreamConstants.END_ELEMENT) {
+            throw new IllegalStateException("Current event is not a start or end element");
+        }
+        return element.namespaces.length / 2;
+    }
+
+    @Override
+    public String getNamespacePrefix(int index) {
+        getNamespaceCount();
+        return element.namespaces[2 * index];
+    }
+
+    @Override
+    public String getNamespaceURI(int index) {
+        getNamespaceCount();
+        return element.namespaces[2 * index + 1];
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                return BinaryXmlStreamReader.this.getNamespaceURI(prefix);
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                for (Element e : elements) {
+                    for (int i = 0; i < e.namespaces.length; i += 2) {
+                        if (namespaceURI.equals(e.namespaces[i + 1])) {
+                            return e.namespaces[i];
+                        }
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public Iterator getPrefixes(String namespaceURI) {
+                String prefix = getPrefix(namespaceURI);
+                return prefix != null ? Collections.singleton(prefix).iterator() : Collections.emptyIterator();
+            }
+        };
+    }
+
+    @Override
+    public int getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public String getText() {
+        if (eventType != XMLStreamConstants.CHARACTERS) {
+            throw new IllegalStateException("Current event is not characters");
+        }
+        return text;
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        return getText().toCharArray();
+    }
+
+    @Override
+    public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length) throws XMLStreamException {
+        String s = getText();
+        int n = Math.max(0, Math.min(length, s.length() - sourceStart));
+        s.getChars(sourceStart, sourceStart + n, target, targetStart);
+        return n;
+    }
+
+    @Override
+    public int getTextStart() {
+        return 0;
+    }
+
+    @Override
+    public int getTextLength() {
+        return getText().length();
+    }
+
+    @Override
+    public String getEncoding() {
+        return null;
+    }
+
+    @Override
+    public boolean hasText() {
+        return eventType == XMLStreamConstants.CHARACTERS;
+    }
+
+    @Override
+    public Location getLocation() {
+        return UNKNOWN_LOCATION;
+    }
+
+    @Override
+    public QName getName() {
+        if (!hasName()) {
+            throw new IllegalStateException("Current event is not a start or end element");
+        }
+        return new QName(getNamespaceURI(), getLocalName(), getPrefix());
+    }
+
+    @Override
+    public String getLocalName() {
+        if (!hasName()) {
+            throw new IllegalStateException("Current event is not a start or end element");
+        }
+        return element.localName;
+    }
+
+    @Override
+    public boolean hasName() {
+        return eventType == XMLStreamConstants.START_ELEMENT || eventType == XMLStreamConstants.END_ELEMENT;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return hasName() ? element.namespaceUri : null;
+    }
+
+    @Override
+    public String getPrefix() {
+        return hasName() ? element.prefix : null;
+    }
+
+    @Override
+    public String getVersion() {
+        return null;
+    }
+
+    @Override
+    public boolean isStandalone() {
+        return false;
+    }
+
+    @Override
+    public boolean standaloneSet() {
+        return false;
+    }
+
+    @Override
+    public String getCharacterEncodingScheme() {
+        return null;
+    }
+
+    @Override
+    public String getPITarget() {
+        return null;
+    }
+
+    @Override
+    public String getPIData() {
+        return null;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        Objects.requireNonNull(name);
+        return null;
+    }
+}
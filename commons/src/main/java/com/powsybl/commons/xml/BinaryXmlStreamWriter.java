@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.commons.xml;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+import static com.powsybl.commons.xml.BinaryXml.*;
+
+/**
+ * A {@link XMLStreamWriter} producing a compact binary encoding of the document, to be read back with
+ * {@link BinaryXmlStreamReader}. Comments are dropped, processing instructions, DTD and entity references are
+ * not supported.
+ *
+ * @author agent <agent at local>
+ */
+public class BinaryXmlStreamWriter implements XMLStreamWriter {
+
+    private static final class PendingElement {
+
+        private final String prefix;
+
+        private final String namespaceUri;
+
+        private final String localName;
+
+        private final boolean empty;
+
+        private final List<String> namespaces = new ArrayList<>(); // prefix, uri pairs
+
+        private final List<String> attributes = new ArrayList<>(); // prefix, uri, local name, value quadruplets
+
+        private PendingElement(String prefix, String namespaceUri, String localName, boolean empty) {
+            this.prefix = prefix;
+            this.namespaceUri = namespaceUri;
+            this.localName = localName;
+            this.empty = empty;
+        }
+    }
+
+    private final OutputStream os;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private final Map<String, String> prefixToUri = new HashMap<>();
+
+    private final Map<String, String> uriToPrefix = new HashMap<>();
+
+    private PendingElement pending;
+
+    public BinaryXmlStreamWriter(OutputStream os) throws XMLStreamException {
+        this.os = Objects.requireNonNull(os);
+        try {
+            os.write(MAGIC);
+            writeVarInt(os, VERSION);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            writeVarInt(os, NULL_STRING);
+        } else {
+            Integer index = dictionary.get(s);
+            if (index != null) {
+                writeVarInt(os, index + 2);
+            } else {
+                dictionary.put(s, dictionary.size());
+                writeVarInt(os, NEW_STRING);
+                writeUtf8(os, s);
+            }
+        }
+    }
+
+    private static boolean isNumberCandidate(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char c = value.charAt(0);
+        return (c >= '0' && c <= '9') || (c == '-' && value.length() > 1);
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (isNumberCandidate(value)) {
+            // only use a primitive encoding if formatting it back gives exactly the same string
+            try {
+                if (value.indexOf('.') == -1 && value.indexOf('E') == -1) {
+                    int i = Integer.parseInt(value);
+                    if (Integer.toString(i).equals(value)) {
+                        writeVarInt(os, INT_VALUE);
+                        writeZigZagVarInt(os, i);
+                        return;
+                    }
+                } else {
+                    double d = Double.parseDouble(value);
+                    if (Double.toString(d).equals(value)) {
+                        writeVarInt(os, DOUBLE_VALUE);
+                        BinaryXml.writeDouble(os, d);
+                        return;
+                    }
+                }
+            } catch (NumberFormatException ignored) {
+                // not a number, written as a string
+            }
+        }
+        writeVarInt(os, STRING_VALUE);
+        writeString(value);
+    }
+
+    private void flushPending() throws XMLStreamException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            writeVarInt(os, START_ELEMENT_RECORD);
+            writeString(pending.prefix);
+            writeString(pending.namespaceUri);
+            writeString(pending.localName);
+            writeVarInt(os, pending.namespaces.size() / 2);
+            for (String s : pending.namespaces) {
+                writeString(s);
+            }
+            writeVarInt(os, pending.attributes.size() / 4);
+            for (int i = 0; i < pending.attributes.size(); i += 4) {
+                writeString(pending.attributes.get(i));
+                writeString(pending.attributes.get(i + 1));
+                writeString(pending.attributes.get(i + 2));
+                writeValue(pending.attributes.get(i + 3));
+            }
+            if (pending.empty) {
+                writeVarInt(os, END_ELEMENT_RECORD);
+            }
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+        pending = null;
+    }
+
+    private PendingElement getPending() throws XMLStreamException {
+        if (pending == null) {
+            throw new XMLStreamException("No start element to add an attribute or a namespace to");
+        }
+        return pending;
+    }
+
+    private void startElement(String prefix, String localName, String namespaceURI, boolean empty) throws XMLStreamException {
+        flushPending();
+        pending = new PendingElement(prefix, namespaceURI, localName, empty);
+    }
+
+    private String getPrefixOrEmpty(String namespaceURI) {
+        String prefix = uriToPrefix.get(namespaceURI);
+        return prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX;
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        startElement(XMLConstants.DEFAULT_NS_PREFIX, localName, XMLConstants.NULL_NS_URI, false);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        startElement(getPrefixOrEmpty(namespaceURI), localName, namespaceURI, false);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startElement(prefix, localName, namespaceURI, false);
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        startElement(getPrefixOrEmpty(namespaceURI), localName, namespaceURI, true);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startElement(prefix, localName, namespaceURI, true);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        startElement(XMLConstants.DEFAULT_NS_PREFIX, localName, XMLConstants.NULL_NS_URI, true);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        flushPending();
+        try {
+            writeVarInt(os, END_ELEMENT_RECORD);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        flushPending();
+        try {
+            writeVarInt(os, END_DOCUMENT_RECORD);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        flush();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        try {
+            os.flush();
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        writeAttribute(XMLConstants.DEFAULT_NS_PREFIX, XMLConstants.NULL_NS_URI, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        Objects.requireNonNull(value);
+        PendingElement element = getPending();
+        element.attributes.add(prefix);
+        element.attributes.add(namespaceURI);
+        element.attributes.add(localName);
+        element.attributes.add(value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        writeAttribute(getPrefixOrEmpty(namespaceURI), namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        PendingElement element = getPending();
+        element.namespaces.add(prefix);
+        element.namespaces.add(namespaceURI);
+        setPrefix(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        writeNamespace(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        // comments are not kept
+        flushPending();
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        throw new UnsupportedOperationException("Processing instructions are not supported");
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        throw new UnsupportedOperationException("Processing instructions are not supported");
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        writeCharacters(data);
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        throw new UnsupportedOperationException("DTD is not supported");
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        throw new UnsupportedOperationException("Entity references are not supported");
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        // nothing to write, header is written at creation
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        // nothing to write, header is written at creation
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        // nothing to write, header is written at creation
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        flushPending();
+        try {
+            writeVarInt(os, CHARACTERS_RECORD);
+            writeUtf8(os, text);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        writeCharacters(new String(text, start, len));
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return uriToPrefix.get(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        prefixToUri.put(prefix, uri);
+        uriToPrefix.put(uri, prefix);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        setPrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        throw new UnsupportedOperationException("Setting namespace context is not supported");
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                return prefixToUri.get(prefix);
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                return uriToPrefix.get(namespaceURI);
+            }
+
+            @Override
+            public Iterator getPrefixes(String namespaceURI) {
+                String prefix = uriToPrefix.get(namespaceURI);
+                return prefix != null ? Collections.singleton(prefix).iterator() : Collections.emptyIterator();
+            }
+        };
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        throw new IllegalArgumentException("Property " + name + " is not supported");
+    }
+}
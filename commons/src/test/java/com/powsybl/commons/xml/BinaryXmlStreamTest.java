@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.commons.xml;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class BinaryXmlStreamTest {
+
+    @Test
+    public void test() throws XMLStreamException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        XMLStreamWriter writer = new BinaryXmlStreamWriter(os);
+        writer.writeStartDocument();
+        writer.setPrefix("p", "http://test");
+        writer.writeStartElement("http://test", "root");
+        writer.writeNamespace("p", "http://test");
+        writer.writeAttribute("id", "a");
+        writer.writeAttribute("double", "400.0");
+        writer.writeAttribute("int", "-12");
+        writer.writeAttribute("notCanonical", "007");
+        writer.writeAttribute("notNumber", "-");
+        writer.writeEmptyElement("http://test", "child");
+        writer.writeAttribute("id", "a");
+        writer.writeStartElement("text");
+        writer.writeCharacters("hello");
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+
+        XMLStreamReader reader = new BinaryXmlStreamReader(new ByteArrayInputStream(os.toByteArray()));
+        assertEquals(XMLStreamConstants.START_DOCUMENT, reader.getEventType());
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+        assertEquals("root", reader.getLocalName());
+        assertEquals("p", reader.getPrefix());
+        assertEquals("http://test", reader.getNamespaceURI());
+        assertEquals("http://test", reader.getNamespaceURI("p"));
+        assertEquals(1, reader.getNamespaceCount());
+        assertEquals(5, reader.getAttributeCount());
+        assertEquals("a", reader.getAttributeValue(null, "id"));
+        assertEquals("400.0", reader.getAttributeValue(null, "double"));
+        assertEquals("-12", reader.getAttributeValue(null, "int"));
+        assertEquals("007", reader.getAttributeValue(null, "notCanonical"));
+        assertEquals("-", reader.getAttributeValue(null, "notNumber"));
+        assertNull(reader.getAttributeValue(null, "unknown"));
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+        assertEquals("child", reader.getLocalName());
+        assertEquals("a", reader.getAttributeValue(null, "id"));
+        assertEquals(XMLStreamConstants.END_ELEMENT, reader.next());
+        assertEquals("child", reader.getLocalName());
+        assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+        assertEquals("text", reader.getLocalName());
+        assertEquals("hello", reader.getElementText());
+        assertEquals("text", reader.getLocalName());
+        assertEquals(XMLStreamConstants.END_ELEMENT, reader.next());
+        assertEquals("root", reader.getLocalName());
+        assertEquals(XMLStreamConstants.END_DOCUMENT, reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void invalidHeaderTest() throws XMLStreamException {
+        new BinaryXmlStreamReader(new ByteArrayInputStream("<?xml".getBytes()));
+    }
+}
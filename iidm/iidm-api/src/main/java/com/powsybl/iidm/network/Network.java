@@ -133,6 +133,21 @@ public interface Network extends Container<Network> {
      */
     StateManager getStateManager();
 
+    /**
+     * Fork the working state of the network to get a working copy which is much cheaper to create than a deep copy,
+     * see {@link NetworkFork} for what can be modified through a fork.
+     */
+    default NetworkFork fork() {
+        return fork(getStateManager().getWorkingStateId());
+    }
+
+    /**
+     * Fork the state {@code sourceStateId} of the network, see {@link #fork()}.
+     */
+    default NetworkFork fork(String sourceStateId) {
+        return new NetworkFork(this, sourceStateId);
+    }
+
     /**
      * Get all countries.
      */
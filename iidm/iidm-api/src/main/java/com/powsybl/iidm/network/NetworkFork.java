@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A state based working copy of a network, created with {@link Network#fork()}.
+ *
+ * <p>A temporary state is cloned from a source state and becomes the working state, so that all the attributes
+ * depending on the state (topology, set points, tap positions, load flow results...) can be modified without
+ * changing the source state. Closing the fork removes the temporary state and restores the source state as the
+ * working state.
+ *
+ * <p>Unlike a deep copy, the network structure and the attributes not depending on the state are shared with the
+ * source state, so a fork must not be used to create or remove equipments or to change their characteristics.
+ *
+ * <p>If {@link StateManager#allowStateMultiThreadAccess(boolean)} is set to true, several threads can work in
+ * parallel on their own fork, the working state being set for the thread which creates or closes the fork.
+ *
+ * @author agent <agent at local>
+ */
+public final class NetworkFork implements AutoCloseable {
+
+    private final Network network;
+
+    private final String sourceStateId;
+
+    private final String stateId;
+
+    private boolean closed = false;
+
+    NetworkFork(Network network, String sourceStateId) {
+        this.network = Objects.requireNonNull(network);
+        this.sourceStateId = Objects.requireNonNull(sourceStateId);
+        stateId = "fork-" + UUID.randomUUID();
+        StateManager stateManager = network.getStateManager();
+        stateManager.cloneState(sourceStateId, stateId);
+        stateManager.setWorkingState(stateId);
+    }
+
+    /**
+     * Get the forked network, its working state is the one of the fork.
+     */
+    public Network getNetwork() {
+        return network;
+    }
+
+    /**
+     * Get the id of the state the fork has been created from.
+     */
+    public String getSourceStateId() {
+        return sourceStateId;
+    }
+
+    /**
+     * Get the id of the temporary state of the fork.
+     */
+    public String getStateId() {
+        return stateId;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            StateManager stateManager = network.getStateManager();
+            stateManager.removeState(stateId);
+            stateManager.setWorkingState(sourceStateId);
+            closed = true;
+        }
+    }
+}
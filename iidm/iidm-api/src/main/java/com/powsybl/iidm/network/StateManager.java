@@ -39,6 +39,18 @@ public interface StateManager {
      */
     void setWorkingState(String stateId);
 
+    /**
+     * Check if a working state is set (for the current thread if multi thread access is allowed).
+     *
+     * @return true if a working state is set, false otherwise
+     */
+    boolean isWorkingStateSet();
+
+    /**
+     * Unset the working state (of the current thread if multi thread access is allowed).
+     */
+    void unsetWorkingState();
+
     /**
      * Create a new state by cloning an existing one.
      *
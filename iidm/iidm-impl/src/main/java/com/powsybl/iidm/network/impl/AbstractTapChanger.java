@@ -8,8 +8,6 @@ package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TIntArrayList;
-import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -30,9 +28,9 @@ abstract class AbstractTapChanger<H extends TapChangerParent, C extends Abstract
 
     // attributes depending on the state
 
-    protected final TIntArrayList tapPosition;
+    protected final IntStateArray tapPosition;
 
-    protected final BitSet regulating;
+    protected final BooleanStateArray regulating;
 
     protected AbstractTapChanger(Ref<? extends MultiStateObject> network, H parent,
                                  int lowTapPosition, List<S> steps, TerminalExt regulationTerminal,
@@ -43,9 +41,8 @@ abstract class AbstractTapChanger<H extends TapChangerParent, C extends Abstract
         this.steps = steps;
         this.regulationTerminal = regulationTerminal;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.tapPosition = new TIntArrayList(stateArraySize);
-        this.regulating = new BitSet(stateArraySize);
-        this.regulating.set(0, stateArraySize, regulating);
+        this.tapPosition = new IntStateArray(stateArraySize);
+        this.regulating = new BooleanStateArray(stateArraySize, regulating);
         for (int i = 0; i < stateArraySize; i++) {
             this.tapPosition.add(tapPosition);
         }
@@ -9,7 +9,6 @@ package com.powsybl.iidm.network.impl;
 import com.powsybl.iidm.network.ConnectableType;
 import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
 
 /**
  *
@@ -27,18 +26,17 @@ abstract class AbstractTerminal implements TerminalExt {
 
     // attributes depending on the state
 
-    protected final TDoubleArrayList p;
-
-    protected final TDoubleArrayList q;
+    // active and reactive power are interleaved (p at 2 * state index, q at 2 * state index + 1)
+    // so that a terminal only holds one primitive array and both values of a state are contiguous
+    protected final DoubleStateArray pq;
 
     AbstractTerminal(Ref<? extends MultiStateObject> network) {
         this.network = network;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        p = new TDoubleArrayList(stateArraySize);
-        q = new TDoubleArrayList(stateArraySize);
+        pq = new DoubleStateArray(2 * stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
-            p.add(Double.NaN);
-            q.add(Double.NaN);
+            pq.add(Double.NaN);
+            pq.add(Double.NaN);
         }
     }
 
@@ -69,7 +67,7 @@ abstract class AbstractTerminal implements TerminalExt {
 
     @Override
     public double getP() {
-        return p.get(network.get().getStateIndex());
+        return pq.get(2 * network.get().getStateIndex());
     }
 
     @Override
@@ -80,14 +78,14 @@ abstract class AbstractTerminal implements TerminalExt {
         if (!Double.isNaN(p) && connectable.getType() == ConnectableType.SHUNT_COMPENSATOR) {
             throw new ValidationException(connectable, "cannot set active power on a shunt compensator");
         }
-        double oldValue = this.p.set(network.get().getStateIndex(), p);
+        double oldValue = pq.set(2 * network.get().getStateIndex(), p);
         getConnectable().notifyUpdate("p" + (num != -1 ? num : ""), oldValue, p);
         return this;
     }
 
     @Override
     public double getQ() {
-        return q.get(network.get().getStateIndex());
+        return pq.get(2 * network.get().getStateIndex() + 1);
     }
 
     @Override
@@ -95,7 +93,7 @@ abstract class AbstractTerminal implements TerminalExt {
         if (connectable.getType() == ConnectableType.BUSBAR_SECTION) {
             throw new ValidationException(connectable, "cannot set reactive power on a busbar section");
         }
-        double oldValue = this.q.set(network.get().getStateIndex(), q);
+        double oldValue = pq.set(2 * network.get().getStateIndex() + 1, q);
         getConnectable().notifyUpdate("q" + (num != -1 ? num : ""), oldValue, q);
         return this;
     }
@@ -108,7 +106,7 @@ abstract class AbstractTerminal implements TerminalExt {
             return 0;
         }
         int stateIndex = network.get().getStateIndex();
-        return Math.hypot(p.get(stateIndex), q.get(stateIndex))
+        return Math.hypot(pq.get(2 * stateIndex), pq.get(2 * stateIndex + 1))
                 / (Math.sqrt(3.) * getV() / 1000);
     }
 
@@ -124,18 +122,18 @@ abstract class AbstractTerminal implements TerminalExt {
 
     @Override
     public void extendStateArraySize(int initStateArraySize, int number, int sourceIndex) {
-        p.ensureCapacity(p.size() + number);
-        q.ensureCapacity(q.size() + number);
+        pq.ensureCapacity(pq.size() + 2 * number);
+        double sourceP = pq.get(2 * sourceIndex);
+        double sourceQ = pq.get(2 * sourceIndex + 1);
         for (int i = 0; i < number; i++) {
-            p.add(p.get(sourceIndex));
-            q.add(q.get(sourceIndex));
+            pq.add(sourceP);
+            pq.add(sourceQ);
         }
     }
 
     @Override
     public void reduceStateArraySize(int number) {
-        p.remove(p.size() - number, number);
-        q.remove(q.size() - number, number);
+        pq.remove(pq.size() - 2 * number, 2 * number);
     }
 
     @Override
@@ -145,9 +143,11 @@ abstract class AbstractTerminal implements TerminalExt {
 
     @Override
     public void allocateStateArrayElement(int[] indexes, int sourceIndex) {
+        double sourceP = pq.get(2 * sourceIndex);
+        double sourceQ = pq.get(2 * sourceIndex + 1);
         for (int index : indexes) {
-            p.set(index, p.get(sourceIndex));
-            q.set(index, q.get(sourceIndex));
+            pq.set(2 * index, sourceP);
+            pq.set(2 * index + 1, sourceQ);
         }
     }
 
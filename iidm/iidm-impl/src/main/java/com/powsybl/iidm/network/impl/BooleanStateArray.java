@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import java.util.Arrays;
+
+import static com.powsybl.iidm.network.impl.StateArraySegments.*;
+
+/**
+ * A state dependent boolean attribute, one element per state, stored in segments (see {@link StateArraySegments}).
+ * <p>
+ * Contrary to a {@link java.util.BitSet}, where setting a bit is a read-modify-write of a word shared by 64 states,
+ * each state has its own array element, so that different states can be modified at the same time by different
+ * threads.
+ *
+ * @author agent <agent at local>
+ */
+final class BooleanStateArray {
+
+    private volatile boolean[][] segments = new boolean[0][];
+
+    BooleanStateArray(int stateArraySize, boolean value) {
+        set(0, stateArraySize, value);
+    }
+
+    private void ensureCapacity(int capacity) {
+        boolean[][] oldSegments = segments;
+        int segmentCount = getSegmentCount(capacity);
+        if (segmentCount > oldSegments.length) {
+            boolean[][] newSegments = Arrays.copyOf(oldSegments, segmentCount);
+            for (int s = oldSegments.length; s < segmentCount; s++) {
+                newSegments[s] = new boolean[getSegmentLength(s)];
+            }
+            segments = newSegments;
+        }
+    }
+
+    boolean get(int index) {
+        int segment = getSegment(index);
+        return segments[segment][getOffset(index, segment)];
+    }
+
+    void set(int index, boolean value) {
+        ensureCapacity(index + 1);
+        int segment = getSegment(index);
+        segments[segment][getOffset(index, segment)] = value;
+    }
+
+    /**
+     * Set elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive).
+     */
+    void set(int fromIndex, int toIndex, boolean value) {
+        ensureCapacity(toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            int segment = getSegment(i);
+            segments[segment][getOffset(i, segment)] = value;
+        }
+    }
+}
@@ -811,7 +811,7 @@ class BusBreakerVoltageLevel extends AbstractVoltageLevel {
 
     @Override
     public void extendStateArraySize(int initStateArraySize, int number, int sourceIndex) {
-        states.push(number, () -> states.copy(sourceIndex));
+        states.pushLazily(number);
     }
 
     @Override
@@ -826,7 +826,7 @@ class BusBreakerVoltageLevel extends AbstractVoltageLevel {
 
     @Override
     public void allocateStateArrayElement(int[] indexes, final int sourceIndex) {
-        states.allocate(indexes, () -> states.copy(sourceIndex));
+        states.allocateLazily(indexes);
     }
 
     @Override
@@ -10,8 +10,6 @@ import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.VoltageLevel;
 import com.powsybl.iidm.network.impl.util.Ref;
 
-import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.Objects;
 import java.util.Set;
 
@@ -65,20 +63,19 @@ class BusTerminal extends AbstractTerminal {
 
     // attributes depending on the state
 
-    private final BitSet connected;
+    private final BooleanStateArray connected;
 
-    private final ArrayList<String> connectableBusId;
+    private final ObjectStateArray<String> connectableBusId;
 
     BusTerminal(Ref<? extends MultiStateObject> network, String connectableBusId, boolean connected) {
         super(network);
         Objects.requireNonNull(connectableBusId);
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.connectableBusId = new ArrayList<>(stateArraySize);
+        this.connectableBusId = new ObjectStateArray<>(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.connectableBusId.add(connectableBusId);
         }
-        this.connected = new BitSet(stateArraySize);
-        this.connected.set(0, stateArraySize, connected);
+        this.connected = new BooleanStateArray(stateArraySize, connected);
     }
 
     void setConnectableBusId(String connectableBusId) {
@@ -9,8 +9,6 @@ package com.powsybl.iidm.network.impl;
 import com.powsybl.iidm.network.Component;
 import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
-import gnu.trove.list.array.TIntArrayList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -25,25 +23,25 @@ class ConfiguredBusImpl extends AbstractBus implements ConfiguredBus, Stateful {
 
     private final Ref<NetworkImpl> network;
 
-    private final ArrayList<List<BusTerminal>> terminals;
+    private final ObjectStateArray<List<BusTerminal>> terminals;
 
-    private final TDoubleArrayList v;
+    private final DoubleStateArray v;
 
-    private final TDoubleArrayList angle;
+    private final DoubleStateArray angle;
 
-    private final TIntArrayList connectedComponentNumber;
+    private final IntStateArray connectedComponentNumber;
 
-    private final TIntArrayList synchronousComponentNumber;
+    private final IntStateArray synchronousComponentNumber;
 
     ConfiguredBusImpl(String id, VoltageLevelExt voltageLevel) {
         super(id, voltageLevel);
         network = voltageLevel.getNetwork().getRef();
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        terminals = new ArrayList<>(stateArraySize);
-        v = new TDoubleArrayList(stateArraySize);
-        angle = new TDoubleArrayList(stateArraySize);
-        connectedComponentNumber = new TIntArrayList(stateArraySize);
-        synchronousComponentNumber = new TIntArrayList(stateArraySize);
+        terminals = new ObjectStateArray<>(stateArraySize);
+        v = new DoubleStateArray(stateArraySize);
+        angle = new DoubleStateArray(stateArraySize);
+        connectedComponentNumber = new IntStateArray(stateArraySize);
+        synchronousComponentNumber = new IntStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             terminals.add(new ArrayList<>());
             v.add(Double.NaN);
@@ -10,7 +10,6 @@ import com.powsybl.iidm.network.CurrentLimitsAdder;
 import com.powsybl.iidm.network.ConnectableType;
 import com.powsybl.iidm.network.DanglingLine;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
 
 /**
  *
@@ -34,16 +33,16 @@ class DanglingLineImpl extends AbstractConnectable<DanglingLine> implements Dang
 
     // attributes depending on the state
 
-    private final TDoubleArrayList p0;
+    private final DoubleStateArray p0;
 
-    private final TDoubleArrayList q0;
+    private final DoubleStateArray q0;
 
     DanglingLineImpl(Ref<? extends MultiStateObject> network, String id, String name, double p0, double q0, double r, double x, double g, double b, String ucteXnodeCode) {
         super(id, name);
         this.network = network;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.p0 = new TDoubleArrayList(stateArraySize);
-        this.q0 = new TDoubleArrayList(stateArraySize);
+        this.p0 = new DoubleStateArray(stateArraySize);
+        this.q0 = new DoubleStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.p0.add(p0);
             this.q0.add(q0);
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import java.util.Arrays;
+
+import static com.powsybl.iidm.network.impl.StateArraySegments.*;
+
+/**
+ * A state dependent double attribute, one element per state, stored in segments (see {@link StateArraySegments}).
+ *
+ * @author agent <agent at local>
+ */
+final class DoubleStateArray {
+
+    private volatile double[][] segments = new double[0][];
+
+    private int size = 0;
+
+    DoubleStateArray(int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    void ensureCapacity(int capacity) {
+        double[][] oldSegments = segments;
+        int segmentCount = getSegmentCount(capacity);
+        if (segmentCount > oldSegments.length) {
+            double[][] newSegments = Arrays.copyOf(oldSegments, segmentCount);
+            for (int s = oldSegments.length; s < segmentCount; s++) {
+                newSegments[s] = new double[getSegmentLength(s)];
+            }
+            segments = newSegments;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    double get(int index) {
+        int segment = getSegment(index);
+        return segments[segment][getOffset(index, segment)];
+    }
+
+    void set(int index, double value) {
+        int segment = getSegment(index);
+        segments[segment][getOffset(index, segment)] = value;
+    }
+
+    void add(double value) {
+        ensureCapacity(size + 1);
+        set(size, value);
+        size++;
+    }
+
+    /**
+     * Set elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), the array is extended if needed.
+     */
+    void fill(int fromIndex, int toIndex, double value) {
+        ensureCapacity(toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            set(i, value);
+        }
+        size = Math.max(size, toIndex);
+    }
+
+    /**
+     * Remove {@code length} elements starting at {@code offset}, capacity is kept.
+     */
+    void remove(int offset, int length) {
+        for (int i = offset + length; i < size; i++) {
+            set(i - length, get(i));
+        }
+        size -= length;
+    }
+}
@@ -8,9 +8,7 @@ package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
 
-import java.util.BitSet;
 
 /**
  *
@@ -32,13 +30,13 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
 
     // attributes depending on the state
 
-    private final BitSet voltageRegulatorOn;
+    private final BooleanStateArray voltageRegulatorOn;
 
-    private final TDoubleArrayList targetP;
+    private final DoubleStateArray targetP;
 
-    private final TDoubleArrayList targetQ;
+    private final DoubleStateArray targetQ;
 
-    private final TDoubleArrayList targetV;
+    private final DoubleStateArray targetV;
 
     GeneratorImpl(Ref<? extends MultiStateObject> ref,
                   String id, String name, EnergySource energySource,
@@ -54,11 +52,10 @@ class GeneratorImpl extends AbstractConnectable<Generator> implements Generator,
         this.regulatingTerminal = regulatingTerminal;
         this.ratedS = ratedS;
         int stateArraySize = ref.get().getStateManager().getStateArraySize();
-        this.voltageRegulatorOn = new BitSet(stateArraySize);
-        this.targetP = new TDoubleArrayList(stateArraySize);
-        this.targetQ = new TDoubleArrayList(stateArraySize);
-        this.targetV = new TDoubleArrayList(stateArraySize);
-        this.voltageRegulatorOn.set(0, stateArraySize, voltageRegulatorOn);
+        this.voltageRegulatorOn = new BooleanStateArray(stateArraySize, voltageRegulatorOn);
+        this.targetP = new DoubleStateArray(stateArraySize);
+        this.targetQ = new DoubleStateArray(stateArraySize);
+        this.targetV = new DoubleStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.targetP.add(targetP);
             this.targetQ.add(targetQ);
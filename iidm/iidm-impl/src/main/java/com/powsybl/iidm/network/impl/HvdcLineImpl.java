@@ -8,9 +8,7 @@ package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.HvdcLine;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
 
-import java.util.BitSet;
 import java.util.Objects;
 
 /**
@@ -29,9 +27,9 @@ class HvdcLineImpl extends AbstractIdentifiable<HvdcLine> implements HvdcLine, S
 
     // attributes depending on the state
 
-    private final BitSet convertersMode;
+    private final BooleanStateArray convertersMode;
 
-    private final TDoubleArrayList activePowerSetpoint;
+    private final DoubleStateArray activePowerSetpoint;
 
     //
 
@@ -49,9 +47,8 @@ class HvdcLineImpl extends AbstractIdentifiable<HvdcLine> implements HvdcLine, S
         this.nominalV = nominalV;
         this.maxP = maxP;
         int stateArraySize = networkRef.get().getStateManager().getStateArraySize();
-        this.convertersMode = new BitSet(stateArraySize);
-        this.convertersMode.set(0, stateArraySize, convertersMode == ConvertersMode.SIDE_1_RECTIFIER_SIDE_2_INVERTER);
-        this.activePowerSetpoint = new TDoubleArrayList(stateArraySize);
+        this.convertersMode = new BooleanStateArray(stateArraySize, convertersMode == ConvertersMode.SIDE_1_RECTIFIER_SIDE_2_INVERTER);
+        this.activePowerSetpoint = new DoubleStateArray(stateArraySize);
         this.activePowerSetpoint.fill(0, stateArraySize, activePowerSetpoint);
         this.converterStation1 = converterStation1;
         this.converterStation2 = converterStation2;
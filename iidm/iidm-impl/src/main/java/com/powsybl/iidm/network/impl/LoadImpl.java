@@ -10,7 +10,6 @@ import com.powsybl.iidm.network.ConnectableType;
 import com.powsybl.iidm.network.Load;
 import com.powsybl.iidm.network.LoadType;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
 
 /**
  *
@@ -24,9 +23,9 @@ class LoadImpl extends AbstractConnectable<Load> implements Load {
 
     // attributes depending on the state
 
-    private final TDoubleArrayList p0;
+    private final DoubleStateArray p0;
 
-    private final TDoubleArrayList q0;
+    private final DoubleStateArray q0;
 
     LoadImpl(Ref<? extends MultiStateObject> network,
              String id, String name, LoadType loadType, double p0, double q0) {
@@ -34,8 +33,8 @@ class LoadImpl extends AbstractConnectable<Load> implements Load {
         this.network = network;
         this.loadType = loadType;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.p0 = new TDoubleArrayList(stateArraySize);
-        this.q0 = new TDoubleArrayList(stateArraySize);
+        this.p0 = new DoubleStateArray(stateArraySize);
+        this.q0 = new DoubleStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.p0.add(p0);
             this.q0.add(q0);
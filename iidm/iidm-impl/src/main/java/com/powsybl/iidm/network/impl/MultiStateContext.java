@@ -39,4 +39,14 @@ class MultiStateContext implements StateContext {
             this.index = -1;
         }
     }
+
+    @Override
+    public boolean isStateIndexSet() {
+        return index != -1;
+    }
+
+    @Override
+    public void reset() {
+        index = -1;
+    }
 }
@@ -802,7 +802,7 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
 
     @Override
     public void extendStateArraySize(int initStateArraySize, int number, final int sourceIndex) {
-        states.push(number, () -> states.copy(sourceIndex));
+        states.pushLazily(number);
     }
 
     @Override
@@ -817,7 +817,7 @@ class NetworkImpl extends AbstractIdentifiable<Network> implements Network, Mult
 
     @Override
     public void allocateStateArrayElement(int[] indexes, final int sourceIndex) {
-        states.allocate(indexes, () -> states.copy(sourceIndex));
+        states.allocateLazily(indexes);
     }
 
     @Override
@@ -293,6 +293,11 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
                     for (int i = 0; i < nodes.size(); i++) {
                         node2bus[nodes.getQuick(i)] = bus;
                     }
+                } else {
+                    // in case of a partial update, nodes could still reference a previous bus
+                    for (int i = 0; i < nodes.size(); i++) {
+                        node2bus[nodes.getQuick(i)] = null;
+                    }
                 }
             }
         }
@@ -314,6 +319,34 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
             LOGGER.trace("Found buses {}", id2bus.values());
         }
 
+        /**
+         * Update buses after a status change of a switch connecting node1 and node2. Only components reachable
+         * from these nodes can have been merged or split, so other buses of the voltage level are kept.
+         */
+        protected void updateCache(int node1, int node2, final Predicate<SwitchImpl> terminate) {
+            if (busCache == null) {
+                return;
+            }
+            if (busCache.node2bus.length != graph.getMaxVertex()) {
+                invalidateCache();
+                return;
+            }
+            LOGGER.trace("Update bus topology of voltage level {} around nodes {} and {}", NodeBreakerVoltageLevel.this.id, node1, node2);
+            // previous buses of both nodes are the only ones which could have changed
+            for (CalculatedBus bus : new CalculatedBus[] {busCache.node2bus[node1], busCache.node2bus[node2]}) {
+                if (bus != null && busCache.id2bus.remove(bus.getId()) != null) {
+                    bus.invalidate();
+                }
+            }
+            boolean[] encountered = new boolean[graph.getMaxVertex()];
+            traverse(node1, encountered, terminate, busCache.id2bus, busCache.node2bus);
+            traverse(node2, encountered, terminate, busCache.id2bus, busCache.node2bus);
+        }
+
+        protected void invalidateCache(int node1, int node2) {
+            updateCache(node1, node2, Switch::isOpen);
+        }
+
         protected void invalidateCache() {
             // detach buses
             if (busCache != null) {
@@ -381,6 +414,11 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
             updateCache(sw -> sw.isOpen() || sw.isRetained());
         }
 
+        @Override
+        protected void invalidateCache(int node1, int node2) {
+            updateCache(node1, node2, sw -> sw.isOpen() || sw.isRetained());
+        }
+
         @Override
         protected BusChecker getBusChecker() {
             return CALCULATED_BUS_BREAKER_CHECKER;
@@ -532,6 +570,16 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
         getNetwork().getConnectedComponentsManager().invalidate();
     }
 
+    @Override
+    public void invalidateCache(SwitchImpl aSwitch) {
+        int e = getEdge(aSwitch.getId(), true);
+        int node1 = graph.getEdgeVertex1(e);
+        int node2 = graph.getEdgeVertex2(e);
+        states.get().calculatedBusBreakerTopology.invalidateCache(node1, node2);
+        states.get().calculatedBusTopology.invalidateCache(node1, node2);
+        getNetwork().getConnectedComponentsManager().invalidate();
+    }
+
     private Integer getEdge(String switchId, boolean throwException) {
         Integer edge = switches.get(switchId);
         if (throwException && edge == null) {
@@ -1011,7 +1059,7 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
 
     @Override
     public void extendStateArraySize(int initStateArraySize, int number, int sourceIndex) {
-        states.push(number, StateImpl::new);
+        states.pushLazily(number);
     }
 
     @Override
@@ -1026,7 +1074,7 @@ class NodeBreakerVoltageLevel extends AbstractVoltageLevel {
 
     @Override
     public void allocateStateArrayElement(int[] indexes, final int sourceIndex) {
-        states.allocate(indexes, StateImpl::new);
+        states.allocateLazily(indexes);
     }
 
     @Override
@@ -9,8 +9,6 @@ package com.powsybl.iidm.network.impl;
 import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.VoltageLevel;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
-import gnu.trove.list.array.TIntArrayList;
 
 import java.util.Set;
 
@@ -25,13 +23,13 @@ class NodeTerminal extends AbstractTerminal {
 
     // attributes depending on the state
 
-    protected final TDoubleArrayList v;
+    protected final DoubleStateArray v;
 
-    protected final TDoubleArrayList angle;
+    protected final DoubleStateArray angle;
 
-    protected final TIntArrayList connectedComponentNumber;
+    protected final IntStateArray connectedComponentNumber;
 
-    protected final TIntArrayList synchronousComponentNumber;
+    protected final IntStateArray synchronousComponentNumber;
 
     private final NodeBreakerView nodeBreakerView = new NodeBreakerView() {
 
@@ -78,10 +76,10 @@ class NodeTerminal extends AbstractTerminal {
         super(network);
         this.node = node;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        v = new TDoubleArrayList(stateArraySize);
-        angle = new TDoubleArrayList(stateArraySize);
-        connectedComponentNumber = new TIntArrayList(stateArraySize);
-        synchronousComponentNumber = new TIntArrayList(stateArraySize);
+        v = new DoubleStateArray(stateArraySize);
+        angle = new DoubleStateArray(stateArraySize);
+        connectedComponentNumber = new IntStateArray(stateArraySize);
+        synchronousComponentNumber = new IntStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             v.add(Double.NaN);
             angle.add(Double.NaN);
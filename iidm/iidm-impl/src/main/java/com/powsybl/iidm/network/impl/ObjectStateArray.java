@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import java.util.Arrays;
+
+import static com.powsybl.iidm.network.impl.StateArraySegments.*;
+
+/**
+ * A state dependent object attribute, one element per state, stored in segments (see {@link StateArraySegments}).
+ *
+ * @author agent <agent at local>
+ */
+final class ObjectStateArray<T> {
+
+    private volatile Object[][] segments = new Object[0][];
+
+    private int size = 0;
+
+    ObjectStateArray(int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    void ensureCapacity(int capacity) {
+        Object[][] oldSegments = segments;
+        int segmentCount = getSegmentCount(capacity);
+        if (segmentCount > oldSegments.length) {
+            Object[][] newSegments = Arrays.copyOf(oldSegments, segmentCount);
+            for (int s = oldSegments.length; s < segmentCount; s++) {
+                newSegments[s] = new Object[getSegmentLength(s)];
+            }
+            segments = newSegments;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        int segment = getSegment(index);
+        return (T) segments[segment][getOffset(index, segment)];
+    }
+
+    void set(int index, T value) {
+        int segment = getSegment(index);
+        segments[segment][getOffset(index, segment)] = value;
+    }
+
+    void add(T value) {
+        ensureCapacity(size + 1);
+        set(size, value);
+        size++;
+    }
+
+    /**
+     * Remove the element at {@code index}, capacity is kept but the removed reference is cleared so that it can be
+     * garbage collected.
+     */
+    void remove(int index) {
+        for (int i = index + 1; i < size; i++) {
+            set(i - 1, get(i));
+        }
+        size--;
+        set(size, null);
+    }
+}
@@ -8,7 +8,6 @@ package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.PhaseTapChanger;
 import com.powsybl.iidm.network.Terminal;
-import gnu.trove.list.array.TDoubleArrayList;
 
 import java.util.List;
 
@@ -23,7 +22,7 @@ class PhaseTapChangerImpl extends AbstractTapChanger<TwoWindingsTransformerImpl,
 
     // attributes depending on the state
 
-    private final TDoubleArrayList regulationValue;
+    private final DoubleStateArray regulationValue;
 
     PhaseTapChangerImpl(TwoWindingsTransformerImpl parent, int lowTapPosition,
                         List<PhaseTapChangerStepImpl> steps, TerminalExt regulationTerminal,
@@ -31,7 +30,7 @@ class PhaseTapChangerImpl extends AbstractTapChanger<TwoWindingsTransformerImpl,
         super(parent.getNetwork().getRef(), parent, lowTapPosition, steps, regulationTerminal, tapPosition, regulating);
         int stateArraySize = network.get().getStateManager().getStateArraySize();
         this.regulationMode = regulationMode;
-        this.regulationValue = new TDoubleArrayList(stateArraySize);
+        this.regulationValue = new DoubleStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.regulationValue.add(regulationValue);
         }
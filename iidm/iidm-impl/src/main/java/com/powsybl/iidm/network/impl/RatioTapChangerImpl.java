@@ -8,7 +8,6 @@ package com.powsybl.iidm.network.impl;
 
 import com.powsybl.iidm.network.RatioTapChanger;
 import com.powsybl.iidm.network.Terminal;
-import gnu.trove.list.array.TDoubleArrayList;
 import java.util.List;
 
 /**
@@ -21,7 +20,7 @@ class RatioTapChangerImpl extends AbstractTapChanger<RatioTapChangerParent, Rati
 
     // attributes depending on the state
 
-    private final TDoubleArrayList targetV;
+    private final DoubleStateArray targetV;
 
     RatioTapChangerImpl(RatioTapChangerParent parent, int lowTapPosition,
                         List<RatioTapChangerStepImpl> steps, TerminalExt regulationTerminal, boolean loadTapChangingCapabilities,
@@ -29,7 +28,7 @@ class RatioTapChangerImpl extends AbstractTapChanger<RatioTapChangerParent, Rati
         super(parent.getNetwork().getRef(), parent, lowTapPosition, steps, regulationTerminal, tapPosition, regulating);
         this.loadTapChangingCapabilities = loadTapChangingCapabilities;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.targetV = new TDoubleArrayList(stateArraySize);
+        this.targetV = new DoubleStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.targetV.add(targetV);
         }
@@ -9,7 +9,6 @@ package com.powsybl.iidm.network.impl;
 import com.powsybl.iidm.network.ConnectableType;
 import com.powsybl.iidm.network.ShuntCompensator;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TIntArrayList;
 
 /**
  *
@@ -28,7 +27,7 @@ class ShuntCompensatorImpl extends AbstractConnectable<ShuntCompensator> impleme
     // attributes depending on the state
 
     /* the current number of section switched on */
-    private final TIntArrayList currentSectionCount;
+    private final IntStateArray currentSectionCount;
 
     ShuntCompensatorImpl(Ref<? extends MultiStateObject> network,
                          String id, String name, double bPerSection, int maximumSectionCount,
@@ -38,7 +37,7 @@ class ShuntCompensatorImpl extends AbstractConnectable<ShuntCompensator> impleme
         this.bPerSection = bPerSection;
         this.maximumSectionCount = maximumSectionCount;
         int stateArraySize = network.get().getStateManager().getStateArraySize();
-        this.currentSectionCount = new TIntArrayList(stateArraySize);
+        this.currentSectionCount = new IntStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.currentSectionCount.add(currentSectionCount);
         }
@@ -20,10 +20,13 @@ class StateArray<S extends State> {
 
     private final Ref<? extends MultiStateObject> multiStateObjRef;
 
+    private final StateFactory<S> stateFactory;
+
     private final List<S> states;
 
     StateArray(Ref<? extends MultiStateObject> multiStateObjRef, StateFactory<S> stateFactory) {
         this.multiStateObjRef = multiStateObjRef;
+        this.stateFactory = stateFactory;
         StateManagerImpl stateManager = multiStateObjRef.get().getStateManager();
         states = Collections.synchronizedList(new ArrayList<S>(stateManager.getStateArraySize()));
         for (int i = 0; i < stateManager.getStateArraySize(); i++) {
@@ -35,7 +38,19 @@ class StateArray<S extends State> {
     }
 
     S get() {
-        return states.get(multiStateObjRef.get().getStateManager().getStateContext().getStateIndex());
+        int index = multiStateObjRef.get().getStateManager().getStateContext().getStateIndex();
+        S state = states.get(index);
+        if (state == null) {
+            // lazily allocated element, create it on first access
+            synchronized (states) {
+                state = states.get(index);
+                if (state == null) {
+                    state = stateFactory.newState();
+                    states.set(index, state);
+                }
+            }
+        }
+        return state;
     }
 
     void push(int number, StateFactory<S> stateFactory) {
@@ -48,6 +63,17 @@ class StateArray<S extends State> {
         states.add(stateFactory.newState());
     }
 
+    /**
+     * Extend the array with elements that are only created on first access.
+     * Only valid for states that do not depend on the source state (caches for
+     * instance).
+     */
+    void pushLazily(int number) {
+        for (int i = 0; i < number; i++) {
+            states.add(null);
+        }
+    }
+
     void pop(int number) {
         for (int i = 0; i < number; i++) {
             states.remove(states.size() - 1);
@@ -64,8 +90,21 @@ class StateArray<S extends State> {
         }
     }
 
+    /**
+     * Allocate elements that are only created on first access.
+     * Only valid for states that do not depend on the source state (caches for
+     * instance).
+     */
+    void allocateLazily(int[] indexes) {
+        for (int index : indexes) {
+            states.set(index, null);
+        }
+    }
+
     S copy(int index) {
-        return states.get(index).copy();
+        S state = states.get(index);
+        // a not yet accessed element is equivalent to a newly created one
+        return state != null ? state.copy() : stateFactory.newState();
     }
 
 }
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+/**
+ * Segment layout shared by the state dependent attribute arrays ({@link BooleanStateArray}, {@link IntStateArray},
+ * {@link DoubleStateArray} and {@link ObjectStateArray}).
+ * <p>
+ * Elements are stored in segments of doubling length: segment 0 holds element 0 and segment {@code s > 0} holds
+ * elements {@code [2^(s-1), 2^s)}. Growing an array only allocates new segments and replaces the segment directory,
+ * existing segments are shared by the old and the new directory and are never copied. So while multi-thread access
+ * to states is allowed, a value written by a thread working on its state is never lost because another thread
+ * is creating a state at the same time.
+ * <p>
+ * Arrays only grow, and only when states are created, which is serialized by the state manager lock. The segment
+ * directory is volatile so that new segments are safely published to the other threads, which anyway only access a
+ * new state once the state manager has published its id.
+ *
+ * @author agent <agent at local>
+ */
+final class StateArraySegments {
+
+    private StateArraySegments() {
+    }
+
+    static int getSegment(int index) {
+        return 32 - Integer.numberOfLeadingZeros(index);
+    }
+
+    static int getOffset(int index, int segment) {
+        return segment == 0 ? 0 : index - (1 << (segment - 1));
+    }
+
+    static int getSegmentLength(int segment) {
+        return segment == 0 ? 1 : 1 << (segment - 1);
+    }
+
+    static int getSegmentCount(int capacity) {
+        return capacity == 0 ? 0 : getSegment(capacity - 1) + 1;
+    }
+}
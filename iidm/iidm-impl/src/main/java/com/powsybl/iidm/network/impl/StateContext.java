@@ -18,4 +18,8 @@ interface StateContext {
 
     void resetIfStateIndexIs(int index);
 
+    boolean isStateIndexSet();
+
+    void reset();
+
 }
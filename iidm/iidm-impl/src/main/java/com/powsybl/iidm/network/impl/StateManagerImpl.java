@@ -6,9 +6,8 @@
  */
 package com.powsybl.iidm.network.impl;
 
-import com.google.common.collect.BiMap;
 import com.google.common.collect.FluentIterable;
-import com.google.common.collect.HashBiMap;
+import com.google.common.collect.Iterables;
 import com.google.common.primitives.Ints;
 import com.powsybl.commons.PowsyblException;
 import com.powsybl.iidm.network.StateManager;
@@ -19,7 +18,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,13 +38,17 @@ class StateManagerImpl implements StateManager {
 
     private static final int INITIAL_STATE_INDEX = 0;
 
-    private StateContext stateContext;
+    private volatile StateContext stateContext;
 
     private final ObjectStore objectStore;
 
-    private final BiMap<String, Integer> id2index = HashBiMap.create();
+    // state id to index and index to state id lookups do not need the lock, only state creation and removal take it
+    private final Map<String, Integer> id2index = new ConcurrentHashMap<>();
 
-    private int stateArraySize;
+    // copy-on-write index to state id array, replaced under the lock
+    private volatile String[] index2id;
+
+    private volatile int stateArraySize;
 
     private final Deque<Integer> unusedIndexes = new ArrayDeque<>();
 
@@ -52,6 +60,7 @@ class StateManagerImpl implements StateManager {
         // the network has always a zero index initial state
         id2index.put(StateManagerConstants.INITIAL_STATE_ID, INITIAL_STATE_INDEX);
         stateArraySize = INITIAL_STATE_INDEX + 1;
+        index2id = new String[] {StateManagerConstants.INITIAL_STATE_ID};
     }
 
     StateContext getStateContext() {
@@ -60,12 +69,7 @@ class StateManagerImpl implements StateManager {
 
     @Override
     public Collection<String> getStateIds() {
-        stateLock.lock();
-        try {
-            return Collections.unmodifiableSet(id2index.keySet());
-        } finally {
-            stateLock.unlock();
-        }
+        return Collections.unmodifiableSet(id2index.keySet());
     }
 
     int getStateArraySize() {
@@ -77,7 +81,7 @@ class StateManagerImpl implements StateManager {
     }
 
     Collection<Integer> getStateIndexes() {
-        return id2index.values();
+        return new HashSet<>(id2index.values());
     }
 
     private int getStateIndex(String stateId) {
@@ -90,24 +94,33 @@ class StateManagerImpl implements StateManager {
 
     @Override
     public String getWorkingStateId() {
-        stateLock.lock();
-        try {
-            int index = stateContext.getStateIndex();
-            return id2index.inverse().get(index);
-        } finally {
-            stateLock.unlock();
-        }
+        int index = stateContext.getStateIndex();
+        String[] ids = index2id;
+        return index < ids.length ? ids[index] : null;
     }
 
     @Override
     public void setWorkingState(String stateId) {
-        stateLock.lock();
-        try {
-            int index = getStateIndex(stateId);
-            stateContext.setStateIndex(index);
-        } finally {
-            stateLock.unlock();
+        int index = getStateIndex(stateId);
+        stateContext.setStateIndex(index);
+    }
+
+    @Override
+    public boolean isWorkingStateSet() {
+        return stateContext.isStateIndexSet();
+    }
+
+    @Override
+    public void unsetWorkingState() {
+        stateContext.reset();
+    }
+
+    private void updateIndex2id() {
+        String[] ids = new String[stateArraySize];
+        for (Map.Entry<String, Integer> e : id2index.entrySet()) {
+            ids[e.getValue()] = e.getKey();
         }
+        index2id = ids;
     }
 
     private Iterable<Stateful> getStafulObjects() {
@@ -128,25 +141,46 @@ class StateManagerImpl implements StateManager {
         stateLock.lock();
         try {
             int sourceIndex = getStateIndex(sourceStateId);
+            Set<String> newStateIds = new HashSet<>();
+            for (String targetStateId : targetStateIds) {
+                if (id2index.containsKey(targetStateId) || !newStateIds.add(targetStateId)) {
+                    throw new PowsyblException("Target state '" + targetStateId + "' already exists");
+                }
+            }
+
+            // pick the indexes first, the new state ids are only published once their array elements exist so that
+            // the lock-free lookups never see a state which is not yet allocated
             int initStateArraySize = stateArraySize;
             int extendedCount = 0;
+            Map<String, Integer> newIndexes = new LinkedHashMap<>();
             List<Integer> recycled = new ArrayList<>();
             for (String targetStateId : targetStateIds) {
-                if (id2index.containsKey(targetStateId)) {
-                    throw new PowsyblException("Target state '" + targetStateId + "' already exists");
-                }
-                if (unusedIndexes.isEmpty()) {
+                if (recycled.size() < unusedIndexes.size()) {
+                    // recycle an index, starting from the last unused one
+                    int index = Iterables.get(unusedIndexes, unusedIndexes.size() - 1 - recycled.size());
+                    newIndexes.put(targetStateId, index);
+                    recycled.add(index);
+                } else {
                     // extend state array size
-                    id2index.put(targetStateId, stateArraySize);
-                    stateArraySize++;
+                    newIndexes.put(targetStateId, initStateArraySize + extendedCount);
                     extendedCount++;
-                } else {
-                    // recycle an index
-                    int index = unusedIndexes.pollLast();
-                    id2index.put(targetStateId, index);
-                    recycled.add(index);
                 }
             }
+
+            allocateStateArrayElements(recycled, initStateArraySize, extendedCount, sourceIndex);
+
+            unusedIndexes.removeAll(recycled);
+            stateArraySize = initStateArraySize + extendedCount;
+            id2index.putAll(newIndexes);
+            updateIndex2id();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    private void allocateStateArrayElements(List<Integer> recycled, int initStateArraySize, int extendedCount, int sourceIndex) {
+        List<Stateful> extended = new ArrayList<>();
+        try {
             if (!recycled.isEmpty()) {
                 int[] indexes = Ints.toArray(recycled);
                 for (Stateful obj : getStafulObjects()) {
@@ -157,11 +191,21 @@ class StateManagerImpl implements StateManager {
             if (extendedCount > 0) {
                 for (Stateful obj : getStafulObjects()) {
                     obj.extendStateArraySize(initStateArraySize, extendedCount, sourceIndex);
+                    extended.add(obj);
                 }
-                LOGGER.trace("Extending state array size to {} (+{})", stateArraySize, extendedCount);
+                LOGGER.trace("Extending state array size to {} (+{})", initStateArraySize + extendedCount, extendedCount);
             }
-        } finally {
-            stateLock.unlock();
+        } catch (RuntimeException e) {
+            // roll back, recycled indexes stay unused and already extended arrays are reduced to their initial size
+            for (int index : recycled) {
+                for (Stateful obj : getStafulObjects()) {
+                    obj.deleteStateArrayElement(index);
+                }
+            }
+            for (Stateful obj : extended) {
+                obj.reduceStateArraySize(extendedCount);
+            }
+            throw e;
         }
     }
 
@@ -175,11 +219,15 @@ class StateManagerImpl implements StateManager {
             int index = getStateIndex(stateId);
             id2index.remove(stateId);
             LOGGER.debug("Removing state '{}'", stateId);
-            if (index == stateArraySize - 1) {
-                // remove consecutive unsused index starting from the end
+            // while multi-thread access is allowed, other threads may be working on their states so state arrays are
+            // never reduced, the index is kept unused and recycled by a next state creation
+            if (index == stateArraySize - 1 && !(stateContext instanceof ThreadLocalMultiStateContext)) {
+                // remove consecutive unsused index starting from the end, the index to id array has not been
+                // updated yet so only the removed state has to be skipped
+                String[] ids = index2id;
                 int number = 0; // number of elements to remove
                 for (int j = index; j >= 0; j--) {
-                    if (id2index.containsValue(j)) {
+                    if (j != index && ids[j] != null) {
                         break;
                     } else {
                         number++;
@@ -201,6 +249,7 @@ class StateManagerImpl implements StateManager {
                 }
                 LOGGER.trace("Deleting state array element at index {}", index);
             }
+            updateIndex2id();
             // if the removed state is the working state, unset the working state
             stateContext.resetIfStateIndexIs(index);
         } finally {
@@ -218,12 +267,34 @@ class StateManagerImpl implements StateManager {
                 stateContext.setStateIndex(index);
             } else {
                 stateContext = new MultiStateContext(stateContext.getStateIndex());
+                reduceUnusedStateArrayTail();
             }
         } finally {
             stateLock.unlock();
         }
     }
 
+    /**
+     * Reduce state arrays by the unused indexes at their end, left by states removed while multi-thread access was
+     * allowed.
+     */
+    private void reduceUnusedStateArrayTail() {
+        String[] ids = index2id;
+        int number = 0;
+        for (int j = stateArraySize - 1; j > INITIAL_STATE_INDEX && ids[j] == null; j--) {
+            number++;
+            unusedIndexes.remove(j);
+        }
+        if (number > 0) {
+            for (Stateful obj : getStafulObjects()) {
+                obj.reduceStateArraySize(number);
+            }
+            stateArraySize -= number;
+            updateIndex2id();
+            LOGGER.trace("Reducing state array size to {}", stateArraySize);
+        }
+    }
+
     @Override
     public boolean isStateMultiThreadAccessAllowed() {
         stateLock.lock();
@@ -13,6 +13,10 @@ package com.powsybl.iidm.network.impl;
  * A class implementing this interface internally manages an array of state and
  * is notified when the array need to be resized thanks to <code>extendStateArraySize</code>
  * and <code>reduceStateArraySize</code> callbacks.
+ * <p>
+ * Callbacks are serialized by the state manager lock, but when multi-thread access is allowed other threads may
+ * read and write elements of their states at the same time, so extending the array must never move existing elements
+ * (see {@link StateArraySegments}). State arrays are not reduced while multi-thread access is allowed.
  *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
@@ -10,8 +10,6 @@ import com.powsybl.iidm.network.ConnectableType;
 import com.powsybl.iidm.network.StaticVarCompensator;
 import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
-import gnu.trove.list.array.TIntArrayList;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -26,11 +24,11 @@ class StaticVarCompensatorImpl extends AbstractConnectable<StaticVarCompensator>
 
     // attributes depending on the state
 
-    private final TDoubleArrayList voltageSetPoint;
+    private final DoubleStateArray voltageSetPoint;
 
-    private final TDoubleArrayList reactivePowerSetPoint;
+    private final DoubleStateArray reactivePowerSetPoint;
 
-    private final TIntArrayList regulationMode;
+    private final IntStateArray regulationMode;
 
     StaticVarCompensatorImpl(String id, String name, double bMin, double bMax, double voltageSetPoint, double reactivePowerSetPoint,
                              RegulationMode regulationMode, Ref<? extends MultiStateObject> ref) {
@@ -38,9 +36,9 @@ class StaticVarCompensatorImpl extends AbstractConnectable<StaticVarCompensator>
         this.bMin = bMin;
         this.bMax = bMax;
         int stateArraySize = ref.get().getStateManager().getStateArraySize();
-        this.voltageSetPoint = new TDoubleArrayList(stateArraySize);
-        this.reactivePowerSetPoint = new TDoubleArrayList(stateArraySize);
-        this.regulationMode = new TIntArrayList(stateArraySize);
+        this.voltageSetPoint = new DoubleStateArray(stateArraySize);
+        this.reactivePowerSetPoint = new DoubleStateArray(stateArraySize);
+        this.regulationMode = new IntStateArray(stateArraySize);
         for (int i = 0; i < stateArraySize; i++) {
             this.voltageSetPoint.add(voltageSetPoint);
             this.reactivePowerSetPoint.add(reactivePowerSetPoint);
@@ -10,7 +10,6 @@ import com.powsybl.iidm.network.Switch;
 import com.powsybl.iidm.network.SwitchKind;
 import com.powsybl.iidm.network.TopologyKind;
 
-import java.util.BitSet;
 
 /**
  *
@@ -24,9 +23,9 @@ class SwitchImpl extends AbstractIdentifiable<Switch> implements Switch, Statefu
 
     private boolean fictitious;
 
-    private final BitSet open;
+    private final BooleanStateArray open;
 
-    private final BitSet retained;
+    private final BooleanStateArray retained;
 
     SwitchImpl(VoltageLevelExt voltageLevel,
                String id, String name, SwitchKind kind, final boolean open, boolean retained, boolean fictitious) {
@@ -35,10 +34,8 @@ class SwitchImpl extends AbstractIdentifiable<Switch> implements Switch, Statefu
         this.kind = kind;
         this.fictitious = fictitious;
         int stateArraySize = voltageLevel.getNetwork().getStateManager().getStateArraySize();
-        this.open = new BitSet(stateArraySize);
-        this.open.set(0, stateArraySize, open);
-        this.retained = new BitSet(stateArraySize);
-        this.retained.set(0, stateArraySize, retained);
+        this.open = new BooleanStateArray(stateArraySize, open);
+        this.retained = new BooleanStateArray(stateArraySize, retained);
     }
 
     @Override
@@ -63,7 +60,7 @@ class SwitchImpl extends AbstractIdentifiable<Switch> implements Switch, Statefu
         boolean oldValue = this.open.get(index);
         if (oldValue != open) {
             this.open.set(index, open);
-            voltageLevel.invalidateCache();
+            voltageLevel.invalidateCache(this);
             network.getListeners().notifyUpdate(this, "open", oldValue, open);
         }
     }
@@ -83,7 +80,7 @@ class SwitchImpl extends AbstractIdentifiable<Switch> implements Switch, Statefu
         boolean oldValue = this.retained.get(index);
         if (oldValue != retained) {
             this.retained.set(index, retained);
-            voltageLevel.invalidateCache();
+            voltageLevel.invalidateCache(this);
             network.getListeners().notifyUpdate(this, "retained", oldValue, retained);
         }
     }
@@ -34,10 +34,16 @@ public class ThreadLocalMultiStateContext implements StateContext {
         this.index.set(index);
     }
 
+    @Override
     public void reset() {
         index.remove();
     }
 
+    @Override
+    public boolean isStateIndexSet() {
+        return index.get() != null;
+    }
+
     @Override
     public void resetIfStateIndexIs(int index) {
         Integer i = this.index.get();
@@ -57,4 +57,11 @@ interface VoltageLevelExt extends VoltageLevel, Stateful {
     boolean disconnect(TerminalExt terminal);
 
     void invalidateCache();
+
+    /**
+     * Invalidate topology cache after a status change of a switch. By default the whole cache is invalidated.
+     */
+    default void invalidateCache(SwitchImpl aSwitch) {
+        invalidateCache();
+    }
 }
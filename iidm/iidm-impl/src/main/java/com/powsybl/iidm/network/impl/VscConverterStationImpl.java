@@ -9,9 +9,7 @@ package com.powsybl.iidm.network.impl;
 import com.powsybl.iidm.network.ReactiveLimits;
 import com.powsybl.iidm.network.VscConverterStation;
 import com.powsybl.iidm.network.impl.util.Ref;
-import gnu.trove.list.array.TDoubleArrayList;
 
-import java.util.BitSet;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -23,20 +21,19 @@ class VscConverterStationImpl extends AbstractHvdcConverterStation<VscConverterS
 
     private ReactiveLimits reactiveLimits;
 
-    private final BitSet voltageRegulatorOn;
+    private final BooleanStateArray voltageRegulatorOn;
 
-    private final TDoubleArrayList reactivePowerSetpoint;
+    private final DoubleStateArray reactivePowerSetpoint;
 
-    private final TDoubleArrayList voltageSetpoint;
+    private final DoubleStateArray voltageSetpoint;
 
     VscConverterStationImpl(String id, String name, float lossFactor, Ref<? extends MultiStateObject> ref,
                             boolean voltageRegulatorOn, double reactivePowerSetpoint, double voltageSetpoint) {
         super(id, name, lossFactor);
         int stateArraySize = ref.get().getStateManager().getStateArraySize();
-        this.voltageRegulatorOn = new BitSet(stateArraySize);
-        this.reactivePowerSetpoint = new TDoubleArrayList(stateArraySize);
-        this.voltageSetpoint = new TDoubleArrayList(stateArraySize);
-        this.voltageRegulatorOn.set(0, stateArraySize, voltageRegulatorOn);
+        this.voltageRegulatorOn = new BooleanStateArray(stateArraySize, voltageRegulatorOn);
+        this.reactivePowerSetpoint = new DoubleStateArray(stateArraySize);
+        this.voltageSetpoint = new DoubleStateArray(stateArraySize);
         this.reactivePowerSetpoint.fill(0, stateArraySize, reactivePowerSetpoint);
         this.voltageSetpoint.fill(0, stateArraySize, voltageSetpoint);
         this.reactiveLimits = new MinMaxReactiveLimitsImpl(-Double.MAX_VALUE, Double.MAX_VALUE);
@@ -7,15 +7,13 @@
 package com.powsybl.iidm.network.impl;
 
 import com.google.common.collect.Iterables;
+import com.powsybl.commons.PowsyblException;
 import com.powsybl.iidm.network.*;
 import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
 import org.junit.Test;
 
-import java.util.Arrays;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.Assert.*;
 
@@ -107,6 +105,112 @@ public class MultiStateNetworkTest {
         assertEquals(2, Iterables.size(nload.getLoads()));
     }
 
+    @Test
+    public void lazyTopologyCacheTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        VoltageLevel vlload = network.getVoltageLevel("VLLOAD");
+        assertEquals(1, Iterables.size(vlload.getBusView().getBuses()));
+        manager.cloneState(StateManagerConstants.INITIAL_STATE_ID, "NEW_STATE");
+        manager.cloneState("NEW_STATE", "NEW_STATE_2");
+        manager.setWorkingState("NEW_STATE_2");
+        assertEquals(1, Iterables.size(vlload.getBusView().getBuses()));
+        assertEquals(1, Iterables.size(network.getBusView().getConnectedComponents()));
+        manager.removeState("NEW_STATE");
+        manager.cloneState("NEW_STATE_2", "NEW_STATE_3");
+        manager.setWorkingState("NEW_STATE_3");
+        network.getLoad("LOAD").getTerminal().disconnect();
+        assertNull(network.getLoad("LOAD").getTerminal().getBusView().getBus());
+        manager.setWorkingState("NEW_STATE_2");
+        assertNotNull(network.getLoad("LOAD").getTerminal().getBusView().getBus());
+    }
+
+    @Test
+    public void concurrentStateAccessTest() throws InterruptedException, ExecutionException {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        manager.allowStateMultiThreadAccess(true);
+        Generator generator = network.getGenerator("GEN");
+        List<String> stateIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            stateIds.add("STATE_" + i);
+        }
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Void>> cloneTasks = new ArrayList<>();
+            for (String stateId : stateIds) {
+                cloneTasks.add(() -> {
+                    manager.cloneState(StateManagerConstants.INITIAL_STATE_ID, stateId);
+                    return null;
+                });
+            }
+            for (Future<Void> future : service.invokeAll(cloneTasks)) {
+                future.get();
+            }
+            assertEquals(stateIds.size() + 1, manager.getStateIds().size());
+
+            List<Callable<Boolean>> workTasks = new ArrayList<>();
+            for (int i = 0; i < stateIds.size(); i++) {
+                String stateId = stateIds.get(i);
+                double targetP = i;
+                workTasks.add(() -> {
+                    manager.setWorkingState(stateId);
+                    generator.setTargetP(targetP);
+                    return stateId.equals(manager.getWorkingStateId()) && generator.getTargetP() == targetP;
+                });
+            }
+            for (Future<Boolean> future : service.invokeAll(workTasks)) {
+                assertTrue(future.get());
+            }
+
+            List<Callable<Void>> removeTasks = new ArrayList<>();
+            for (String stateId : stateIds) {
+                removeTasks.add(() -> {
+                    manager.removeState(stateId);
+                    return null;
+                });
+            }
+            for (Future<Void> future : service.invokeAll(removeTasks)) {
+                future.get();
+            }
+        } finally {
+            service.shutdown();
+            service.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        assertEquals(Collections.singleton(StateManagerConstants.INITIAL_STATE_ID), new HashSet<>(manager.getStateIds()));
+    }
+
+    @Test
+    public void cloneStateFailureTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        manager.cloneState(StateManagerConstants.INITIAL_STATE_ID, Arrays.asList("S1", "S2"));
+        manager.removeState("S1");
+        try {
+            manager.cloneState(StateManagerConstants.INITIAL_STATE_ID, Arrays.asList("S3", "S4", "S2"));
+            fail();
+        } catch (PowsyblException ignored) {
+        }
+        try {
+            manager.cloneState(StateManagerConstants.INITIAL_STATE_ID, Arrays.asList("S3", "S3"));
+            fail();
+        } catch (PowsyblException ignored) {
+        }
+        // nothing has been registered nor allocated by the failed clonings
+        assertEquals(new HashSet<>(Arrays.asList(StateManagerConstants.INITIAL_STATE_ID, "S2")), new HashSet<>(manager.getStateIds()));
+        assertEquals(3, ((StateManagerImpl) manager).getStateArraySize());
+
+        // the unused index is still recycled
+        manager.cloneState(StateManagerConstants.INITIAL_STATE_ID, Arrays.asList("S3", "S4"));
+        assertEquals(4, ((StateManagerImpl) manager).getStateArraySize());
+        manager.setWorkingState("S4");
+        network.getGenerator("GEN").setTargetP(42);
+        manager.setWorkingState("S3");
+        assertEquals(607, network.getGenerator("GEN").getTargetP(), 0);
+        manager.setWorkingState("S4");
+        assertEquals(42, network.getGenerator("GEN").getTargetP(), 0);
+    }
+
     @Test
     public void stateNotSetTest() throws InterruptedException {
         Network network = EurostagTutorialExample1Factory.create();
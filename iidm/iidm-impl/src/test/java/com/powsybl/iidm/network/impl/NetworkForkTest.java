@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class NetworkForkTest {
+
+    @Test
+    public void test() {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager manager = network.getStateManager();
+        Generator generator = network.getGenerator("GEN");
+        Line line = network.getLine("NHV1_NHV2_1");
+
+        NetworkFork fork = network.fork();
+        try {
+            assertSame(network, fork.getNetwork());
+            assertEquals(StateManagerConstants.INITIAL_STATE_ID, fork.getSourceStateId());
+            assertEquals(fork.getStateId(), manager.getWorkingStateId());
+            assertTrue(manager.getStateIds().contains(fork.getStateId()));
+
+            generator.setVoltageRegulatorOn(false);
+            line.getTerminal1().disconnect();
+            assertFalse(generator.isVoltageRegulatorOn());
+            assertFalse(line.getTerminal1().isConnected());
+
+            // fork of a fork
+            try (NetworkFork fork2 = network.fork()) {
+                assertEquals(fork.getStateId(), fork2.getSourceStateId());
+                generator.setVoltageRegulatorOn(true);
+                assertFalse(line.getTerminal1().isConnected());
+            }
+            assertEquals(fork.getStateId(), manager.getWorkingStateId());
+            assertFalse(generator.isVoltageRegulatorOn());
+        } finally {
+            fork.close();
+        }
+
+        // close is idempotent
+        fork.close();
+
+        assertEquals(StateManagerConstants.INITIAL_STATE_ID, manager.getWorkingStateId());
+        assertFalse(manager.getStateIds().contains(fork.getStateId()));
+        assertTrue(generator.isVoltageRegulatorOn());
+        assertTrue(line.getTerminal1().isConnected());
+    }
+}
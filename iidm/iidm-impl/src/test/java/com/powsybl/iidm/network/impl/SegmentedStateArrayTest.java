@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.network.impl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class SegmentedStateArrayTest {
+
+    @Test
+    public void segmentsTest() {
+        assertEquals(0, StateArraySegments.getSegmentCount(0));
+        assertEquals(1, StateArraySegments.getSegmentCount(1));
+        assertEquals(2, StateArraySegments.getSegmentCount(2));
+        assertEquals(3, StateArraySegments.getSegmentCount(4));
+        assertEquals(4, StateArraySegments.getSegmentCount(5));
+        for (int index = 0; index < 100; index++) {
+            int segment = StateArraySegments.getSegment(index);
+            int offset = StateArraySegments.getOffset(index, segment);
+            assertTrue(offset >= 0 && offset < StateArraySegments.getSegmentLength(segment));
+        }
+    }
+
+    @Test
+    public void doubleStateArrayTest() {
+        DoubleStateArray array = new DoubleStateArray(1);
+        array.add(1);
+        for (int i = 0; i < 10; i++) {
+            array.add(array.get(0) + i + 1);
+        }
+        assertEquals(11, array.size());
+        assertEquals(11, array.get(10), 0);
+        array.set(3, 30);
+        array.fill(11, 14, 7);
+        assertEquals(14, array.size());
+        assertEquals(30, array.get(3), 0);
+        assertEquals(7, array.get(13), 0);
+        array.remove(12, 2);
+        assertEquals(12, array.size());
+        assertEquals(7, array.get(11), 0);
+        array.remove(0, 1);
+        assertEquals(30, array.get(2), 0);
+    }
+
+    @Test
+    public void objectStateArrayTest() {
+        ObjectStateArray<String> array = new ObjectStateArray<>(1);
+        array.add("a");
+        array.add("b");
+        array.add("c");
+        array.remove(array.size() - 1);
+        assertEquals(2, array.size());
+        assertEquals("b", array.get(1));
+        assertNull(array.get(2));
+    }
+
+    @Test
+    public void booleanStateArrayTest() {
+        BooleanStateArray array = new BooleanStateArray(1, true);
+        array.set(1, 5, true);
+        array.set(2, false);
+        assertTrue(array.get(0));
+        assertTrue(array.get(4));
+        assertFalse(array.get(2));
+    }
+}
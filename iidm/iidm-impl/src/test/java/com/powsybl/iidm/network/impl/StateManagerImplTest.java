@@ -13,6 +13,7 @@ import com.powsybl.iidm.network.Identifiable;
 import com.powsybl.iidm.network.StateManagerConstants;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Properties;
@@ -149,4 +150,33 @@ public class StateManagerImplTest {
         assertEquals(Collections.singleton(0), stateManager.getStateIndexes());
         assertEquals(2, identifiable1.reducedCount);
     }
+
+    @Test
+    public void multiThreadAccessTest() {
+        ObjectStore objectStore = new ObjectStore();
+        IdentifiableMock identifiable1 = new IdentifiableMock("1");
+        objectStore.checkAndAdd(identifiable1);
+        StateManagerImpl stateManager = new StateManagerImpl(objectStore);
+        stateManager.allowStateMultiThreadAccess(true);
+        try {
+            stateManager.cloneState(StateManagerConstants.INITIAL_STATE_ID, Arrays.asList("ClonedState1", "ClonedState2"));
+            assertEquals(3, stateManager.getStateArraySize());
+            // state arrays are not reduced while other threads may access them
+            stateManager.removeState("ClonedState2");
+            assertEquals(3, stateManager.getStateArraySize());
+            assertEquals(0, identifiable1.reducedCount);
+            assertEquals(Collections.singleton(2), identifiable1.deleted);
+            // unused index is recycled
+            stateManager.cloneState(StateManagerConstants.INITIAL_STATE_ID, "ClonedState3");
+            assertEquals(3, stateManager.getStateArraySize());
+            stateManager.removeState("ClonedState3");
+            stateManager.removeState("ClonedState1");
+            assertEquals(3, stateManager.getStateArraySize());
+        } finally {
+            stateManager.allowStateMultiThreadAccess(false);
+        }
+        // unused indexes at the end are released once multi-thread access is disallowed
+        assertEquals(1, stateManager.getStateArraySize());
+        assertEquals(2, identifiable1.reducedCount);
+    }
 }
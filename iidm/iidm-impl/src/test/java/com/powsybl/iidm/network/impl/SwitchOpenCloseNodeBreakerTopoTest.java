@@ -10,8 +10,7 @@ import com.google.common.collect.Iterables;
 import com.powsybl.iidm.network.*;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -95,4 +94,26 @@ public class SwitchOpenCloseNodeBreakerTopoTest {
         s.setOpen(true);
         assertEquals(2, Iterables.size(vl.getBusView().getBuses()));
     }
+
+    @Test
+    public void localUpdateTest() {
+        Network network = createNetwork();
+        VoltageLevel vl = network.getVoltageLevel("VL");
+        Bus bus1 = network.getLoad("L1").getTerminal().getBusView().getBus();
+        assertNotNull(bus1);
+        assertNotNull(network.getLoad("L2").getTerminal().getBusView().getBus());
+        Switch s = vl.getNodeBreakerView().getSwitch("B3");
+        s.setOpen(true);
+        assertEquals(1, Iterables.size(vl.getBusView().getBuses()));
+        assertNull(network.getLoad("L2").getTerminal().getBusView().getBus());
+        // bus not connected to the switch is kept
+        assertSame(bus1, network.getLoad("L1").getTerminal().getBusView().getBus());
+        s.setOpen(false);
+        assertEquals(2, Iterables.size(vl.getBusView().getBuses()));
+        assertNotNull(network.getLoad("L2").getTerminal().getBusView().getBus());
+        assertSame(bus1, network.getLoad("L1").getTerminal().getBusView().getBus());
+        vl.getNodeBreakerView().getSwitch("B1").setOpen(false);
+        assertEquals(1, Iterables.size(vl.getBusView().getBuses()));
+        assertSame(network.getLoad("L1").getTerminal().getBusView().getBus(), network.getLoad("L2").getTerminal().getBusView().getBus());
+    }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.google.auto.service.AutoService;
+import com.powsybl.commons.datasource.DataSource;
+import com.powsybl.iidm.anonymizer.Anonymizer;
+import com.powsybl.iidm.export.ExportOptions;
+import com.powsybl.iidm.export.Exporter;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.TopologyLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static com.powsybl.iidm.xml.IidmXmlConstants.VERSION;
+import static com.powsybl.iidm.xml.XMLExporter.*;
+
+/**
+ * Binary export of an IIDM model, with the same content as the XML export but a compact encoding
+ * (see {@link com.powsybl.commons.xml.BinaryXmlStreamWriter}). Supports the same properties as
+ * {@link XMLExporter}, except indentation.
+ *
+ * @author agent <agent at local>
+ */
+@AutoService(Exporter.class)
+public class BinaryExporter implements Exporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryExporter.class);
+
+    static final String EXTENSION = "biidm";
+
+    @Override
+    public String getFormat() {
+        return "BIIDM";
+    }
+
+    @Override
+    public String getComment() {
+        return "IIDM binary v" + VERSION + " exporter";
+    }
+
+    @Override
+    public void export(Network network, Properties parameters, DataSource dataSource) {
+        if (network == null) {
+            throw new IllegalArgumentException("network is null");
+        }
+
+        ExportOptions options = new ExportOptions();
+        if (parameters != null) {
+            options.setWithBranchSV(Boolean.parseBoolean(parameters.getProperty(WITH_BRANCH_STATE_VARIABLES_PROPERTY, Boolean.TRUE.toString())))
+                .setOnlyMainCc(Boolean.parseBoolean(parameters.getProperty(ONLY_MAIN_CC_PROPERTIES, Boolean.FALSE.toString())))
+                .setAnonymized(Boolean.parseBoolean(parameters.getProperty(ANONYMISED_PROPERTIES, Boolean.FALSE.toString())))
+                .setSkipExtensions(Boolean.parseBoolean(parameters.getProperty(SKIP_EXTENSIONS_PROPERTIES, Boolean.FALSE.toString())))
+                .setTopologyLevel(TopologyLevel.valueOf(parameters.getProperty(TOPOLOGY_LEVEL_PROPERTY, TopologyLevel.NODE_BREAKER.name())));
+        }
+
+        try {
+            long startTime = System.currentTimeMillis();
+
+            try (OutputStream os = dataSource.newOutputStream(null, EXTENSION, false);
+                 BufferedOutputStream bos = new BufferedOutputStream(os)) {
+                Anonymizer anonymizer = NetworkXml.writeBinary(network, options, bos);
+                if (anonymizer != null) {
+                    try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(dataSource.newOutputStream("_mapping", "csv", false), StandardCharsets.UTF_8))) {
+                        anonymizer.write(writer);
+                    }
+                }
+            }
+
+            LOGGER.debug("BIIDM export done in {} ms", System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Compact binary export/import of the state variables of a network (bus voltages and terminal flows), a lighter
+ * alternative to {@link NetworkXml#update(Network, InputStream)} to send back results of a remote computation.
+ * <p>
+ * Elements are not identified by their id but by their position in a canonical enumeration of the network
+ * (voltage level buses, then injection and branch terminals), so the delta can only be applied to a network with
+ * the same equipments and topology than the one it has been written from. This is checked using a fingerprint of
+ * the enumerated ids (the smallest terminal node for node/breaker buses, whose ids are not persistent).
+ *
+ * @author agent <agent at local>
+ */
+public final class NetworkStateDelta {
+
+    private static final byte[] MAGIC = {'I', 'S', 'T', 'D'};
+
+    private static final int VERSION = 1;
+
+    private static final class Elements {
+
+        private final List<Bus> buses = new ArrayList<>();
+
+        private final List<Terminal> terminals = new ArrayList<>();
+
+        private int fingerprint = 1;
+
+        private void addBus(Bus bus, String key) {
+            buses.add(bus);
+            fingerprint = 31 * fingerprint + key.hashCode();
+        }
+
+        private void addTerminal(Terminal terminal) {
+            terminals.add(terminal);
+            fingerprint = 31 * fingerprint + terminal.getConnectable().getId().hashCode();
+        }
+
+        private <I extends Injection> void addInjections(Iterable<I> injections) {
+            for (I injection : injections) {
+                addTerminal(injection.getTerminal());
+            }
+        }
+
+        private <B extends Branch> void addBranches(Iterable<B> branches) {
+            for (B branch : branches) {
+                addTerminal(branch.getTerminal1());
+                addTerminal(branch.getTerminal2());
+            }
+        }
+    }
+
+    private NetworkStateDelta() {
+    }
+
+    private static Elements getElements(Network network) {
+        Elements elements = new Elements();
+        for (VoltageLevel vl : network.getVoltageLevels()) {
+            if (vl.getTopologyKind() == TopologyKind.BUS_BREAKER) {
+                vl.getBusBreakerView().getBuses().forEach(bus -> elements.addBus(bus, bus.getId()));
+            } else {
+                addNodeBreakerBuses(vl, elements);
+            }
+        }
+        elements.addInjections(network.getGenerators());
+        elements.addInjections(network.getLoads());
+        elements.addInjections(network.getShuntCompensators());
+        elements.addInjections(network.getDanglingLines());
+        elements.addInjections(network.getStaticVarCompensators());
+        elements.addInjections(network.getLccConverterStations());
+        elements.addInjections(network.getVscConverterStations());
+        elements.addBranches(network.getLines());
+        elements.addBranches(network.getTwoWindingsTransformers());
+        for (ThreeWindingsTransformer twt : network.getThreeWindingsTransformers()) {
+            elements.addTerminal(twt.getLeg1().getTerminal());
+            elements.addTerminal(twt.getLeg2().getTerminal());
+            elements.addTerminal(twt.getLeg3().getTerminal());
+        }
+        return elements;
+    }
+
+    /**
+     * Calculated bus ids are generated by a per voltage level counter, so they are not the same on the written and
+     * the updated network. Buses are keyed and ordered by the smallest node of their terminals instead.
+     */
+    private static void addNodeBreakerBuses(VoltageLevel vl, Elements elements) {
+        int[] nodes = vl.getNodeBreakerView().getNodes().clone();
+        Arrays.sort(nodes);
+        Set<Bus> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int node : nodes) {
+            Terminal terminal = vl.getNodeBreakerView().getTerminal(node);
+            if (terminal != null) {
+                Bus bus = terminal.getBusView().getBus();
+                if (bus != null && added.add(bus)) {
+                    elements.addBus(bus, vl.getId() + "#" + node);
+                }
+            }
+        }
+    }
+
+    private static void runOnState(Network network, String stateId, Runnable runnable) {
+        Objects.requireNonNull(stateId);
+        StateManager stateManager = network.getStateManager();
+        String previousStateId = stateManager.isWorkingStateSet() ? stateManager.getWorkingStateId() : null;
+        stateManager.setWorkingState(stateId);
+        try {
+            runnable.run();
+        } finally {
+            // the previous working state could have been removed meanwhile, in which case there is none to restore
+            if (previousStateId != null && stateManager.getStateIds().contains(previousStateId)) {
+                stateManager.setWorkingState(previousStateId);
+            } else {
+                stateManager.unsetWorkingState();
+            }
+        }
+    }
+
+    /**
+     * Write state variables of state {@code stateId} of the network.
+     */
+    public static void write(Network network, String stateId, OutputStream os) {
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(os);
+        runOnState(network, stateId, () -> {
+            Elements elements = getElements(network);
+            try {
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os));
+                dos.write(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeInt(elements.buses.size());
+                dos.writeInt(elements.terminals.size());
+                dos.writeInt(elements.fingerprint);
+                for (Bus bus : elements.buses) {
+                    dos.writeDouble(bus.getV());
+                    dos.writeDouble(bus.getAngle());
+                }
+                for (Terminal terminal : elements.terminals) {
+                    dos.writeDouble(terminal.getP());
+                    dos.writeDouble(terminal.getQ());
+                }
+                dos.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static void write(Network network, OutputStream os) {
+        write(network, network.getStateManager().getWorkingStateId(), os);
+    }
+
+    public static void write(Network network, Path file) {
+        try (OutputStream os = Files.newOutputStream(file)) {
+            write(network, os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Update state {@code stateId} of the network with state variables previously written by
+     * {@link #write(Network, String, OutputStream)}.
+     */
+    public static void update(Network network, String stateId, InputStream is) {
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(is);
+        runOnState(network, stateId, () -> {
+            Elements elements = getElements(network);
+            try {
+                DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+                byte[] magic = new byte[MAGIC.length];
+                dis.readFully(magic);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new PowsyblException("Not a network state delta");
+                }
+                int version = dis.readInt();
+                if (version != VERSION) {
+                    throw new PowsyblException("Unsupported network state delta version " + version);
+                }
+                int busCount = dis.readInt();
+                int terminalCount = dis.readInt();
+                int fingerprint = dis.readInt();
+                if (busCount != elements.buses.size() || terminalCount != elements.terminals.size()
+                        || fingerprint != elements.fingerprint) {
+                    throw new PowsyblException("Network state delta does not match network '" + network.getId() + "'");
+                }
+                for (Bus bus : elements.buses) {
+                    double v = dis.readDouble();
+                    double angle = dis.readDouble();
+                    bus.setV(v).setAngle(angle);
+                }
+                for (Terminal terminal : elements.terminals) {
+                    double p = dis.readDouble();
+                    double q = dis.readDouble();
+                    terminal.setP(p).setQ(q);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static void update(Network network, InputStream is) {
+        update(network, network.getStateManager().getWorkingStateId(), is);
+    }
+
+    public static void update(Network network, Path file) {
+        try (InputStream is = Files.newInputStream(file)) {
+            update(network, is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
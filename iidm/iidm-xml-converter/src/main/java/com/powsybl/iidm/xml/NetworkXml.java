@@ -8,12 +8,16 @@ package com.powsybl.iidm.xml;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.powsybl.commons.PowsyblException;
 import com.powsybl.commons.exceptions.UncheckedSaxException;
 import com.powsybl.commons.exceptions.UncheckedXmlStreamException;
 import com.powsybl.commons.extensions.Extension;
 import com.powsybl.commons.extensions.ExtensionProviders;
 import com.powsybl.commons.extensions.ExtensionXmlSerializer;
+import com.powsybl.commons.xml.BinaryXmlStreamReader;
+import com.powsybl.commons.xml.BinaryXmlStreamWriter;
 import com.powsybl.commons.xml.XmlUtil;
 import com.powsybl.iidm.anonymizer.Anonymizer;
 import com.powsybl.iidm.anonymizer.SimpleAnonymizer;
@@ -39,8 +43,11 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -61,6 +68,15 @@ public final class NetworkXml {
     private static final String EXTENSION_ELEMENT_NAME = "extension";
     private static final String IIDM_XSD = "iidm.xsd";
 
+    private static final int PIPE_BUFFER_SIZE = 1024 * 1024;
+
+    // the pipe copy tasks block until the reading side consumes the data, so they must not run on a bounded pool
+    // (like the common pool) which could be exhausted by the readers themselves
+    private static final Supplier<ExecutorService> PIPE_EXECUTOR = Suppliers.memoize(() -> Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("iidm-xml-pipe-%d")
+            .setDaemon(true)
+            .build()));
+
     // cache XMLOutputFactory to improve performance
     private static final Supplier<XMLOutputFactory> XML_OUTPUT_FACTORY_SUPPLIER = Suppliers.memoize(XMLOutputFactory::newFactory);
 
@@ -193,7 +209,29 @@ public final class NetworkXml {
 
     public static Anonymizer write(Network n, ExportOptions options, OutputStream os) {
         try {
-            final XMLStreamWriter writer = createXmlStreamWriter(options, os);
+            return write(n, options, createXmlStreamWriter(options, os));
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
+
+    /**
+     * Write the network in the compact binary encoding of {@link BinaryXmlStreamWriter}. The content is the same
+     * as the XML one and can be read back with {@link #readBinary(InputStream, ImportOptions, Anonymizer)}.
+     */
+    public static Anonymizer writeBinary(Network n, ExportOptions options, OutputStream os) {
+        try {
+            XMLStreamWriter writer = new BinaryXmlStreamWriter(os);
+            Anonymizer anonymizer = write(n, options, writer);
+            writer.flush();
+            return anonymizer;
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
+
+    private static Anonymizer write(Network n, ExportOptions options, XMLStreamWriter writer) {
+        try {
             writer.writeStartDocument(StandardCharsets.UTF_8.toString(), "1.0");
 
             writer.setPrefix(IIDM_PREFIX, IIDM_URI);
@@ -274,7 +312,25 @@ public final class NetworkXml {
 
     public static Network read(InputStream is, ImportOptions config, Anonymizer anonymizer) {
         try {
-            XMLStreamReader reader = XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(is);
+            return read(XML_INPUT_FACTORY_SUPPLIER.get().createXMLStreamReader(is), config, anonymizer);
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
+
+    /**
+     * Read a network written with {@link #writeBinary(Network, ExportOptions, OutputStream)}.
+     */
+    public static Network readBinary(InputStream is, ImportOptions config, Anonymizer anonymizer) {
+        try {
+            return read(new BinaryXmlStreamReader(is), config, anonymizer);
+        } catch (XMLStreamException e) {
+            throw new UncheckedXmlStreamException(e);
+        }
+    }
+
+    private static Network read(XMLStreamReader reader, ImportOptions config, Anonymizer anonymizer) {
+        try {
             int state = reader.next();
             while (state == XMLStreamReader.COMMENT) {
                 state = reader.next();
@@ -341,6 +397,52 @@ public final class NetworkXml {
         }
     }
 
+    /**
+     * Read a network, the input stream being consumed by a task of the executor so that I/O and decompression
+     * overlap with XML parsing and network objects creation. The copy task blocks while the pipe is full, so the
+     * executor must always be able to run it, independently of the calling thread.
+     */
+    public static Network read(InputStream is, ImportOptions config, Anonymizer anonymizer, Executor executor) {
+        Objects.requireNonNull(is);
+        Objects.requireNonNull(executor);
+        PipedOutputStream pos = new PipedOutputStream();
+        PipedInputStream pis;
+        try {
+            pis = new PipedInputStream(pos, PIPE_BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CompletableFuture<Void> copy = CompletableFuture.runAsync(() -> {
+            try (OutputStream os = pos) {
+                ByteStreams.copy(is, os);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+        RuntimeException failure = null;
+        try {
+            return read(pis, config, anonymizer);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            try {
+                pis.close();
+            } catch (IOException e) {
+                LOGGER.error(e.toString(), e);
+            }
+            // wait for the copy task so that the input stream is not used anymore once returned
+            try {
+                copy.join();
+            } catch (CompletionException e) {
+                // a parsing failure could be caused by an input stream reading failure
+                if (failure != null) {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+    }
+
     public static Network read(Path xmlFile) {
         try (InputStream is = Files.newInputStream(xmlFile)) {
             return read(is);
@@ -484,8 +586,12 @@ public final class NetworkXml {
     }
 
     public static Network gunzip(byte[] networkXmlGz) {
+        return gunzip(networkXmlGz, PIPE_EXECUTOR.get());
+    }
+
+    public static Network gunzip(byte[] networkXmlGz, Executor executor) {
         try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(networkXmlGz))) {
-            return read(is);
+            return read(is, new ImportOptions(), null, executor);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -497,13 +603,19 @@ public final class NetworkXml {
      * @return the copy of the network
      */
     public static Network copy(Network network) {
-        return copy(network, ForkJoinPool.commonPool());
+        return copy(network, PIPE_EXECUTOR.get());
     }
 
     public static Network copy(Network network, ExecutorService executor) {
         Objects.requireNonNull(network);
         Objects.requireNonNull(executor);
         PipedOutputStream pos = new PipedOutputStream();
+        PipedInputStream pis;
+        try {
+            pis = new PipedInputStream(pos, PIPE_BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         executor.execute(() -> {
             try {
                 write(network, pos);
@@ -517,7 +629,7 @@ public final class NetworkXml {
                 }
             }
         });
-        try (InputStream is = new PipedInputStream(pos)) {
+        try (InputStream is = pis) {
             return read(is);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.commons.AbstractConverterTest;
+import com.powsybl.commons.config.InMemoryPlatformConfig;
+import com.powsybl.commons.datasource.MemDataSource;
+import com.powsybl.iidm.network.Network;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class BinaryImporterTest extends AbstractConverterTest {
+
+    @Test
+    public void roundTripTest() throws IOException {
+        Network network = NetworkXmlTest.createEurostagTutorialExample1();
+        MemDataSource dataSource = new MemDataSource();
+        new BinaryExporter().export(network, null, dataSource);
+
+        BinaryImporter importer = new BinaryImporter(new InMemoryPlatformConfig(fileSystem));
+        assertEquals("BIIDM", importer.getFormat());
+        assertTrue(importer.exists(dataSource));
+        assertFalse(importer.exists(new MemDataSource()));
+        Network network2 = importer.importData(dataSource, null);
+
+        // same content as the XML export
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkXml.write(network2, os);
+        try (InputStream is = new ByteArrayInputStream(os.toByteArray())) {
+            compareXml(getClass().getResourceAsStream("/eurostag-tutorial-example1.xml"), is);
+        }
+
+        // and smaller
+        ByteArrayOutputStream xmlOs = new ByteArrayOutputStream();
+        NetworkXml.write(network, xmlOs);
+        assertTrue(dataSource.getData(null, BinaryExporter.EXTENSION).length < xmlOs.size());
+    }
+}
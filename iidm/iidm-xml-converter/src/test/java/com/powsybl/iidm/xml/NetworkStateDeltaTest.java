@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.iidm.xml;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.StateManager;
+import com.powsybl.iidm.network.StateManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.iidm.network.test.NetworkTest1Factory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class NetworkStateDeltaTest {
+
+    @Test
+    public void test() {
+        Network network = EurostagTutorialExample1Factory.create();
+        network.getStateManager().cloneState(StateManagerConstants.INITIAL_STATE_ID, "s");
+        network.getStateManager().setWorkingState("s");
+        network.getBusView().getBus("VLHV1_0").setV(390.0);
+        network.getLine("NHV1_NHV2_1").getTerminal1().setP(301.0);
+        network.getGenerator("GEN").getTerminal().setQ(-7.0);
+        network.getStateManager().setWorkingState(StateManagerConstants.INITIAL_STATE_ID);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkStateDelta.write(network, "s", os);
+        assertEquals(StateManagerConstants.INITIAL_STATE_ID, network.getStateManager().getWorkingStateId());
+
+        Network network2 = EurostagTutorialExample1Factory.create();
+        network2.getStateManager().cloneState(StateManagerConstants.INITIAL_STATE_ID, Collections.singletonList("s2"));
+        NetworkStateDelta.update(network2, "s2", new ByteArrayInputStream(os.toByteArray()));
+        assertEquals(StateManagerConstants.INITIAL_STATE_ID, network2.getStateManager().getWorkingStateId());
+
+        // initial state is unchanged
+        assertTrue(Double.isNaN(network2.getLine("NHV1_NHV2_1").getTerminal1().getP()));
+
+        network2.getStateManager().setWorkingState("s2");
+        assertEquals(390.0, network2.getBusBreakerView().getBus("NHV1").getV(), 0.0);
+        assertEquals(301.0, network2.getLine("NHV1_NHV2_1").getTerminal1().getP(), 0.0);
+        assertEquals(-7.0, network2.getGenerator("GEN").getTerminal().getQ(), 0.0);
+    }
+
+    private static Network createNodeBreakerNetwork() {
+        Network network = NetworkTest1Factory.create();
+        // two buses: busbar section 1 with the load and busbar section 2 with the generator
+        network.getSwitch("voltageLevel1Breaker1").setOpen(true);
+        return network;
+    }
+
+    @Test
+    public void nodeBreakerTest() {
+        Network network = createNodeBreakerNetwork();
+        // recompute the topology a few times so that calculated bus ids differ from the ones of a fresh network
+        network.getSwitch("voltageLevel1Breaker1").setOpen(false);
+        network.getVoltageLevel("voltageLevel1").getBusView().getBuses().forEach(Bus::getId);
+        network.getSwitch("voltageLevel1Breaker1").setOpen(true);
+        network.getLoad("load1").getTerminal().getBusView().getBus().setV(400.0).setAngle(1.0);
+        network.getGenerator("generator1").getTerminal().getBusView().getBus().setV(410.0).setAngle(2.0);
+        network.getGenerator("generator1").getTerminal().setP(-900.0);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkStateDelta.write(network, os);
+
+        Network network2 = createNodeBreakerNetwork();
+        NetworkStateDelta.update(network2, new ByteArrayInputStream(os.toByteArray()));
+        assertEquals(400.0, network2.getLoad("load1").getTerminal().getBusView().getBus().getV(), 0.0);
+        assertEquals(1.0, network2.getLoad("load1").getTerminal().getBusView().getBus().getAngle(), 0.0);
+        assertEquals(410.0, network2.getGenerator("generator1").getTerminal().getBusView().getBus().getV(), 0.0);
+        assertEquals(2.0, network2.getGenerator("generator1").getTerminal().getBusView().getBus().getAngle(), 0.0);
+        assertEquals(-900.0, network2.getGenerator("generator1").getTerminal().getP(), 0.0);
+
+        // the delta of a different topology is rejected
+        Network network3 = NetworkTest1Factory.create();
+        try {
+            NetworkStateDelta.update(network3, new ByteArrayInputStream(os.toByteArray()));
+            fail();
+        } catch (PowsyblException ignored) {
+        }
+    }
+
+    @Test
+    public void workingStateNotSetTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        StateManager stateManager = network.getStateManager();
+        stateManager.cloneState(StateManagerConstants.INITIAL_STATE_ID, "s");
+        stateManager.allowStateMultiThreadAccess(true);
+        stateManager.unsetWorkingState();
+        assertFalse(stateManager.isWorkingStateSet());
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkStateDelta.write(network, "s", os);
+        NetworkStateDelta.update(network, StateManagerConstants.INITIAL_STATE_ID, new ByteArrayInputStream(os.toByteArray()));
+        assertFalse(stateManager.isWorkingStateSet());
+    }
+
+    @Test(expected = PowsyblException.class)
+    public void mismatchTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        NetworkStateDelta.write(network, os);
+
+        Network network2 = EurostagTutorialExample1Factory.create();
+        network2.getLoad("LOAD").remove();
+        NetworkStateDelta.update(network2, new ByteArrayInputStream(os.toByteArray()));
+    }
+}
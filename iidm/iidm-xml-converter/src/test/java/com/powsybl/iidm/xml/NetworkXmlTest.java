@@ -28,6 +28,10 @@ import static org.junit.Assert.*;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -67,6 +71,31 @@ public class NetworkXmlTest extends AbstractConverterTest {
         assertArrayEquals(Files.readAllBytes(file1), Files.readAllBytes(file2));
     }
 
+    @Test
+    public void testGunzip() throws IOException {
+        Network network = createEurostagTutorialExample1();
+        Path file1 = tmpDir.resolve("n.xml");
+        NetworkXml.write(network, file1);
+        Network network2 = NetworkXml.gunzip(NetworkXml.gzip(network));
+        Path file2 = tmpDir.resolve("n2.xml");
+        NetworkXml.write(network2, file2);
+        assertArrayEquals(Files.readAllBytes(file1), Files.readAllBytes(file2));
+    }
+
+    @Test(timeout = 60000)
+    public void testGunzipFromCommonPool() {
+        // every common pool thread waits on its pipe, the copy tasks must not need a common pool thread
+        byte[] networkXmlGz = NetworkXml.gzip(createEurostagTutorialExample1());
+        int count = 4 * (ForkJoinPool.getCommonPoolParallelism() + 1);
+        List<CompletableFuture<Network>> networks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            networks.add(CompletableFuture.supplyAsync(() -> NetworkXml.gunzip(networkXmlGz)));
+        }
+        for (CompletableFuture<Network> network : networks) {
+            assertEquals("sim1", network.join().getId());
+        }
+    }
+
 
     @AutoService(ExtensionXmlSerializer.class)
     public static class BusbarSectionExtXmlSerializer implements ExtensionXmlSerializer<BusbarSection, BusbarSectionExt> {
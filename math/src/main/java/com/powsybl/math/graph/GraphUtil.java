@@ -12,6 +12,8 @@ import gnu.trove.set.hash.TIntHashSet;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -19,6 +21,11 @@ import java.util.Objects;
  */
 public final class GraphUtil {
 
+    /**
+     * Vertex count above which union of adjacent vertices is done in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 100000;
+
     private GraphUtil() {
     }
 
@@ -55,28 +62,76 @@ public final class GraphUtil {
 
     }
 
-    private static void computeConnectedComponents(int v1, int c, int[] componentSize, TIntArrayList[] adjacencyList, int[] componentNumber) {
-        componentNumber[v1] = c;
-        ++componentSize[c];
+    /**
+     * Find the root of a vertex with path halving. Concurrent path halving is safe because
+     * a parent is only ever replaced by one of its ancestors.
+     */
+    private static int find(AtomicIntegerArray parent, int v) {
+        int r = v;
+        int p = parent.get(r);
+        while (p != r) {
+            int gp = parent.get(p);
+            parent.compareAndSet(r, p, gp);
+            r = gp;
+            p = parent.get(r);
+        }
+        return r;
+    }
+
+    /**
+     * Merge sets of both vertices, always linking the root with the highest index to the
+     * other one so that concurrent unions cannot create cycles.
+     */
+    private static void union(AtomicIntegerArray parent, int v1, int v2) {
+        while (true) {
+            int r1 = find(parent, v1);
+            int r2 = find(parent, v2);
+            if (r1 == r2) {
+                return;
+            }
+            int low = Math.min(r1, r2);
+            int high = Math.max(r1, r2);
+            if (parent.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, TIntArrayList[] adjacencyList, int v1) {
         TIntArrayList ls = adjacencyList[v1];
         for (int i = 0; i < ls.size(); i++) {
             int v2 = ls.getQuick(i);
-            if (componentNumber[v2] == -1) {
-                computeConnectedComponents(v2, c, componentSize, adjacencyList, componentNumber);
-            }
+            union(parent, v1, v2);
         }
     }
 
     public static ConnectedComponentsComputationResult computeConnectedComponents(TIntArrayList[] adjacencyList) {
+        Objects.requireNonNull(adjacencyList);
+        AtomicIntegerArray parent = new AtomicIntegerArray(adjacencyList.length);
+        for (int v = 0; v < adjacencyList.length; v++) {
+            parent.set(v, v);
+        }
+        if (adjacencyList.length > PARALLEL_THRESHOLD) {
+            IntStream.range(0, adjacencyList.length).parallel().forEach(v -> union(parent, adjacencyList, v));
+        } else {
+            for (int v = 0; v < adjacencyList.length; v++) {
+                union(parent, adjacencyList, v);
+            }
+        }
+
+        // number components in order of their lowest vertex, as a depth first traversal would
         int[] componentNumber = new int[adjacencyList.length];
-        Arrays.fill(componentNumber, -1);
+        int[] rootComponent = new int[adjacencyList.length];
+        Arrays.fill(rootComponent, -1);
         int c = 0;
         int[] componentSize = new int[adjacencyList.length];
-        Arrays.fill(componentSize, 0);
         for (int v = 0; v < adjacencyList.length; v++) {
-            if (componentNumber[v] == -1) {
-                computeConnectedComponents(v, c++, componentSize, adjacencyList, componentNumber);
+            int root = find(parent, v);
+            if (rootComponent[root] == -1) {
+                rootComponent[root] = c++;
             }
+            componentNumber[v] = rootComponent[root];
+            ++componentSize[componentNumber[v]];
         }
 
         // sort components by size
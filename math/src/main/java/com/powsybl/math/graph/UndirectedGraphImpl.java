@@ -30,8 +30,6 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
 
     private static final int EDGES_CAPACITY = 15;
 
-    private static final int NEIGHBORS_CAPACITY = 2;
-
     private static final class Vertex<E> {
 
         private E object;
@@ -92,8 +90,56 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
     /* edges */
     private final List<Edge<E>> edges = new ArrayList<>(EDGES_CAPACITY);
 
+    /**
+     * Adjacency list in compressed sparse row format: edges adjacent to vertex v are
+     * {@code adjacentEdges[offsets[v]]} to {@code adjacentEdges[offsets[v + 1] - 1]}.
+     * Immutable once built, so it can be read by concurrent traversals without locking.
+     */
+    private static final class AdjacencyList {
+
+        private final int[] offsets;
+
+        private final int[] adjacentEdges;
+
+        private final int[] edgeVertices1;
+
+        private final int[] edgeVertices2;
+
+        private AdjacencyList(int[] offsets, int[] adjacentEdges, int[] edgeVertices1, int[] edgeVertices2) {
+            this.offsets = offsets;
+            this.adjacentEdges = adjacentEdges;
+            this.edgeVertices1 = edgeVertices1;
+            this.edgeVertices2 = edgeVertices2;
+        }
+    }
+
+    /**
+     * Growable depth first traversal stack of (vertex, next adjacent edge position), reused by the traversals of a
+     * thread so that a traversal does not allocate anything once the stack has reached the depth of the graph.
+     */
+    private static final class TraversalStack {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] vertexStack = new int[INITIAL_CAPACITY];
+
+        private int[] positionStack = new int[INITIAL_CAPACITY];
+
+        private boolean inUse = false;
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > vertexStack.length) {
+                int newCapacity = Math.max(capacity, vertexStack.length * 2);
+                vertexStack = Arrays.copyOf(vertexStack, newCapacity);
+                positionStack = Arrays.copyOf(positionStack, newCapacity);
+            }
+        }
+    }
+
+    private final ThreadLocal<TraversalStack> traversalStack = ThreadLocal.withInitial(TraversalStack::new);
+
     /* cached adjacency list */
-    private TIntArrayList[] adjacencyListCache;
+    private volatile AdjacencyList adjacencyListCache;
 
     private final Lock adjacencyListCacheLock = new ReentrantLock();
 
@@ -297,39 +343,28 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
         checkVertex(v1);
         checkVertex(v2);
         List<E> edgeObjects = new ArrayList<>(1);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v1];
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            if ((edge.getV1() == v1 && edge.getV2() == v2)
-                || (edge.getV1() == v2 && edge.getV2() == v1)) {
-                edgeObjects.add(edge.getObject());
+        AdjacencyList adjacencyList = getAdjacencyList();
+        for (int i = adjacencyList.offsets[v1]; i < adjacencyList.offsets[v1 + 1]; i++) {
+            int e = adjacencyList.adjacentEdges[i];
+            int edgeV1 = adjacencyList.edgeVertices1[e];
+            int edgeV2 = adjacencyList.edgeVertices2[e];
+            if ((edgeV1 == v1 && edgeV2 == v2)
+                || (edgeV1 == v2 && edgeV2 == v1)) {
+                edgeObjects.add(edges.get(e).getObject());
             }
         }
         return edgeObjects;
     }
 
-    private TIntArrayList[] getAdjacencyList() {
+    private AdjacencyList getAdjacencyList() {
+        AdjacencyList adjacencyList = adjacencyListCache;
+        if (adjacencyList != null) {
+            return adjacencyList;
+        }
         adjacencyListCacheLock.lock();
         try {
             if (adjacencyListCache == null) {
-                adjacencyListCache = new TIntArrayList[vertices.size()];
-                for (int v = 0; v < vertices.size(); v++) {
-                    Vertex<V> vertex = vertices.get(v);
-                    if (vertex != null) {
-                        adjacencyListCache[v] = new TIntArrayList(NEIGHBORS_CAPACITY);
-                    }
-                }
-                for (int e = 0; e < edges.size(); e++) {
-                    Edge<E> edge = edges.get(e);
-                    if (edge != null) {
-                        int v1 = edge.getV1();
-                        int v2 = edge.getV2();
-                        adjacencyListCache[v1].add(e);
-                        adjacencyListCache[v2].add(e);
-                    }
-                }
+                adjacencyListCache = buildAdjacencyList();
             }
             return adjacencyListCache;
         } finally {
@@ -337,6 +372,35 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
         }
     }
 
+    private AdjacencyList buildAdjacencyList() {
+        int[] offsets = new int[vertices.size() + 1];
+        int[] edgeVertices1 = new int[edges.size()];
+        int[] edgeVertices2 = new int[edges.size()];
+        // count adjacent edges of each vertex
+        for (int e = 0; e < edges.size(); e++) {
+            Edge<E> edge = edges.get(e);
+            if (edge != null) {
+                edgeVertices1[e] = edge.getV1();
+                edgeVertices2[e] = edge.getV2();
+                offsets[edge.getV1() + 1]++;
+                offsets[edge.getV2() + 1]++;
+            }
+        }
+        for (int v = 0; v < vertices.size(); v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        // fill adjacent edges, in ascending edge order for each vertex
+        int[] adjacentEdges = new int[offsets[vertices.size()]];
+        int[] positions = Arrays.copyOf(offsets, vertices.size());
+        for (int e = 0; e < edges.size(); e++) {
+            if (edges.get(e) != null) {
+                adjacentEdges[positions[edgeVertices1[e]]++] = e;
+                adjacentEdges[positions[edgeVertices2[e]]++] = e;
+            }
+        }
+        return new AdjacencyList(offsets, adjacentEdges, edgeVertices1, edgeVertices2);
+    }
+
     private void invalidateAdjacencyList() {
         adjacencyListCache = null;
     }
@@ -351,22 +415,55 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
             throw new PowsyblException("Encountered array is too small");
         }
 
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v];
+        AdjacencyList adjacencyList = getAdjacencyList();
+
+        // a traverser may start another traversal of this graph from its callback, only the outermost traversal
+        // of the thread uses the shared stack
+        TraversalStack stack = traversalStack.get();
+        if (stack.inUse) {
+            stack = new TraversalStack();
+        }
+        stack.inUse = true;
+        try {
+            traverse(v, traverser, encountered, adjacencyList, stack);
+        } finally {
+            stack.inUse = false;
+        }
+    }
+
+    private static void traverse(int v, Traverser traverser, boolean[] encountered, AdjacencyList adjacencyList,
+                                 TraversalStack stack) {
+        // depth first traversal with an explicit stack of (vertex, next adjacent edge position), a vertex is
+        // pushed only once so the stack cannot be deeper than the vertex count
+        int top = 0;
+        stack.vertexStack[0] = v;
+        stack.positionStack[0] = adjacencyList.offsets[v];
         encountered[v] = true;
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            int v1 = edge.getV1();
-            int v2 = edge.getV2();
+        while (top >= 0) {
+            int current = stack.vertexStack[top];
+            int position = stack.positionStack[top];
+            if (position == adjacencyList.offsets[current + 1]) {
+                top--;
+                continue;
+            }
+            stack.positionStack[top] = position + 1;
+            int e = adjacencyList.adjacentEdges[position];
+            int v1 = adjacencyList.edgeVertices1[e];
+            int v2 = adjacencyList.edgeVertices2[e];
+            int next = -1;
             if (!encountered[v1]) {
                 if (traverser.traverse(v2, e, v1) == TraverseResult.CONTINUE) {
-                    encountered[v1] = true;
-                    traverse(v1, traverser, encountered);
+                    next = v1;
                 }
             } else if (!encountered[v2] && traverser.traverse(v1, e, v2) == TraverseResult.CONTINUE) {
-                encountered[v2] = true;
-                traverse(v2, traverser, encountered);
+                next = v2;
+            }
+            if (next != -1) {
+                encountered[next] = true;
+                top++;
+                stack.ensureCapacity(top + 1);
+                stack.vertexStack[top] = next;
+                stack.positionStack[top] = adjacencyList.offsets[next];
             }
         }
     }
@@ -410,19 +507,18 @@ public class UndirectedGraphImpl<V, E> implements UndirectedGraph<V, E> {
                               TIntArrayList path, BitSet encountered, List<TIntArrayList> paths) {
         checkVertex(v);
         encountered.set(v, true);
-        TIntArrayList[] adjacencyList = getAdjacencyList();
-        TIntArrayList adjacentEdges = adjacencyList[v];
-        for (int i = 0; i < adjacentEdges.size(); i++) {
-            int e = adjacentEdges.getQuick(i);
-            Edge<E> edge = edges.get(e);
-            if (pathCanceled != null && pathCanceled.apply(edge.getObject())) {
+        AdjacencyList adjacencyList = getAdjacencyList();
+        int last = adjacencyList.offsets[v + 1] - 1;
+        for (int i = adjacencyList.offsets[v]; i <= last; i++) {
+            int e = adjacencyList.adjacentEdges[i];
+            if (pathCanceled != null && pathCanceled.apply(edges.get(e).getObject())) {
                 continue;
             }
-            int v1 = edge.getV1();
-            int v2 = edge.getV2();
+            int v1 = adjacencyList.edgeVertices1[e];
+            int v2 = adjacencyList.edgeVertices2[e];
             TIntArrayList path2;
             BitSet encountered2;
-            if (i < adjacentEdges.size() - 1) {
+            if (i < last) {
                 path2 = new TIntArrayList(path);
                 encountered2 = new BitSet(vertices.size());
                 encountered2.or(encountered);
@@ -1,5 +1,6 @@
 package com.powsybl.math.graph;
 
+import gnu.trove.list.array.TIntArrayList;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -29,4 +30,40 @@ public class GraphUtilTest {
         assertEquals(2, graph.getVertexCount());
     }
 
+    @Test
+    public void computeConnectedComponents() {
+        TIntArrayList[] adjacencyList = new TIntArrayList[6];
+        for (int v = 0; v < adjacencyList.length; v++) {
+            adjacencyList[v] = new TIntArrayList();
+        }
+        // components {0, 3}, {1, 2, 4} and {5}
+        adjacencyList[0].add(3);
+        adjacencyList[3].add(0);
+        adjacencyList[1].add(4);
+        adjacencyList[4].add(1);
+        adjacencyList[4].add(2);
+        adjacencyList[2].add(4);
+        GraphUtil.ConnectedComponentsComputationResult result = GraphUtil.computeConnectedComponents(adjacencyList);
+        assertArrayEquals(new int[] {1, 0, 0, 1, 0, 2}, result.getComponentNumber());
+        assertArrayEquals(new int[] {3, 2, 1}, result.getComponentSize());
+    }
+
+    @Test
+    public void computeConnectedComponentsOfLargeGraph() {
+        // two interleaved chains, even vertices one and odd vertices the other
+        int vertexCount = 200001;
+        TIntArrayList[] adjacencyList = new TIntArrayList[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            adjacencyList[v] = new TIntArrayList();
+        }
+        for (int v = 0; v < vertexCount - 2; v++) {
+            adjacencyList[v].add(v + 2);
+            adjacencyList[v + 2].add(v);
+        }
+        GraphUtil.ConnectedComponentsComputationResult result = GraphUtil.computeConnectedComponents(adjacencyList);
+        assertArrayEquals(new int[] {100001, 100000}, result.getComponentSize());
+        for (int v = 0; v < vertexCount; v++) {
+            assertEquals(v % 2 == 0 ? 0 : 1, result.getComponentNumber()[v]);
+        }
+    }
 }
@@ -210,6 +210,69 @@ public class UndirectedGraphImplTest {
         assertEquals(1, graph.getEdgeObjects(1, 0).size());
     }
 
+    @Test
+    public void testTraverseDepthFirstOrder() {
+        for (int i = 0; i < 6; i++) {
+            graph.addVertex();
+        }
+        graph.addEdge(0, 1, null); // 0
+        graph.addEdge(0, 2, null); // 1
+        graph.addEdge(1, 3, null); // 2
+        graph.addEdge(2, 3, null); // 3
+        graph.addEdge(3, 4, null); // 4
+        TIntArrayList traversedEdges = new TIntArrayList();
+        boolean[] encountered = new boolean[graph.getMaxVertex()];
+        graph.traverse(0, (v1, e, v2) -> {
+            traversedEdges.add(e);
+            return e == 4 ? TraverseResult.TERMINATE : TraverseResult.CONTINUE;
+        }, encountered);
+        // depth first: 0 -> 1 -> 3 -> 2, then 3 -> 4 which is terminated
+        assertArrayEquals(new int[] {0, 2, 3, 4}, traversedEdges.toArray());
+        assertArrayEquals(new boolean[] {true, true, true, true, false, false}, encountered);
+    }
+
+    @Test
+    public void testTraverseLongChain() {
+        int vertexCount = 100000;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex();
+        }
+        for (int i = 0; i < vertexCount - 1; i++) {
+            graph.addEdge(i, i + 1, null);
+        }
+        int[] count = new int[1];
+        graph.traverse(0, (v1, e, v2) -> {
+            count[0]++;
+            return TraverseResult.CONTINUE;
+        });
+        assertEquals(vertexCount - 1, count[0]);
+    }
+
+    @Test
+    public void testNestedTraverse() {
+        for (int i = 0; i < 4; i++) {
+            graph.addVertex();
+        }
+        graph.addEdge(0, 1, null);
+        graph.addEdge(1, 2, null);
+        graph.addEdge(2, 3, null);
+        TIntArrayList traversedEdges = new TIntArrayList();
+        TIntArrayList nestedTraversedEdges = new TIntArrayList();
+        graph.traverse(0, (v1, e, v2) -> {
+            traversedEdges.add(e);
+            if (e == 1) {
+                // a traversal started from a traverser must not corrupt the stack of the outer one
+                graph.traverse(3, (nv1, ne, nv2) -> {
+                    nestedTraversedEdges.add(ne);
+                    return TraverseResult.CONTINUE;
+                });
+            }
+            return TraverseResult.CONTINUE;
+        });
+        assertArrayEquals(new int[] {0, 1, 2}, traversedEdges.toArray());
+        assertArrayEquals(new int[] {2, 1, 0}, nestedTraversedEdges.toArray());
+    }
+
     /**
      *           0
      *           |
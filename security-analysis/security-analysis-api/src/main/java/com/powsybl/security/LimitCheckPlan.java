@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security;
+
+import com.powsybl.iidm.network.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A precompiled plan to check the current and voltage limits of a network.
+ *
+ * <p>The branch sides and voltage levels having limits, and the limits themselves, are collected once in flat arrays,
+ * so that the limits can then be checked many times (for the base case and for each contingency) with a single loop,
+ * without going through the network iterables and the limits objects again. Only the attributes depending on the
+ * state (currents and bus voltages) are read at check time, the plan has to be created again if equipments or limits
+ * are modified.
+ *
+ * <p>A plan is immutable and can be used by several threads at the same time, each one checking its own working state.
+ *
+ * @author agent <agent at local>
+ */
+public final class LimitCheckPlan {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final Network network;
+
+    private final int chunkSize;
+
+    // one entry per branch side having a permanent limit, in the order of the lines and then of the transformers
+    private final String[] branchIds;
+    private final Branch.Side[] sides;
+    private final Terminal[] terminals;
+    private final double[] permanentLimits;
+
+    // temporary limits of branch side k, by ascending value, are at indexes temporaryLimitOffsets[k] (inclusive)
+    // to temporaryLimitOffsets[k + 1] (exclusive)
+    private final int[] temporaryLimitOffsets;
+    private final double[] temporaryLimitValues;
+    private final int[] temporaryLimitDurations;
+    private final String[] temporaryLimitNames;
+
+    // one entry per voltage level having a low or a high voltage limit
+    private final VoltageLevel[] voltageLevels;
+    private final double[] lowVoltageLimits;
+    private final double[] highVoltageLimits;
+
+    public LimitCheckPlan(Network network) {
+        this(network, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize the number of branch sides and voltage levels checked by a task of a parallel check
+     */
+    LimitCheckPlan(Network network, int chunkSize) {
+        this.network = Objects.requireNonNull(network);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Bad chunk size " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+
+        List<Branch> branches = new ArrayList<>();
+        List<Branch.Side> branchSides = new ArrayList<>();
+        List<CurrentLimits> currentLimits = new ArrayList<>();
+        addBranchSides(network.getLines(), branches, branchSides, currentLimits);
+        addBranchSides(network.getTwoWindingsTransformers(), branches, branchSides, currentLimits);
+
+        int sideCount = branches.size();
+        branchIds = new String[sideCount];
+        sides = branchSides.toArray(new Branch.Side[sideCount]);
+        terminals = new Terminal[sideCount];
+        permanentLimits = new double[sideCount];
+        temporaryLimitOffsets = new int[sideCount + 1];
+        int temporaryLimitCount = currentLimits.stream().mapToInt(l -> l.getTemporaryLimits().size()).sum();
+        temporaryLimitValues = new double[temporaryLimitCount];
+        temporaryLimitDurations = new int[temporaryLimitCount];
+        temporaryLimitNames = new String[temporaryLimitCount];
+        int offset = 0;
+        for (int k = 0; k < sideCount; k++) {
+            Branch branch = branches.get(k);
+            CurrentLimits limits = currentLimits.get(k);
+            branchIds[k] = branch.getId();
+            terminals[k] = branch.getTerminal(sides[k]);
+            permanentLimits[k] = limits.getPermanentLimit();
+            temporaryLimitOffsets[k] = offset;
+            for (CurrentLimits.TemporaryLimit temporaryLimit : limits.getTemporaryLimits()) { // iterate in ascending order
+                temporaryLimitValues[offset] = temporaryLimit.getValue();
+                temporaryLimitDurations[offset] = temporaryLimit.getAcceptableDuration();
+                temporaryLimitNames[offset] = temporaryLimit.getName();
+                offset++;
+            }
+        }
+        temporaryLimitOffsets[sideCount] = offset;
+
+        List<VoltageLevel> limitedVoltageLevels = network.getVoltageLevelStream()
+                .filter(vl -> !Double.isNaN(vl.getLowVoltageLimit()) || !Double.isNaN(vl.getHighVoltageLimit()))
+                .collect(Collectors.toList());
+        voltageLevels = limitedVoltageLevels.toArray(new VoltageLevel[limitedVoltageLevels.size()]);
+        lowVoltageLimits = limitedVoltageLevels.stream().mapToDouble(VoltageLevel::getLowVoltageLimit).toArray();
+        highVoltageLimits = limitedVoltageLevels.stream().mapToDouble(VoltageLevel::getHighVoltageLimit).toArray();
+    }
+
+    private static void addBranchSides(Iterable<? extends Branch> branches, List<Branch> planBranches, List<Branch.Side> planSides,
+                                       List<CurrentLimits> planLimits) {
+        for (Branch branch : branches) {
+            for (Branch.Side side : Branch.Side.values()) {
+                // a branch side without permanent limit can never be overloaded
+                CurrentLimits limits = branch.getCurrentLimits(side);
+                if (limits != null && !Double.isNaN(limits.getPermanentLimit())) {
+                    planBranches.add(branch);
+                    planSides.add(side);
+                    planLimits.add(limits);
+                }
+            }
+        }
+    }
+
+    public Network getNetwork() {
+        return network;
+    }
+
+    public List<LimitViolation> check(Set<Security.CurrentLimitType> currentLimitTypes, float limitReduction) {
+        return check(currentLimitTypes, limitReduction, false);
+    }
+
+    /**
+     * Check the limits on the working state of the network.
+     *
+     * @param currentLimitTypes the types of current limits to check
+     * @param limitReduction the reduction applied to all the current limits
+     * @param parallel if true, the branch sides and voltage levels are checked by chunks in the common fork join pool
+     * @return the limit violations, in the same order whatever the value of {@code parallel}
+     */
+    public List<LimitViolation> check(Set<Security.CurrentLimitType> currentLimitTypes, float limitReduction, boolean parallel) {
+        Objects.requireNonNull(currentLimitTypes);
+
+        // allow to increase the limits
+        if (limitReduction <= 0) {
+            throw new IllegalArgumentException("Bad limit reduction " + limitReduction);
+        }
+        boolean checkPatl = currentLimitTypes.contains(Security.CurrentLimitType.PATL);
+        boolean checkTatl = currentLimitTypes.contains(Security.CurrentLimitType.TATL);
+
+        int itemCount = terminals.length + voltageLevels.length;
+        if (!parallel || itemCount <= chunkSize) {
+            List<LimitViolation> violations = new ArrayList<>();
+            check(0, itemCount, checkPatl, checkTatl, limitReduction, violations);
+            return violations;
+        }
+
+        // if states can be accessed by several threads, the working state is per thread and has to be set in the
+        // worker threads
+        StateManager stateManager = network.getStateManager();
+        String workingStateId = stateManager.isStateMultiThreadAccessAllowed() ? stateManager.getWorkingStateId() : null;
+        int chunkCount = (itemCount + chunkSize - 1) / chunkSize;
+        return IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(chunk -> {
+                    List<LimitViolation> violations = new ArrayList<>();
+                    runOnState(stateManager, workingStateId, () -> check(chunk * chunkSize, Math.min(itemCount, (chunk + 1) * chunkSize),
+                                                                         checkPatl, checkTatl, limitReduction, violations));
+                    return violations;
+                })
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Run on a state in a thread of the common pool, which is shared with other tasks, so the working state of the
+     * thread is restored afterwards (or cleared if it had none).
+     */
+    private static void runOnState(StateManager stateManager, String stateId, Runnable runnable) {
+        if (stateId == null) {
+            runnable.run();
+            return;
+        }
+        String previousStateId = stateManager.isWorkingStateSet() ? stateManager.getWorkingStateId() : null;
+        stateManager.setWorkingState(stateId);
+        try {
+            runnable.run();
+        } finally {
+            if (previousStateId != null && stateManager.getStateIds().contains(previousStateId)) {
+                stateManager.setWorkingState(previousStateId);
+            } else {
+                stateManager.unsetWorkingState();
+            }
+        }
+    }
+
+    private void check(int from, int to, boolean checkPatl, boolean checkTatl, float limitReduction, List<LimitViolation> violations) {
+        int sideCount = terminals.length;
+        for (int k = from; k < Math.min(to, sideCount); k++) {
+            checkCurrentLimits(k, checkPatl, checkTatl, limitReduction, violations);
+        }
+        for (int k = Math.max(from, sideCount); k < to; k++) {
+            checkVoltageLimits(k - sideCount, violations);
+        }
+    }
+
+    private void checkCurrentLimits(int k, boolean checkPatl, boolean checkTatl, float limitReduction, List<LimitViolation> violations) {
+        double i = terminals[k].getI();
+        if (Double.isNaN(i)) {
+            return;
+        }
+
+        // same rules as Branch.checkTemporaryLimits and Branch.checkPermanentLimit
+        int overload = -1;
+        String previousLimitName = null;
+        double previousLimit = permanentLimits[k];
+        for (int t = temporaryLimitOffsets[k]; t < temporaryLimitOffsets[k + 1]; t++) {
+            if (i >= previousLimit * limitReduction && i < temporaryLimitValues[t] * limitReduction) {
+                overload = t;
+                break;
+            }
+            previousLimitName = temporaryLimitNames[t];
+            previousLimit = temporaryLimitValues[t];
+        }
+
+        if (checkTatl && overload != -1) {
+            violations.add(new LimitViolation(branchIds[k],
+                    LimitViolationType.CURRENT,
+                    previousLimitName,
+                    temporaryLimitDurations[overload],
+                    previousLimit,
+                    limitReduction,
+                    i,
+                    sides[k]));
+        } else if (checkPatl && i >= permanentLimits[k] * limitReduction) {
+            violations.add(new LimitViolation(branchIds[k],
+                    LimitViolationType.CURRENT,
+                    null,
+                    Integer.MAX_VALUE,
+                    permanentLimits[k],
+                    limitReduction,
+                    i,
+                    sides[k]));
+        }
+    }
+
+    private void checkVoltageLimits(int k, List<LimitViolation> violations) {
+        VoltageLevel vl = voltageLevels[k];
+        double lowVoltageLimit = lowVoltageLimits[k];
+        double highVoltageLimit = highVoltageLimits[k];
+        if (!Double.isNaN(lowVoltageLimit)) {
+            for (Bus b : vl.getBusView().getBuses()) {
+                double v = b.getV();
+                if (v < lowVoltageLimit) {
+                    violations.add(new LimitViolation(vl.getId(), LimitViolationType.LOW_VOLTAGE, lowVoltageLimit, 1, v));
+                }
+            }
+        }
+        if (!Double.isNaN(highVoltageLimit)) {
+            for (Bus b : vl.getBusView().getBuses()) {
+                double v = b.getV();
+                if (v > highVoltageLimit) {
+                    violations.add(new LimitViolation(vl.getId(), LimitViolationType.HIGH_VOLTAGE, highVoltageLimit, 1, v));
+                }
+            }
+        }
+    }
+}
@@ -60,10 +60,10 @@ public class SecurityAnalysisImpl implements SecurityAnalysis {
         return interceptors.remove(interceptor);
     }
 
-    private List<LimitViolation> checkLimits(Network network) {
-        List<LimitViolation> violations = Security.checkLimits(network, 1f);
+    private List<LimitViolation> checkLimits(LimitCheckPlan limitCheckPlan) {
+        List<LimitViolation> violations = limitCheckPlan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f);
 
-        return filter.apply(violations, network);
+        return filter.apply(violations, limitCheckPlan.getNetwork());
     }
 
     @Override
@@ -93,7 +93,10 @@ public class SecurityAnalysisImpl implements SecurityAnalysis {
                     CompletableFuture<Void>[] futures;
 
                     if (loadFlowResult.isOk()) {
-                        limitViolationsResults[0].getLimitViolations().addAll(checkLimits(network));
+                        // contingencies only modify the state, the same plan is used to check all the states
+                        LimitCheckPlan limitCheckPlan = new LimitCheckPlan(network);
+
+                        limitViolationsResults[0].getLimitViolations().addAll(checkLimits(limitCheckPlan));
 
                         interceptors.forEach(o -> o.onPreContingencyResult(context, limitViolationsResults[0]));
 
@@ -122,7 +125,7 @@ public class SecurityAnalysisImpl implements SecurityAnalysis {
                                     .handleAsync((lfResult, throwable) -> {
                                         network.getStateManager().setWorkingState(postContStateId);
 
-                                        PostContingencyResult postContingencyResult = new PostContingencyResult(contingency, lfResult.isOk(), checkLimits(network));
+                                        PostContingencyResult postContingencyResult = new PostContingencyResult(contingency, lfResult.isOk(), checkLimits(limitCheckPlan));
                                         postContingencyResults.add(postContingencyResult);
 
                                         interceptors.forEach(o -> o.onPostContingencyResult(context, postContingencyResult));
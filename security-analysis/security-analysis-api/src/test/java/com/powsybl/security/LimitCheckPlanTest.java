@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security;
+
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.StateManager;
+import com.powsybl.iidm.network.StateManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class LimitCheckPlanTest {
+
+    private Network network;
+
+    private LimitCheckPlan plan;
+
+    @Before
+    public void setUp() {
+        network = EurostagTutorialExample1Factory.createWithCurrentLimits();
+        plan = new LimitCheckPlan(network);
+    }
+
+    private static String toString(LimitViolation violation) {
+        return violation.getSubjectId() + " " + violation.getSide() + " " + violation.getLimitType() + " " + violation.getLimitName()
+                + " " + violation.getAcceptableDuration() + " " + violation.getLimit();
+    }
+
+    private static List<String> toString(List<LimitViolation> violations) {
+        return violations.stream().map(LimitCheckPlanTest::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test() {
+        assertSame(network, plan.getNetwork());
+
+        List<LimitViolation> violations = plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f);
+        assertEquals(5, violations.size());
+        assertEquals("NHV1_NHV2_1 ONE CURRENT null 2147483647 500.0", toString(violations.get(0)));
+        assertEquals("NHV1_NHV2_1 TWO CURRENT null 600 1100.0", toString(violations.get(1)));
+        assertEquals("NHV1_NHV2_2 ONE CURRENT null 1200 1100.0", toString(violations.get(2)));
+        assertEquals("NHV1_NHV2_2 TWO CURRENT null 2147483647 500.0", toString(violations.get(3)));
+        assertEquals("VLHV1 null LOW_VOLTAGE null 2147483647 400.0", toString(violations.get(4)));
+        assertEquals(network.getLine("NHV1_NHV2_1").getTerminal1().getI(), violations.get(0).getValue(), 0);
+        assertEquals(380, violations.get(4).getValue(), 0);
+
+        // same violations in parallel and with Security.checkLimits
+        assertEquals(toString(violations), toString(plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f, true)));
+        assertEquals(toString(violations), toString(Security.checkLimits(network)));
+    }
+
+    @Test
+    public void testCurrentLimitTypes() {
+        List<LimitViolation> violations = plan.check(EnumSet.of(Security.CurrentLimitType.TATL), 1f);
+        assertEquals(2, violations.size());
+        assertEquals("NHV1_NHV2_1", violations.get(0).getSubjectId());
+        assertEquals(Branch.Side.TWO, violations.get(0).getSide());
+        assertEquals(600, violations.get(0).getAcceptableDuration());
+        assertEquals(Branch.Side.ONE, violations.get(1).getSide());
+        assertEquals(1200, violations.get(1).getAcceptableDuration());
+
+        violations = plan.check(EnumSet.of(Security.CurrentLimitType.PATL), 1f);
+        assertEquals(5, violations.size());
+        assertEquals(1100, violations.get(1).getLimit(), 0);
+        assertEquals(Integer.MAX_VALUE, violations.get(1).getAcceptableDuration());
+
+        // limits are increased, only the branch sides with a 500 A permanent limit are still overloaded
+        violations = plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 2f);
+        assertEquals(3, violations.size());
+        assertEquals("NHV1_NHV2_1 ONE CURRENT null 2147483647 500.0", toString(violations.get(0)));
+        assertEquals("NHV1_NHV2_2 TWO CURRENT null 2147483647 500.0", toString(violations.get(1)));
+        assertEquals(2f, violations.get(0).getLimitReduction(), 0f);
+    }
+
+    @Test
+    public void testStateDependentValues() {
+        // the plan reads currents and voltages of the working state
+        network.getLine("NHV1_NHV2_1").getTerminal1().setP(0).setQ(0);
+        network.getVoltageLevel("VLHV2").setHighVoltageLimit(350);
+
+        List<LimitViolation> violations = plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f);
+        assertEquals(4, violations.size());
+        assertEquals("NHV1_NHV2_1 TWO CURRENT null 600 1100.0", toString(violations.get(0)));
+        assertEquals(LimitViolationType.LOW_VOLTAGE, violations.get(3).getLimitType());
+
+        // limits are not state dependent, the plan has to be created again to see the new high voltage limit
+        violations = new LimitCheckPlan(network).check(EnumSet.allOf(Security.CurrentLimitType.class), 1f);
+        assertEquals(5, violations.size());
+        assertEquals("VLHV2 null HIGH_VOLTAGE null 2147483647 350.0", toString(violations.get(4)));
+    }
+
+    @Test
+    public void testParallelChunks() {
+        // one branch side or voltage level per chunk, so that the check is split in many tasks
+        LimitCheckPlan chunkedPlan = new LimitCheckPlan(network, 1);
+        List<String> expected = toString(plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f));
+        assertEquals(expected, toString(chunkedPlan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f, true)));
+
+        // with a working state per thread, the chunks are checked on the working state of the calling thread
+        StateManager stateManager = network.getStateManager();
+        stateManager.cloneState(StateManagerConstants.INITIAL_STATE_ID, "s2");
+        stateManager.allowStateMultiThreadAccess(true);
+        try {
+            stateManager.setWorkingState("s2");
+            network.getLine("NHV1_NHV2_1").getTerminal1().setP(0).setQ(0);
+            List<String> expected2 = toString(plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f));
+            assertEquals(4, expected2.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(expected2, toString(chunkedPlan.check(EnumSet.allOf(Security.CurrentLimitType.class), 1f, true)));
+            }
+            assertEquals("s2", stateManager.getWorkingStateId());
+
+            // working state of the common pool threads is not left set
+            Thread caller = Thread.currentThread();
+            assertTrue(IntStream.range(0, 100)
+                    .parallel()
+                    .allMatch(i -> Thread.currentThread() == caller || !stateManager.isWorkingStateSet()));
+        } finally {
+            stateManager.allowStateMultiThreadAccess(false);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadChunkSize() {
+        new LimitCheckPlan(network, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadLimitReduction() {
+        plan.check(EnumSet.allOf(Security.CurrentLimitType.class), 0f);
+    }
+}
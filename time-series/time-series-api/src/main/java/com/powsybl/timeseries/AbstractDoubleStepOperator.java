@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class of lazy operators on steps: input steps are pulled and processed one by one until at least one output
+ * step is available, so that only a bounded state is kept in memory whatever the number of points.
+ *
+ * @author agent <agent at local>
+ */
+abstract class AbstractDoubleStepOperator implements Iterator<DoubleStep> {
+
+    private final Deque<DoubleStep> outputSteps = new ArrayDeque<>();
+
+    private int pendingPoint = -1;
+
+    private int pendingLength = 0;
+
+    private double pendingValue = Double.NaN;
+
+    private boolean done = false;
+
+    private static boolean sameValue(double value1, double value2) {
+        return Double.doubleToLongBits(value1) == Double.doubleToLongBits(value2);
+    }
+
+    /**
+     * Emit an output step, merged with the previous one if it has the same value.
+     */
+    protected void emit(int point, int length, double value) {
+        if (length <= 0) {
+            return;
+        }
+        if (pendingLength > 0 && pendingPoint + pendingLength == point && sameValue(pendingValue, value)) {
+            pendingLength += length;
+        } else {
+            flush();
+            pendingPoint = point;
+            pendingLength = length;
+            pendingValue = value;
+        }
+    }
+
+    private void flush() {
+        if (pendingLength > 0) {
+            outputSteps.add(new DoubleStep(pendingPoint, pendingLength, pendingValue));
+            pendingLength = 0;
+        }
+    }
+
+    /**
+     * Process next input step.
+     *
+     * @return false if there is no more input step
+     */
+    protected abstract boolean processNextStep();
+
+    /**
+     * Called once all input steps have been processed.
+     */
+    protected void finish() {
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (outputSteps.isEmpty() && !done) {
+            if (!processNextStep()) {
+                finish();
+                flush();
+                done = true;
+            }
+        }
+        return !outputSteps.isEmpty();
+    }
+
+    @Override
+    public DoubleStep next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return outputSteps.poll();
+    }
+}
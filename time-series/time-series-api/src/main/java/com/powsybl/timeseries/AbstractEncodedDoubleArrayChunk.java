@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base class of double array chunks whose values are encoded in a byte array and can only be decoded sequentially.
+ *
+ * @author agent <agent at local>
+ */
+public abstract class AbstractEncodedDoubleArrayChunk implements DoubleArrayChunk {
+
+    protected final int offset;
+
+    protected final int uncompressedLength;
+
+    protected final byte[] encodedValues;
+
+    protected AbstractEncodedDoubleArrayChunk(int offset, int uncompressedLength, byte[] encodedValues) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Bad offset value " + offset);
+        }
+        if (uncompressedLength < 1) {
+            throw new IllegalArgumentException("Bad uncompressed length value " + uncompressedLength);
+        }
+        this.offset = offset;
+        this.uncompressedLength = uncompressedLength;
+        this.encodedValues = Objects.requireNonNull(encodedValues);
+    }
+
+    /**
+     * Create a decoder, each call giving the next value of the chunk.
+     */
+    protected abstract DoubleSupplier createDecoder();
+
+    /**
+     * Create a chunk of same encoding from uncompressed values.
+     */
+    protected abstract DoubleArrayChunk createChunk(int offset, double[] values);
+
+    protected abstract void writeEncodedValuesJson(JsonGenerator generator) throws IOException;
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getLength() {
+        return uncompressedLength;
+    }
+
+    public byte[] getEncodedValues() {
+        return encodedValues;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return encodedValues.length;
+    }
+
+    @Override
+    public double getCompressionFactor() {
+        return ((double) getEstimatedSize()) / (Double.BYTES * uncompressedLength);
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Override
+    public TimeSeriesDataType getDataType() {
+        return TimeSeriesDataType.DOUBLE;
+    }
+
+    public double[] toArray() {
+        double[] values = new double[uncompressedLength];
+        DoubleSupplier decoder = createDecoder();
+        for (int i = 0; i < uncompressedLength; i++) {
+            values[i] = decoder.getAsDouble();
+        }
+        return values;
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        DoubleSupplier decoder = createDecoder();
+        for (int i = 0; i < uncompressedLength; i++) {
+            buffer.put(timeSeriesOffset + offset + i, decoder.getAsDouble());
+        }
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        DoubleSupplier decoder = createDecoder();
+        return new Iterator<DoublePoint>() {
+
+            private int i = offset;
+
+            @Override
+            public boolean hasNext() {
+                return i < offset + uncompressedLength;
+            }
+
+            @Override
+            public DoublePoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DoublePoint point = new DoublePoint(i, index.getTimeAt(i), decoder.getAsDouble());
+                i++;
+                return point;
+            }
+        };
+    }
+
+    @Override
+    public Stream<DoublePoint> stream(TimeSeriesIndex index) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterator(index),
+                Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+    }
+
+    @Override
+    public DoubleArrayChunk tryToCompress() {
+        return this;
+    }
+
+    @Override
+    public Split<DoublePoint, DoubleArrayChunk> splitAt(int splitIndex) {
+        // split at offset is not allowed because it will result to a null left chunk
+        if (splitIndex <= offset || splitIndex > (offset + uncompressedLength - 1)) {
+            throw new IllegalArgumentException("Split index " + splitIndex + " out of chunk range ]" + offset
+                    + ", " + (offset + uncompressedLength - 1) + "]");
+        }
+        double[] values = toArray();
+        return new Split<>(createChunk(offset, Arrays.copyOfRange(values, 0, splitIndex - offset)),
+                           createChunk(splitIndex, Arrays.copyOfRange(values, splitIndex - offset, values.length)));
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        Objects.requireNonNull(generator);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("offset", offset);
+            generator.writeNumberField("uncompressedLength", uncompressedLength);
+            writeEncodedValuesJson(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), offset, uncompressedLength, Arrays.hashCode(encodedValues));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj != null && obj.getClass() == getClass()) {
+            AbstractEncodedDoubleArrayChunk other = (AbstractEncodedDoubleArrayChunk) obj;
+            return offset == other.offset &&
+                    uncompressedLength == other.uncompressedLength &&
+                    Arrays.equals(encodedValues, other.encodedValues);
+        }
+        return false;
+    }
+}
@@ -60,7 +60,7 @@ public abstract class AbstractTimeSeries<P extends AbstractPoint, C extends Arra
                 .collect(Collectors.toList());
     }
 
-    private List<C> getCheckedChunks(boolean fillGap) {
+    protected List<C> getCheckedChunks(boolean fillGap) {
         // sort chunks by offset
         List<C> sortedChunks = getSortedChunks();
         int pointCount = metadata.getIndex().getPointCount();
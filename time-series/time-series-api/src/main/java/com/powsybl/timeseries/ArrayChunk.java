@@ -158,6 +158,10 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
         private TIntArrayList stepLengths;
         private int uncompressedLength = -1;
         private boolean valuesOrLengthArray = false;
+        private String encoding;
+        private byte[] encodedValues;
+        private int scale = -1;
+        private TIntArrayList indexes;
 
         void addDoubleValue(double value) {
             if (doubleValues == null) {
@@ -191,8 +195,22 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
                 break;
             case "values":
             case "stepValues":
+            case "dictionary":
                 context.valuesOrLengthArray = true;
                 break;
+            case "indexes":
+                context.indexes = new TIntArrayList();
+                context.valuesOrLengthArray = true;
+                break;
+            case "scale":
+                context.scale = parser.nextIntValue(-1);
+                break;
+            case "xorValues":
+            case "deltaOfDeltaValues":
+                parser.nextToken();
+                context.encoding = fieldName;
+                context.encodedValues = parser.getBinaryValue();
+                break;
             default:
                 break;
         }
@@ -231,8 +249,41 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
         }
     }
 
+    static void addEncodedChunk(JsonParsingContext context) {
+        switch (context.encoding) {
+            case "xorValues":
+                context.doubleChunks.add(new XorDoubleArrayChunk(context.offset, context.uncompressedLength, context.encodedValues));
+                break;
+            case "deltaOfDeltaValues":
+                context.doubleChunks.add(new DeltaOfDeltaDoubleArrayChunk(context.offset, context.uncompressedLength,
+                        context.scale, context.encodedValues));
+                break;
+            default:
+                throw new AssertionError("Unexpected encoding " + context.encoding);
+        }
+        context.encoding = null;
+        context.encodedValues = null;
+        context.scale = -1;
+        context.uncompressedLength = -1;
+    }
+
+    static void addDictionaryChunk(JsonParsingContext context) {
+        if (context.stringValues == null) {
+            throw new AssertionError("Dictionary is expected to be non null");
+        }
+        context.stringChunks.add(new DictionaryStringArrayChunk(context.offset,
+                context.stringValues.toArray(new String[context.stringValues.size()]),
+                context.indexes.toArray()));
+        context.stringValues = null;
+        context.indexes = null;
+    }
+
     static void parseEndObject(JsonParsingContext context) {
-        if (context.stepLengths == null) {
+        if (context.encodedValues != null) {
+            addEncodedChunk(context);
+        } else if (context.indexes != null) {
+            addDictionaryChunk(context);
+        } else if (context.stepLengths == null) {
             addUncompressedChunk(context);
         } else {
             addCompressedChunk(context);
@@ -243,6 +294,8 @@ public interface ArrayChunk<P extends AbstractPoint, A extends ArrayChunk<P, A>>
     static void parseValueNumberInt(JsonParser parser, JsonParsingContext context) throws IOException {
         if (context.stepLengths != null) {
             context.stepLengths.add(parser.getIntValue());
+        } else if (context.indexes != null) {
+            context.indexes.add(parser.getIntValue());
         } else {
             context.addDoubleValue(parser.getIntValue());
         }
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Double time series lazily calculated from other time series. Values are computed step by step each time they are
+ * requested, nothing is cached.
+ *
+ * @author agent <agent at local>
+ */
+public class CalculatedDoubleTimeSeries implements DoubleTimeSeries {
+
+    private static final int MAX_CHUNK_STEP_COUNT = 10000;
+
+    private final TimeSeriesMetadata metadata;
+
+    private final Supplier<Iterator<DoubleStep>> stepIteratorSupplier;
+
+    public CalculatedDoubleTimeSeries(TimeSeriesMetadata metadata, Supplier<Iterator<DoubleStep>> stepIteratorSupplier) {
+        this.metadata = Objects.requireNonNull(metadata);
+        this.stepIteratorSupplier = Objects.requireNonNull(stepIteratorSupplier);
+        if (metadata.getDataType() != TimeSeriesDataType.DOUBLE) {
+            throw new IllegalArgumentException("Bad data type " + metadata.getDataType());
+        }
+    }
+
+    @Override
+    public TimeSeriesMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public Iterator<DoubleStep> stepIterator() {
+        return stepIteratorSupplier.get();
+    }
+
+    @Override
+    public void synchronize(TimeSeriesIndex newIndex) {
+        Objects.requireNonNull(newIndex);
+        if (!metadata.getIndex().equals(newIndex)) {
+            throw new UnsupportedOperationException("Not yet implemented");
+        }
+    }
+
+    @Override
+    public Stream<DoublePoint> stream() {
+        TimeSeriesIndex index = metadata.getIndex();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(stepIterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE), false)
+                .flatMap(step -> IntStream.range(step.getPoint(), step.getPoint() + step.getLength())
+                        .mapToObj(point -> new DoublePoint(point, index.getTimeAt(point), step.getValue())));
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator() {
+        return stream().iterator();
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        Iterator<DoubleStep> it = stepIterator();
+        while (it.hasNext()) {
+            DoubleStep step = it.next();
+            for (int point = step.getPoint(); point < step.getPoint() + step.getLength(); point++) {
+                buffer.put(timeSeriesOffset + point, step.getValue());
+            }
+        }
+    }
+
+    @Override
+    public double[] toArray() {
+        double[] values = new double[metadata.getIndex().getPointCount()];
+        Arrays.fill(values, Double.NaN);
+        fillBuffer(DoubleBuffer.wrap(values), 0);
+        return values;
+    }
+
+    private static DoubleArrayChunk createChunk(int offset, int length, TDoubleArrayList stepValues, TIntArrayList stepLengths) {
+        if (CompressedDoubleArrayChunk.getEstimatedSize(stepValues.size(), stepLengths.size()) < Double.BYTES * length) {
+            return new CompressedDoubleArrayChunk(offset, length, stepValues.toArray(), stepLengths.toArray());
+        }
+        double[] values = new double[length];
+        int point = 0;
+        for (int i = 0; i < stepValues.size(); i++) {
+            Arrays.fill(values, point, point + stepLengths.get(i), stepValues.get(i));
+            point += stepLengths.get(i);
+        }
+        return new UncompressedDoubleArrayChunk(offset, values);
+    }
+
+    /**
+     * Calculate all values and store them in chunks, compressed when efficient.
+     */
+    public StoredDoubleTimeSeries toStoredTimeSeries() {
+        List<DoubleArrayChunk> chunks = new ArrayList<>();
+        TDoubleArrayList stepValues = new TDoubleArrayList();
+        TIntArrayList stepLengths = new TIntArrayList();
+        int offset = 0;
+        int length = 0;
+        Iterator<DoubleStep> it = stepIterator();
+        while (it.hasNext()) {
+            DoubleStep step = it.next();
+            stepValues.add(step.getValue());
+            stepLengths.add(step.getLength());
+            length += step.getLength();
+            if (stepValues.size() == MAX_CHUNK_STEP_COUNT) {
+                chunks.add(createChunk(offset, length, stepValues, stepLengths));
+                offset += length;
+                length = 0;
+                stepValues.clear();
+                stepLengths.clear();
+            }
+        }
+        if (length > 0) {
+            chunks.add(createChunk(offset, length, stepValues, stepLengths));
+        }
+        return new StoredDoubleTimeSeries(metadata, chunks);
+    }
+
+    @Override
+    public List<DoubleTimeSeries> split(int newChunkSize) {
+        return toStoredTimeSeries().split(newChunkSize);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        toStoredTimeSeries().writeJson(generator);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Combine values of two time series having the same index, once per intersection of their steps.
+ *
+ * @author agent <agent at local>
+ */
+class CombineDoubleStepOperator extends AbstractDoubleStepOperator {
+
+    private final Iterator<DoubleStep> steps1;
+
+    private final Iterator<DoubleStep> steps2;
+
+    private final DoubleBinaryOperator operator;
+
+    private DoubleStep step1;
+
+    private DoubleStep step2;
+
+    private int point = 0;
+
+    CombineDoubleStepOperator(Iterator<DoubleStep> steps1, Iterator<DoubleStep> steps2, DoubleBinaryOperator operator) {
+        this.steps1 = Objects.requireNonNull(steps1);
+        this.steps2 = Objects.requireNonNull(steps2);
+        this.operator = Objects.requireNonNull(operator);
+    }
+
+    private static DoubleStep nextStep(DoubleStep step, Iterator<DoubleStep> steps, int point) {
+        DoubleStep nextStep = step;
+        while (nextStep == null || nextStep.getPoint() + nextStep.getLength() <= point) {
+            if (!steps.hasNext()) {
+                return null;
+            }
+            nextStep = steps.next();
+        }
+        return nextStep;
+    }
+
+    @Override
+    protected boolean processNextStep() {
+        step1 = nextStep(step1, steps1, point);
+        step2 = nextStep(step2, steps2, point);
+        if (step1 == null || step2 == null) {
+            return false;
+        }
+        int end = Math.min(step1.getPoint() + step1.getLength(), step2.getPoint() + step2.getLength());
+        emit(point, end - point, operator.applyAsDouble(step1.getValue(), step2.getValue()));
+        point = end;
+        return true;
+    }
+}
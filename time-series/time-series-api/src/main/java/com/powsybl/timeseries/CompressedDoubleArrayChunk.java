@@ -62,6 +62,32 @@ public class CompressedDoubleArrayChunk extends AbstractCompressedArrayChunk imp
         }
     }
 
+    @Override
+    public Iterator<DoubleStep> stepIterator() {
+        return new Iterator<DoubleStep>() {
+
+            private int step = 0;
+
+            private int point = offset;
+
+            @Override
+            public boolean hasNext() {
+                return step < stepValues.length;
+            }
+
+            @Override
+            public DoubleStep next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DoubleStep next = new DoubleStep(point, stepLengths[step], stepValues[step]);
+                point += stepLengths[step];
+                step++;
+                return next;
+            }
+        };
+    }
+
     @Override
     public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
         Objects.requireNonNull(index);
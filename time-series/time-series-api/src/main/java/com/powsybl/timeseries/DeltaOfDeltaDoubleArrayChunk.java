@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Double array chunk using delta of delta encoding, efficient on quasi-linear ramps of values with a limited
+ * number of decimals (which is the case of most measurements).
+ * <p>
+ * Values are multiplied by 10 power {@code scale} to get integers, then the first integer, the first delta and
+ * following deltas of deltas are written as zigzag variable length integers. Encoding is lossless: it is only
+ * possible if dividing back integers by 10 power {@code scale} gives exactly the original values.
+ *
+ * @author agent <agent at local>
+ */
+public class DeltaOfDeltaDoubleArrayChunk extends AbstractEncodedDoubleArrayChunk {
+
+    private static final double[] FACTORS = {1d, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9};
+
+    private static final double MAX_SCALED_VALUE = 1L << 52;
+
+    private final int scale;
+
+    public DeltaOfDeltaDoubleArrayChunk(int offset, int uncompressedLength, int scale, byte[] encodedValues) {
+        super(offset, uncompressedLength, encodedValues);
+        if (scale < 0 || scale >= FACTORS.length) {
+            throw new IllegalArgumentException("Bad scale value " + scale);
+        }
+        this.scale = scale;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    private static boolean isScalable(double[] values, double factor) {
+        for (double value : values) {
+            double scaledValue = value * factor;
+            if (Double.isNaN(scaledValue) || Math.abs(scaledValue) >= MAX_SCALED_VALUE
+                    || Double.doubleToRawLongBits(Math.round(scaledValue) / factor) != Double.doubleToRawLongBits(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeZigZagVarLong(ByteArrayOutputStream os, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            os.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        os.write((int) v);
+    }
+
+    /**
+     * Encode values.
+     *
+     * @return the encoded chunk or null if values cannot be encoded without loss
+     */
+    public static DeltaOfDeltaDoubleArrayChunk encode(int offset, double[] values) {
+        Objects.requireNonNull(values);
+        for (int scale = 0; scale < FACTORS.length; scale++) {
+            double factor = FACTORS[scale];
+            if (isScalable(values, factor)) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                long previousValue = 0;
+                long previousDelta = 0;
+                for (int i = 0; i < values.length; i++) {
+                    long value = Math.round(values[i] * factor);
+                    long delta = value - previousValue;
+                    // first value is written as is, second as a delta
+                    writeZigZagVarLong(os, i < 2 ? delta : delta - previousDelta);
+                    previousValue = value;
+                    previousDelta = delta;
+                }
+                return new DeltaOfDeltaDoubleArrayChunk(offset, values.length, scale, os.toByteArray());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected DoubleSupplier createDecoder() {
+        double factor = FACTORS[scale];
+        return new DoubleSupplier() {
+
+            private int index = 0;
+
+            private int byteIndex = 0;
+
+            private long value = 0;
+
+            private long delta = 0;
+
+            private long readZigZagVarLong() {
+                long v = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = encodedValues[byteIndex++];
+                    v |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                return (v >>> 1) ^ -(v & 1);
+            }
+
+            @Override
+            public double getAsDouble() {
+                long v = readZigZagVarLong();
+                delta = index < 2 ? v : delta + v;
+                value += delta;
+                index++;
+                return value / factor;
+            }
+        };
+    }
+
+    @Override
+    protected DoubleArrayChunk createChunk(int offset, double[] values) {
+        return encode(offset, values);
+    }
+
+    @Override
+    protected void writeEncodedValuesJson(JsonGenerator generator) throws IOException {
+        generator.writeNumberField("scale", scale);
+        generator.writeBinaryField("deltaOfDeltaValues", encodedValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + scale;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && scale == ((DeltaOfDeltaDoubleArrayChunk) obj).scale;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * String array chunk using a dictionary encoding: distinct values are stored once and each point is an index in
+ * the dictionary. Efficient on status like values with few distinct values which are changing often.
+ *
+ * @author agent <agent at local>
+ */
+public class DictionaryStringArrayChunk implements StringArrayChunk {
+
+    private final int offset;
+
+    private final String[] dictionary;
+
+    private final int[] indexes;
+
+    private final int estimatedSize;
+
+    private final int uncompressedEstimatedSize;
+
+    public DictionaryStringArrayChunk(int offset, String[] dictionary, int[] indexes) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Bad offset value " + offset);
+        }
+        this.offset = offset;
+        this.dictionary = Objects.requireNonNull(dictionary);
+        this.indexes = Objects.requireNonNull(indexes);
+        if (indexes.length < 1) {
+            throw new IllegalArgumentException("Bad indexes length " + indexes.length);
+        }
+        int dictionaryEstimatedSize = 0;
+        for (String value : dictionary) {
+            dictionaryEstimatedSize += getEstimatedSize(value);
+        }
+        int totalEstimatedSize = 0;
+        for (int index : indexes) {
+            if (index < 0 || index >= dictionary.length) {
+                throw new IllegalArgumentException("Bad dictionary index " + index);
+            }
+            totalEstimatedSize += getEstimatedSize(dictionary[index]);
+        }
+        estimatedSize = dictionaryEstimatedSize + Integer.BYTES * indexes.length;
+        uncompressedEstimatedSize = totalEstimatedSize;
+    }
+
+    private static int getEstimatedSize(String value) {
+        return value != null ? value.length() * Character.BYTES : 0;
+    }
+
+    public static DictionaryStringArrayChunk encode(int offset, String[] values) {
+        Objects.requireNonNull(values);
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] indexes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            indexes[i] = dictionary.computeIfAbsent(values[i], value -> dictionary.size());
+        }
+        return new DictionaryStringArrayChunk(offset, dictionary.keySet().toArray(new String[dictionary.size()]), indexes);
+    }
+
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    public int[] getIndexes() {
+        return indexes;
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getLength() {
+        return indexes.length;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public double getCompressionFactor() {
+        return ((double) estimatedSize) / uncompressedEstimatedSize;
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Override
+    public TimeSeriesDataType getDataType() {
+        return TimeSeriesDataType.STRING;
+    }
+
+    @Override
+    public void fillBuffer(CompactStringBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        for (int i = 0; i < indexes.length; i++) {
+            buffer.putString(timeSeriesOffset + offset + i, dictionary[indexes[i]]);
+        }
+    }
+
+    @Override
+    public StringArrayChunk tryToCompress() {
+        return this;
+    }
+
+    @Override
+    public Split<StringPoint, StringArrayChunk> splitAt(int splitIndex) {
+        // split at offset is not allowed because it will result to a null left chunk
+        if (splitIndex <= offset || splitIndex > (offset + indexes.length - 1)) {
+            throw new IllegalArgumentException("Split index " + splitIndex + " out of chunk range ]" + offset
+                    + ", " + (offset + indexes.length - 1) + "]");
+        }
+        // dictionary is shared by both chunks
+        return new Split<>(new DictionaryStringArrayChunk(offset, dictionary, Arrays.copyOfRange(indexes, 0, splitIndex - offset)),
+                           new DictionaryStringArrayChunk(splitIndex, dictionary, Arrays.copyOfRange(indexes, splitIndex - offset, indexes.length)));
+    }
+
+    @Override
+    public Stream<StringPoint> stream(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return IntStream.range(0, indexes.length).mapToObj(i -> new StringPoint(offset + i, index.getTimeAt(offset + i), dictionary[indexes[i]]));
+    }
+
+    @Override
+    public Iterator<StringPoint> iterator(TimeSeriesIndex index) {
+        return stream(index).iterator();
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        Objects.requireNonNull(generator);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("offset", offset);
+            generator.writeFieldName("dictionary");
+            generator.writeStartArray();
+            for (String value : dictionary) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("indexes");
+            generator.writeArray(indexes, 0, indexes.length);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, Arrays.hashCode(dictionary), Arrays.hashCode(indexes));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof DictionaryStringArrayChunk) {
+            DictionaryStringArrayChunk other = (DictionaryStringArrayChunk) obj;
+            return offset == other.offset &&
+                    Arrays.equals(dictionary, other.dictionary) &&
+                    Arrays.equals(indexes, other.indexes);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.Objects;
+
+/**
+ * Accumulate steps of values according to an aggregation, in constant time per step.
+ *
+ * @author agent <agent at local>
+ */
+final class DoubleAccumulator {
+
+    private final DoubleAggregation aggregation;
+
+    private double min;
+
+    private double max;
+
+    private double sum;
+
+    private long count; // of non NaN values
+
+    DoubleAccumulator(DoubleAggregation aggregation) {
+        this.aggregation = Objects.requireNonNull(aggregation);
+        reset();
+    }
+
+    void reset() {
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        sum = 0;
+        count = 0;
+    }
+
+    void add(double value, int length) {
+        if (!Double.isNaN(value)) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value * length;
+            count += length;
+        }
+    }
+
+    double get() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        switch (aggregation) {
+            case MIN:
+                return min;
+            case MAX:
+                return max;
+            case SUM:
+                return sum;
+            case MEAN:
+                return sum / count;
+            default:
+                throw new AssertionError("Unexpected aggregation " + aggregation);
+        }
+    }
+}
@@ -4,17 +4,16 @@
  * License, v. 2.0. If a copy of the MPL was not distributed with this
  * file, You can obtain one at http://mozilla.org/MPL/2.0/.
  */
-package com.powsybl.afs.ws.utils;
-
-import org.junit.Test;
+package com.powsybl.timeseries;
 
 /**
- * @author Mathieu Bague <mathieu.bague at rte-france.com>
+ * Aggregation of double values, NaN values being ignored. Aggregation of only NaN values is NaN.
+ *
+ * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
-public class CodeCoverageTest {
-
-    @Test
-    public void testNothing() {
-        // TODO: remove this class once a real test has been added
-    }
+public enum DoubleAggregation {
+    MIN,
+    MAX,
+    SUM,
+    MEAN
 }
@@ -7,6 +7,8 @@
 package com.powsybl.timeseries;
 
 import java.nio.DoubleBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -14,4 +16,36 @@ import java.nio.DoubleBuffer;
 public interface DoubleArrayChunk extends ArrayChunk<DoublePoint, DoubleArrayChunk> {
 
     void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset);
+
+    /**
+     * Get an iterator over steps of consecutive points having the same value.
+     *
+     * @return a step iterator
+     */
+    default Iterator<DoubleStep> stepIterator() {
+        double[] values = new double[getLength()];
+        fillBuffer(DoubleBuffer.wrap(values), -getOffset());
+        return new Iterator<DoubleStep>() {
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < values.length;
+            }
+
+            @Override
+            public DoubleStep next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int start = i;
+                long bits = Double.doubleToLongBits(values[i]);
+                do {
+                    i++;
+                } while (i < values.length && Double.doubleToLongBits(values[i]) == bits);
+                return new DoubleStep(getOffset() + start, i - start, values[start]);
+            }
+        };
+    }
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+/**
+ * A double array chunk compression algorithm, to be used with
+ * {@link UncompressedDoubleArrayChunk#tryToCompress(DoubleArrayChunkCodec...)}.
+ *
+ * @author agent <agent at local>
+ */
+@FunctionalInterface
+public interface DoubleArrayChunkCodec {
+
+    DoubleArrayChunkCodec STEP = (offset, values) -> {
+        DoubleArrayChunk chunk = new UncompressedDoubleArrayChunk(offset, values).tryToCompress();
+        return chunk.isCompressed() ? chunk : null;
+    };
+
+    DoubleArrayChunkCodec XOR = XorDoubleArrayChunk::encode;
+
+    DoubleArrayChunkCodec DELTA_OF_DELTA = DeltaOfDeltaDoubleArrayChunk::encode;
+
+    /**
+     * Encode values.
+     *
+     * @param offset the chunk offset
+     * @param values the values to encode
+     * @return the encoded chunk or null if this codec cannot be used for these values
+     */
+    DoubleArrayChunk encode(int offset, double[] values);
+}
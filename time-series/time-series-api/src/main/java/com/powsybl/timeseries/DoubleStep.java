@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.Objects;
+
+/**
+ * A run of consecutive points of a double time series having the same value.
+ *
+ * @author agent <agent at local>
+ */
+public class DoubleStep {
+
+    private final int point;
+
+    private final int length;
+
+    private final double value;
+
+    public DoubleStep(int point, int length, double value) {
+        if (point < 0) {
+            throw new IllegalArgumentException("Bad point value " + point);
+        }
+        if (length < 1) {
+            throw new IllegalArgumentException("Bad length value " + length);
+        }
+        this.point = point;
+        this.length = length;
+        this.value = value;
+    }
+
+    /**
+     * Get index of the first point of the step.
+     */
+    public int getPoint() {
+        return point;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(point, length, value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof DoubleStep) {
+            DoubleStep other = (DoubleStep) obj;
+            return point == other.point && length == other.length
+                    && ((Double.isNaN(value) && Double.isNaN(other.value)) || value == other.value);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleStep(point=" + point + ", length=" + length + ", value=" + value + ")";
+    }
+}
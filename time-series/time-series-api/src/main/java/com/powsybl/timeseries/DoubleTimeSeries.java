@@ -6,8 +6,13 @@
  */
 package com.powsybl.timeseries;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
 import java.nio.DoubleBuffer;
 import java.util.*;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -20,6 +25,116 @@ public interface DoubleTimeSeries extends TimeSeries<DoublePoint, DoubleTimeSeri
 
     double[] toArray();
 
+    /**
+     * Get an iterator over steps of consecutive points having the same value, covering in order all the points of
+     * the index.
+     * <p>
+     * By default steps are built from {@link #iterator()}, a point keeping its value up to the next iterated point
+     * and points before the first iterated one being NaN. Implementations backed by chunks should iterate over the
+     * chunk steps instead.
+     */
+    default Iterator<DoubleStep> stepIterator() {
+        int pointCount = getMetadata().getIndex().getPointCount();
+        PeekingIterator<DoublePoint> it = Iterators.peekingIterator(iterator());
+        return new Iterator<DoubleStep>() {
+
+            // first point not yet covered by a step
+            private int point = 0;
+
+            private double value = Double.NaN;
+
+            @Override
+            public boolean hasNext() {
+                return point < pointCount;
+            }
+
+            @Override
+            public DoubleStep next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                while (it.hasNext() && it.peek().getIndex() <= point) {
+                    value = it.next().getValue();
+                }
+                // merge following points having the same value
+                long bits = Double.doubleToLongBits(value);
+                int end = pointCount;
+                while (it.hasNext()) {
+                    DoublePoint next = it.peek();
+                    if (Double.doubleToLongBits(next.getValue()) != bits) {
+                        end = Math.min(next.getIndex(), pointCount);
+                        break;
+                    }
+                    it.next();
+                }
+                int start = point;
+                point = end;
+                return new DoubleStep(start, end - start, value);
+            }
+        };
+    }
+
+    /**
+     * Lazily apply a function to each value.
+     */
+    default DoubleTimeSeries map(DoubleUnaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return new CalculatedDoubleTimeSeries(getMetadata(), () -> new MapDoubleStepOperator(stepIterator(), operator));
+    }
+
+    /**
+     * Lazily combine values with the ones of another time series having the same index.
+     */
+    default DoubleTimeSeries combine(DoubleTimeSeries other, DoubleBinaryOperator operator) {
+        Objects.requireNonNull(other);
+        Objects.requireNonNull(operator);
+        if (!getMetadata().getIndex().equals(other.getMetadata().getIndex())) {
+            throw new TimeSeriesException("Time series must have the same index");
+        }
+        return new CalculatedDoubleTimeSeries(getMetadata(), () -> new CombineDoubleStepOperator(stepIterator(), other.stepIterator(), operator));
+    }
+
+    default DoubleTimeSeries plus(DoubleTimeSeries other) {
+        return combine(other, (value1, value2) -> value1 + value2);
+    }
+
+    default DoubleTimeSeries minus(DoubleTimeSeries other) {
+        return combine(other, (value1, value2) -> value1 - value2);
+    }
+
+    default DoubleTimeSeries multiply(DoubleTimeSeries other) {
+        return combine(other, (value1, value2) -> value1 * value2);
+    }
+
+    default DoubleTimeSeries divide(DoubleTimeSeries other) {
+        return combine(other, (value1, value2) -> value1 / value2);
+    }
+
+    /**
+     * Lazily resample to a new index (for instance hourly to daily), each point of the new index aggregating the
+     * points of its period. In case of upsampling, points of the new index without any point in their period take
+     * the previous value.
+     */
+    default DoubleTimeSeries resample(TimeSeriesIndex newIndex, DoubleAggregation aggregation) {
+        Objects.requireNonNull(newIndex);
+        Objects.requireNonNull(aggregation);
+        TimeSeriesIndex index = getMetadata().getIndex();
+        TimeSeriesMetadata newMetadata = new TimeSeriesMetadata(getMetadata().getName(), TimeSeriesDataType.DOUBLE,
+                                                                getMetadata().getTags(), newIndex);
+        return new CalculatedDoubleTimeSeries(newMetadata, () -> new ResampleDoubleStepOperator(stepIterator(), index, newIndex, aggregation));
+    }
+
+    /**
+     * Lazily aggregate values over a sliding window of {@code windowSize} points ending at each point.
+     */
+    default DoubleTimeSeries rollingWindow(int windowSize, DoubleAggregation aggregation) {
+        Objects.requireNonNull(aggregation);
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Bad window size " + windowSize);
+        }
+        return new CalculatedDoubleTimeSeries(getMetadata(), () -> new RollingWindowDoubleStepOperator(stepIterator(), windowSize, aggregation));
+    }
+
     static Iterator<DoubleMultiPoint> iterator(List<DoubleTimeSeries> timeSeriesList) {
         Objects.requireNonNull(timeSeriesList);
 
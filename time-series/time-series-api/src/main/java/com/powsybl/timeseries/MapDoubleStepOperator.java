@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Apply a function to each value, once per step.
+ *
+ * @author agent <agent at local>
+ */
+class MapDoubleStepOperator extends AbstractDoubleStepOperator {
+
+    private final Iterator<DoubleStep> steps;
+
+    private final DoubleUnaryOperator operator;
+
+    MapDoubleStepOperator(Iterator<DoubleStep> steps, DoubleUnaryOperator operator) {
+        this.steps = Objects.requireNonNull(steps);
+        this.operator = Objects.requireNonNull(operator);
+    }
+
+    @Override
+    protected boolean processNextStep() {
+        if (!steps.hasNext()) {
+            return false;
+        }
+        DoubleStep step = steps.next();
+        emit(step.getPoint(), step.getLength(), operator.applyAsDouble(step.getValue()));
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Uncompressed double array chunk which is a read only view over a buffer, typically a memory mapped file region
+ * (see {@link MemoryMappedDoubleTimeSeriesStore}), so that values do not have to be loaded on the heap.
+ *
+ * @author agent <agent at local>
+ */
+public class MemoryMappedDoubleArrayChunk extends AbstractUncompressedArrayChunk implements DoubleArrayChunk {
+
+    private final DoubleBuffer values;
+
+    public MemoryMappedDoubleArrayChunk(int offset, DoubleBuffer values) {
+        super(offset);
+        Objects.requireNonNull(values);
+        this.values = slice(values, values.position(), values.limit()).asReadOnlyBuffer();
+    }
+
+    private static DoubleBuffer slice(DoubleBuffer buffer, int from, int to) {
+        DoubleBuffer duplicate = buffer.duplicate();
+        duplicate.limit(to);
+        duplicate.position(from);
+        return duplicate.slice();
+    }
+
+    public DoubleBuffer getValues() {
+        return values.duplicate();
+    }
+
+    @Override
+    public int getLength() {
+        return values.capacity();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return Double.BYTES * values.capacity();
+    }
+
+    @Override
+    public TimeSeriesDataType getDataType() {
+        return TimeSeriesDataType.DOUBLE;
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        // bulk copy, a plain memory copy when both buffers have the same byte order
+        DoubleBuffer target = buffer.duplicate();
+        target.position(timeSeriesOffset + offset);
+        target.put(values.duplicate());
+    }
+
+    private double[] toArray() {
+        double[] array = new double[values.capacity()];
+        values.duplicate().get(array);
+        return array;
+    }
+
+    @Override
+    public DoubleArrayChunk tryToCompress() {
+        DoubleArrayChunk chunk = new UncompressedDoubleArrayChunk(offset, toArray()).tryToCompress();
+        return chunk.isCompressed() ? chunk : this;
+    }
+
+    @Override
+    public Split<DoublePoint, DoubleArrayChunk> splitAt(int splitIndex) {
+        // split at offset is not allowed because it will result to a null left chunk
+        if (splitIndex <= offset || splitIndex > (offset + values.capacity() - 1)) {
+            throw new IllegalArgumentException("Split index " + splitIndex + " out of chunk range ]" + offset
+                    + ", " + (offset + values.capacity() - 1) + "]");
+        }
+        int length1 = splitIndex - offset;
+        return new Split<>(new MemoryMappedDoubleArrayChunk(offset, slice(values, 0, length1)),
+                           new MemoryMappedDoubleArrayChunk(splitIndex, slice(values, length1, values.capacity())));
+    }
+
+    @Override
+    public Stream<DoublePoint> stream(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return IntStream.range(0, values.capacity()).mapToObj(i -> new DoublePoint(offset + i, index.getTimeAt(offset + i), values.get(i)));
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return new Iterator<DoublePoint>() {
+
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < values.capacity();
+            }
+
+            @Override
+            public DoublePoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DoublePoint point = new DoublePoint(offset + i, index.getTimeAt(offset + i), values.get(i));
+                i++;
+                return point;
+            }
+        };
+    }
+
+    @Override
+    protected void writeValuesJson(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < values.capacity(); i++) {
+            generator.writeNumber(values.get(i));
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, values);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof MemoryMappedDoubleArrayChunk) {
+            MemoryMappedDoubleArrayChunk other = (MemoryMappedDoubleArrayChunk) obj;
+            return offset == other.offset && values.equals(other.values);
+        }
+        return false;
+    }
+}
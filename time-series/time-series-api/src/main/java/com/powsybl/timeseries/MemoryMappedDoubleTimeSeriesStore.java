@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.math.IntMath;
+import com.powsybl.commons.io.mmap.MemoryMappedFile;
+import com.powsybl.commons.io.mmap.MemoryMappedFileFactory;
+import com.powsybl.commons.io.mmap.MemoryMappedFileImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * On disk store of double time series. Each time series is written uncompressed in its own memory mapped file
+ * and read back as a {@link MemoryMappedDoubleArrayChunk}, so that time series do not have to fit on the heap
+ * and filling a {@link TimeSeriesTable} is a bulk memory copy.
+ * <p>
+ * Files are closed as soon as they are mapped (a mapping stays valid until its buffer is garbage collected), so the
+ * number of stored time series is not limited by the number of open file descriptors. A single mapping is limited
+ * to 2 GB, hence one file per time series.
+ *
+ * @author agent <agent at local>
+ */
+public class MemoryMappedDoubleTimeSeriesStore implements AutoCloseable {
+
+    private static final String FILE_EXTENSION = ".ts";
+
+    private final Path directory;
+
+    private final MemoryMappedFileFactory fileFactory;
+
+    private volatile boolean closed = false;
+
+    public MemoryMappedDoubleTimeSeriesStore(Path directory) {
+        this(directory, path -> new MemoryMappedFileImpl(path.toFile()));
+    }
+
+    public MemoryMappedDoubleTimeSeriesStore(Path directory, MemoryMappedFileFactory fileFactory) {
+        this.directory = Objects.requireNonNull(directory);
+        this.fileFactory = Objects.requireNonNull(fileFactory);
+    }
+
+    private Path getFile(String timeSeriesName) {
+        // time series name is encoded to get a valid file name
+        return directory.resolve(BaseEncoding.base32Hex().lowerCase().omitPadding()
+                .encode(timeSeriesName.getBytes(StandardCharsets.UTF_8)) + FILE_EXTENSION);
+    }
+
+    private DoubleBuffer map(TimeSeriesMetadata metadata, boolean create) {
+        if (closed) {
+            throw new IllegalStateException("Time series store is closed");
+        }
+        if (metadata.getDataType() != TimeSeriesDataType.DOUBLE) {
+            throw new TimeSeriesException("Time series '" + metadata.getName() + "' is not a double time series");
+        }
+        Path path = getFile(metadata.getName());
+        int size = IntMath.checkedMultiply(metadata.getIndex().getPointCount(), Double.BYTES);
+        try (MemoryMappedFile file = fileFactory.create(path)) {
+            if (!create) {
+                if (!file.exists()) {
+                    return null;
+                }
+                // mapping a file grows it if it is too small, so check its size to keep it untouched and give a
+                // meaningful error
+                long fileSize = Files.size(path);
+                if (fileSize < size) {
+                    throw new TimeSeriesException("Time series '" + metadata.getName() + "' file is too small ("
+                            + fileSize + " bytes, " + size + " expected)");
+                }
+            }
+            return file.getBuffer(size).asDoubleBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write a time series to the store.
+     *
+     * @param timeSeries the time series to write
+     * @return the same time series backed by the store
+     */
+    public StoredDoubleTimeSeries store(DoubleTimeSeries timeSeries) {
+        Objects.requireNonNull(timeSeries);
+        TimeSeriesMetadata metadata = timeSeries.getMetadata();
+        DoubleBuffer buffer = map(metadata, true);
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, Double.NaN);
+        }
+        timeSeries.fillBuffer(buffer, 0);
+        return new StoredDoubleTimeSeries(metadata, new MemoryMappedDoubleArrayChunk(0, buffer));
+    }
+
+    /**
+     * Get a time series previously written to the store.
+     *
+     * @param metadata the time series metadata
+     * @return the time series backed by the store or null if not found
+     */
+    public StoredDoubleTimeSeries get(TimeSeriesMetadata metadata) {
+        Objects.requireNonNull(metadata);
+        DoubleBuffer buffer = map(metadata, false);
+        return buffer != null ? new StoredDoubleTimeSeries(metadata, new MemoryMappedDoubleArrayChunk(0, buffer)) : null;
+    }
+
+    /**
+     * Close the store, time series previously returned stay readable until they are garbage collected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
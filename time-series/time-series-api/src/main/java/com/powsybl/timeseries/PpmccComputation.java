@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-threaded Pearson product-moment correlation coefficient computation over time series stored in a buffer.
+ * <p>
+ * Time series are grouped in blocks and each pair of blocks is processed by a task, point by point tiles of
+ * centered and scaled values being copied to local arrays so that inner loops stay in cache.
+ *
+ * @author agent <agent at local>
+ */
+final class PpmccComputation {
+
+    private static final int BLOCK_SIZE = 64; // time series per block
+
+    private static final int TILE_SIZE = 256; // points per tile
+
+    private final DoubleBuffer buffer;
+
+    private final int pointCount;
+
+    private final int[] offsets;
+
+    private final double[] means;
+
+    private final double[] stdDevs;
+
+    PpmccComputation(DoubleBuffer buffer, int pointCount, int[] offsets, double[] means, double[] stdDevs) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.pointCount = pointCount;
+        this.offsets = Objects.requireNonNull(offsets);
+        this.means = Objects.requireNonNull(means);
+        this.stdDevs = Objects.requireNonNull(stdDevs);
+    }
+
+    private int getTimeSeriesCount() {
+        return offsets.length;
+    }
+
+    /**
+     * Copy [pointStart, pointStart + length[ points of time series [first, first + count[ to the tile,
+     * centered and scaled.
+     */
+    private void fillTile(DoubleBuffer source, double[] tile, int first, int count, int pointStart, int length) {
+        for (int i = 0; i < count; i++) {
+            int timeSeriesNum = first + i;
+            source.position(offsets[timeSeriesNum] + pointStart);
+            source.get(tile, i * TILE_SIZE, length);
+            double mean = means[timeSeriesNum];
+            double stdDev = stdDevs[timeSeriesNum];
+            for (int p = i * TILE_SIZE; p < i * TILE_SIZE + length; p++) {
+                tile[p] = stdDev != 0 ? (tile[p] - mean) / stdDev : 0;
+            }
+        }
+    }
+
+    private double toPpmcc(int timeSeriesNum1, int timeSeriesNum2, double sum) {
+        double stdDev1 = stdDevs[timeSeriesNum1];
+        double stdDev2 = stdDevs[timeSeriesNum2];
+        if (stdDev1 == 0 || stdDev2 == 0) {
+            // constant time series are only correlated to other constant time series
+            return stdDev1 == 0 && stdDev2 == 0 ? 1 : 0;
+        }
+        return sum / (pointCount - 1);
+    }
+
+    private void computeBlockPair(int block1, int block2, TimeSeriesTable.PpmccHandler handler) {
+        int first1 = block1 * BLOCK_SIZE;
+        int count1 = Math.min(BLOCK_SIZE, getTimeSeriesCount() - first1);
+        int first2 = block2 * BLOCK_SIZE;
+        int count2 = Math.min(BLOCK_SIZE, getTimeSeriesCount() - first2);
+        boolean sameBlock = block1 == block2;
+
+        DoubleBuffer source = buffer.duplicate();
+        double[] tile1 = new double[count1 * TILE_SIZE];
+        double[] tile2 = sameBlock ? tile1 : new double[count2 * TILE_SIZE];
+        double[] sums = new double[count1 * count2];
+
+        for (int pointStart = 0; pointStart < pointCount; pointStart += TILE_SIZE) {
+            int length = Math.min(TILE_SIZE, pointCount - pointStart);
+            fillTile(source, tile1, first1, count1, pointStart, length);
+            if (!sameBlock) {
+                fillTile(source, tile2, first2, count2, pointStart, length);
+            }
+            for (int i = 0; i < count1; i++) {
+                int start1 = i * TILE_SIZE;
+                for (int j = sameBlock ? i + 1 : 0; j < count2; j++) {
+                    int start2 = j * TILE_SIZE;
+                    double sum = 0;
+                    for (int p = 0; p < length; p++) {
+                        sum += tile1[start1 + p] * tile2[start2 + p];
+                    }
+                    sums[i * count2 + j] += sum;
+                }
+            }
+        }
+
+        for (int i = 0; i < count1; i++) {
+            for (int j = sameBlock ? i + 1 : 0; j < count2; j++) {
+                handler.onPpmcc(first1 + i, first2 + j, toPpmcc(first1 + i, first2 + j, sums[i * count2 + j]));
+            }
+        }
+    }
+
+    /**
+     * Compute coefficient of all pairs of distinct time series. The handler is called concurrently by several
+     * threads, once per pair.
+     */
+    void computeAll(TimeSeriesTable.PpmccHandler handler) {
+        Objects.requireNonNull(handler);
+        int blockCount = (getTimeSeriesCount() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        List<int[]> blockPairs = new ArrayList<>(blockCount * (blockCount + 1) / 2);
+        for (int block1 = 0; block1 < blockCount; block1++) {
+            for (int block2 = block1; block2 < blockCount; block2++) {
+                blockPairs.add(new int[] {block1, block2});
+            }
+        }
+        blockPairs.parallelStream().forEach(blockPair -> computeBlockPair(blockPair[0], blockPair[1], handler));
+    }
+
+    /**
+     * Compute coefficient of one time series with all the others (itself included).
+     */
+    double[] computeRow(int timeSeriesNum1) {
+        double[] row1 = new double[pointCount];
+        DoubleBuffer source1 = buffer.duplicate();
+        source1.position(offsets[timeSeriesNum1]);
+        source1.get(row1);
+        double mean1 = means[timeSeriesNum1];
+        double stdDev1 = stdDevs[timeSeriesNum1];
+        if (stdDev1 != 0) {
+            for (int p = 0; p < pointCount; p++) {
+                row1[p] = (row1[p] - mean1) / stdDev1;
+            }
+        }
+
+        double[] r = new double[getTimeSeriesCount()];
+        IntStream.range(0, getTimeSeriesCount()).parallel().forEach(timeSeriesNum2 -> {
+            if (timeSeriesNum2 == timeSeriesNum1) {
+                r[timeSeriesNum2] = 1;
+            } else if (stdDev1 == 0 || stdDevs[timeSeriesNum2] == 0) {
+                r[timeSeriesNum2] = toPpmcc(timeSeriesNum1, timeSeriesNum2, 0);
+            } else {
+                DoubleBuffer source2 = buffer.duplicate();
+                double[] tile2 = new double[TILE_SIZE];
+                double sum = 0;
+                for (int pointStart = 0; pointStart < pointCount; pointStart += TILE_SIZE) {
+                    int length = Math.min(TILE_SIZE, pointCount - pointStart);
+                    fillTile(source2, tile2, timeSeriesNum2, 1, pointStart, length);
+                    for (int p = 0; p < length; p++) {
+                        sum += row1[pointStart + p] * tile2[p];
+                    }
+                }
+                r[timeSeriesNum2] = toPpmcc(timeSeriesNum1, timeSeriesNum2, sum);
+            }
+        });
+        return r;
+    }
+}
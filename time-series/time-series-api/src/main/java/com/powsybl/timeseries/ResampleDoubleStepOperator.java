@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Resample a time series to a new index. Point i of the new index aggregates source points whose time is in
+ * [t(i), t(i + 1)[, the last point covering the same duration as the previous one. A new point without any
+ * source point (upsampling) takes the value of the previous source point.
+ * <p>
+ * A source step is split only at buckets boundaries, found by binary search, so that resampling is done in
+ * O(steps * log(points)) and not in O(points).
+ *
+ * @author agent <agent at local>
+ */
+class ResampleDoubleStepOperator extends AbstractDoubleStepOperator {
+
+    private final Iterator<DoubleStep> steps;
+
+    private final TimeSeriesIndex sourceIndex;
+
+    private final TimeSeriesIndex newIndex;
+
+    private final DoubleAccumulator accumulator;
+
+    private int bucket;
+
+    private int bucketStart; // first source point of the bucket
+
+    private int bucketEnd; // first source point after the bucket
+
+    private int bucketPointCount;
+
+    private double lastValue = Double.NaN;
+
+    ResampleDoubleStepOperator(Iterator<DoubleStep> steps, TimeSeriesIndex sourceIndex, TimeSeriesIndex newIndex,
+                               DoubleAggregation aggregation) {
+        this.steps = Objects.requireNonNull(steps);
+        this.sourceIndex = Objects.requireNonNull(sourceIndex);
+        this.newIndex = Objects.requireNonNull(newIndex);
+        accumulator = new DoubleAccumulator(aggregation);
+        openBucket(0);
+    }
+
+    /**
+     * Index of first point whose time is greater or equal to the given one.
+     */
+    private static int findFirstPointAtOrAfter(TimeSeriesIndex index, long time) {
+        int low = 0;
+        int high = index.getPointCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getTimeAt(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void openBucket(int newBucket) {
+        bucket = newBucket;
+        bucketStart = findFirstPointAtOrAfter(sourceIndex, newIndex.getTimeAt(bucket));
+        int newPointCount = newIndex.getPointCount();
+        if (bucket < newPointCount - 1) {
+            bucketEnd = findFirstPointAtOrAfter(sourceIndex, newIndex.getTimeAt(bucket + 1));
+        } else if (newPointCount > 1) {
+            long lastSpacing = newIndex.getTimeAt(bucket) - newIndex.getTimeAt(bucket - 1);
+            bucketEnd = findFirstPointAtOrAfter(sourceIndex, newIndex.getTimeAt(bucket) + lastSpacing);
+        } else {
+            bucketEnd = sourceIndex.getPointCount();
+        }
+        accumulator.reset();
+        bucketPointCount = 0;
+    }
+
+    private void closeBucket() {
+        emit(bucket, 1, bucketPointCount > 0 ? accumulator.get() : lastValue);
+    }
+
+    @Override
+    protected boolean processNextStep() {
+        if (bucket >= newIndex.getPointCount() || !steps.hasNext()) {
+            return false;
+        }
+        DoubleStep step = steps.next();
+        double value = step.getValue();
+        int point = step.getPoint();
+        int end = point + step.getLength();
+        while (point < end) {
+            if (point < bucketStart) {
+                // before first bucket
+                int length = Math.min(end, bucketStart) - point;
+                lastValue = value;
+                point += length;
+            } else if (point >= bucketEnd) {
+                closeBucket();
+                if (bucket == newIndex.getPointCount() - 1) {
+                    bucket++;
+                    break;
+                }
+                // jump to the bucket of the point, buckets in between are empty
+                int newBucket = findFirstPointAtOrAfter(newIndex, sourceIndex.getTimeAt(point) + 1) - 1;
+                emit(bucket + 1, newBucket - bucket - 1, lastValue);
+                openBucket(newBucket);
+            } else {
+                int length = Math.min(end, bucketEnd) - point;
+                accumulator.add(value, length);
+                bucketPointCount += length;
+                lastValue = value;
+                point += length;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void finish() {
+        if (bucket < newIndex.getPointCount()) {
+            closeBucket();
+            emit(bucket + 1, newIndex.getPointCount() - bucket - 1, lastValue);
+        }
+    }
+}
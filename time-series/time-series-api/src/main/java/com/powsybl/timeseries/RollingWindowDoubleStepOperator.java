@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Aggregate values over a sliding window of points ending at each point (the window is truncated at the beginning
+ * of the time series).
+ * <p>
+ * Sum is maintained incrementally and min or max using a monotonic queue, so that the cost per point is constant.
+ * Moreover, as soon as the window is fully included in a step, the result is constant until the end of the step and
+ * remaining points of the step are skipped.
+ *
+ * @author agent <agent at local>
+ */
+class RollingWindowDoubleStepOperator extends AbstractDoubleStepOperator {
+
+    private static final class Run {
+
+        private final double value;
+
+        private int start;
+
+        private int end;
+
+        private Run(double value, int start, int end) {
+            this.value = value;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final Iterator<DoubleStep> steps;
+
+    private final int windowSize;
+
+    private final DoubleAggregation aggregation;
+
+    private final Deque<Run> windowRuns = new ArrayDeque<>();
+
+    private final Deque<Run> extremumRuns = new ArrayDeque<>(); // monotonic, for min and max only
+
+    private double sum = 0;
+
+    private int count = 0; // of non NaN values
+
+    RollingWindowDoubleStepOperator(Iterator<DoubleStep> steps, int windowSize, DoubleAggregation aggregation) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Bad window size " + windowSize);
+        }
+        this.steps = Objects.requireNonNull(steps);
+        this.windowSize = windowSize;
+        this.aggregation = Objects.requireNonNull(aggregation);
+    }
+
+    private boolean isDominated(double value, double newValue) {
+        return aggregation == DoubleAggregation.MIN ? value > newValue : value < newValue;
+    }
+
+    private void addPoint(int point, double value) {
+        Run last = windowRuns.peekLast();
+        if (last != null && last.end == point && Double.doubleToLongBits(last.value) == Double.doubleToLongBits(value)) {
+            last.end++;
+        } else {
+            windowRuns.add(new Run(value, point, point + 1));
+        }
+        if (!Double.isNaN(value)) {
+            sum += value;
+            count++;
+            if (aggregation == DoubleAggregation.MIN || aggregation == DoubleAggregation.MAX) {
+                while (!extremumRuns.isEmpty() && isDominated(extremumRuns.peekLast().value, value)) {
+                    extremumRuns.pollLast();
+                }
+                Run lastExtremum = extremumRuns.peekLast();
+                if (lastExtremum != null && lastExtremum.value == value) {
+                    lastExtremum.end = point + 1;
+                } else {
+                    extremumRuns.add(new Run(value, point, point + 1));
+                }
+            }
+        }
+    }
+
+    private void removePointsBefore(int windowStart) {
+        while (!windowRuns.isEmpty() && windowRuns.peekFirst().start < windowStart) {
+            Run first = windowRuns.peekFirst();
+            int length = Math.min(first.end, windowStart) - first.start;
+            if (!Double.isNaN(first.value)) {
+                sum -= first.value * length;
+                count -= length;
+            }
+            first.start += length;
+            if (first.start == first.end) {
+                windowRuns.pollFirst();
+            }
+        }
+        while (!extremumRuns.isEmpty() && extremumRuns.peekFirst().end <= windowStart) {
+            extremumRuns.pollFirst();
+        }
+    }
+
+    private double getResult() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        switch (aggregation) {
+            case MIN:
+            case MAX:
+                return extremumRuns.peekFirst().value;
+            case SUM:
+                return sum;
+            case MEAN:
+                return sum / count;
+            default:
+                throw new AssertionError("Unexpected aggregation " + aggregation);
+        }
+    }
+
+    private double getUniformResult(double value) {
+        return aggregation == DoubleAggregation.SUM ? value * windowSize : value;
+    }
+
+    private void resetToUniformWindow(int end, double value) {
+        windowRuns.clear();
+        extremumRuns.clear();
+        windowRuns.add(new Run(value, end - windowSize, end));
+        if (Double.isNaN(value)) {
+            sum = 0;
+            count = 0;
+        } else {
+            sum = value * windowSize;
+            count = windowSize;
+            extremumRuns.add(new Run(value, end - windowSize, end));
+        }
+    }
+
+    @Override
+    protected boolean processNextStep() {
+        if (!steps.hasNext()) {
+            return false;
+        }
+        DoubleStep step = steps.next();
+        double value = step.getValue();
+        int end = step.getPoint() + step.getLength();
+        // window is not fully included in the step for the first points
+        int uniformStart = step.getPoint() + windowSize - 1;
+        for (int point = step.getPoint(); point < Math.min(end, uniformStart); point++) {
+            addPoint(point, value);
+            removePointsBefore(point - windowSize + 1);
+            emit(point, 1, getResult());
+        }
+        if (uniformStart < end) {
+            emit(uniformStart, end - uniformStart, getUniformResult(value));
+            resetToUniformWindow(end, value);
+        }
+        return true;
+    }
+}
@@ -6,7 +6,10 @@
  */
 package com.powsybl.timeseries;
 
+import com.google.common.collect.Iterators;
+
 import java.nio.DoubleBuffer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -59,4 +62,9 @@ public class StoredDoubleTimeSeries extends AbstractTimeSeries<DoublePoint, Doub
         fillBuffer(buffer, 0);
         return buffer.array();
     }
+
+    @Override
+    public Iterator<DoubleStep> stepIterator() {
+        return Iterators.concat(getCheckedChunks(true).stream().map(DoubleArrayChunk::stepIterator).iterator());
+    }
 }
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+/**
+ * A string array chunk compression algorithm, to be used with
+ * {@link UncompressedStringArrayChunk#tryToCompress(StringArrayChunkCodec...)}.
+ *
+ * @author agent <agent at local>
+ */
+@FunctionalInterface
+public interface StringArrayChunkCodec {
+
+    StringArrayChunkCodec STEP = (offset, values) -> {
+        StringArrayChunk chunk = new UncompressedStringArrayChunk(offset, values).tryToCompress();
+        return chunk.isCompressed() ? chunk : null;
+    };
+
+    StringArrayChunkCodec DICTIONARY = DictionaryStringArrayChunk::encode;
+
+    /**
+     * Encode values.
+     *
+     * @param offset the chunk offset
+     * @param values the values to encode
+     * @return the encoded chunk or null if this codec cannot be used for these values
+     */
+    StringArrayChunk encode(int offset, String[] values);
+}
@@ -17,8 +17,6 @@ import org.slf4j.LoggerFactory;
 import org.threeten.extra.Interval;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.ZonedDateTime;
@@ -85,11 +83,22 @@ public interface TimeSeries<P extends AbstractPoint, T extends TimeSeries<P, T>>
     }
 
     static Map<Integer, List<TimeSeries>> parseCsv(Path file, char separator) {
-        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-            return parseCsv(reader, separator);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        Objects.requireNonNull(file);
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+
+        // file is memory mapped and parsed in parallel, each version being loaded in a single chunk
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion;
+        try (TimeSeriesCsvParser parser = new TimeSeriesCsvParser(file, separator, Integer.MAX_VALUE)) {
+            timeSeriesPerVersion = parser.parseAll();
         }
+
+        LoggerFactory.getLogger(TimeSeries.class)
+                .info("{} time series loaded from CSV in {} ms",
+                timeSeriesPerVersion.entrySet().stream().mapToInt(e -> e.getValue().size()).sum(),
+                stopwatch.elapsed(TimeUnit.MILLISECONDS));
+
+        return timeSeriesPerVersion;
     }
 
     static double parseDouble(String token) {
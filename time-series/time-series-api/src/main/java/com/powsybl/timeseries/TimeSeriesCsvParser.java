@@ -0,0 +1,630 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.google.common.primitives.Doubles;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Chunked time series CSV parser, same format as {@link TimeSeries#parseCsv(Path, char)}.
+ * <p>
+ * The file is memory mapped and split in segments at line boundaries, segments being parsed concurrently on the
+ * common fork-join pool into primitive column buffers. Parsed rows are then gathered in order and emitted as
+ * {@link ChunkGroup}, one array chunk of at most {@code chunkSize} points per time series. Only a bounded number
+ * of segments are in memory at the same time, so that chunks can be pushed to a storage as they are parsed without
+ * having to load the whole file.
+ * <p>
+ * Time series index is deduced from the first two rows and the last one, and each row time is checked to be
+ * consistent with it. Data type of each time series is deduced from the first row.
+ *
+ * @author agent <agent at local>
+ */
+public class TimeSeriesCsvParser implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024; // 16 MB
+
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    /**
+     * Chunks of all time series for a range of points of a given version.
+     */
+    public static class ChunkGroup {
+
+        private final int version;
+
+        private final int offset;
+
+        private final int length;
+
+        private final Map<String, DoubleArrayChunk> doubleChunks;
+
+        private final Map<String, StringArrayChunk> stringChunks;
+
+        ChunkGroup(int version, int offset, int length, Map<String, DoubleArrayChunk> doubleChunks,
+                   Map<String, StringArrayChunk> stringChunks) {
+            this.version = version;
+            this.offset = offset;
+            this.length = length;
+            this.doubleChunks = Objects.requireNonNull(doubleChunks);
+            this.stringChunks = Objects.requireNonNull(stringChunks);
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public Map<String, DoubleArrayChunk> getDoubleChunks() {
+            return doubleChunks;
+        }
+
+        public Map<String, StringArrayChunk> getStringChunks() {
+            return stringChunks;
+        }
+    }
+
+    /**
+     * Rows of a segment, stored by column.
+     */
+    private static final class Segment {
+
+        private final TIntArrayList versions = new TIntArrayList();
+
+        private final TLongArrayList times = new TLongArrayList();
+
+        private final Object[] columns;
+
+        private Segment(TimeSeriesDataType[] dataTypes) {
+            columns = new Object[dataTypes.length];
+            for (int i = 0; i < dataTypes.length; i++) {
+                columns[i] = dataTypes[i] == TimeSeriesDataType.DOUBLE ? new TDoubleArrayList() : new ArrayList<String>();
+            }
+        }
+
+        private int getRowCount() {
+            return versions.size();
+        }
+    }
+
+    private final FileChannel channel;
+
+    private final long fileSize;
+
+    private final char separator;
+
+    private final int chunkSize;
+
+    private final int segmentSize;
+
+    private final List<TimeSeriesMetadata> metadataList;
+
+    private final TimeSeriesDataType[] dataTypes;
+
+    private final long dataStart;
+
+    private final Deque<ForkJoinTask<Segment>> pendingSegments = new ArrayDeque<>();
+
+    public TimeSeriesCsvParser(Path file) {
+        this(file, TimeSeriesConstants.DEFAULT_SEPARATOR, DEFAULT_CHUNK_SIZE);
+    }
+
+    public TimeSeriesCsvParser(Path file, char separator, int chunkSize) {
+        this(file, separator, chunkSize, DEFAULT_SEGMENT_SIZE);
+    }
+
+    TimeSeriesCsvParser(Path file, char separator, int chunkSize, int segmentSize) {
+        Objects.requireNonNull(file);
+        if (separator > 0x7F) {
+            throw new IllegalArgumentException("Separator has to be an ASCII character");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Bad chunk size " + chunkSize);
+        }
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Bad segment size " + segmentSize);
+        }
+        this.separator = separator;
+        this.chunkSize = chunkSize;
+        this.segmentSize = segmentSize;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                fileSize = channel.size();
+
+                // header
+                dataStart = findNextLineStart(1);
+                List<String> names = readHeader(readLine(0, dataStart));
+
+                // first rows give data types and time spacing, last row gives end time
+                long secondLineStart = findNextLineStart(dataStart + 1);
+                String[] firstRow = checkRow(readLine(dataStart, secondLineStart), names.size());
+                String[] secondRow = checkRow(readLine(secondLineStart, findNextLineStart(secondLineStart + 1)), names.size());
+                String[] lastRow = checkRow(readLastLine(), names.size());
+                if (firstRow == null || secondRow == null || !firstRow[1].equals(secondRow[1])) {
+                    throw new TimeSeriesException("At least 2 rows are expected");
+                }
+                long startTime = parseTime(firstRow[0]);
+                long spacing = parseTime(secondRow[0]) - startTime;
+                long endTime = parseTime(lastRow[0]);
+                if (spacing <= 0 || (endTime - startTime) % spacing != 0) {
+                    throw new TimeSeriesException("Time spacing has to be regular");
+                }
+                TimeSeriesIndex index = new RegularTimeSeriesIndex(startTime, endTime, spacing);
+
+                dataTypes = new TimeSeriesDataType[names.size()];
+                metadataList = new ArrayList<>(names.size());
+                for (int i = 0; i < names.size(); i++) {
+                    // same rule as TimeSeries.parseCsv, in case of double parsing error it is a string time series
+                    dataTypes[i] = Doubles.tryParse(firstRow[i + 2]) != null ? TimeSeriesDataType.DOUBLE : TimeSeriesDataType.STRING;
+                    metadataList.add(new TimeSeriesMetadata(names.get(i), dataTypes[i], index));
+                }
+            } catch (Exception e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> readHeader(String line) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new StringReader(line))) {
+            return TimeSeries.readCsvHeader(reader, Character.toString(separator)).names;
+        }
+    }
+
+    private static long parseTime(String token) {
+        return ZonedDateTime.parse(token).toInstant().toEpochMilli();
+    }
+
+    private String[] checkRow(String line, int nameCount) {
+        if (line.isEmpty()) {
+            return null;
+        }
+        String[] tokens = new String[nameCount + 2];
+        int tokenCount = 0;
+        int start = 0;
+        while (true) {
+            int end = line.indexOf(separator, start);
+            if (tokenCount == tokens.length) {
+                throw new TimeSeriesException("Columns of line '" + line + "' are inconsistent with header");
+            }
+            tokens[tokenCount++] = (end == -1 ? line.substring(start) : line.substring(start, end)).trim();
+            if (end == -1) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (tokenCount != tokens.length) {
+            throw new TimeSeriesException("Columns of line '" + line + "' are inconsistent with header");
+        }
+        return tokens;
+    }
+
+    /**
+     * Position of the first line starting at or after {@code position}.
+     */
+    private long findNextLineStart(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long p = position - 1;
+        while (p < fileSize) {
+            buffer.clear();
+            int n = channel.read(buffer, p);
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += n;
+        }
+        return fileSize;
+    }
+
+    private String readLine(long start, long end) throws IOException {
+        if (start >= end) {
+            return "";
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) == -1) {
+                break;
+            }
+        }
+        int length = buffer.position();
+        while (length > 0 && (buffer.get(length - 1) == '\n' || buffer.get(length - 1) == '\r')) {
+            length--;
+        }
+        return new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String readLastLine() throws IOException {
+        // skip trailing line separators and blank lines
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long end = fileSize;
+        while (end > dataStart) {
+            long blockStart = Math.max(dataStart, end - READ_BUFFER_SIZE);
+            buffer.clear();
+            buffer.limit((int) (end - blockStart));
+            channel.read(buffer, blockStart);
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                byte b = buffer.get(i);
+                if (b != '\n' && b != '\r') {
+                    long lastLineEnd = blockStart + i + 1;
+                    return readLine(findLineStartBackward(lastLineEnd), lastLineEnd);
+                }
+            }
+            end = blockStart;
+        }
+        return "";
+    }
+
+    private long findLineStartBackward(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long end = position;
+        while (end > dataStart) {
+            long blockStart = Math.max(dataStart, end - READ_BUFFER_SIZE);
+            buffer.clear();
+            buffer.limit((int) (end - blockStart));
+            channel.read(buffer, blockStart);
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return blockStart + i + 1;
+                }
+            }
+            end = blockStart;
+        }
+        return dataStart;
+    }
+
+    public List<TimeSeriesMetadata> getMetadata() {
+        return Collections.unmodifiableList(metadataList);
+    }
+
+    public TimeSeriesIndex getIndex() {
+        return metadataList.get(0).getIndex();
+    }
+
+    private static int trimStart(byte[] bytes, int start, int end) {
+        int i = start;
+        while (i < end && (bytes[i] & 0xFF) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(byte[] bytes, int start, int end) {
+        int i = end;
+        while (i > start && (bytes[i - 1] & 0xFF) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+
+    private void parseRow(byte[] line, int length, long position, Segment segment) {
+        int column = -2;
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || line[i] == separator) {
+                if (column == dataTypes.length) {
+                    throw new TimeSeriesException("Columns of line at position " + position + " are inconsistent with header");
+                }
+                int tokenStart = trimStart(line, start, i);
+                int tokenEnd = trimEnd(line, tokenStart, i);
+                int tokenLength = tokenEnd - tokenStart;
+                if (column == -2) {
+                    segment.times.add(parseTime(new String(line, tokenStart, tokenLength, StandardCharsets.US_ASCII)));
+                } else if (column == -1) {
+                    segment.versions.add(TimeSeriesIndex.checkVersion(Integer.parseInt(new String(line, tokenStart, tokenLength, StandardCharsets.US_ASCII))));
+                } else if (dataTypes[column] == TimeSeriesDataType.DOUBLE) {
+                    double value;
+                    try {
+                        value = tokenLength == 0 ? Double.NaN
+                                                 : Double.parseDouble(new String(line, tokenStart, tokenLength, StandardCharsets.US_ASCII));
+                    } catch (NumberFormatException e) {
+                        throw new TimeSeriesException("Bad double value of time series '" + metadataList.get(column).getName()
+                                + "' at position " + position);
+                    }
+                    ((TDoubleArrayList) segment.columns[column]).add(value);
+                } else {
+                    ((List<String>) segment.columns[column]).add(tokenLength == 0 ? null : new String(line, tokenStart, tokenLength, StandardCharsets.UTF_8));
+                }
+                column++;
+                start = i + 1;
+            }
+        }
+        if (column != dataTypes.length) {
+            throw new TimeSeriesException("Columns of line at position " + position + " are inconsistent with header");
+        }
+    }
+
+    private Segment parseSegment(long start, long end) throws IOException {
+        Segment segment = new Segment(dataTypes);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        byte[] line = new byte[256];
+        int length = 0;
+        int lineStart = 0;
+        for (int i = 0; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+                if (length > 0) {
+                    parseRow(line, length, start + lineStart, segment);
+                }
+                length = 0;
+                lineStart = i + 1;
+            } else {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length > 0) {
+            parseRow(line, length, start + lineStart, segment);
+        }
+        return segment;
+    }
+
+    private static Segment join(ForkJoinTask<Segment> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+
+    /**
+     * Gather segments rows in order and cut them into chunk groups.
+     */
+    private final class ChunkGroupIterator implements Iterator<ChunkGroup> {
+
+        private final int maxPendingSegments = ForkJoinPool.commonPool().getParallelism() + 1;
+
+        private final TimeSeriesIndex index = getIndex();
+
+        private final int bufferSize = Math.min(chunkSize, index.getPointCount());
+
+        private final Object[] buffers = new Object[dataTypes.length];
+
+        private final Deque<ChunkGroup> readyGroups = new ArrayDeque<>();
+
+        private final Set<Integer> versions = new HashSet<>();
+
+        private long nextSegmentStart = dataStart;
+
+        private int version = -1;
+
+        private int point = 0; // next point of current version
+
+        private int bufferOffset = 0;
+
+        private int bufferLength = 0;
+
+        private ChunkGroupIterator() {
+            for (int i = 0; i < dataTypes.length; i++) {
+                buffers[i] = dataTypes[i] == TimeSeriesDataType.DOUBLE ? new double[bufferSize] : new String[bufferSize];
+            }
+        }
+
+        private void submitSegments() throws IOException {
+            while (pendingSegments.size() < maxPendingSegments && nextSegmentStart < fileSize) {
+                long start = nextSegmentStart;
+                long end = findNextLineStart(Math.min(start + segmentSize, fileSize));
+                pendingSegments.add(ForkJoinPool.commonPool().submit(() -> parseSegment(start, end)));
+                nextSegmentStart = end;
+            }
+        }
+
+        private void flush() {
+            if (bufferLength == 0) {
+                return;
+            }
+            Map<String, DoubleArrayChunk> doubleChunks = new HashMap<>();
+            Map<String, StringArrayChunk> stringChunks = new HashMap<>();
+            ArrayChunk[] chunks = new ArrayChunk[dataTypes.length];
+            IntStream.range(0, dataTypes.length).parallel().forEach(i -> {
+                if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                    double[] values = Arrays.copyOf((double[]) buffers[i], bufferLength);
+                    chunks[i] = new UncompressedDoubleArrayChunk(bufferOffset, values).tryToCompress();
+                } else {
+                    String[] values = Arrays.copyOf((String[]) buffers[i], bufferLength);
+                    chunks[i] = new UncompressedStringArrayChunk(bufferOffset, values).tryToCompress();
+                }
+            });
+            for (int i = 0; i < dataTypes.length; i++) {
+                String name = metadataList.get(i).getName();
+                if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                    doubleChunks.put(name, (DoubleArrayChunk) chunks[i]);
+                } else {
+                    stringChunks.put(name, (StringArrayChunk) chunks[i]);
+                }
+            }
+            readyGroups.add(new ChunkGroup(version, bufferOffset, bufferLength, doubleChunks, stringChunks));
+            bufferOffset += bufferLength;
+            bufferLength = 0;
+        }
+
+        private void endVersion() {
+            flush();
+            if (point != index.getPointCount()) {
+                throw new TimeSeriesException("All version of the data must have the same index, version " + version
+                        + " has " + point + " points instead of " + index.getPointCount());
+            }
+        }
+
+        private void startVersion(int newVersion) {
+            if (!versions.add(newVersion)) {
+                throw new TimeSeriesException("Rows of version " + newVersion + " are not contiguous");
+            }
+            version = newVersion;
+            point = 0;
+            bufferOffset = 0;
+            bufferLength = 0;
+        }
+
+        private void gather(Segment segment) {
+            int row = 0;
+            while (row < segment.getRowCount()) {
+                if (segment.versions.get(row) != version) {
+                    if (version != -1) {
+                        endVersion();
+                    }
+                    startVersion(segment.versions.get(row));
+                }
+
+                // largest run of rows of same version fitting in the buffer
+                int runLength = 0;
+                while (row + runLength < segment.getRowCount()
+                        && bufferLength + runLength < bufferSize
+                        && segment.versions.get(row + runLength) == version) {
+                    if (point + runLength >= index.getPointCount()
+                            || segment.times.get(row + runLength) != index.getTimeAt(point + runLength)) {
+                        throw new TimeSeriesException("Time spacing has to be regular, unexpected time "
+                                + segment.times.get(row + runLength) + " at point " + (point + runLength) + " of version " + version);
+                    }
+                    runLength++;
+                }
+
+                for (int i = 0; i < dataTypes.length; i++) {
+                    if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                        ((TDoubleArrayList) segment.columns[i]).toArray((double[]) buffers[i], row, bufferLength, runLength);
+                    } else {
+                        List<String> values = (List<String>) segment.columns[i];
+                        for (int j = 0; j < runLength; j++) {
+                            ((String[]) buffers[i])[bufferLength + j] = values.get(row + j);
+                        }
+                    }
+                }
+                row += runLength;
+                point += runLength;
+                bufferLength += runLength;
+                if (bufferLength == bufferSize) {
+                    flush();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (readyGroups.isEmpty() && (!pendingSegments.isEmpty() || nextSegmentStart < fileSize)) {
+                    submitSegments();
+                    gather(join(pendingSegments.poll()));
+                    if (pendingSegments.isEmpty() && nextSegmentStart >= fileSize) {
+                        endVersion();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return !readyGroups.isEmpty();
+        }
+
+        @Override
+        public ChunkGroup next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return readyGroups.poll();
+        }
+    }
+
+    /**
+     * Stream of chunk groups in file order. Segments are parsed in advance in background, so that the consumer
+     * should be able to process a chunk group while next ones are being parsed.
+     */
+    public Stream<ChunkGroup> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ChunkGroupIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Parse the whole file.
+     *
+     * @return time series by version
+     */
+    public Map<Integer, List<TimeSeries>> parseAll() {
+        Map<Integer, List<List<ArrayChunk>>> chunksPerVersion = new HashMap<>();
+        stream().forEach(group -> {
+            List<List<ArrayChunk>> chunks = chunksPerVersion.computeIfAbsent(group.getVersion(), v -> {
+                List<List<ArrayChunk>> l = new ArrayList<>(metadataList.size());
+                for (int i = 0; i < metadataList.size(); i++) {
+                    l.add(new ArrayList<>());
+                }
+                return l;
+            });
+            for (int i = 0; i < metadataList.size(); i++) {
+                String name = metadataList.get(i).getName();
+                chunks.get(i).add(dataTypes[i] == TimeSeriesDataType.DOUBLE ? group.getDoubleChunks().get(name)
+                                                                            : group.getStringChunks().get(name));
+            }
+        });
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion = new HashMap<>();
+        chunksPerVersion.forEach((version, chunks) -> {
+            List<TimeSeries> timeSeriesList = new ArrayList<>(metadataList.size());
+            for (int i = 0; i < metadataList.size(); i++) {
+                TimeSeriesMetadata metadata = metadataList.get(i);
+                if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                    timeSeriesList.add(new StoredDoubleTimeSeries(metadata, (List) chunks.get(i)));
+                } else {
+                    timeSeriesList.add(new StringTimeSeries(metadata, (List) chunks.get(i)));
+                }
+            }
+            timeSeriesPerVersion.put(version, timeSeriesList);
+        });
+        return timeSeriesPerVersion;
+    }
+
+    @Override
+    public void close() {
+        pendingSegments.forEach(task -> task.cancel(true));
+        pendingSegments.clear();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
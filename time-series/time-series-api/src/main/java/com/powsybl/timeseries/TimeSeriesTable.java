@@ -16,14 +16,18 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -56,6 +60,12 @@ public class TimeSeriesTable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TimeSeriesTable.class);
 
+    private static final int CSV_BLOCK_SIZE = 1024 * 1024; // in bytes
+
+    private static final int CSV_ESTIMATED_TIME_SIZE = 32; // in bytes
+
+    private static final int CSV_ESTIMATED_VALUE_SIZE = 12; // in bytes
+
     public class Correlation {
 
         private final String timeSeriesName1;
@@ -87,6 +97,15 @@ public class TimeSeriesTable {
         }
     }
 
+    /**
+     * Pearson product-moment correlation coefficient computation results handler.
+     */
+    @FunctionalInterface
+    public interface PpmccHandler {
+
+        void onPpmcc(int timeSeriesNum1, int timeSeriesNum2, double ppmcc);
+    }
+
     private class TimeSeriesNameMap {
 
         private final BiList<String> names = new BiList<>();
@@ -457,44 +476,27 @@ public class TimeSeriesTable {
                 .collect(Collectors.toList());
     }
 
-    private void computeConstantTimeSeriesPpmcc(double[] r, int version) {
-        for (int timeSeriesNum2 = 0; timeSeriesNum2 < doubleTimeSeriesNames.size(); timeSeriesNum2++) {
-            int statisticsIndex2 = getStatisticsIndex(version, timeSeriesNum2);
-            double stdDev2 = stdDevs[statisticsIndex2];
-
-            // time series 1 is correlated to other constant time series
-            r[timeSeriesNum2] = stdDev2 == 0 ? 1 : 0;
-        }
-    }
-
-    private void computeVariableTimeSeriesPpmcc(double[] r, int timeSeriesNum1, int statisticsIndex1, double stdDev1,
-                                                int version) {
-        double mean1 = means[statisticsIndex1];
-
-        for (int timeSeriesNum2 = 0; timeSeriesNum2 < doubleTimeSeriesNames.size(); timeSeriesNum2++) {
-            if (timeSeriesNum2 == timeSeriesNum1) {
-                r[timeSeriesNum2] = 1;
-            } else {
-                int statisticsIndex2 = getStatisticsIndex(version, timeSeriesNum2);
-                double stdDev2 = stdDevs[statisticsIndex2];
-
-                r[timeSeriesNum2] = 0;
-
-                if (stdDev2 != 0) {
-                    double mean2 = means[statisticsIndex2];
+    private PpmccComputation createPpmccComputation(int version) {
+        int timeSeriesCount = doubleTimeSeriesNames.size();
+        int[] offsets = new int[timeSeriesCount];
+        double[] versionMeans = new double[timeSeriesCount];
+        double[] versionStdDevs = new double[timeSeriesCount];
 
-                    int timeSeriesOffset1 = getTimeSeriesOffset(version, timeSeriesNum1);
-                    int timeSeriesOffset2 = getTimeSeriesOffset(version, timeSeriesNum2);
+        statsLock.lock();
+        try {
+            updateStatistics(version);
 
-                    for (int point = 0; point < tableIndex.getPointCount(); point++) {
-                        double value1 = doubleBuffer.get(timeSeriesOffset1 + point);
-                        double value2 = doubleBuffer.get(timeSeriesOffset2 + point);
-                        r[timeSeriesNum2] += (value1 - mean1) / stdDev1 * (value2 - mean2) / stdDev2;
-                    }
-                    r[timeSeriesNum2] /= tableIndex.getPointCount() - 1;
-                }
+            for (int timeSeriesNum = 0; timeSeriesNum < timeSeriesCount; timeSeriesNum++) {
+                int statisticsIndex = getStatisticsIndex(version, timeSeriesNum);
+                offsets[timeSeriesNum] = getTimeSeriesOffset(version, timeSeriesNum);
+                versionMeans[timeSeriesNum] = means[statisticsIndex];
+                versionStdDevs[timeSeriesNum] = stdDevs[statisticsIndex];
             }
+        } finally {
+            statsLock.unlock();
         }
+
+        return new PpmccComputation(doubleBuffer, tableIndex.getPointCount(), offsets, versionMeans, versionStdDevs);
     }
 
     public double[] computePpmcc(String timeSeriesName, int version) {
@@ -503,43 +505,108 @@ public class TimeSeriesTable {
 
         Stopwatch stopWatch = Stopwatch.createStarted();
 
-        double[] r = new double[doubleTimeSeriesNames.size()];
-
-        statsLock.lock();
-        try {
-            updateStatistics(version);
-
-            int statisticsIndex1 = getStatisticsIndex(version, timeSeriesNum1);
-            double stdDev1 = stdDevs[statisticsIndex1];
-
-            if (stdDev1 == 0) { // constant time series
-                computeConstantTimeSeriesPpmcc(r, version);
-            } else {
-                computeVariableTimeSeriesPpmcc(r, timeSeriesNum1, statisticsIndex1, stdDev1, version);
-            }
-        } finally {
-            statsLock.unlock();
-        }
+        double[] r = createPpmccComputation(version).computeRow(timeSeriesNum1);
 
         LOGGER.info("PPMCC computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
 
         return r;
     }
 
-    private static BufferedWriter createWriter(Path file) throws IOException {
-        if (file.getFileName().toString().endsWith(".gz")) {
-            return new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8));
-        } else {
-            return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    /**
+     * Compute Pearson product-moment correlation coefficient of all pairs of distinct double time series. Results
+     * are streamed to the handler, which is called concurrently by several threads.
+     *
+     * @param version the version
+     * @param handler the handler
+     */
+    public void computePpmcc(int version, PpmccHandler handler) {
+        checkVersion(version);
+        Objects.requireNonNull(handler);
+
+        Stopwatch stopWatch = Stopwatch.createStarted();
+
+        createPpmccComputation(version).computeAll(handler);
+
+        LOGGER.info("All pairs PPMCC computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Find most correlated time series of each double time series, in one all pairs computation.
+     *
+     * @param version the version
+     * @param maxSize maximum number of correlations per time series
+     * @return correlations sorted by decreasing coefficient for each time series
+     */
+    public Map<String, List<Correlation>> findAllMostCorrelatedTimeSeries(int version, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Bad max size " + maxSize);
+        }
+        int timeSeriesCount = doubleTimeSeriesNames.size();
+        Comparator<Correlation> comparator = Comparator.comparingDouble(Correlation::getCoefficient);
+        List<PriorityQueue<Correlation>> queues = new ArrayList<>(timeSeriesCount);
+        for (int timeSeriesNum = 0; timeSeriesNum < timeSeriesCount; timeSeriesNum++) {
+            queues.add(new PriorityQueue<>(comparator)); // head is the least correlated
+        }
+
+        computePpmcc(version, (timeSeriesNum1, timeSeriesNum2, ppmcc) -> {
+            String timeSeriesName1 = doubleTimeSeriesNames.getName(timeSeriesNum1);
+            String timeSeriesName2 = doubleTimeSeriesNames.getName(timeSeriesNum2);
+            double coefficient = Math.abs(ppmcc);
+            offer(queues.get(timeSeriesNum1), new Correlation(timeSeriesName1, timeSeriesName2, coefficient), maxSize, comparator);
+            offer(queues.get(timeSeriesNum2), new Correlation(timeSeriesName2, timeSeriesName1, coefficient), maxSize, comparator);
+        });
+
+        Map<String, List<Correlation>> correlations = new LinkedHashMap<>(timeSeriesCount);
+        for (int timeSeriesNum = 0; timeSeriesNum < timeSeriesCount; timeSeriesNum++) {
+            List<Correlation> sorted = new ArrayList<>(queues.get(timeSeriesNum));
+            sorted.sort(comparator.reversed());
+            correlations.put(doubleTimeSeriesNames.getName(timeSeriesNum), sorted);
+        }
+        return correlations;
+    }
+
+    private static void offer(PriorityQueue<Correlation> queue, Correlation correlation, int maxSize,
+                              Comparator<Correlation> comparator) {
+        synchronized (queue) {
+            if (queue.size() < maxSize) {
+                queue.add(correlation);
+            } else if (maxSize > 0 && comparator.compare(correlation, queue.peek()) > 0) {
+                queue.poll();
+                queue.add(correlation);
+            }
         }
     }
 
+    private static boolean isGzipFile(Path file) {
+        return file.getFileName().toString().endsWith(".gz");
+    }
+
     public void writeCsv(Path file) {
-        try (BufferedWriter writer = createWriter(file)) {
-            writeCsv(writer, TimeSeriesConstants.DEFAULT_SEPARATOR, ZoneId.systemDefault());
+        writeCsv(file, TimeSeriesConstants.DEFAULT_SEPARATOR, ZoneId.systemDefault());
+    }
+
+    /**
+     * Write the table to a CSV file, gzipped if the file name ends with .gz
+     */
+    public void writeCsv(Path file, char separator, ZoneId zoneId) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(zoneId);
+
+        Stopwatch stopWatch = Stopwatch.createStarted();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            writeCsv(new CsvConfig(separator, DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(zoneId)), isGzipFile(file), bytes -> {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            });
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+
+        LOGGER.info("Csv written in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
     }
 
     public String toCsvString(char separator, ZoneId zoneId) {
@@ -552,27 +619,16 @@ public class TimeSeriesTable {
         }
     }
 
-    private void writeHeader(Writer writer, CsvConfig config) throws IOException {
-        // write header
-        writer.write("Time");
-        writer.write(config.separator);
-        writer.write("Version");
-        if (timeSeriesMetadata != null) {
-            for (TimeSeriesMetadata metadata : timeSeriesMetadata) {
-                writer.write(config.separator);
-                writer.write(metadata.getName());
-            }
-        }
-        writer.write(System.lineSeparator());
-    }
-
     private class CsvCache {
 
-        static final int CACHE_SIZE = 10;
+        final double[] doubleCache;
 
-        final double[] doubleCache = new double[CACHE_SIZE * doubleTimeSeriesNames.size()];
+        final String[] stringCache;
 
-        final String[] stringCache = new String[CACHE_SIZE * stringTimeSeriesNames.size()];
+        CsvCache(int size) {
+            doubleCache = new double[size * doubleTimeSeriesNames.size()];
+            stringCache = new String[size * stringTimeSeriesNames.size()];
+        }
     }
 
     private static class CsvConfig {
@@ -587,6 +643,133 @@ public class TimeSeriesTable {
         }
     }
 
+    /**
+     * Growable byte buffer a block of CSV rows is formatted to.
+     */
+    private static final class CsvBlock {
+
+        private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+        private static final double[] POWERS_OF_TEN = {1d, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+
+        private static final long[] LONG_POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L};
+
+        private byte[] bytes;
+
+        private int length = 0;
+
+        private CsvBlock(int capacity) {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        private void ensureCapacity(int additionalLength) {
+            if (length + additionalLength > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additionalLength));
+            }
+        }
+
+        private void writeChar(char c) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) c;
+        }
+
+        private void writeAscii(String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[length++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void writeUtf8(String value) {
+            byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(valueBytes.length);
+            System.arraycopy(valueBytes, 0, bytes, length, valueBytes.length);
+            length += valueBytes.length;
+        }
+
+        private void writeLineSeparator() {
+            ensureCapacity(LINE_SEPARATOR.length);
+            System.arraycopy(LINE_SEPARATOR, 0, bytes, length, LINE_SEPARATOR.length);
+            length += LINE_SEPARATOR.length;
+        }
+
+        /**
+         * Write a positive long padded with zeros to {@code minDigits} digits.
+         */
+        private void writeDigits(long value, int minDigits) {
+            int digits = 1;
+            for (long v = value / 10; v > 0; v /= 10) {
+                digits++;
+            }
+            digits = Math.max(digits, minDigits);
+            ensureCapacity(digits);
+            long v = value;
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            length += digits;
+        }
+
+        private void writeInt(int value) {
+            if (value < 0) {
+                writeChar('-');
+            }
+            writeDigits(Math.abs((long) value), 1);
+        }
+
+        /**
+         * Write a double with the same output as {@link Double#toString(double)}. Values with a few decimals in
+         * the range where {@link Double#toString(double)} does not use the computerized scientific notation (which
+         * is the case of most of time series values) are directly converted from a scaled long.
+         */
+        private void writeDouble(double value) {
+            double abs = Math.abs(value);
+            if (abs >= 1e-3 && abs < 1e7) {
+                for (int decimals = 0; decimals < POWERS_OF_TEN.length; decimals++) {
+                    long scaledValue = Math.round(value * POWERS_OF_TEN[decimals]);
+                    if (scaledValue / POWERS_OF_TEN[decimals] == value) {
+                        if (scaledValue < 0) {
+                            writeChar('-');
+                            scaledValue = -scaledValue;
+                        }
+                        long factor = LONG_POWERS_OF_TEN[decimals];
+                        writeDigits(scaledValue / factor, 1);
+                        writeChar('.');
+                        writeDigits(scaledValue % factor, Math.max(decimals, 1));
+                        return;
+                    }
+                }
+            }
+            writeAscii(Double.toString(value));
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CsvBlockWriter {
+
+        void write(byte[] bytes) throws IOException;
+    }
+
+    private byte[] formatHeader(CsvConfig config) {
+        CsvBlock block = new CsvBlock(64);
+        block.writeAscii("Time");
+        block.writeChar(config.separator);
+        block.writeAscii("Version");
+        if (timeSeriesMetadata != null) {
+            for (TimeSeriesMetadata metadata : timeSeriesMetadata) {
+                block.writeChar(config.separator);
+                block.writeUtf8(metadata.getName());
+            }
+        }
+        block.writeLineSeparator();
+        return block.toByteArray();
+    }
+
     private void fillCache(int point, CsvCache cache, int cachedPoints, int version) {
         for (int i = 0; i < timeSeriesMetadata.size(); i++) {
             TimeSeriesMetadata metadata = timeSeriesMetadata.get(i);
@@ -606,71 +789,124 @@ public class TimeSeriesTable {
         }
     }
 
-    private static void writeDouble(Writer writer, double value) throws IOException {
-        if (!Double.isNaN(value)) {
-            writer.write(Double.toString(value));
-        }
-    }
-
-    private static void writeString(Writer writer, String value) throws IOException {
-        if (value != null) {
-            writer.write(value);
-        }
-    }
-
-    private void dumpCache(Writer writer, CsvConfig config, int point, CsvCache cache, int cachedPoints, int version) throws IOException {
+    private void dumpCache(CsvBlock block, CsvConfig config, int point, CsvCache cache, int cachedPoints, int version) {
         for (int cachedPoint = 0; cachedPoint < cachedPoints; cachedPoint++) {
             ZonedDateTime dateTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(tableIndex.getTimeAt(point + cachedPoint)), ZoneId.systemDefault());
-            writer.write(dateTime.format(config.dateTimeFormatter));
-            writer.write(config.separator);
-            writer.write(Integer.toString(version));
+            block.writeAscii(dateTime.format(config.dateTimeFormatter));
+            block.writeChar(config.separator);
+            block.writeInt(version);
             for (int i = 0; i < timeSeriesMetadata.size(); i++) {
                 TimeSeriesMetadata metadata = timeSeriesMetadata.get(i);
                 int timeSeriesNum = timeSeriesIndexDoubleOrString.get(i);
-                writer.write(config.separator);
+                block.writeChar(config.separator);
                 if (metadata.getDataType() == TimeSeriesDataType.DOUBLE) {
                     double value = cache.doubleCache[cachedPoint * doubleTimeSeriesNames.size() + timeSeriesNum];
-                    writeDouble(writer, value);
+                    if (!Double.isNaN(value)) {
+                        block.writeDouble(value);
+                    }
                 } else if (metadata.getDataType() == TimeSeriesDataType.STRING) {
                     String value = cache.stringCache[cachedPoint * stringTimeSeriesNames.size() + timeSeriesNum];
-                    writeString(writer, value);
+                    if (value != null) {
+                        block.writeUtf8(value);
+                    }
                 } else {
                     throw new AssertionError("Unexpected data type " + metadata.getDataType());
                 }
             }
-            writer.write(System.lineSeparator());
+            block.writeLineSeparator();
         }
     }
 
-    public void writeCsv(Writer writer, char separator, ZoneId zoneId) {
-        Objects.requireNonNull(writer);
-        Objects.requireNonNull(zoneId);
+    /**
+     * Format a block of rows: values are first copied time series by time series to a local cache to avoid
+     * cache misses, then formatted row by row.
+     */
+    private byte[] formatBlock(CsvConfig config, int version, int point, int rowCount) {
+        CsvCache cache = new CsvCache(rowCount);
+        fillCache(point, cache, rowCount, version);
+        CsvBlock block = new CsvBlock(rowCount * getCsvEstimatedRowSize());
+        dumpCache(block, config, point, cache, rowCount, version);
+        return block.toByteArray();
+    }
 
-        Stopwatch stopWatch = Stopwatch.createStarted();
+    private int getCsvEstimatedRowSize() {
+        return CSV_ESTIMATED_TIME_SIZE + CSV_ESTIMATED_VALUE_SIZE * timeSeriesMetadata.size();
+    }
 
-        try {
-            CsvConfig config = new CsvConfig(separator, DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(zoneId));
+    private static byte[] gzip(byte[] bytes) {
+        // each block is a gzip member, a concatenation of gzip members being a valid gzip stream
+        ByteArrayOutputStream os = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOs = new GZIPOutputStream(os)) {
+            gzipOs.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return os.toByteArray();
+    }
 
-            writeHeader(writer, config);
+    private CompletableFuture<List<byte[]>> formatBlocksAsync(CsvConfig config, boolean gzip, List<int[]> blocks) {
+        return CompletableFuture.supplyAsync(() -> blocks.parallelStream()
+                .map(block -> {
+                    byte[] bytes = formatBlock(config, block[0], block[1], block[2]);
+                    return gzip ? gzip(bytes) : bytes;
+                })
+                .collect(Collectors.toList()));
+    }
 
-            if (timeSeriesMetadata != null) {
-                // read time series in the doubleBuffer per 10 points chunk to avoid cache missed and improve performances
-                CsvCache cache = new CsvCache();
+    private static List<byte[]> join(CompletableFuture<List<byte[]>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 
-                // write data
-                for (int version = fromVersion; version <= toVersion; version++) {
-                    for (int point = 0; point < tableIndex.getPointCount(); point += CsvCache.CACHE_SIZE) {
+    /**
+     * Rows are split in blocks which are formatted (and optionally compressed) in parallel, a window of blocks being
+     * formatted while the previous one is written.
+     */
+    private void writeCsv(CsvConfig config, boolean gzip, CsvBlockWriter blockWriter) throws IOException {
+        byte[] header = formatHeader(config);
+        blockWriter.write(gzip ? gzip(header) : header);
 
-                        int cachedPoints = Math.min(CsvCache.CACHE_SIZE, tableIndex.getPointCount() - point);
+        if (timeSeriesMetadata == null) {
+            return;
+        }
 
-                        // copy from doubleBuffer to cache
-                        fillCache(point, cache, cachedPoints, version);
+        int rowsPerBlock = Math.max(1, Math.min(tableIndex.getPointCount(), CSV_BLOCK_SIZE / getCsvEstimatedRowSize()));
+        List<int[]> blocks = new ArrayList<>();
+        for (int version = fromVersion; version <= toVersion; version++) {
+            for (int point = 0; point < tableIndex.getPointCount(); point += rowsPerBlock) {
+                blocks.add(new int[] {version, point, Math.min(rowsPerBlock, tableIndex.getPointCount() - point)});
+            }
+        }
 
-                        // then write cache to CSV
-                        dumpCache(writer, config, point, cache, cachedPoints, version);
-                    }
-                }
+        int windowSize = 2 * ForkJoinPool.commonPool().getParallelism();
+        CompletableFuture<List<byte[]>> nextWindow = formatBlocksAsync(config, gzip, blocks.subList(0, Math.min(windowSize, blocks.size())));
+        for (int i = 0; i < blocks.size(); i += windowSize) {
+            List<byte[]> window = join(nextWindow);
+            int nextStart = i + windowSize;
+            if (nextStart < blocks.size()) {
+                nextWindow = formatBlocksAsync(config, gzip, blocks.subList(nextStart, Math.min(nextStart + windowSize, blocks.size())));
+            }
+            for (byte[] bytes : window) {
+                blockWriter.write(bytes);
             }
+        }
+    }
+
+    public void writeCsv(Writer writer, char separator, ZoneId zoneId) {
+        Objects.requireNonNull(writer);
+        Objects.requireNonNull(zoneId);
+
+        Stopwatch stopWatch = Stopwatch.createStarted();
+
+        try {
+            writeCsv(new CsvConfig(separator, DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(zoneId)), false,
+                bytes -> writer.write(new String(bytes, StandardCharsets.UTF_8)));
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
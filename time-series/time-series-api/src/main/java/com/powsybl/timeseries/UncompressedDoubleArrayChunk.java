@@ -53,9 +53,9 @@ public class UncompressedDoubleArrayChunk extends AbstractUncompressedArrayChunk
     @Override
     public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
         Objects.requireNonNull(buffer);
-        for (int i = 0; i < values.length; i++) {
-            buffer.put(timeSeriesOffset + offset + i, values[i]);
-        }
+        DoubleBuffer target = buffer.duplicate();
+        target.position(timeSeriesOffset + offset);
+        target.put(values);
     }
 
     @Override
@@ -85,6 +85,23 @@ public class UncompressedDoubleArrayChunk extends AbstractUncompressedArrayChunk
         return new CompressedDoubleArrayChunk(offset, values.length, stepValues.toArray(), stepLengths.toArray());
     }
 
+    /**
+     * Try to compress the chunk with each of the codecs and keep the smallest result.
+     *
+     * @param codecs the codecs to try
+     * @return the smallest compressed chunk or itself if no compression is efficient enough
+     */
+    public DoubleArrayChunk tryToCompress(DoubleArrayChunkCodec... codecs) {
+        DoubleArrayChunk bestChunk = this;
+        for (DoubleArrayChunkCodec codec : codecs) {
+            DoubleArrayChunk chunk = codec.encode(offset, values);
+            if (chunk != null && chunk.getEstimatedSize() < bestChunk.getEstimatedSize()) {
+                bestChunk = chunk;
+            }
+        }
+        return bestChunk;
+    }
+
     @Override
     public Split<DoublePoint, DoubleArrayChunk> splitAt(int splitIndex) {
         // split at offset is not allowed because it will result to a null left chunk
@@ -98,6 +98,23 @@ public class UncompressedStringArrayChunk extends AbstractUncompressedArrayChunk
                                               stepLengths.toArray());
     }
 
+    /**
+     * Try to compress the chunk with each of the codecs and keep the smallest result.
+     *
+     * @param codecs the codecs to try
+     * @return the smallest compressed chunk or itself if no compression is efficient enough
+     */
+    public StringArrayChunk tryToCompress(StringArrayChunkCodec... codecs) {
+        StringArrayChunk bestChunk = this;
+        for (StringArrayChunkCodec codec : codecs) {
+            StringArrayChunk chunk = codec.encode(offset, values);
+            if (chunk != null && chunk.getEstimatedSize() < bestChunk.getEstimatedSize()) {
+                bestChunk = chunk;
+            }
+        }
+        return bestChunk;
+    }
+
     @Override
     public Split<StringPoint, StringArrayChunk> splitAt(int splitIndex) {
         // split at offset is not allowed because it will result to a null left chunk
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Double array chunk using XOR floating point encoding (Gorilla, Facebook), efficient on noisy measurements:
+ * each value is XORed with the previous one and only the meaningful bits of the result are kept.
+ * <ul>
+ *     <li>first value is written on 64 bits</li>
+ *     <li>a XOR of zero is written as a single 0 bit</li>
+ *     <li>otherwise, 10 then meaningful bits if they fit in the previous leading and trailing zeros window, 11
+ *     then number of leading zeros (5 bits), number of meaningful bits minus one (6 bits) and meaningful bits
+ *     elsewhere</li>
+ * </ul>
+ *
+ * @author agent <agent at local>
+ */
+public class XorDoubleArrayChunk extends AbstractEncodedDoubleArrayChunk {
+
+    private static final int MAX_LEADING_ZEROS = 31;
+
+    private static final class BitWriter {
+
+        private byte[] bytes = new byte[16];
+
+        private long bitCount = 0;
+
+        private void writeBit(boolean bit) {
+            int byteIndex = (int) (bitCount >>> 3);
+            if (byteIndex == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            if (bit) {
+                bytes[byteIndex] |= 0x80 >>> (bitCount & 7);
+            }
+            bitCount++;
+        }
+
+        private void writeBits(long value, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                writeBit(((value >>> i) & 1) != 0);
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (int) ((bitCount + 7) >>> 3));
+        }
+    }
+
+    private static final class BitReader {
+
+        private final byte[] bytes;
+
+        private long bitIndex = 0;
+
+        private BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private boolean readBit() {
+            boolean bit = (bytes[(int) (bitIndex >>> 3)] & (0x80 >>> (bitIndex & 7))) != 0;
+            bitIndex++;
+            return bit;
+        }
+
+        private long readBits(int count) {
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                value = (value << 1) | (readBit() ? 1 : 0);
+            }
+            return value;
+        }
+    }
+
+    public XorDoubleArrayChunk(int offset, int uncompressedLength, byte[] encodedValues) {
+        super(offset, uncompressedLength, encodedValues);
+    }
+
+    public static XorDoubleArrayChunk encode(int offset, double[] values) {
+        Objects.requireNonNull(values);
+        BitWriter writer = new BitWriter();
+        long previousBits = 0;
+        int previousLeadingZeros = -1;
+        int previousTrailingZeros = -1;
+        for (int i = 0; i < values.length; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            if (i == 0) {
+                writer.writeBits(bits, Long.SIZE);
+            } else {
+                long xor = bits ^ previousBits;
+                if (xor == 0) {
+                    writer.writeBit(false);
+                } else {
+                    writer.writeBit(true);
+                    int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+                    int trailingZeros = Long.numberOfTrailingZeros(xor);
+                    if (previousLeadingZeros != -1 && leadingZeros >= previousLeadingZeros && trailingZeros >= previousTrailingZeros) {
+                        writer.writeBit(false);
+                        writer.writeBits(xor >>> previousTrailingZeros, Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+                    } else {
+                        int meaningfulBits = Long.SIZE - leadingZeros - trailingZeros;
+                        writer.writeBit(true);
+                        writer.writeBits(leadingZeros, 5);
+                        writer.writeBits(meaningfulBits - 1L, 6);
+                        writer.writeBits(xor >>> trailingZeros, meaningfulBits);
+                        previousLeadingZeros = leadingZeros;
+                        previousTrailingZeros = trailingZeros;
+                    }
+                }
+            }
+            previousBits = bits;
+        }
+        return new XorDoubleArrayChunk(offset, values.length, writer.toByteArray());
+    }
+
+    @Override
+    protected DoubleSupplier createDecoder() {
+        BitReader reader = new BitReader(encodedValues);
+        return new DoubleSupplier() {
+
+            private boolean first = true;
+
+            private long bits;
+
+            private int leadingZeros;
+
+            private int trailingZeros;
+
+            @Override
+            public double getAsDouble() {
+                if (first) {
+                    bits = reader.readBits(Long.SIZE);
+                    first = false;
+                } else if (reader.readBit()) {
+                    if (reader.readBit()) {
+                        leadingZeros = (int) reader.readBits(5);
+                        trailingZeros = Long.SIZE - leadingZeros - ((int) reader.readBits(6) + 1);
+                    }
+                    bits ^= reader.readBits(Long.SIZE - leadingZeros - trailingZeros) << trailingZeros;
+                }
+                return Double.longBitsToDouble(bits);
+            }
+        };
+    }
+
+    @Override
+    protected DoubleArrayChunk createChunk(int offset, double[] values) {
+        return encode(offset, values);
+    }
+
+    @Override
+    protected void writeEncodedValuesJson(JsonGenerator generator) throws IOException {
+        generator.writeBinaryField("xorValues", encodedValues);
+    }
+}
@@ -215,4 +215,71 @@ public class DoubleArrayChunkTest {
         assertTrue(doubleChunks.get(0) instanceof UncompressedDoubleArrayChunk);
         assertArrayEquals(new double[] {1d, Double.NaN, Double.NaN}, ((UncompressedDoubleArrayChunk) doubleChunks.get(0)).getValues(), 0d);
     }
+
+    @Test
+    public void xorTest() throws IOException {
+        double[] values = {230.1, 230.4, Double.NaN, 229.8, 229.8, -0.0};
+        UncompressedDoubleArrayChunk chunk = new UncompressedDoubleArrayChunk(1, values);
+        DoubleArrayChunk maybeCompressedChunk = chunk.tryToCompress(DoubleArrayChunkCodec.STEP, DoubleArrayChunkCodec.XOR);
+        assertTrue(maybeCompressedChunk instanceof XorDoubleArrayChunk);
+        XorDoubleArrayChunk xorChunk = (XorDoubleArrayChunk) maybeCompressedChunk;
+        assertEquals(1, xorChunk.getOffset());
+        assertEquals(6, xorChunk.getLength());
+        assertTrue(xorChunk.isCompressed());
+        assertTrue(xorChunk.getEstimatedSize() < chunk.getEstimatedSize());
+        assertArrayEquals(values, xorChunk.toArray(), 0d);
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(xorChunk.toArray()[5]));
+        DoubleBuffer buffer = DoubleBuffer.allocate(7);
+        buffer.put(0, Double.NaN);
+        xorChunk.fillBuffer(buffer, 0);
+        assertArrayEquals(new double[] {Double.NaN, 230.1, 230.4, Double.NaN, 229.8, 229.8, -0.0}, buffer.array(), 0d);
+
+        // split test
+        ArrayChunk.Split<DoublePoint, DoubleArrayChunk> split = xorChunk.splitAt(3);
+        assertArrayEquals(new double[] {230.1, 230.4}, ((XorDoubleArrayChunk) split.getChunk1()).toArray(), 0d);
+        assertEquals(3, split.getChunk2().getOffset());
+        assertArrayEquals(new double[] {Double.NaN, 229.8, 229.8, -0.0}, ((XorDoubleArrayChunk) split.getChunk2()).toArray(), 0d);
+
+        // stream test
+        RegularTimeSeriesIndex index = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T01:30:00Z"),
+                                                                     Duration.ofMinutes(15));
+        assertEquals(ImmutableList.of(new DoublePoint(1, Instant.parse("2015-01-01T00:15:00Z").toEpochMilli(), 230.1),
+                                      new DoublePoint(2, Instant.parse("2015-01-01T00:30:00Z").toEpochMilli(), 230.4)),
+                     xorChunk.stream(index).limit(2).collect(Collectors.toList()));
+
+        // json test
+        ObjectMapper objectMapper = JsonUtil.createObjectMapper()
+                .registerModule(new TimeSeriesJsonModule());
+        assertEquals(xorChunk, objectMapper.readValue(objectMapper.writeValueAsString(xorChunk), DoubleArrayChunk.class));
+    }
+
+    @Test
+    public void deltaOfDeltaTest() throws IOException {
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (1000 + 5 * i) / 10d; // ramp with one decimal
+        }
+        UncompressedDoubleArrayChunk chunk = new UncompressedDoubleArrayChunk(0, values);
+        DoubleArrayChunk maybeCompressedChunk = chunk.tryToCompress(DoubleArrayChunkCodec.STEP, DoubleArrayChunkCodec.XOR,
+                                                                    DoubleArrayChunkCodec.DELTA_OF_DELTA);
+        assertTrue(maybeCompressedChunk instanceof DeltaOfDeltaDoubleArrayChunk);
+        DeltaOfDeltaDoubleArrayChunk deltaOfDeltaChunk = (DeltaOfDeltaDoubleArrayChunk) maybeCompressedChunk;
+        assertEquals(1, deltaOfDeltaChunk.getScale());
+        assertEquals(101, deltaOfDeltaChunk.getEstimatedSize()); // one byte per value but the first one
+        assertEquals(101d / 800, deltaOfDeltaChunk.getCompressionFactor(), 0d);
+        assertArrayEquals(values, deltaOfDeltaChunk.toArray(), 0d);
+
+        ArrayChunk.Split<DoublePoint, DoubleArrayChunk> split = deltaOfDeltaChunk.splitAt(50);
+        assertArrayEquals(Arrays.copyOfRange(values, 0, 50), ((DeltaOfDeltaDoubleArrayChunk) split.getChunk1()).toArray(), 0d);
+        assertArrayEquals(Arrays.copyOfRange(values, 50, 100), ((DeltaOfDeltaDoubleArrayChunk) split.getChunk2()).toArray(), 0d);
+
+        // json test
+        ObjectMapper objectMapper = JsonUtil.createObjectMapper()
+                .registerModule(new TimeSeriesJsonModule());
+        assertEquals(deltaOfDeltaChunk, objectMapper.readValue(objectMapper.writeValueAsString(deltaOfDeltaChunk), DoubleArrayChunk.class));
+
+        // not encodable without loss
+        assertNull(DeltaOfDeltaDoubleArrayChunk.encode(0, new double[] {1d, Double.NaN}));
+        assertNull(DeltaOfDeltaDoubleArrayChunk.encode(0, new double[] {Math.PI}));
+    }
 }
@@ -6,10 +6,15 @@
  */
 package com.powsybl.timeseries;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -67,4 +72,144 @@ public class DoubleTimeSeriesTest {
 
         assertFalse(it.hasNext());
     }
+
+    @Test
+    public void operationsTest() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(10000, 8);
+        DoubleTimeSeries ts2 = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, index),
+                                                          new CompressedDoubleArrayChunk(0, 8, new double[] {2, 3, 2}, new int[] {3, 3, 2}));
+        DoubleTimeSeries ts3 = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts3", TimeSeriesDataType.DOUBLE, index),
+                                                          new CompressedDoubleArrayChunk(0, 8, new double[] {4, 5, 4}, new int[] {2, 3, 3}));
+
+        DoubleTimeSeries sum = ts2.plus(ts3);
+        assertEquals("ts2", sum.getMetadata().getName());
+        assertArrayEquals(new double[] {6, 6, 7, 8, 8, 7, 6, 6}, sum.toArray(), 0d);
+        assertArrayEquals(new double[] {-2, -2, -3, -2, -2, -1, -2, -2}, ts2.minus(ts3).toArray(), 0d);
+        assertArrayEquals(new double[] {8, 8, 10, 15, 15, 12, 8, 8}, ts2.multiply(ts3).toArray(), 0d);
+        assertArrayEquals(new double[] {0.5, 0.5, 0.4, 0.6, 0.6, 0.75, 0.5, 0.5}, ts2.divide(ts3).toArray(), 0d);
+        assertArrayEquals(new double[] {4, 4, 4, 6, 6, 6, 4, 4}, ts2.map(value -> value * 2).toArray(), 0d);
+
+        // steps of the result are intersections of steps of operands
+        List<DoubleStep> steps = ImmutableList.copyOf(sum.stepIterator());
+        assertEquals(Arrays.asList(new DoubleStep(0, 2, 6), new DoubleStep(2, 1, 7), new DoubleStep(3, 2, 8),
+                                   new DoubleStep(5, 1, 7), new DoubleStep(6, 2, 6)),
+                     steps);
+
+        // few steps so stored in compressed form
+        StoredDoubleTimeSeries storedSum = ((CalculatedDoubleTimeSeries) sum).toStoredTimeSeries();
+        assertEquals(ImmutableList.of(new CompressedDoubleArrayChunk(0, 8, new double[] {6, 7, 8, 7, 6}, new int[] {2, 1, 2, 1, 2})),
+                     storedSum.getChunks());
+
+        try {
+            ts2.plus(StoredDoubleTimeSeries.create("ts4", new TestTimeSeriesIndex(10000, 3), new double[] {1, 2, 3}));
+            fail();
+        } catch (TimeSeriesException ignored) {
+        }
+    }
+
+    @Test
+    public void resampleTest() {
+        long hour = 3600 * 1000L;
+        TimeSeriesIndex hourlyIndex = new RegularTimeSeriesIndex(0, 47 * hour, hour);
+        double[] values = new double[24];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        DoubleTimeSeries hourly = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts", TimeSeriesDataType.DOUBLE, hourlyIndex),
+                                                             new CompressedDoubleArrayChunk(0, 24, new double[] {1, 5}, new int[] {10, 14}),
+                                                             new UncompressedDoubleArrayChunk(24, values));
+
+        // downsampling
+        TimeSeriesIndex dailyIndex = new RegularTimeSeriesIndex(0, 24 * hour, 24 * hour);
+        DoubleTimeSeries dailyMax = hourly.resample(dailyIndex, DoubleAggregation.MAX);
+        assertEquals(dailyIndex, dailyMax.getMetadata().getIndex());
+        assertArrayEquals(new double[] {5, 23}, dailyMax.toArray(), 0d);
+        assertArrayEquals(new double[] {1, 0}, hourly.resample(dailyIndex, DoubleAggregation.MIN).toArray(), 0d);
+        assertArrayEquals(new double[] {80, 276}, hourly.resample(dailyIndex, DoubleAggregation.SUM).toArray(), 0d);
+        assertArrayEquals(new double[] {80d / 24, 11.5}, hourly.resample(dailyIndex, DoubleAggregation.MEAN).toArray(), 1e-12);
+
+        // upsampling, previous value is kept
+        TimeSeriesIndex halfDailyIndex = new RegularTimeSeriesIndex(0, 36 * hour, 12 * hour);
+        assertArrayEquals(new double[] {5, 5, 23, 23}, dailyMax.resample(halfDailyIndex, DoubleAggregation.MEAN).toArray(), 0d);
+    }
+
+    @Test
+    public void rollingWindowTest() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(10000, 9);
+        DoubleTimeSeries ts = StoredDoubleTimeSeries.create("ts", index, new double[] {1, 1, 1, 4, 4, 4, 4, Double.NaN, 2});
+        assertArrayEquals(new double[] {1, 1, 1, 4, 4, 4, 4, 4, 2}, ts.rollingWindow(2, DoubleAggregation.MAX).toArray(), 0d);
+        assertArrayEquals(new double[] {1, 1, 1, 1, 1, 4, 4, 4, 2}, ts.rollingWindow(3, DoubleAggregation.MIN).toArray(), 0d);
+        assertArrayEquals(new double[] {1, 2, 3, 6, 9, 12, 12, 8, 6}, ts.rollingWindow(3, DoubleAggregation.SUM).toArray(), 0d);
+        assertArrayEquals(new double[] {1, 1, 1, 2, 3, 4, 4, 4, 3}, ts.rollingWindow(3, DoubleAggregation.MEAN).toArray(), 1e-12);
+    }
+
+    /**
+     * A time series implemented outside of the library, relying on the default step iterator.
+     */
+    private static final class DelegatingDoubleTimeSeries implements DoubleTimeSeries {
+
+        private final DoubleTimeSeries delegate;
+
+        private DelegatingDoubleTimeSeries(DoubleTimeSeries delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+            delegate.fillBuffer(buffer, timeSeriesOffset);
+        }
+
+        @Override
+        public double[] toArray() {
+            return delegate.toArray();
+        }
+
+        @Override
+        public TimeSeriesMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public void synchronize(TimeSeriesIndex newIndex) {
+            delegate.synchronize(newIndex);
+        }
+
+        @Override
+        public Stream<DoublePoint> stream() {
+            return delegate.stream();
+        }
+
+        @Override
+        public Iterator<DoublePoint> iterator() {
+            return delegate.iterator();
+        }
+
+        @Override
+        public List<DoubleTimeSeries> split(int newChunkSize) {
+            return delegate.split(newChunkSize);
+        }
+
+        @Override
+        public void writeJson(JsonGenerator generator) {
+            delegate.writeJson(generator);
+        }
+    }
+
+    @Test
+    public void defaultStepIteratorTest() {
+        TimeSeriesIndex index = new TestTimeSeriesIndex(10000, 9);
+        DoubleTimeSeries ts = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts", TimeSeriesDataType.DOUBLE, index),
+                                                         new UncompressedDoubleArrayChunk(1, new double[] {1, 1, 4}),
+                                                         new CompressedDoubleArrayChunk(4, 5, new double[] {4, Double.NaN, 2}, new int[] {2, 1, 2}));
+        DoubleTimeSeries delegating = new DelegatingDoubleTimeSeries(ts);
+        List<DoubleStep> expected = ImmutableList.of(new DoubleStep(0, 1, Double.NaN),
+                                                     new DoubleStep(1, 2, 1),
+                                                     new DoubleStep(3, 3, 4),
+                                                     new DoubleStep(6, 1, Double.NaN),
+                                                     new DoubleStep(7, 2, 2));
+        assertEquals(expected, ImmutableList.copyOf(delegating.stepIterator()));
+
+        // operations work on the default step iterator
+        assertArrayEquals(ts.map(v -> v * 2).toArray(), delegating.map(v -> v * 2).toArray(), 0d);
+    }
 }
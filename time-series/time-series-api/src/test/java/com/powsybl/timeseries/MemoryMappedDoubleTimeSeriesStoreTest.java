@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.google.common.collect.ImmutableList;
+import com.powsybl.commons.json.JsonUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class MemoryMappedDoubleTimeSeriesStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void chunkTest() {
+        DoubleBuffer buffer = DoubleBuffer.wrap(new double[] {1d, 2d, 3d});
+        MemoryMappedDoubleArrayChunk chunk = new MemoryMappedDoubleArrayChunk(1, buffer);
+        assertEquals(1, chunk.getOffset());
+        assertEquals(3, chunk.getLength());
+        assertEquals(24, chunk.getEstimatedSize());
+        assertFalse(chunk.isCompressed());
+        assertTrue(chunk.getValues().isReadOnly());
+        DoubleBuffer buffer2 = DoubleBuffer.allocate(4);
+        buffer2.put(0, Double.NaN);
+        chunk.fillBuffer(buffer2, 0);
+        assertArrayEquals(new double[] {Double.NaN, 1d, 2d, 3d}, buffer2.array(), 0d);
+        String jsonRef = String.join(System.lineSeparator(),
+                "{",
+                "  \"offset\" : 1,",
+                "  \"values\" : [ 1.0, 2.0, 3.0 ]",
+                "}");
+        assertEquals(jsonRef, JsonUtil.toJson(chunk::writeJson));
+
+        ArrayChunk.Split<DoublePoint, DoubleArrayChunk> split = chunk.splitAt(2);
+        assertEquals(new MemoryMappedDoubleArrayChunk(1, DoubleBuffer.wrap(new double[] {1d})), split.getChunk1());
+        assertEquals(new MemoryMappedDoubleArrayChunk(2, DoubleBuffer.wrap(new double[] {2d, 3d})), split.getChunk2());
+
+        assertSame(chunk, chunk.tryToCompress());
+        DoubleArrayChunk compressed = new MemoryMappedDoubleArrayChunk(0, DoubleBuffer.wrap(new double[] {1d, 1d, 1d, 1d})).tryToCompress();
+        assertTrue(compressed.isCompressed());
+    }
+
+    @Test
+    public void storeTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, 4);
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts/1", TimeSeriesDataType.DOUBLE, index);
+        DoubleTimeSeries ts = new StoredDoubleTimeSeries(metadata,
+                                                         new UncompressedDoubleArrayChunk(0, new double[] {1d, 2d}),
+                                                         new CompressedDoubleArrayChunk(3, 1, new double[] {4d}, new int[] {1}));
+        try (MemoryMappedDoubleTimeSeriesStore store = new MemoryMappedDoubleTimeSeriesStore(directory)) {
+            DoubleTimeSeries stored = store.store(ts);
+            assertArrayEquals(new double[] {1d, 2d, Double.NaN, 4d}, stored.toArray(), 0d);
+        }
+
+        try (MemoryMappedDoubleTimeSeriesStore store = new MemoryMappedDoubleTimeSeriesStore(directory)) {
+            assertNull(store.get(new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, index)));
+            DoubleTimeSeries stored = store.get(metadata);
+            assertNotNull(stored);
+            assertArrayEquals(new double[] {1d, 2d, Double.NaN, 4d}, stored.toArray(), 0d);
+
+            TimeSeriesTable table = new TimeSeriesTable(1, 1, index);
+            table.load(1, ImmutableList.of(stored));
+            assertEquals(4d, table.getDoubleValue(1, 0, 3), 0d);
+        }
+    }
+
+    @Test
+    public void readOnlyTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts", TimeSeriesDataType.DOUBLE, new TestTimeSeriesIndex(0, 2));
+        DoubleTimeSeries ts = new StoredDoubleTimeSeries(metadata, new UncompressedDoubleArrayChunk(0, new double[] {1d, 2d}));
+        try (MemoryMappedDoubleTimeSeriesStore store = new MemoryMappedDoubleTimeSeriesStore(directory)) {
+            store.store(ts);
+        }
+
+        // reading with a longer index must not grow the file
+        TimeSeriesMetadata longerMetadata = new TimeSeriesMetadata("ts", TimeSeriesDataType.DOUBLE, new TestTimeSeriesIndex(0, 3));
+        try (MemoryMappedDoubleTimeSeriesStore store = new MemoryMappedDoubleTimeSeriesStore(directory)) {
+            try {
+                store.get(longerMetadata);
+                fail();
+            } catch (TimeSeriesException ignored) {
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(2 * Double.BYTES, Files.size(files.findFirst().orElseThrow(AssertionError::new)));
+            }
+        }
+
+        // stored time series stay readable after the store has been closed
+        MemoryMappedDoubleTimeSeriesStore store = new MemoryMappedDoubleTimeSeriesStore(directory);
+        DoubleTimeSeries stored = store.get(metadata);
+        store.close();
+        assertArrayEquals(new double[] {1d, 2d}, stored.toArray(), 0d);
+        try {
+            store.get(metadata);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+}
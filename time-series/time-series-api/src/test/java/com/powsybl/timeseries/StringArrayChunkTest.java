@@ -183,4 +183,36 @@ public class StringArrayChunkTest {
         assertTrue(stringChunks.get(0) instanceof UncompressedStringArrayChunk);
         assertArrayEquals(new String[] {"a", null, null}, ((UncompressedStringArrayChunk) stringChunks.get(0)).getValues());
     }
+
+    @Test
+    public void dictionaryTest() throws IOException {
+        UncompressedStringArrayChunk chunk = new UncompressedStringArrayChunk(1, new String[] {"open", "closed", "open", null, "closed", "open"});
+        assertSame(chunk, chunk.tryToCompress());
+        StringArrayChunk maybeCompressedChunk = chunk.tryToCompress(StringArrayChunkCodec.STEP, StringArrayChunkCodec.DICTIONARY);
+        assertTrue(maybeCompressedChunk instanceof DictionaryStringArrayChunk);
+        DictionaryStringArrayChunk dictionaryChunk = (DictionaryStringArrayChunk) maybeCompressedChunk;
+        assertEquals(1, dictionaryChunk.getOffset());
+        assertEquals(6, dictionaryChunk.getLength());
+        assertTrue(dictionaryChunk.isCompressed());
+        assertArrayEquals(new String[] {"open", "closed", null}, dictionaryChunk.getDictionary());
+        assertArrayEquals(new int[] {0, 1, 0, 2, 1, 0}, dictionaryChunk.getIndexes());
+        assertEquals(44, dictionaryChunk.getEstimatedSize());
+        CompactStringBuffer buffer = new CompactStringBuffer(ByteBuffer::allocate, 7);
+        dictionaryChunk.fillBuffer(buffer, 0);
+        assertArrayEquals(new String[] {null, "open", "closed", "open", null, "closed", "open"}, buffer.toArray());
+        String jsonRef = String.join(System.lineSeparator(),
+                "{",
+                "  \"offset\" : 1,",
+                "  \"dictionary\" : [ \"open\", \"closed\", null ],",
+                "  \"indexes\" : [ 0, 1, 0, 2, 1, 0 ]",
+                "}");
+        assertEquals(jsonRef, JsonUtil.toJson(dictionaryChunk::writeJson));
+        ObjectMapper objectMapper = JsonUtil.createObjectMapper()
+                .registerModule(new TimeSeriesJsonModule());
+        assertEquals(dictionaryChunk, objectMapper.readValue(objectMapper.writeValueAsString(dictionaryChunk), StringArrayChunk.class));
+
+        ArrayChunk.Split<StringPoint, StringArrayChunk> split = dictionaryChunk.splitAt(3);
+        assertEquals(new DictionaryStringArrayChunk(1, new String[] {"open", "closed", null}, new int[] {0, 1}), split.getChunk1());
+        assertEquals(new DictionaryStringArrayChunk(3, new String[] {"open", "closed", null}, new int[] {0, 2, 1, 0}), split.getChunk2());
+    }
 }
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2018, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class TimeSeriesCsvParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.newFile("ts.csv").toPath();
+    }
+
+    private void writeCsv(String... lines) throws IOException {
+        Files.write(file, (String.join(System.lineSeparator(), lines) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test() throws IOException {
+        writeCsv("Time;Version;ts1;ts2",
+                 "1970-01-01T01:00:00.000+01:00;1;1.0;",
+                 "1970-01-01T02:00:00.000+01:00;1;;a",
+                 "1970-01-01T03:00:00.000+01:00;1;3.0;b",
+                 "1970-01-01T01:00:00.000+01:00;2;4.0;c",
+                 "1970-01-01T02:00:00.000+01:00;2;5.0;",
+                 "1970-01-01T03:00:00.000+01:00;2;6.0;d");
+
+        // small segments to check split at line boundaries
+        try (TimeSeriesCsvParser parser = new TimeSeriesCsvParser(file, ';', 2, 10)) {
+            assertEquals(new RegularTimeSeriesIndex(0, 7200000, 3600000), parser.getIndex());
+            assertEquals(2, parser.getMetadata().size());
+            assertEquals(TimeSeriesDataType.DOUBLE, parser.getMetadata().get(0).getDataType());
+            assertEquals(TimeSeriesDataType.STRING, parser.getMetadata().get(1).getDataType());
+
+            List<TimeSeriesCsvParser.ChunkGroup> groups = parser.stream().collect(Collectors.toList());
+            assertEquals(4, groups.size());
+            assertEquals(1, groups.get(0).getVersion());
+            assertEquals(0, groups.get(0).getOffset());
+            assertEquals(2, groups.get(0).getLength());
+            assertEquals(1, groups.get(1).getVersion());
+            assertEquals(2, groups.get(1).getOffset());
+            assertEquals(1, groups.get(1).getLength());
+            assertEquals(2, groups.get(2).getVersion());
+            assertEquals(0, groups.get(2).getOffset());
+            assertEquals(new UncompressedDoubleArrayChunk(0, new double[] {4d, 5d}), groups.get(2).getDoubleChunks().get("ts1"));
+            assertEquals(new UncompressedStringArrayChunk(0, new String[] {"c", null}), groups.get(2).getStringChunks().get("ts2"));
+        }
+
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion = TimeSeries.parseCsv(file, ';');
+        assertEquals(2, timeSeriesPerVersion.size());
+        assertArrayEquals(new double[] {1, Double.NaN, 3}, ((DoubleTimeSeries) timeSeriesPerVersion.get(1).get(0)).toArray(), 0);
+        assertArrayEquals(new String[] {null, "a", "b"}, ((StringTimeSeries) timeSeriesPerVersion.get(1).get(1)).toArray());
+        assertArrayEquals(new double[] {4, 5, 6}, ((DoubleTimeSeries) timeSeriesPerVersion.get(2).get(0)).toArray(), 0);
+        assertArrayEquals(new String[] {"c", null, "d"}, ((StringTimeSeries) timeSeriesPerVersion.get(2).get(1)).toArray());
+    }
+
+    @Test
+    public void irregularSpacingTest() throws IOException {
+        writeCsv("Time;Version;ts1",
+                 "1970-01-01T01:00:00.000+01:00;1;1.0",
+                 "1970-01-01T02:00:00.000+01:00;1;2.0",
+                 "1970-01-01T04:00:00.000+01:00;1;3.0",
+                 "1970-01-01T05:00:00.000+01:00;1;4.0");
+        try (TimeSeriesCsvParser parser = new TimeSeriesCsvParser(file)) {
+            parser.parseAll();
+            fail();
+        } catch (TimeSeriesException ignored) {
+        }
+    }
+
+    @Test
+    public void inconsistentVersionsTest() throws IOException {
+        writeCsv("Time;Version;ts1",
+                 "1970-01-01T01:00:00.000+01:00;1;1.0",
+                 "1970-01-01T02:00:00.000+01:00;1;2.0",
+                 "1970-01-01T01:00:00.000+01:00;2;3.0",
+                 "1970-01-01T02:00:00.000+01:00;2;4.0",
+                 "1970-01-01T03:00:00.000+01:00;2;5.0");
+        try (TimeSeriesCsvParser parser = new TimeSeriesCsvParser(file)) {
+            parser.parseAll();
+            fail();
+        } catch (TimeSeriesException ignored) {
+        }
+    }
+
+    @Test
+    public void badColumnsTest() throws IOException {
+        writeCsv("Time;Version;ts1",
+                 "1970-01-01T01:00:00.000+01:00;1;1.0",
+                 "1970-01-01T02:00:00.000+01:00;1;2.0",
+                 "1970-01-01T03:00:00.000+01:00;1;3.0;4.0");
+        try (TimeSeriesCsvParser parser = new TimeSeriesCsvParser(file)) {
+            parser.parseAll();
+            fail();
+        } catch (TimeSeriesException ignored) {
+        }
+    }
+}
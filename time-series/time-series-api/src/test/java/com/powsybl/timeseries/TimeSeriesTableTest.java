@@ -7,10 +7,24 @@
 package com.powsybl.timeseries;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -20,6 +34,9 @@ import static org.junit.Assert.assertNull;
  */
 public class TimeSeriesTableTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void test() {
         TimeSeriesIndex index = new TestTimeSeriesIndex(0, 4);
@@ -77,4 +94,101 @@ public class TimeSeriesTableTest {
         String emptyCsv = new TimeSeriesTable(0, 0, InfiniteTimeSeriesIndex.INSTANCE).toCsvString(';', ZoneId.of("UTC"));
         assertEquals("Time;Version" + System.lineSeparator(), emptyCsv);
     }
+
+    @Test
+    public void allPairsPpmccTest() {
+        // more time series than a block and more points than a tile
+        int timeSeriesCount = 70;
+        int pointCount = 300;
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, pointCount);
+        Random random = new Random(0);
+        List<DoubleTimeSeries> timeSeriesList = new ArrayList<>();
+        for (int i = 0; i < timeSeriesCount; i++) {
+            double[] values = new double[pointCount];
+            for (int p = 0; p < pointCount; p++) {
+                values[p] = i == 1 ? 3 : random.nextDouble(); // second time series is constant
+            }
+            timeSeriesList.add(StoredDoubleTimeSeries.create("ts" + i, index, values));
+        }
+        TimeSeriesTable table = new TimeSeriesTable(1, 1, index);
+        table.load(1, timeSeriesList);
+
+        double[][] ppmcc = new double[timeSeriesCount][timeSeriesCount];
+        AtomicInteger pairCount = new AtomicInteger();
+        table.computePpmcc(1, (timeSeriesNum1, timeSeriesNum2, r) -> {
+            ppmcc[timeSeriesNum1][timeSeriesNum2] = r;
+            pairCount.incrementAndGet();
+        });
+        assertEquals(timeSeriesCount * (timeSeriesCount - 1) / 2, pairCount.get());
+        for (int i = 0; i < timeSeriesCount; i++) {
+            double[] row = table.computePpmcc("ts" + i, 1);
+            assertEquals(1, row[i], 0);
+            for (int j = i + 1; j < timeSeriesCount; j++) {
+                assertEquals(row[j], ppmcc[i][j], 1e-12);
+            }
+        }
+        assertEquals(0, ppmcc[0][1], 0);
+
+        Map<String, List<TimeSeriesTable.Correlation>> correlations = table.findAllMostCorrelatedTimeSeries(1, 3);
+        assertEquals(timeSeriesCount, correlations.size());
+        for (int i = 0; i < timeSeriesCount; i++) {
+            String name = "ts" + i;
+            List<TimeSeriesTable.Correlation> expected = table.findMostCorrelatedTimeSeries(name, 1, 3);
+            List<TimeSeriesTable.Correlation> actual = correlations.get(name);
+            assertEquals(3, actual.size());
+            for (int k = 0; k < 3; k++) {
+                assertEquals(name, actual.get(k).getTimeSeriesName1());
+                assertEquals(expected.get(k).getCoefficient(), actual.get(k).getCoefficient(), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void csvTest() throws IOException {
+        int pointCount = 50;
+        TimeSeriesIndex index = new TestTimeSeriesIndex(0, pointCount);
+        Random random = new Random(0);
+        double[] specialValues = {0d, -0d, 1e-5, -0.5, 1e7, 123456789.125, 0.1 + 0.2, Double.NaN, Double.MAX_VALUE};
+        TimeSeriesTable table = new TimeSeriesTable(1, 3, index);
+        double[][][] values = new double[3][3][pointCount];
+        for (int version = 1; version <= 3; version++) {
+            List<DoubleTimeSeries> timeSeriesList = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                for (int p = 0; p < pointCount; p++) {
+                    values[version - 1][i][p] = p < specialValues.length ? specialValues[(p + i) % specialValues.length]
+                                                                         : Math.round(random.nextGaussian() * 1e5) / Math.pow(10, i + 1);
+                }
+                timeSeriesList.add(StoredDoubleTimeSeries.create("ts" + i, index, values[version - 1][i]));
+            }
+            table.load(version, timeSeriesList);
+        }
+
+        // doubles are expected to be formatted like Double.toString
+        StringBuilder expected = new StringBuilder("Time;Version;ts0;ts1;ts2").append(System.lineSeparator());
+        for (int version = 1; version <= 3; version++) {
+            for (int p = 0; p < pointCount; p++) {
+                expected.append(Instant.ofEpochMilli(p)).append(';').append(version);
+                for (int i = 0; i < 3; i++) {
+                    expected.append(';');
+                    double value = values[version - 1][i][p];
+                    if (!Double.isNaN(value)) {
+                        expected.append(Double.toString(value));
+                    }
+                }
+                expected.append(System.lineSeparator());
+            }
+        }
+        assertEquals(expected.toString(), table.toCsvString(';', ZoneId.of("UTC")));
+
+        Path file = folder.getRoot().toPath().resolve("table.csv");
+        table.writeCsv(file, ';', ZoneId.of("UTC"));
+        assertEquals(expected.toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+        // each block is gzipped separately
+        Path gzFile = folder.getRoot().toPath().resolve("table.csv.gz");
+        table.writeCsv(gzFile, ';', ZoneId.of("UTC"));
+        try (InputStream is = new GZIPInputStream(Files.newInputStream(gzFile))) {
+            assertEquals(expected.toString(), new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8));
+        }
+    }
 }